@@ -0,0 +1,13 @@
+package com.example.quickpay.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class QuickpayReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(QuickpayReactiveApplication.class, args);
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.example.quickpay.reactive.config;
+
+import com.example.quickpay.common.id.SnowflakeTransactionIdGenerator;
+import com.example.quickpay.common.id.TransactionIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 거래 id 생성기
+ * application 모듈과 같은 Redis key 로 node id lease 를 받아서 두 API 가 만든 거래 id 가 겹치지 않게 한다.
+ */
+@Slf4j
+@Configuration
+public class TransactionIdConfiguration {
+    public static final String NODE_COUNTER_KEY = "quickpay:transaction-id:node";
+
+    @Bean(destroyMethod = "release")
+    public TransactionIdNodeLease transactionIdNodeLease(
+            RedissonReactiveClient redissonReactiveClient,
+            @Value("${quickpay.transaction-id.node-id:-1}") int nodeId,
+            @Value("${quickpay.transaction-id.lease-ttl-millis:30000}") long leaseTtlMillis
+    ) {
+        return new TransactionIdNodeLease(redissonReactiveClient, NODE_COUNTER_KEY, nodeId, Duration.ofMillis(leaseTtlMillis));
+    }
+
+    @Bean
+    public TransactionIdGenerator transactionIdGenerator(TransactionIdNodeLease transactionIdNodeLease) {
+        log.info("Transaction id node : {}", transactionIdNodeLease.getNodeId());
+        return new SnowflakeTransactionIdGenerator(transactionIdNodeLease.getNodeId());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.quickpay.reactive.config;
+
+import com.example.quickpay.common.id.SnowflakeTransactionIdGenerator;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucketReactive;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * snowflake node id lease (application 모듈 TransactionIdNodeLease 와 같은 key, 같은 방식)
+ * Redis 호출은 기동/heartbeat 스레드에서만 하므로 block 한다.
+ * node id 를 설정으로 지정하면 Redis 없이 그 값을 그대로 쓴다.
+ */
+@Slf4j
+public class TransactionIdNodeLease {
+    public static final String NODE_KEY_PREFIX = "quickpay:transaction-id:node:";
+
+    private static final String RENEW_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('pexpire', KEYS[1], ARGV[2]) " +
+            "end " +
+            "return 0";
+    private static final String RELEASE_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('del', KEYS[1]) " +
+            "end " +
+            "return 0";
+
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final Duration ttl;
+    private final String owner = UUID.randomUUID().toString();
+    private final ScheduledExecutorService heartbeat;
+
+    @Getter
+    private final int nodeId;
+
+    public TransactionIdNodeLease(RedissonReactiveClient redissonReactiveClient, String counterKey, int configuredNodeId, Duration ttl) {
+        this.redissonReactiveClient = redissonReactiveClient;
+        this.ttl = ttl;
+        if (configuredNodeId >= 0) {
+            this.nodeId = configuredNodeId;
+            this.heartbeat = null;
+            return;
+        }
+        this.nodeId = acquire(counterKey);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-id-node-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, ttl.toMillis() / 3);
+        heartbeat.scheduleWithFixedDelay(this::renew, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // counter 로 시작 위치를 나눠서 기동하는 노드끼리 같은 id 를 두고 다투지 않게 한다
+    private int acquire(String counterKey) {
+        long start = redissonReactiveClient.getAtomicLong(counterKey).incrementAndGet().block();
+        for (int i = 0; i <= SnowflakeTransactionIdGenerator.MAX_NODE_ID; i++) {
+            int candidate = (int) Math.floorMod(start + i, SnowflakeTransactionIdGenerator.MAX_NODE_ID + 1);
+            if (Boolean.TRUE.equals(bucket(candidate).setIfAbsent(owner, ttl).block())) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("no free transaction id node among "
+                + (SnowflakeTransactionIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    void renew() {
+        try {
+            if (Boolean.TRUE.equals(eval(RENEW_SCRIPT, owner, String.valueOf(ttl.toMillis())))) {
+                return;
+            }
+            if (Boolean.TRUE.equals(bucket(nodeId).setIfAbsent(owner, ttl).block())) {
+                log.warn("Transaction id node lease expired and re-acquired : {}", nodeId);
+                return;
+            }
+            log.error("Transaction id node lease taken by another node, ids may collide : {}", nodeId);
+        } catch (RuntimeException e) {
+            log.error("Failed to renew transaction id node lease : {}", nodeId, e);
+        }
+    }
+
+    public void release() {
+        if (heartbeat == null) {
+            return;
+        }
+        heartbeat.shutdownNow();
+        try {
+            eval(RELEASE_SCRIPT, owner);
+        } catch (RuntimeException e) {
+            // TTL 이 지나면 풀린다
+            log.warn("Failed to release transaction id node lease : {}", nodeId, e);
+        }
+    }
+
+    private Boolean eval(String script, Object... values) {
+        return redissonReactiveClient.getScript(StringCodec.INSTANCE).<Boolean>eval(RScript.Mode.READ_WRITE, script,
+                RScript.ReturnType.BOOLEAN, List.of(NODE_KEY_PREFIX + nodeId), values).block();
+    }
+
+    private RBucketReactive<String> bucket(int candidate) {
+        return redissonReactiveClient.getBucket(NODE_KEY_PREFIX + candidate, StringCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.quickpay.reactive.controller;
+
+import com.example.quickpay.reactive.dto.AccountInfo;
+import com.example.quickpay.reactive.dto.CreateAccount;
+import com.example.quickpay.reactive.dto.DeleteAccount;
+import com.example.quickpay.reactive.service.AccountService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1")
+public class AccountController {
+    private final AccountService accountService;
+
+    @PostMapping("/account")
+    public Mono<CreateAccount.Response> createAccount(@RequestBody @Valid CreateAccount.Request request) {
+        return accountService.createAccount(request.getUserId(), request.getInitialBalance())
+                .map(CreateAccount.Response::from);
+    }
+
+    @DeleteMapping("/account")
+    public Mono<DeleteAccount.Response> deleteAccount(@RequestBody @Valid DeleteAccount.Request request) {
+        return accountService.deleteAccount(request.getUserId(), request.getAccountNumber())
+                .map(DeleteAccount.Response::from);
+    }
+
+    @GetMapping("/account")
+    public Mono<List<AccountInfo>> getAccountsByUserId(@RequestParam("user_id") Long userId) {
+        return accountService.getAccountsByUserId(userId)
+                .map(AccountInfo::from)
+                .collectList();
+    }
+
+    @GetMapping("/account/{id}")
+    public Mono<AccountInfo> getAccount(
+            @PathVariable("id") Long id
+    ) {
+        return accountService.getAccount(id)
+                .map(AccountInfo::from);
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.example.quickpay.reactive.controller;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.reactive.dto.CancelBalance;
+import com.example.quickpay.reactive.dto.QueryTransactionResponse;
+import com.example.quickpay.reactive.dto.UseBalance;
+import com.example.quickpay.reactive.service.LockService;
+import com.example.quickpay.reactive.service.TransactionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * 1. 잔액 사용
+ * 2. 잔액 사용 취소
+ * 3. 거래 확인
+ * 잔액 변경은 계좌 lock 안에서 처리하고, 실패 거래도 lock 을 놓기 전에 저장한다.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1")
+public class TransactionController {
+    private final TransactionService transactionService;
+    private final LockService lockService;
+
+    @PostMapping("/transaction/use")
+    public Mono<UseBalance.Response> useBalance(
+            @Valid @RequestBody UseBalance.Request request
+    ) {
+        return lockService.withLock(request.getAccountNumber(), () ->
+                transactionService.useBalance(request.getUserId(), request.getAccountNumber(), request.getAmount())
+                        .onErrorResume(QuickPayException.class, e -> {
+                            log.error("Failed to use balance. ");
+                            return transactionService.saveFailedUseTransaction(request.getAccountNumber(), request.getAmount())
+                                    .onErrorResume(saveError -> Mono.empty())
+                                    .then(Mono.error(e));
+                        }))
+                .map(UseBalance.Response::from);
+    }
+
+    @PostMapping("/transaction/cancel")
+    public Mono<CancelBalance.Response> cancelBalance(
+            @Valid @RequestBody CancelBalance.Request request
+    ) {
+        return lockService.withLock(request.getAccountNumber(), () ->
+                transactionService.cancelBalance(request.getTransactionId(), request.getAccountNumber(), request.getAmount())
+                        .onErrorResume(QuickPayException.class, e -> {
+                            log.error("Failed to use balance. ");
+                            return transactionService.saveFailedCancelTransaction(request.getAccountNumber(), request.getAmount())
+                                    .onErrorResume(saveError -> Mono.empty())
+                                    .then(Mono.error(e));
+                        }))
+                .map(CancelBalance.Response::from);
+    }
+
+    @GetMapping("/transaction/{transactionId}")
+    public Mono<QueryTransactionResponse> queryTransaction(
+            @PathVariable("transactionId") String transactionId
+    ) {
+        return transactionService.queryTransaction(transactionId)
+                .map(QueryTransactionResponse::from);
+    }
+}
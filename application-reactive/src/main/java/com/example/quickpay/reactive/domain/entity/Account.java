@@ -0,0 +1,51 @@
+package com.example.quickpay.reactive.domain.entity;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.AccountStatus;
+import com.example.quickpay.common.type.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Table("account")
+public class Account extends BaseEntity {
+
+    private Long accountUserId;
+    private String accountNumber;
+
+    private AccountStatus accountStatus;
+    private Long balance;
+
+    private LocalDateTime registeredAt;
+    private LocalDateTime unRegisteredAt;
+
+    // application 모듈의 JPA 엔티티와 같은 version 컬럼으로 동시 갱신을 막는다
+    @Version
+    private Long version;
+
+
+    public void useBalance(Long amount) {
+        if (amount > balance) {
+            throw new QuickPayException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        balance -= amount;
+    }
+
+    public void cancelBalance(Long amount) {
+        if (amount < 0) {
+            throw new QuickPayException(ErrorCode.INVALID_REQUEST);
+        }
+        balance += amount;
+    }
+}
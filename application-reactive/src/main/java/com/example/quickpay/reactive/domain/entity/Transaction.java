@@ -0,0 +1,33 @@
+package com.example.quickpay.reactive.domain.entity;
+
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.common.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@SuperBuilder
+@Table("transaction")
+public class Transaction extends BaseEntity {
+
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private Long accountId;
+    private Long amount;
+
+    private Long balanceSnapshot;
+    // 시간 순서 거래 id (SnowflakeTransactionIdGenerator)
+    private Long transactionId;
+    // UUID 형식 이전 거래 id
+    private String legacyTransactionId;
+    private LocalDateTime transactedAt;
+
+
+}
@@ -0,0 +1,89 @@
+package com.example.quickpay.reactive.domain.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * application 모듈(Hibernate pooled-lo)과 같은 엔티티별 *_seq 테이블에서 id 구간을 예약한다.
+ * 구간 예약은 별도 트랜잭션(REQUIRES_NEW)으로 바로 commit 해서
+ * 요청 트랜잭션이 끝날 때까지 seq row lock 을 잡고 있지 않도록 한다.
+ */
+@Component
+public class ReactiveIdAllocator {
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator newTransaction;
+    private final long blockSize;
+
+    private final Map<String, AtomicReference<Block>> blocks = new ConcurrentHashMap<>();
+
+    public ReactiveIdAllocator(
+            DatabaseClient databaseClient,
+            ReactiveTransactionManager transactionManager,
+            @Value("${quickpay.id.block-size:50}") long blockSize
+    ) {
+        this.databaseClient = databaseClient;
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.newTransaction = TransactionalOperator.create(transactionManager, definition);
+        this.blockSize = blockSize;
+    }
+
+    public Mono<Long> nextId(String table) {
+        return Mono.defer(() -> {
+            AtomicReference<Block> current = blocks.computeIfAbsent(table, key -> new AtomicReference<>(Block.EMPTY));
+            long id = current.get().next();
+            if (id >= 0) {
+                return Mono.just(id);
+            }
+            return reserve(table).flatMap(block -> {
+                // 동시에 예약한 구간은 버려지고 id 에 빈 구간이 생길 수 있다
+                current.set(block);
+                long reserved = block.next();
+                return reserved >= 0 ? Mono.just(reserved) : nextId(table);
+            });
+        });
+    }
+
+    private Mono<Block> reserve(String table) {
+        String sequenceTable = table + "_seq";
+        return databaseClient.sql("select next_val from " + sequenceTable + " for update")
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .flatMap(lo -> databaseClient.sql("update " + sequenceTable + " set next_val = :hi where next_val = :lo")
+                        .bind("hi", lo + blockSize)
+                        .bind("lo", lo)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(new Block(lo, lo + blockSize)))
+                .as(newTransaction::transactional);
+    }
+
+    private static final class Block {
+        private static final Block EMPTY = new Block(0, 0);
+
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long lo, long end) {
+            this.next = new AtomicLong(lo);
+            this.end = end;
+        }
+
+        // 구간을 다 쓰면 -1
+        private long next() {
+            long id = next.getAndIncrement();
+            return id < end ? id : -1;
+        }
+    }
+}
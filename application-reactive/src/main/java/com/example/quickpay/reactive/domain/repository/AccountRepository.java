@@ -0,0 +1,16 @@
+package com.example.quickpay.reactive.domain.repository;
+
+import com.example.quickpay.reactive.domain.entity.Account;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface AccountRepository extends ReactiveCrudRepository<Account, Long> {
+    Mono<Long> countByAccountUserId(Long accountUserId);
+
+    Mono<Account> findByAccountNumber(String accountNumber);
+
+    Flux<Account> findByAccountUserId(Long accountUserId);
+}
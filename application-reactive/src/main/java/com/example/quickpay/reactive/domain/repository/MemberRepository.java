@@ -0,0 +1,9 @@
+package com.example.quickpay.reactive.domain.repository;
+
+import com.example.quickpay.reactive.domain.entity.Member;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MemberRepository extends ReactiveCrudRepository<Member, Long> {
+}
@@ -0,0 +1,24 @@
+package com.example.quickpay.reactive.domain.repository;
+
+import com.example.quickpay.reactive.domain.entity.Transaction;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface TransactionRepository extends ReactiveCrudRepository<Transaction, Long> {
+    String ARCHIVE_COLUMNS = "id, created_at, updated_at, transaction_type, transaction_result_type, account_id, " +
+            "amount, balance_snapshot, transaction_id, legacy_transaction_id, transacted_at";
+
+    Mono<Transaction> findByTransactionId(Long transactionId);
+
+    Mono<Transaction> findByLegacyTransactionId(String legacyTransactionId);
+
+    // 취소 기간이 지나 transaction_archive 로 옮겨진 거래 (조회 전용)
+    @Query("select " + ARCHIVE_COLUMNS + " from transaction_archive where transaction_id = :transactionId")
+    Mono<Transaction> findArchivedByTransactionId(Long transactionId);
+
+    @Query("select " + ARCHIVE_COLUMNS + " from transaction_archive where legacy_transaction_id = :legacyTransactionId")
+    Mono<Transaction> findArchivedByLegacyTransactionId(String legacyTransactionId);
+}
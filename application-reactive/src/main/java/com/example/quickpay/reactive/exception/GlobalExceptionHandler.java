@@ -0,0 +1,69 @@
+package com.example.quickpay.reactive.exception;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.reactive.exception.dto.ErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import static com.example.quickpay.common.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.quickpay.common.type.ErrorCode.INTERNAL_SERVER_ERROR;
+import static com.example.quickpay.common.type.ErrorCode.INVALID_REQUEST;
+
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+    @ExceptionHandler(QuickPayException.class)
+    public ErrorResponse handleQuickPayException(QuickPayException e) {
+        log.error("{} is occurred.", e.getErrorCode());
+
+        return ErrorResponse.builder()
+                .errorCode(e.getErrorCode())
+                .errorMessage(e.getErrorMessage())
+                .build();
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ErrorResponse handleWebExchangeBindException(WebExchangeBindException e) {
+        log.error("WebExchangeBindException is occurred.", e);
+
+        return ErrorResponse.builder()
+                .errorCode(INVALID_REQUEST)
+                .errorMessage(INVALID_REQUEST.getDescription())
+                .build();
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        log.error("DataIntegrityViolationException is occurred.", e);
+
+        return ErrorResponse.builder()
+                .errorCode(INVALID_REQUEST)
+                .errorMessage(INVALID_REQUEST.getDescription())
+                .build();
+    }
+
+    // application 모듈과 동시에 같은 계좌를 변경해 version 이 어긋난 경우
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ErrorResponse handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        log.error("OptimisticLockingFailureException is occurred.", e);
+
+        return ErrorResponse.builder()
+                .errorCode(ACCOUNT_TRANSACTION_LOCK)
+                .errorMessage(ACCOUNT_TRANSACTION_LOCK.getDescription())
+                .build();
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ErrorResponse handleException(Exception e) {
+        log.error("Exception is occurred.", e);
+
+        return ErrorResponse.builder()
+                .errorCode(INTERNAL_SERVER_ERROR)
+                .errorMessage(INTERNAL_SERVER_ERROR.getDescription())
+                .build();
+    }
+}
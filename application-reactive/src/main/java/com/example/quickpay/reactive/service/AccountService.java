@@ -0,0 +1,144 @@
+package com.example.quickpay.reactive.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.redis.RedisTopics;
+import com.example.quickpay.common.type.AccountStatus;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.reactive.domain.entity.Account;
+import com.example.quickpay.reactive.domain.entity.Member;
+import com.example.quickpay.reactive.domain.id.ReactiveIdAllocator;
+import com.example.quickpay.reactive.domain.repository.AccountRepository;
+import com.example.quickpay.reactive.domain.repository.MemberRepository;
+import com.example.quickpay.reactive.service.dto.AccountDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import static com.example.quickpay.common.type.ErrorCode.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountService {
+    private final AccountRepository accountRepository;
+    private final MemberRepository memberRepository;
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final ReactiveIdAllocator idAllocator;
+    private final TransactionalOperator transactionalOperator;
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final ExistenceFilterPublisher existenceFilterPublisher;
+
+    /**
+     * 사용자가 있는지 조회
+     * 계좌가 10개 있는지 조회
+     * 계좌 번호를 생성하고
+     * 계좌를 저장하고, 그 정보를 넘긴다
+     */
+    @Transactional
+    public Mono<AccountDto> createAccount(Long userId, Long initialBalance) {
+        return getMember(userId)
+                .flatMap(member -> validateCreateAccount(member).thenReturn(member))
+                .flatMap(member -> createNewAccountNumber()
+                        .zipWith(idAllocator.nextId("account"))
+                        .map(tuple -> createNewAccount(tuple.getT2(), initialBalance, member, tuple.getT1())))
+                .flatMap(r2dbcEntityTemplate::insert)
+                .flatMap(account -> existenceFilterPublisher.publishAccount(account.getAccountNumber())
+                        .thenReturn(account))
+                .map(AccountDto::fromEntity);
+    }
+
+    private Mono<Member> getMember(Long userId) {
+        return memberRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new QuickPayException(USER_NOT_FOUND)));
+    }
+
+    private Mono<Void> validateCreateAccount(Member member) {
+        return accountRepository.countByAccountUserId(member.getId())
+                .flatMap(count -> count == 10
+                        ? Mono.error(new QuickPayException(ErrorCode.MAX_ACCOUNT_PER_USER_10))
+                        : Mono.empty());
+    }
+
+    // application 모듈 AccountNumberAllocator 와 같은 account_number_seq 에서 구간 예약
+    private Mono<String> createNewAccountNumber() {
+        return idAllocator.nextId("account_number")
+                .map(String::valueOf);
+    }
+
+    private Account createNewAccount(Long id, Long initialBalance, Member member, String newAccountNumber) {
+        return Account.builder()
+                .id(id)
+                .accountUserId(member.getId())
+                .accountStatus(AccountStatus.IN_USE)
+                .accountNumber(newAccountNumber)
+                .balance(initialBalance)
+                .registeredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public Mono<AccountDto> deleteAccount(Long userId, String accountNumber) {
+        return getMember(userId)
+                .flatMap(member -> getAccount(accountNumber)
+                        .flatMap(account -> {
+                            validateDeleteAccount(member, account);
+
+                            account.setAccountStatus(AccountStatus.UNREGISTERED);
+                            account.setUnRegisteredAt(LocalDateTime.now());
+                            return accountRepository.save(account);
+                        }))
+                .as(transactionalOperator::transactional)
+                // commit 이후 application 모듈 노드들의 계좌 캐시에서 제거
+                .flatMap(account -> publishInvalidation(accountNumber).thenReturn(account))
+                .map(AccountDto::fromEntity);
+    }
+
+    private Mono<Void> publishInvalidation(String accountNumber) {
+        return redissonReactiveClient.getTopic(RedisTopics.ACCOUNT_METADATA_INVALIDATION, StringCodec.INSTANCE)
+                .publish(accountNumber)
+                .onErrorResume(e -> {
+                    // 다른 노드는 TTL 이 지나면 다시 읽는다
+                    log.error("Failed to publish account metadata invalidation : {}", accountNumber, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Account> getAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .switchIfEmpty(Mono.error(() -> new QuickPayException(ErrorCode.ACCOUNT_NOT_FOUND)));
+    }
+
+    private void validateDeleteAccount(Member member, Account account) {
+        if (!Objects.equals(member.getId(), account.getAccountUserId())) {
+            throw new QuickPayException(USER_ACCOUNT_UN_MATCH);
+        }
+        if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
+            throw new QuickPayException(ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        if (account.getBalance() > 0) {
+            throw new QuickPayException(BALANCE_NOT_EMPTY);
+        }
+    }
+
+    public Flux<AccountDto> getAccountsByUserId(Long userId) {
+        return getMember(userId)
+                .flatMapMany(member -> accountRepository.findByAccountUserId(member.getId()))
+                .map(AccountDto::fromEntity);
+    }
+
+    public Mono<AccountDto> getAccount(Long id) {
+        return accountRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new QuickPayException(ACCOUNT_NOT_FOUND)))
+                .map(AccountDto::fromEntity);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.quickpay.reactive.service;
+
+import com.example.quickpay.common.id.TransactionIdGenerator;
+import com.example.quickpay.common.redis.RedisTopics;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopicReactive;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 새 계좌 번호 / 거래 id 를 application 모듈 노드들의 Bloom filter(ExistenceFilter)에 알린다.
+ * 알리지 않으면 이 모듈로 만든 계좌/거래가 다음 rebuild 까지 application 모듈에서 없는 것으로 거절된다.
+ * application 모듈과 같은 quickpay.existence-filter.enabled 로 켠다.
+ */
+@Slf4j
+@Component
+public class ExistenceFilterPublisher {
+    private final boolean enabled;
+    private final RTopicReactive addTopic;
+
+    public ExistenceFilterPublisher(
+            RedissonReactiveClient redissonReactiveClient,
+            @Value("${quickpay.existence-filter.enabled:false}") boolean enabled
+    ) {
+        this.enabled = enabled;
+        this.addTopic = redissonReactiveClient.getTopic(RedisTopics.EXISTENCE_FILTER_ADD, StringCodec.INSTANCE);
+    }
+
+    public Mono<Void> publishAccount(String accountNumber) {
+        return publish(RedisTopics.EXISTENCE_FILTER_ACCOUNT_PREFIX + accountNumber);
+    }
+
+    public Mono<Void> publishTransaction(long transactionId) {
+        return publish(RedisTopics.EXISTENCE_FILTER_TRANSACTION_PREFIX + TransactionIdGenerator.format(transactionId));
+    }
+
+    // 응답 전에 Redis 에 전달되도록 저장 흐름 안에서 기다린다
+    private Mono<Void> publish(String message) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return addTopic.publish(message)
+                .onErrorResume(e -> {
+                    // 다른 노드는 다음 rebuild 때 반영된다
+                    log.error("Failed to publish existence filter add : {}", message, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.quickpay.reactive.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLockReactive;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 계좌 lock (RLockReactive)
+ * application 모듈과 같은 ACLK: key 를 사용하므로 두 API 가 같은 계좌를 동시에 변경하지 않는다.
+ * 요청이 여러 스레드를 오가므로 스레드 id 대신 요청마다 만든 lock owner id 로 잠그고 푼다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LockService {
+    private final RedissonReactiveClient redissonReactiveClient;
+
+    public <T> Mono<T> withLock(String accountNumber, Supplier<Mono<T>> action) {
+        return Mono.defer(() -> {
+            long ownerId = ThreadLocalRandom.current().nextLong();
+            RLockReactive lock = redissonReactiveClient.getLock(getLockKey(accountNumber));
+            log.debug("Trying lock for accountNumber : {}", accountNumber);
+
+            return Mono.usingWhen(
+                    lock.tryLock(1, 15, TimeUnit.SECONDS, ownerId)
+                            .flatMap(isLock -> {
+                                if (!isLock) {
+                                    log.error("========Lock acquisition failed=======");
+                                    return Mono.error(new QuickPayException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+                                }
+                                return Mono.just(lock);
+                            }),
+                    acquired -> action.get(),
+                    acquired -> unlock(acquired, accountNumber, ownerId),
+                    (acquired, e) -> unlock(acquired, accountNumber, ownerId),
+                    acquired -> unlock(acquired, accountNumber, ownerId));
+        });
+    }
+
+    private Mono<Void> unlock(RLockReactive lock, String accountNumber, long ownerId) {
+        log.debug("Unlock for accountNumber : {}", accountNumber);
+        return lock.unlock(ownerId)
+                .onErrorResume(e -> {
+                    // lease 만료 등으로 이미 풀린 경우
+                    log.error("Redis unlock failed", e);
+                    return Mono.empty();
+                });
+    }
+
+    private String getLockKey(String accountNumber) {
+        return "ACLK:" + accountNumber;
+    }
+}
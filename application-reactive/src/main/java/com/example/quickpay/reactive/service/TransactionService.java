@@ -0,0 +1,152 @@
+package com.example.quickpay.reactive.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.id.TransactionIdGenerator;
+import com.example.quickpay.common.type.AccountStatus;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.common.type.TransactionType;
+import com.example.quickpay.reactive.domain.entity.Account;
+import com.example.quickpay.reactive.domain.entity.Member;
+import com.example.quickpay.reactive.domain.entity.Transaction;
+import com.example.quickpay.reactive.domain.id.ReactiveIdAllocator;
+import com.example.quickpay.reactive.domain.repository.AccountRepository;
+import com.example.quickpay.reactive.domain.repository.MemberRepository;
+import com.example.quickpay.reactive.domain.repository.TransactionRepository;
+import com.example.quickpay.reactive.service.dto.TransactionDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+import static com.example.quickpay.common.type.TransactionResultType.FAILED;
+import static com.example.quickpay.common.type.TransactionResultType.SUCCESS;
+import static com.example.quickpay.common.type.TransactionType.CANCEL;
+import static com.example.quickpay.common.type.TransactionType.USE;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionService {
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final MemberRepository memberRepository;
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final ReactiveIdAllocator idAllocator;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final ExistenceFilterPublisher existenceFilterPublisher;
+
+    @Transactional
+    public Mono<TransactionDto> useBalance(Long userId, String accountNumber, Long amount) {
+        return getMember(userId)
+                .flatMap(member -> getAccount(accountNumber)
+                        .flatMap(account -> {
+                            validateUseBalance(member, account, amount);
+                            account.useBalance(amount);
+                            return accountRepository.save(account);
+                        }))
+                .flatMap(account -> saveTransaction(USE, SUCCESS, account, amount));
+    }
+
+    private Mono<Member> getMember(Long userId) {
+        return memberRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new QuickPayException(ErrorCode.USER_NOT_FOUND)));
+    }
+
+    private void validateUseBalance(Member member, Account account, Long amount) {
+        if (!Objects.equals(member.getId(), account.getAccountUserId())) {
+            throw new QuickPayException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+        if (account.getAccountStatus() != AccountStatus.IN_USE) {
+            throw new QuickPayException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        if (account.getBalance() < amount) {
+            throw new QuickPayException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+    }
+
+    @Transactional
+    public Mono<TransactionDto> cancelBalance(String transactionId, String accountNumber, Long amount) {
+        return getAccount(accountNumber)
+                .flatMap(account -> findTransaction(transactionId)
+                        .switchIfEmpty(Mono.error(() -> new QuickPayException(ErrorCode.TRANSACTION_NOT_FOUND)))
+                        .flatMap(transaction -> {
+                            validateCancelBalance(transaction, account, amount);
+                            account.cancelBalance(amount);
+                            return accountRepository.save(account);
+                        }))
+                .flatMap(account -> saveTransaction(CANCEL, SUCCESS, account, amount));
+    }
+
+    private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
+        if (!Objects.equals(transaction.getAccountId(), account.getId())) {
+            throw new QuickPayException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+        }
+        if (!Objects.equals(transaction.getAmount(), amount)) {
+            throw new QuickPayException(ErrorCode.CANCEL_MUST_FULLY);
+        }
+        if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
+            throw new QuickPayException(ErrorCode.TOO_OLD_TRANSACTION_TO_CANCEL);
+        }
+    }
+
+    @Transactional
+    public Mono<Void> saveFailedUseTransaction(String accountNumber, Long amount) {
+        return getAccount(accountNumber)
+                .flatMap(account -> saveTransaction(USE, FAILED, account, amount))
+                .then();
+    }
+
+    @Transactional
+    public Mono<Void> saveFailedCancelTransaction(String accountNumber, Long amount) {
+        return getAccount(accountNumber)
+                .flatMap(account -> saveTransaction(CANCEL, FAILED, account, amount))
+                .then();
+    }
+
+    private Mono<TransactionDto> saveTransaction(TransactionType transactionType, TransactionResultType transactionResultType, Account account, Long amount) {
+        return idAllocator.nextId("transaction")
+                .map(id -> Transaction.builder()
+                        .id(id)
+                        .transactionType(transactionType)
+                        .transactionResultType(transactionResultType)
+                        .accountId(account.getId())
+                        .amount(amount)
+                        .balanceSnapshot(account.getBalance())
+                        .transactionId(transactionIdGenerator.nextId())
+                        .transactedAt(LocalDateTime.now())
+                        .build())
+                .flatMap(r2dbcEntityTemplate::insert)
+                .flatMap(transaction -> existenceFilterPublisher.publishTransaction(transaction.getTransactionId())
+                        .thenReturn(transaction))
+                .map(transaction -> TransactionDto.fromEntity(transaction, account.getAccountNumber()));
+    }
+
+    private Mono<Account> getAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .switchIfEmpty(Mono.error(() -> new QuickPayException(ErrorCode.ACCOUNT_NOT_FOUND)));
+    }
+
+    public Mono<TransactionDto> queryTransaction(String transactionId) {
+        return findTransaction(transactionId)
+                .switchIfEmpty(Mono.error(() -> new QuickPayException(ErrorCode.TRANSACTION_NOT_FOUND)))
+                .flatMap(transaction -> accountRepository.findById(transaction.getAccountId())
+                        .map(account -> TransactionDto.fromEntity(transaction, account.getAccountNumber())));
+    }
+
+    // 10진수가 아니면 UUID 형식 이전 거래 id 로 조회, transaction 에 없으면 보관 테이블에서 조회
+    // (보관된 거래는 취소 기간이 지났으므로 취소 요청은 validateCancelBalance 에서 거절된다)
+    private Mono<Transaction> findTransaction(String transactionId) {
+        OptionalLong parsed = TransactionIdGenerator.parse(transactionId);
+        if (parsed.isPresent()) {
+            return transactionRepository.findByTransactionId(parsed.getAsLong())
+                    .switchIfEmpty(Mono.defer(() -> transactionRepository.findArchivedByTransactionId(parsed.getAsLong())));
+        }
+        return transactionRepository.findByLegacyTransactionId(transactionId)
+                .switchIfEmpty(Mono.defer(() -> transactionRepository.findArchivedByLegacyTransactionId(transactionId)));
+    }
+}
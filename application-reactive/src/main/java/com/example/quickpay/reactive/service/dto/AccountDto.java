@@ -0,0 +1,32 @@
+package com.example.quickpay.reactive.service.dto;
+
+import com.example.quickpay.reactive.domain.entity.Account;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccountDto {
+    private Long userId;
+    private String accountNumber;
+    private Long balance;
+
+    private LocalDateTime registeredAt;
+    private LocalDateTime unRegisteredAt;
+
+    public static AccountDto fromEntity(Account account) {
+        return builder()
+                .userId(account.getAccountUserId())
+                .accountNumber(account.getAccountNumber())
+                .balance(account.getBalance())
+                .registeredAt(account.getRegisteredAt())
+                .unRegisteredAt(account.getUnRegisteredAt())
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.quickpay.reactive.service.dto;
+
+import com.example.quickpay.common.id.TransactionIdGenerator;
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.common.type.TransactionType;
+import com.example.quickpay.reactive.domain.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionDto {
+    private String accountNumber;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private Long amount;
+    private Long balanceSnapshot;
+    private String transactionId;
+    private LocalDateTime transactedAt;
+
+
+    public static TransactionDto fromEntity(Transaction transaction, String accountNumber) {
+        return builder()
+                .accountNumber(accountNumber)
+                .transactionType(transaction.getTransactionType())
+                .transactionResultType(transaction.getTransactionResultType())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .transactionId(formatTransactionId(transaction))
+                .transactedAt(transaction.getTransactedAt())
+                .build();
+    }
+
+    // 이전 거래는 처음 발급한 UUID 형식 id 를 그대로 보여준다
+    private static String formatTransactionId(Transaction transaction) {
+        if (transaction.getLegacyTransactionId() != null) {
+            return transaction.getLegacyTransactionId();
+        }
+        return TransactionIdGenerator.format(transaction.getTransactionId());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.quickpay.reactive.controller;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.reactive.dto.UseBalance;
+import com.example.quickpay.reactive.service.LockService;
+import com.example.quickpay.reactive.service.TransactionService;
+import com.example.quickpay.reactive.service.dto.TransactionDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static com.example.quickpay.common.type.TransactionResultType.SUCCESS;
+import static com.example.quickpay.common.type.TransactionType.USE;
+import static org.mockito.BDDMockito.*;
+
+@WebFluxTest(TransactionController.class)
+class TransactionControllerTest {
+    @MockBean
+    private TransactionService transactionService;
+
+    @MockBean
+    private LockService lockService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        given(lockService.withLock(anyString(), any()))
+                .willAnswer(invocation -> ((Supplier<Mono<?>>) invocation.getArgument(1)).get());
+    }
+
+    @Test
+    @DisplayName("거래 사용 성공")
+    void successUseBalance() {
+        //given
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(Mono.just(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .amount(1234L)
+                        .transactedAt(LocalDateTime.now())
+                        .transactionType(USE)
+                        .transactionResultType(SUCCESS)
+                        .transactionId("transactionId").build()));
+        //when
+        //then
+        webTestClient.post().uri("/api/v1/transaction/use")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UseBalance.Request(1L, "1234567890", 1000L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accountNumber").isEqualTo("1234567890")
+                .jsonPath("$.transactionId").isEqualTo("transactionId")
+                .jsonPath("$.amount").isEqualTo(1234)
+                .jsonPath("$.transactionResult").isEqualTo("SUCCESS");
+    }
+
+    @Test
+    @DisplayName("거래 사용 실패 - 실패 거래 저장 후 에러 응답")
+    void failUseBalance_saveFailedTransaction() {
+        //given
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(Mono.error(new QuickPayException(ErrorCode.AMOUNT_EXCEED_BALANCE)));
+        given(transactionService.saveFailedUseTransaction(anyString(), anyLong()))
+                .willReturn(Mono.empty());
+        //when
+        //then
+        webTestClient.post().uri("/api/v1/transaction/use")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UseBalance.Request(1L, "1234567890", 1000L))
+                .exchange()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("AMOUNT_EXCEED_BALANCE");
+        verify(transactionService, times(1)).saveFailedUseTransaction("1234567890", 1000L);
+    }
+
+    @Test
+    @DisplayName("요청 검증 실패 - 금액 최소값 미만")
+    void invalidUseBalanceRequest() {
+        //given
+        //when
+        //then
+        webTestClient.post().uri("/api/v1/transaction/use")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UseBalance.Request(1L, "1234567890", 1L))
+                .exchange()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("INVALID_REQUEST");
+        verify(transactionService, never()).useBalance(anyLong(), anyString(), anyLong());
+    }
+}
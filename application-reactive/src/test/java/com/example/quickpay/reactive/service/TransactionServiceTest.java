@@ -0,0 +1,227 @@
+package com.example.quickpay.reactive.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.id.TransactionIdGenerator;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.reactive.domain.entity.Account;
+import com.example.quickpay.reactive.domain.entity.Member;
+import com.example.quickpay.reactive.domain.entity.Transaction;
+import com.example.quickpay.reactive.domain.id.ReactiveIdAllocator;
+import com.example.quickpay.reactive.domain.repository.AccountRepository;
+import com.example.quickpay.reactive.domain.repository.MemberRepository;
+import com.example.quickpay.reactive.domain.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static com.example.quickpay.common.type.AccountStatus.IN_USE;
+import static com.example.quickpay.common.type.TransactionResultType.FAILED;
+import static com.example.quickpay.common.type.TransactionResultType.SUCCESS;
+import static com.example.quickpay.common.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private MemberRepository memberRepository;
+    @Mock
+    private R2dbcEntityTemplate r2dbcEntityTemplate;
+    @Mock
+    private ReactiveIdAllocator idAllocator;
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+    @Mock
+    private ExistenceFilterPublisher existenceFilterPublisher;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(existenceFilterPublisher.publishTransaction(anyLong())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    @DisplayName("잔액 사용 성공")
+    void useBalanceSuccess() {
+        //given
+        Member member = Member.builder()
+                .id(12L)
+                .name("iron")
+                .build();
+        given(memberRepository.findById(anyLong()))
+                .willReturn(Mono.just(member));
+        Account account = Account.builder()
+                .id(1L)
+                .accountUserId(12L)
+                .accountStatus(IN_USE)
+                .accountNumber("1000000012")
+                .balance(10000L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Mono.just(account));
+        given(accountRepository.save(any()))
+                .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        given(idAllocator.nextId("transaction"))
+                .willReturn(Mono.just(100L));
+        given(r2dbcEntityTemplate.insert(any(Transaction.class)))
+                .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        //when
+        //then
+        StepVerifier.create(transactionService.useBalance(1L, "1000000012", 1000L))
+                .assertNext(transactionDto -> {
+                    assertEquals("1000000012", transactionDto.getAccountNumber());
+                    assertEquals(SUCCESS, transactionDto.getTransactionResultType());
+                    assertEquals(9000L, transactionDto.getBalanceSnapshot());
+                })
+                .verifyComplete();
+        verify(r2dbcEntityTemplate, times(1)).insert(captor.capture());
+        assertEquals(100L, captor.getValue().getId());
+        assertEquals(1L, captor.getValue().getAccountId());
+        assertEquals(USE, captor.getValue().getTransactionType());
+    }
+
+    @Test
+    @DisplayName("잔액 부족 - 잔액 사용 실패")
+    void useBalance_exceedAmount() {
+        //given
+        Member member = Member.builder()
+                .id(12L)
+                .name("iron")
+                .build();
+        given(memberRepository.findById(anyLong()))
+                .willReturn(Mono.just(member));
+        Account account = Account.builder()
+                .id(1L)
+                .accountUserId(12L)
+                .accountStatus(IN_USE)
+                .accountNumber("1000000012")
+                .balance(100L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Mono.just(account));
+        //when
+        //then
+        StepVerifier.create(transactionService.useBalance(1L, "1000000012", 1000L))
+                .expectErrorSatisfies(e -> assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE,
+                        ((QuickPayException) e).getErrorCode()))
+                .verify();
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("해당 계좌 없음 - 잔액 사용 실패")
+    void useBalance_accountNotFound() {
+        //given
+        given(memberRepository.findById(anyLong()))
+                .willReturn(Mono.just(Member.builder().id(12L).build()));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Mono.empty());
+        //when
+        //then
+        StepVerifier.create(transactionService.useBalance(1L, "1000000012", 1000L))
+                .expectErrorSatisfies(e -> assertEquals(ErrorCode.ACCOUNT_NOT_FOUND,
+                        ((QuickPayException) e).getErrorCode()))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("실패 트랜잭션 저장 성공")
+    void saveFailedUseTransaction() {
+        //given
+        Account account = Account.builder()
+                .id(1L)
+                .accountUserId(12L)
+                .accountStatus(IN_USE)
+                .accountNumber("1000000012")
+                .balance(10000L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Mono.just(account));
+        given(idAllocator.nextId("transaction"))
+                .willReturn(Mono.just(100L));
+        given(r2dbcEntityTemplate.insert(any(Transaction.class)))
+                .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        //when
+        StepVerifier.create(transactionService.saveFailedUseTransaction("1000000012", 1000L))
+                .verifyComplete();
+        //then
+        verify(r2dbcEntityTemplate, times(1)).insert(captor.capture());
+        assertEquals(FAILED, captor.getValue().getTransactionResultType());
+        assertEquals(10000L, captor.getValue().getBalanceSnapshot());
+    }
+
+    @Test
+    @DisplayName("거래 조회 성공")
+    void queryTransaction() {
+        //given
+        given(transactionRepository.findByTransactionId(anyLong()))
+                .willReturn(Mono.just(Transaction.builder()
+                        .accountId(1L)
+                        .transactionType(USE)
+                        .transactionResultType(SUCCESS)
+                        .transactionId(7154873921232896001L)
+                        .transactedAt(LocalDateTime.now())
+                        .amount(1000L)
+                        .build()));
+        given(accountRepository.findById(1L))
+                .willReturn(Mono.just(Account.builder()
+                        .id(1L)
+                        .accountNumber("1000000012")
+                        .build()));
+        //when
+        //then
+        StepVerifier.create(transactionService.queryTransaction("7154873921232896001"))
+                .assertNext(transactionDto -> {
+                    assertEquals("1000000012", transactionDto.getAccountNumber());
+                    assertEquals("7154873921232896001", transactionDto.getTransactionId());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("transaction 에 없으면 보관 테이블에서 조회")
+    void queryTransaction_archived() {
+        //given
+        given(transactionRepository.findByTransactionId(anyLong()))
+                .willReturn(Mono.empty());
+        given(transactionRepository.findArchivedByTransactionId(anyLong()))
+                .willReturn(Mono.just(Transaction.builder()
+                        .accountId(1L)
+                        .transactionType(USE)
+                        .transactionResultType(SUCCESS)
+                        .transactionId(1234L)
+                        .transactedAt(LocalDateTime.now().minusYears(2))
+                        .amount(1000L)
+                        .build()));
+        given(accountRepository.findById(1L))
+                .willReturn(Mono.just(Account.builder()
+                        .id(1L)
+                        .accountNumber("1000000012")
+                        .build()));
+        //when
+        //then
+        StepVerifier.create(transactionService.queryTransaction("1234"))
+                .assertNext(transactionDto -> assertEquals("1234", transactionDto.getTransactionId()))
+                .verifyComplete();
+    }
+}
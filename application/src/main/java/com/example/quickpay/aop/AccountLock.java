@@ -8,4 +8,6 @@ import java.lang.annotation.*;
 @Inherited
 public @interface AccountLock {
     long tryLockTime() default 5000L;
+
+    BalanceWriteMode writeMode() default BalanceWriteMode.LOCK;
 }
@@ -0,0 +1,11 @@
+package com.example.quickpay.aop;
+
+/**
+ * 잔액 변경 방식
+ * LOCK : Redis 계좌 lock 을 잡고 엔티티 변경(dirty checking)으로 반영
+ * CONDITIONAL_UPDATE : lock 없이 조건부 UPDATE 한 번으로 반영 (영향 row 수로 성공 판단)
+ */
+public enum BalanceWriteMode {
+    LOCK,
+    CONDITIONAL_UPDATE
+}
@@ -0,0 +1,41 @@
+package com.example.quickpay.aop;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.service.ExistenceFilter;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 계좌 lock 이 필요한 요청 중 없는 계좌 번호 / 거래 id 는 lock, Redis, DB 없이 바로 거절
+ * (Bloom filter 에 없으면 확실히 없는 값)
+ */
+@Aspect
+@Component
+@Order(ExistenceFilterAspect.ORDER)
+@RequiredArgsConstructor
+public class ExistenceFilterAspect {
+    // IdempotencyAspect, LockAopAspect 보다 먼저
+    public static final int ORDER = IdempotencyAspect.ORDER - 1;
+
+    private final ExistenceFilter existenceFilter;
+
+    @Around("@annotation(com.example.quickpay.aop.AccountLock) && args(request)")
+    public Object aroundMethod(
+            ProceedingJoinPoint joinPoint,
+            AccountLockIdInterface request
+    ) throws Throwable {
+        if (!existenceFilter.mightContainAccount(request.getAccountNumber())) {
+            throw new QuickPayException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+        if (request instanceof TransactionIdInterface transactionRequest
+                && !existenceFilter.mightContainTransaction(transactionRequest.getTransactionId())) {
+            throw new QuickPayException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }
+        return joinPoint.proceed();
+    }
+}
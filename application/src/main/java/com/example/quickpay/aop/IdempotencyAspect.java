@@ -0,0 +1,179 @@
+package com.example.quickpay.aop;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.service.IdempotencyStore;
+import com.example.quickpay.service.IdempotencyStore.IdempotencyRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 잔액 사용/취소 재시도 중복 방지
+ * 1. 저장된 응답이 있으면 (Redis GET 한 번) lock, DB 없이 그대로 돌려준다
+ * 2. 없으면 키를 먼저 선점(SET NX)하고 실행, 성공 응답을 저장
+ * 3. 아무것도 반영되지 않은 업무 실패(검증, 잔액 부족, lock 대기 초과 등)면 선점을 풀어서 같은 키로 다시 시도할 수 있게 한다
+ * 4. 그 밖의 실패는 반영되었을 수 있으므로 결과를 알 수 없음으로 저장하고, 같은 키의 재시도는 실행하지 않는다
+ * 같은 키로 다른 요청 본문을 보내면 거절한다.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(IdempotencyAspect.ORDER)
+@RequiredArgsConstructor
+public class IdempotencyAspect {
+    public static final String HEADER = "Idempotency-Key";
+    // LockAopAspect(순서 지정 없음 = 가장 나중) 보다 먼저
+    public static final int ORDER = 0;
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int SAVE_ATTEMPTS = 3;
+    private static final long SAVE_BACKOFF_MILLIS = 50;
+    // DB 에 쓰기 전에 거절되는 오류
+    private static final Set<ErrorCode> NOT_EXECUTED = EnumSet.of(
+            ErrorCode.INVALID_REQUEST,
+            ErrorCode.ACCOUNT_NOT_FOUND,
+            ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+            ErrorCode.ACCOUNT_REQUEST_QUEUE_FULL,
+            ErrorCode.ACCOUNT_MIGRATING,
+            ErrorCode.TRANSACTION_NOT_FOUND,
+            ErrorCode.AMOUNT_EXCEED_BALANCE,
+            ErrorCode.USER_ACCOUNT_UN_MATCH,
+            ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH,
+            ErrorCode.CANCEL_MUST_FULLY,
+            ErrorCode.TOO_OLD_TRANSACTION_TO_CANCEL,
+            ErrorCode.ACCOUNT_ALREADY_UNREGISTERED,
+            ErrorCode.USER_NOT_FOUND);
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+
+    @Around("@annotation(idempotent) && args(request)")
+    public Object aroundMethod(
+            ProceedingJoinPoint joinPoint,
+            Idempotent idempotent,
+            AccountLockIdInterface request
+    ) throws Throwable {
+        String idempotencyKey = currentIdempotencyKey();
+        if (idempotencyKey == null) {
+            return joinPoint.proceed();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new QuickPayException(ErrorCode.INVALID_REQUEST);
+        }
+        String key = idempotent.value() + ":" + request.getAccountNumber() + ":" + idempotencyKey;
+        String requestBody = objectMapper.writeValueAsString(request);
+
+        Optional<IdempotencyRecord> saved = idempotencyStore.find(key);
+        if (saved.isEmpty()) {
+            Optional<String> claimId = idempotencyStore.claim(key, requestBody);
+            if (claimId.isPresent()) {
+                return proceedAndSave(joinPoint, key, claimId.get(), requestBody);
+            }
+            // 같은 키로 동시에 들어온 요청이 먼저 선점함
+            saved = idempotencyStore.find(key);
+        }
+        return replay(joinPoint, saved, requestBody);
+    }
+
+    private Object proceedAndSave(ProceedingJoinPoint joinPoint, String key, String claimId, String requestBody)
+            throws Throwable {
+        Object response;
+        try {
+            response = joinPoint.proceed();
+        } catch (QuickPayException e) {
+            if (NOT_EXECUTED.contains(e.getErrorCode())) {
+                release(key, claimId, requestBody);
+            } else {
+                saveWithRetry(key, () -> idempotencyStore.fail(
+                        key, claimId, requestBody, ErrorCode.IDEMPOTENCY_OUTCOME_UNKNOWN));
+            }
+            throw e;
+        } catch (Throwable e) {
+            // commit 뒤의 lock 해제 실패, 응답 시간 초과 등 : 반영되었을 수 있다
+            saveWithRetry(key, () -> idempotencyStore.fail(
+                    key, claimId, requestBody, ErrorCode.IDEMPOTENCY_OUTCOME_UNKNOWN));
+            throw e;
+        }
+        String responseBody = objectMapper.writeValueAsString(response);
+        saveWithRetry(key, () -> idempotencyStore.complete(key, claimId, requestBody, responseBody));
+        return response;
+    }
+
+    private void release(String key, String claimId, String requestBody) {
+        try {
+            idempotencyStore.release(key, claimId, requestBody);
+        } catch (RuntimeException e) {
+            // 선점 키가 만료되면 다시 시도할 수 있다
+            log.error("Failed to release idempotency key. key : {}", key, e);
+        }
+    }
+
+    // 저장하지 못한 채 선점이 만료되면 재시도가 다시 실행되므로 Redis 오류는 잠시 뒤 다시 시도한다
+    private void saveWithRetry(String key, BooleanSupplier save) {
+        for (int attempt = 1; attempt <= SAVE_ATTEMPTS; attempt++) {
+            try {
+                if (!save.getAsBoolean()) {
+                    log.error("Idempotency key was claimed by another request before saving. key : {}", key);
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to save idempotent result. key : {}, attempt : {}", key, attempt, e);
+            }
+            if (attempt < SAVE_ATTEMPTS && !sleep(SAVE_BACKOFF_MILLIS << (attempt - 1))) {
+                return;
+            }
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Object replay(ProceedingJoinPoint joinPoint, Optional<IdempotencyRecord> saved, String requestBody)
+            throws Exception {
+        IdempotencyRecord record = saved
+                .orElseThrow(() -> new QuickPayException(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS));
+        if (!record.request().equals(requestBody)) {
+            throw new QuickPayException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+        }
+        if (record.inProgress()) {
+            throw new QuickPayException(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS);
+        }
+        if (record.errorCode() != null) {
+            throw new QuickPayException(record.errorCode());
+        }
+        Class<?> responseType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+        return objectMapper.readValue(record.response(), responseType);
+    }
+
+    private static String currentIdempotencyKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        return request.getHeader(HEADER);
+    }
+}
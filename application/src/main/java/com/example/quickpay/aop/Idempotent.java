@@ -0,0 +1,16 @@
+package com.example.quickpay.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * Idempotency-Key header 가 있으면 같은 키의 재시도에는 처음 응답을 그대로 돌려준다.
+ * (IdempotencyAspect, 계좌 lock 보다 먼저 실행)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface Idempotent {
+    // 키 구분 단위 (use, cancel)
+    String value();
+}
@@ -1,5 +1,6 @@
 package com.example.quickpay.aop;
 
+import com.example.quickpay.service.AccountMailboxExecutor;
 import com.example.quickpay.service.LockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,20 +15,24 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class LockAopAspect {
     private final LockService lockService;
+    private final AccountMailboxExecutor accountMailboxExecutor;
 
-    @Around("@annotation(com.example.quickpay.aop.AccountLock) && args(request)")
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
             ProceedingJoinPoint joinPoint,
+            AccountLock accountLock,
             AccountLockIdInterface request
     ) throws Throwable {
-        // lock 취득 시도
-        lockService.lock(request.getAccountNumber());
-        try {
+        // 조건부 UPDATE 방식은 DB row 조건으로 정합성을 보장하므로 lock 을 잡지 않는다
+        if (accountLock.writeMode() == BalanceWriteMode.CONDITIONAL_UPDATE) {
             return joinPoint.proceed();
-        } finally {
-            // lock 해제
-            lockService.unlock(request.getAccountNumber());
         }
+        // mailbox 모드 : 계좌별 단일 실행기에서 순서대로 실행 (lock 없음)
+        if (accountMailboxExecutor.isEnabled()) {
+            return accountMailboxExecutor.execute(request.getAccountNumber(), joinPoint::proceed);
+        }
+        // lock 을 잡은 스레드에서 실행하고 해제
+        return lockService.executeWithLock(request.getAccountNumber(), joinPoint::proceed);
     }
 
 }
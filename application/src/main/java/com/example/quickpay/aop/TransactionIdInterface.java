@@ -0,0 +1,5 @@
+package com.example.quickpay.aop;
+
+public interface TransactionIdInterface {
+    String getTransactionId();
+}
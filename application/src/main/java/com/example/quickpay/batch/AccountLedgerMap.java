@@ -0,0 +1,113 @@
+package com.example.quickpay.batch;
+
+/**
+ * 계좌 id -> 원장 누적값 map (대사 작업용)
+ * 거래 수천만 건을 누적할 때 Long/객체 boxing 이 생기지 않도록
+ * long 배열을 linear probing 으로 직접 쓴다. 계좌 id 는 1 부터 발급되므로 0 을 빈 칸으로 쓴다.
+ * 파티션 하나에서 한 스레드만 사용한다. (thread-safe 하지 않음)
+ */
+class AccountLedgerMap {
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    // 첫 거래 직전 잔액
+    private long[] openings;
+    // 성공 거래 증감 합계 (사용 -, 취소 +)
+    private long[] nets;
+    private long[] lastSnapshots;
+    private long[] counts;
+    private int size;
+    private int mask;
+
+    AccountLedgerMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * 거래 하나를 누적한다. 계좌별로 거래 순서대로 넘겨야 한다.
+     *
+     * @param delta 잔액 증감 (실패 거래는 0)
+     * @param balanceSnapshot 거래 직후 잔액
+     */
+    void apply(long accountId, long delta, long balanceSnapshot) {
+        if (accountId == EMPTY) {
+            throw new IllegalArgumentException("account id must not be 0");
+        }
+        int index = slot(accountId);
+        if (keys[index] == EMPTY) {
+            keys[index] = accountId;
+            openings[index] = balanceSnapshot - delta;
+            if (++size * 2 > keys.length) {
+                resize();
+                index = slot(accountId);
+            }
+        }
+        nets[index] += delta;
+        lastSnapshots[index] = balanceSnapshot;
+        counts[index]++;
+    }
+
+    /**
+     * @return 없으면 -1
+     */
+    int indexOf(long accountId) {
+        int index = slot(accountId);
+        return keys[index] == accountId ? index : -1;
+    }
+
+    // 첫 거래 직전 잔액에 거래를 다시 반영한 잔액
+    long ledgerBalance(int index) {
+        return openings[index] + nets[index];
+    }
+
+    long lastSnapshot(int index) {
+        return lastSnapshots[index];
+    }
+
+    long transactionCount(int index) {
+        return counts[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // key 가 있는 칸, 없으면 넣을 빈 칸
+    private int slot(long key) {
+        int index = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldOpenings = openings;
+        long[] oldNets = nets;
+        long[] oldLastSnapshots = lastSnapshots;
+        long[] oldCounts = counts;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+            int index = slot(oldKeys[i]);
+            keys[index] = oldKeys[i];
+            openings[index] = oldOpenings[i];
+            nets[index] = oldNets[i];
+            lastSnapshots[index] = oldLastSnapshots[i];
+            counts[index] = oldCounts[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        openings = new long[capacity];
+        nets = new long[capacity];
+        lastSnapshots = new long[capacity];
+        counts = new long[capacity];
+        mask = capacity - 1;
+    }
+}
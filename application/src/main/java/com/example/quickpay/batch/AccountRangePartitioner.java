@@ -0,0 +1,55 @@
+package com.example.quickpay.batch;
+
+import com.example.quickpay.domain.mysql.shard.ShardContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 샤드마다 계좌 id 범위를 gridSize 개 구간으로 나눈다.
+ * 한 계좌의 거래는 항상 같은 파티션에서 누적된다.
+ */
+@RequiredArgsConstructor
+public class AccountRangePartitioner implements Partitioner {
+    static final String MIN_ACCOUNT_ID = "minAccountId";
+    static final String MAX_ACCOUNT_ID = "maxAccountId";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int shardCount;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            long[] range = ShardContext.callOnShard(target, () -> jdbcTemplate.queryForObject(
+                    "select min(id), max(id) from account",
+                    (resultSet, rowNum) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)}));
+            partitionShard(partitions, shard, range, gridSize);
+        }
+        return partitions;
+    }
+
+    private void partitionShard(Map<String, ExecutionContext> partitions, int shard, long[] range, int gridSize) {
+        if (range == null || range[1] == 0) {
+            return;
+        }
+
+        long min = range[0];
+        long max = range[1];
+        long rangeSize = (max - min) / gridSize + 1;
+        int partition = 0;
+        for (long start = min; start <= max; start += rangeSize) {
+            ExecutionContext context = new ExecutionContext();
+            context.putInt(ShardPartitioner.SHARD, shard);
+            context.putLong(MIN_ACCOUNT_ID, start);
+            context.putLong(MAX_ACCOUNT_ID, Math.min(max, start + rangeSize - 1));
+            partitions.put(shardCount == 1 ? "partition" + partition++ : "shard" + shard + "-partition" + partition++,
+                    context);
+        }
+    }
+}
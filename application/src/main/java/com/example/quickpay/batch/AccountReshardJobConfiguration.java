@@ -0,0 +1,54 @@
+package com.example.quickpay.batch;
+
+import com.example.quickpay.domain.mysql.shard.AccountShardMigrator;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 계좌 재분할 job (quickpay.sharding.enabled=true)
+ * 실행 : --spring.batch.job.enabled=true --spring.batch.job.name=accountReshardJob
+ *       action=COPY bucket=17 sourceShard=0 targetShard=2
+ * 복사/삭제 트랜잭션은 AccountShardMigrator 가 샤드 connection 으로 직접 연다.
+ */
+@Configuration
+@ConditionalOnProperty(value = "quickpay.sharding.enabled", havingValue = "true")
+public class AccountReshardJobConfiguration {
+    public static final String JOB_NAME = "accountReshardJob";
+
+    @Bean
+    public Job accountReshardJob(JobRepository jobRepository, Step accountReshardStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(accountReshardStep)
+                .build();
+    }
+
+    @Bean
+    public Step accountReshardStep(JobRepository jobRepository, AccountReshardTasklet accountReshardTasklet) {
+        return new StepBuilder("accountReshardStep", jobRepository)
+                .tasklet(accountReshardTasklet, new ResourcelessTransactionManager())
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public AccountReshardTasklet accountReshardTasklet(
+            AccountShardMigrator accountShardMigrator,
+            @Value("#{jobParameters['action']}") AccountReshardTasklet.Action action,
+            @Value("#{jobParameters['bucket']}") int bucket,
+            @Value("#{jobParameters['sourceShard']}") int sourceShard,
+            @Value("#{jobParameters['targetShard'] ?: -1}") int targetShard
+    ) {
+        return new AccountReshardTasklet(accountShardMigrator, action, bucket, sourceShard, targetShard);
+    }
+}
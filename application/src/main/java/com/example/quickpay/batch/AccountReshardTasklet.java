@@ -0,0 +1,38 @@
+package com.example.quickpay.batch;
+
+import com.example.quickpay.domain.mysql.shard.AccountShardMigrator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+/**
+ * bucket 하나를 다른 샤드로 복사(COPY)하거나, 옮긴 뒤 원래 샤드에 남은 row 를 삭제(PURGE)한다.
+ * 순서와 조건은 AccountShardMigrator 참고
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AccountReshardTasklet implements Tasklet {
+    public enum Action {
+        COPY, PURGE
+    }
+
+    private final AccountShardMigrator migrator;
+    private final Action action;
+    private final int bucket;
+    private final int sourceShard;
+    private final int targetShard;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        AccountShardMigrator.Result result = action == Action.COPY
+                ? migrator.copy(bucket, sourceShard, targetShard)
+                : migrator.purge(bucket, sourceShard);
+        contribution.incrementWriteCount(result.accounts() + result.transactions() + result.archivedTransactions());
+        log.info("Reshard {} finished. bucket : {}, source : {}, target : {}, {}",
+                action, bucket, sourceShard, targetShard, result);
+        return RepeatStatus.FINISHED;
+    }
+}
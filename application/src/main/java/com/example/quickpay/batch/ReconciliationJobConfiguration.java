@@ -0,0 +1,80 @@
+package com.example.quickpay.batch;
+
+import com.example.quickpay.domain.mysql.shard.ShardMap;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * 거래 원장 / 계좌 잔액 대사 job
+ * 샤드마다 계좌 id 구간별 파티션을 나눠서 동시에 실행한다.
+ * 파티션마다 streaming cursor connection 을 하나씩 사용하므로 grid-size 는 (샤드별) connection pool 크기보다 작게 둔다.
+ * 실행 : --spring.batch.job.enabled=true --spring.batch.job.name=accountReconciliationJob
+ */
+@Configuration
+public class ReconciliationJobConfiguration {
+    public static final String JOB_NAME = "accountReconciliationJob";
+
+    @Bean
+    public Job accountReconciliationJob(JobRepository jobRepository, Step reconciliationManagerStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(reconciliationManagerStep)
+                .build();
+    }
+
+    @Bean
+    public Step reconciliationManagerStep(
+            JobRepository jobRepository,
+            Step reconciliationWorkerStep,
+            JdbcTemplate jdbcTemplate,
+            ShardMap shardMap,
+            @Value("${quickpay.reconciliation.grid-size:4}") int gridSize
+    ) {
+        // Executor bean 으로 등록하면 applicationTaskExecutor 자동 설정이 빠지므로 step 안에서만 사용
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("reconciliation-");
+        taskExecutor.setConcurrencyLimit(gridSize * shardMap.shardCount());
+        AccountRangePartitioner partitioner = new AccountRangePartitioner(jdbcTemplate, shardMap.shardCount());
+        return new StepBuilder("reconciliationManagerStep", jobRepository)
+                .partitioner("reconciliationWorkerStep", partitioner)
+                .step(reconciliationWorkerStep)
+                .gridSize(gridSize)
+                .taskExecutor(taskExecutor)
+                .build();
+    }
+
+    /**
+     * 조회 결과를 메모리에 누적하고 결과 저장만 하므로 step 트랜잭션은 잡지 않는다.
+     * (step 트랜잭션 connection 을 cursor 와 별도로 붙잡지 않도록)
+     */
+    @Bean
+    public Step reconciliationWorkerStep(JobRepository jobRepository, ReconciliationTasklet reconciliationTasklet) {
+        return new StepBuilder("reconciliationWorkerStep", jobRepository)
+                .tasklet(reconciliationTasklet, new ResourcelessTransactionManager())
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public ReconciliationTasklet reconciliationTasklet(
+            DataSource dataSource,
+            @Value("${quickpay.reconciliation.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize,
+            @Value("#{stepExecutionContext['" + ShardPartitioner.SHARD + "']}") int shard,
+            @Value("#{stepExecutionContext['" + AccountRangePartitioner.MIN_ACCOUNT_ID + "']}") long minAccountId,
+            @Value("#{stepExecutionContext['" + AccountRangePartitioner.MAX_ACCOUNT_ID + "']}") long maxAccountId
+    ) {
+        return new ReconciliationTasklet(dataSource, fetchSize, shard, minAccountId, maxAccountId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.quickpay.batch;
+
+public enum ReconciliationResultType {
+    // 거래 원장을 다시 계산한 잔액과 계좌 잔액이 다름
+    LEDGER_MISMATCH,
+    // 원장은 맞지만 마지막 거래 잔액 snapshot 과 계좌 잔액이 다름
+    SNAPSHOT_MISMATCH
+}
@@ -0,0 +1,182 @@
+package com.example.quickpay.batch;
+
+import com.example.quickpay.domain.mysql.shard.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 계좌 id 구간 하나의 원장/잔액 대사
+ * 1. 구간의 거래를 cursor 로 한 번 읽으면서 계좌별로 첫 거래 직전 잔액, 증감 합계, 마지막 snapshot 을 누적
+ * 2. 구간의 계좌를 cursor 로 읽으면서 누적값과 계좌 잔액을 비교
+ * 3. 두 cursor 는 같은 시점을 보지 않으므로, 불일치 후보는 계좌별 한 쿼리로 다시 계산해서
+ *    대사 중 들어온 거래 때문에 생긴 차이를 걸러낸 뒤 reconciliation_result 에 저장
+ * 거래가 없는 계좌는 비교할 원장이 없으므로 건너뛴다.
+ * 구간은 샤드 하나 안의 계좌 id 범위이고, 결과도 그 샤드의 reconciliation_result 에 저장한다.
+ */
+@Slf4j
+public class ReconciliationTasklet implements Tasklet {
+    // 성공 거래만 잔액을 바꾼다 (사용 -, 취소 +)
+    private static final String DELTA = "case when t.transaction_result_type = 'SUCCESS' " +
+            "then case t.transaction_type when 'USE' then -t.amount else t.amount end else 0 end";
+    static final String TRANSACTION_SQL = "select t.account_id, " + DELTA + " as delta, t.balance_snapshot " +
+            "from transaction t where t.account_id between ? and ? " +
+            "order by t.account_id, t.transacted_at, t.id";
+    static final String ACCOUNT_SQL = "select id, account_number, balance from account " +
+            "where id between ? and ? order by id";
+    static final String ACCOUNT_COUNT_SQL = "select count(*) from account where id between ? and ?";
+    static final String RECHECK_SQL = "select a.balance, " +
+            "(select t.balance_snapshot - " + DELTA + " from transaction t where t.account_id = a.id " +
+            "order by t.transacted_at, t.id limit 1) as opening, " +
+            "(select coalesce(sum(" + DELTA + "), 0) from transaction t where t.account_id = a.id) as net, " +
+            "(select t.balance_snapshot from transaction t where t.account_id = a.id " +
+            "order by t.transacted_at desc, t.id desc limit 1) as last_snapshot, " +
+            "(select count(*) from transaction t where t.account_id = a.id) as transaction_count " +
+            "from account a where a.id = ?";
+    static final String TRANSACTION_COUNT = "transactionCount";
+
+    static final String INSERT_SQL = "insert into reconciliation_result (job_execution_id, account_id, " +
+            "account_number, result_type, account_balance, ledger_balance, last_snapshot, transaction_count, created_at) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    // 구간 전체를 읽는 cursor 용 (fetch-size, MySQL 은 Integer.MIN_VALUE 일 때 streaming)
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final long minAccountId;
+    private final long maxAccountId;
+    private final int shard;
+
+    public ReconciliationTasklet(DataSource dataSource, int fetchSize, int shard, long minAccountId, long maxAccountId) {
+        this(new JdbcTemplate(dataSource), streamingJdbcTemplate(dataSource, fetchSize),
+                shard, minAccountId, maxAccountId);
+    }
+
+    ReconciliationTasklet(JdbcTemplate jdbcTemplate, JdbcTemplate streamingJdbcTemplate,
+                          int shard, long minAccountId, long maxAccountId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = streamingJdbcTemplate;
+        this.minAccountId = minAccountId;
+        this.maxAccountId = maxAccountId;
+        this.shard = shard;
+    }
+
+    private static JdbcTemplate streamingJdbcTemplate(DataSource dataSource, int fetchSize) {
+        JdbcTemplate streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(fetchSize);
+        return streamingJdbcTemplate;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        // step 트랜잭션이 없으므로 worker 스레드의 조회/저장이 모두 파티션의 샤드로 간다
+        ShardContext.set(shard);
+        try {
+            return reconcile(contribution, chunkContext);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private RepeatStatus reconcile(StepContribution contribution, ChunkContext chunkContext) {
+        long startedAt = System.nanoTime();
+        // id 구간이 아니라 실제 계좌 수로 크기를 잡는다 (id 가 듬성듬성하면 구간이 계좌 수보다 훨씬 크다)
+        Long accounts = jdbcTemplate.queryForObject(ACCOUNT_COUNT_SQL, Long.class, minAccountId, maxAccountId);
+        AccountLedgerMap ledgers = new AccountLedgerMap((int) Math.min(1 << 20, accounts == null ? 0 : accounts));
+        long transactions = accumulate(ledgers);
+        List<Candidate> candidates = compare(ledgers);
+
+        LocalDateTime now = LocalDateTime.now();
+        Long jobExecutionId = chunkContext.getStepContext().getStepExecution().getJobExecutionId();
+        List<Object[]> results = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            Discrepancy discrepancy = recheck(candidate.accountId());
+            if (discrepancy != null) {
+                results.add(new Object[]{jobExecutionId, candidate.accountId(), candidate.accountNumber(),
+                        discrepancy.type().name(), discrepancy.accountBalance(), discrepancy.ledgerBalance(),
+                        discrepancy.lastSnapshot(), discrepancy.transactionCount(), Timestamp.valueOf(now)});
+            }
+        }
+        if (!results.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, results);
+        }
+
+        // 거래 건수는 step 의 read count 대신 execution context 에 남긴다 (건별 증가 비용 없이)
+        contribution.getStepExecution().getExecutionContext().putLong(TRANSACTION_COUNT, transactions);
+        contribution.incrementWriteCount(results.size());
+        log.info("Reconciliation partition finished. shard : {}, accounts : {} ~ {}, transactions : {}, ledgers : {}, " +
+                        "candidates : {}, discrepancies : {}, elapsed : {}ms",
+                shard, minAccountId, maxAccountId, transactions, ledgers.size(), candidates.size(), results.size(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+        return RepeatStatus.FINISHED;
+    }
+
+    private long accumulate(AccountLedgerMap ledgers) {
+        long[] transactions = new long[1];
+        streamingJdbcTemplate.query(TRANSACTION_SQL, resultSet -> {
+            ledgers.apply(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3));
+            transactions[0]++;
+        }, minAccountId, maxAccountId);
+        return transactions[0];
+    }
+
+    private List<Candidate> compare(AccountLedgerMap ledgers) {
+        List<Candidate> candidates = new ArrayList<>();
+        streamingJdbcTemplate.query(ACCOUNT_SQL, resultSet -> {
+            long accountId = resultSet.getLong(1);
+            int index = ledgers.indexOf(accountId);
+            if (index < 0) {
+                return;
+            }
+            long balance = resultSet.getLong(3);
+            if (classify(balance, ledgers.ledgerBalance(index), ledgers.lastSnapshot(index)) != null) {
+                candidates.add(new Candidate(accountId, resultSet.getString(2), balance));
+            }
+        }, minAccountId, maxAccountId);
+        return candidates;
+    }
+
+    // 한 쿼리(같은 시점)로 다시 계산해서 여전히 다르면 불일치
+    private Discrepancy recheck(long accountId) {
+        return jdbcTemplate.queryForObject(RECHECK_SQL, (resultSet, rowNum) -> {
+            long transactionCount = resultSet.getLong("transaction_count");
+            if (transactionCount == 0) {
+                return null;
+            }
+            long accountBalance = resultSet.getLong("balance");
+            long ledgerBalance = resultSet.getLong("opening") + resultSet.getLong("net");
+            long lastSnapshot = resultSet.getLong("last_snapshot");
+            ReconciliationResultType type = classify(accountBalance, ledgerBalance, lastSnapshot);
+            return type == null ? null
+                    : new Discrepancy(type, accountBalance, ledgerBalance, lastSnapshot, transactionCount);
+        }, accountId);
+    }
+
+    /**
+     * @return 일치하면 null
+     */
+    static ReconciliationResultType classify(long accountBalance, long ledgerBalance, long lastSnapshot) {
+        if (ledgerBalance != accountBalance) {
+            return ReconciliationResultType.LEDGER_MISMATCH;
+        }
+        if (lastSnapshot != accountBalance) {
+            return ReconciliationResultType.SNAPSHOT_MISMATCH;
+        }
+        return null;
+    }
+
+    private record Candidate(long accountId, String accountNumber, long balance) {
+    }
+
+    private record Discrepancy(ReconciliationResultType type, long accountBalance, long ledgerBalance,
+                               long lastSnapshot, long transactionCount) {
+    }
+}
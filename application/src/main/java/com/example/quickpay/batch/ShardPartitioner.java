@@ -0,0 +1,30 @@
+package com.example.quickpay.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 샤드마다 파티션 하나 (gridSize 는 사용하지 않음)
+ * 샤드를 나누지 않으면 파티션도 하나다.
+ */
+@RequiredArgsConstructor
+public class ShardPartitioner implements Partitioner {
+    static final String SHARD = "shard";
+
+    private final int shardCount;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            ExecutionContext context = new ExecutionContext();
+            context.putInt(SHARD, shard);
+            partitions.put("shard" + shard, context);
+        }
+        return partitions;
+    }
+}
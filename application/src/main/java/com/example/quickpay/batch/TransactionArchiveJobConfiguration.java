@@ -0,0 +1,77 @@
+package com.example.quickpay.batch;
+
+import com.example.quickpay.domain.mysql.shard.ShardMap;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * 취소 기간이 지난 거래 보관 job (TransactionArchiveScheduler 가 주기적으로 실행)
+ * job parameter cutoff 이전에 거래된 행을 transaction 에서 transaction_archive 로 옮긴다.
+ * 샤드마다 파티션 하나로 동시에 실행한다.
+ */
+@Configuration
+public class TransactionArchiveJobConfiguration {
+    public static final String JOB_NAME = "transactionArchiveJob";
+    public static final String CUTOFF = "cutoff";
+    static final String MANAGER_STEP_NAME = "transactionArchiveManagerStep";
+
+    @Bean
+    public Job transactionArchiveJob(JobRepository jobRepository, Step transactionArchiveManagerStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(transactionArchiveManagerStep)
+                .build();
+    }
+
+    @Bean
+    public Step transactionArchiveManagerStep(
+            JobRepository jobRepository,
+            Step transactionArchiveStep,
+            ShardMap shardMap
+    ) {
+        // Executor bean 으로 등록하면 applicationTaskExecutor 자동 설정이 빠지므로 step 안에서만 사용
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("transaction-archive-");
+        taskExecutor.setConcurrencyLimit(shardMap.shardCount());
+        return new StepBuilder(MANAGER_STEP_NAME, jobRepository)
+                .partitioner("transactionArchiveStep", new ShardPartitioner(shardMap.shardCount()))
+                .step(transactionArchiveStep)
+                .taskExecutor(taskExecutor)
+                .build();
+    }
+
+    /**
+     * chunk 트랜잭션은 tasklet 이 샤드에서 직접 연다.
+     */
+    @Bean
+    public Step transactionArchiveStep(JobRepository jobRepository, TransactionArchiveTasklet transactionArchiveTasklet) {
+        return new StepBuilder("transactionArchiveStep", jobRepository)
+                .tasklet(transactionArchiveTasklet, new ResourcelessTransactionManager())
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public TransactionArchiveTasklet transactionArchiveTasklet(
+            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("#{stepExecutionContext['" + ShardPartitioner.SHARD + "']}") int shard,
+            @Value("#{jobParameters['" + CUTOFF + "']}") LocalDateTime cutoff,
+            @Value("${quickpay.archive.chunk-size:1000}") int chunkSize
+    ) {
+        return new TransactionArchiveTasklet(namedParameterJdbcTemplate, new TransactionTemplate(transactionManager),
+                shard, cutoff, chunkSize);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.quickpay.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 보관 job 주기 실행
+ * 보관 기준(keep-days)은 취소 가능 기간(1년)보다 길어야 한다. (윤년 포함 366일 이상)
+ */
+@Slf4j
+@Component
+public class TransactionArchiveScheduler {
+    private static final int MIN_KEEP_DAYS = 366;
+
+    private final JobLauncher jobLauncher;
+    private final Job transactionArchiveJob;
+    private final int keepDays;
+
+    public TransactionArchiveScheduler(
+            JobLauncher jobLauncher,
+            @Qualifier(TransactionArchiveJobConfiguration.JOB_NAME) Job transactionArchiveJob,
+            @Value("${quickpay.archive.keep-days:400}") int keepDays
+    ) {
+        if (keepDays < MIN_KEEP_DAYS) {
+            throw new IllegalArgumentException("quickpay.archive.keep-days must be at least " + MIN_KEEP_DAYS);
+        }
+        this.jobLauncher = jobLauncher;
+        this.transactionArchiveJob = transactionArchiveJob;
+        this.keepDays = keepDays;
+    }
+
+    @Scheduled(cron = "${quickpay.archive.cron:0 30 3 * * *}")
+    public void archive() throws Exception {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(keepDays);
+        JobExecution execution = jobLauncher.run(transactionArchiveJob, new JobParametersBuilder()
+                .addLocalDateTime(TransactionArchiveJobConfiguration.CUTOFF, cutoff)
+                .toJobParameters());
+        log.info("Transaction archive job finished. cutoff : {}, status : {}, archived : {}",
+                cutoff, execution.getStatus(),
+                // manager step 에 파티션별 건수가 합산되어 있다
+                execution.getStepExecutions().stream()
+                        .filter(step -> step.getStepName().equals(TransactionArchiveJobConfiguration.MANAGER_STEP_NAME))
+                        .mapToLong(step -> step.getWriteCount())
+                        .sum());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.quickpay.batch;
+
+import com.example.quickpay.domain.mysql.shard.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * cutoff 이전 거래를 chunk-size 건씩 transaction_archive 로 옮긴다.
+ * execute 한 번이 chunk 하나이고 chunk 트랜잭션 안에서 insert/delete 가 같이 commit 된다.
+ * chunk 트랜잭션은 파티션의 샤드에서 직접 연다. (batch 메타데이터 갱신은 global 샤드에서 따로)
+ * 옮길 행은 select ... for update skip locked 로 잡으므로 여러 노드에서 동시에 실행돼도 겹치지 않는다.
+ * 취소 가능한 거래(1년 이내)가 옮겨지지 않도록 cutoff 는 1년보다 이전이어야 한다.
+ */
+@Slf4j
+public class TransactionArchiveTasklet implements Tasklet {
+    private static final String SELECT_SQL = "select id from transaction where transacted_at < :cutoff " +
+            "order by transacted_at, id limit :limit for update skip locked";
+    private static final String ARCHIVE_SQL = "insert into transaction_archive (id, created_at, updated_at, " +
+            "transaction_type, transaction_result_type, account_id, amount, balance_snapshot, transaction_id, " +
+            "legacy_transaction_id, transacted_at, archived_at) " +
+            "select id, created_at, updated_at, transaction_type, transaction_result_type, account_id, amount, " +
+            "balance_snapshot, transaction_id, legacy_transaction_id, transacted_at, :archivedAt " +
+            "from transaction where id in (:ids)";
+    private static final String DELETE_SQL = "delete from transaction where id in (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionOperations transaction;
+    private final int shard;
+    private final LocalDateTime cutoff;
+    private final int chunkSize;
+
+    public TransactionArchiveTasklet(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TransactionOperations transaction,
+            int shard,
+            LocalDateTime cutoff,
+            int chunkSize
+    ) {
+        if (!cutoff.isBefore(LocalDateTime.now().minusYears(1))) {
+            throw new IllegalArgumentException("archive cutoff must be more than one year ago : " + cutoff);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = transaction;
+        this.shard = shard;
+        this.cutoff = cutoff;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        ShardContext.set(shard);
+        try {
+            return transaction.execute(status -> archiveChunk(contribution));
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private RepeatStatus archiveChunk(StepContribution contribution) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_SQL, new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", chunkSize), Long.class);
+        if (ids.isEmpty()) {
+            return RepeatStatus.FINISHED;
+        }
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+        int archived = jdbcTemplate.update(ARCHIVE_SQL, parameters);
+        int deleted = jdbcTemplate.update(DELETE_SQL, parameters);
+        if (archived != ids.size() || deleted != ids.size()) {
+            // chunk 트랜잭션이 rollback 되어 이번 chunk 는 옮겨지지 않는다
+            throw new IllegalStateException("archived " + archived + ", deleted " + deleted +
+                    " rows, expected " + ids.size());
+        }
+        contribution.incrementWriteCount(deleted);
+        log.debug("Transactions archived. shard : {}, cutoff : {}, rows : {}", shard, cutoff, deleted);
+        return ids.size() < chunkSize ? RepeatStatus.FINISHED : RepeatStatus.CONTINUABLE;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.quickpay.config;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드의 읽기 전용 트랜잭션도 primary 로 보내야 하는지 (ReadWriteRoutingDataSource)
+ * - 쓰기 직후 같은 클라이언트의 조회 (ReadYourWritesFilter)
+ * - 쓰기 검증에 쓰는 캐시 적재 (replica 지연으로 오래된 값이 캐시되지 않도록)
+ * 트랜잭션의 connection 을 처음 가져올 때 결정되므로, 이미 replica connection 을 쓰는 트랜잭션에는 영향이 없다.
+ * replica 를 사용하지 않으면 아무 효과가 없다.
+ */
+public final class PrimaryDataSourceContext {
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private PrimaryDataSourceContext() {
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    public static <T> T callOnPrimary(Supplier<T> supplier) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.quickpay.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * @Transactional(readOnly = true) 트랜잭션은 replica, 나머지는 primary 로 보낸다.
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 등록되지 않으므로
+ * LazyConnectionDataSourceProxy 로 감싸서 첫 쿼리 때 connection 을 가져오도록 해야 한다.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+
+    public ReadWriteRoutingDataSource(MeterRegistry meterRegistry) {
+        this.primaryCounter = routeCounter(meterRegistry, Target.PRIMARY);
+        this.replicaCounter = routeCounter(meterRegistry, Target.REPLICA);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !PrimaryDataSourceContext.isPrimaryRequired()) {
+            replicaCounter.increment();
+            return Target.REPLICA;
+        }
+        primaryCounter.increment();
+        return Target.PRIMARY;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, Target target) {
+        return Counter.builder("quickpay.datasource.route")
+                .description("connections routed to each datasource")
+                .tag("target", target.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.quickpay.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 쓰기 직후 같은 클라이언트의 조회는 primary 로 보낸다. (replica 복제 지연 동안 방금 쓴 값이 안 보이는 문제)
+ * 쓰기 요청(GET/HEAD 외)에 "이 시각까지 primary" 를 cookie 와 header 로 내려주고,
+ * 다음 요청에 그 값이 남아 있으면 요청 처리 동안 PrimaryDataSourceContext 를 켠다.
+ * 서버 상태를 두지 않으므로 어느 노드로 가도 같은 결과이다.
+ */
+@Component
+@ConditionalOnProperty(value = "quickpay.datasource.replica.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    static final String COOKIE_NAME = "qp_primary_until";
+    static final String HEADER_NAME = "X-Quickpay-Primary-Until";
+
+    private final long stickyMillis;
+
+    public ReadYourWritesFilter(@Value("${quickpay.datasource.replica.sticky-millis:2000}") long stickyMillis) {
+        this.stickyMillis = stickyMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+        if (write) {
+            // 응답 본문을 쓰기 전에 내려준다
+            long primaryUntil = now + stickyMillis;
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(primaryUntil));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (stickyMillis + 999) / 1000));
+            response.addCookie(cookie);
+            response.setHeader(HEADER_NAME, Long.toString(primaryUntil));
+        }
+
+        if (write || primaryUntil(request) > now) {
+            PrimaryDataSourceContext.requirePrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PrimaryDataSourceContext.clear();
+        }
+    }
+
+    private long primaryUntil(HttpServletRequest request) {
+        String value = request.getHeader(HEADER_NAME);
+        if (value == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    value = cookie.getValue();
+                    break;
+                }
+            }
+        }
+        if (value == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
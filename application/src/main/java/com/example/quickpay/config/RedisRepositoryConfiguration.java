@@ -1,5 +1,6 @@
 package com.example.quickpay.config;
 
+import jakarta.annotation.PreDestroy;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
@@ -7,17 +8,37 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class RedisRepositoryConfiguration {
     @Value("${spring.data.redis.host}")
     private String redisHost;
     @Value("${spring.data.redis.port}")
     private int redisPort;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Redisson 은 외부에서 넘긴 executor 를 종료하지 않으므로 직접 닫는다
+    private ExecutorService redissonExecutor;
 
     @Bean
     public RedissonClient redissonClient() {
         Config config = new Config();
         config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
+        if (virtualThreads) {
+            // listener, RFuture callback 을 virtual thread 에서 실행 (netty event loop 는 그대로 platform thread)
+            redissonExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            config.setExecutor(redissonExecutor);
+        }
         return Redisson.create(config);
     }
+
+    @PreDestroy
+    public void shutdown() {
+        if (redissonExecutor != null) {
+            redissonExecutor.close();
+        }
+    }
 }
@@ -0,0 +1,34 @@
+package com.example.quickpay.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 샤드 번호 순서의 connection pool 목록
+ * 0번(global) 샤드는 bean 으로 따로 등록되어 있으므로 여기서는 나머지 샤드 pool 만 닫는다.
+ */
+public class ShardDataSources implements DisposableBean {
+    private final List<HikariDataSource> shards;
+
+    public ShardDataSources(List<HikariDataSource> shards) {
+        this.shards = List.copyOf(shards);
+    }
+
+    public List<DataSource> all() {
+        return List.copyOf(shards);
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    @Override
+    public void destroy() {
+        shards.stream()
+                .skip(1)
+                .forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.quickpay.config;
+
+import com.example.quickpay.domain.mysql.shard.AccountShardMigrator;
+import com.example.quickpay.domain.mysql.shard.ShardMap;
+import com.example.quickpay.domain.mysql.shard.ShardRoutingDataSource;
+import com.example.quickpay.domain.mysql.shard.ShardSchemaMigrator;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 계좌 번호 기준 수평 분할 (quickpay.sharding.enabled=true)
+ * - 0번(global) 샤드 : spring.datasource.*, 계좌 번호 예약과 batch 메타데이터도 여기에 둔다
+ * - 1번 샤드부터 : quickpay.sharding.shards[*], 기동 시 같은 migration 을 적용
+ * JPA/JdbcTemplate 은 @Primary routing datasource 로 ShardContext 의 샤드를 사용한다. (AccountShardRouter)
+ * replica routing 과는 같이 쓸 수 없다.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardMap shardMap(ShardingProperties properties) {
+        if (!properties.isEnabled()) {
+            return ShardMap.single();
+        }
+        return ShardMap.of(properties.getShards().size() + 1, properties.getBucketCount(), properties.getBuckets())
+                .withFrozenBuckets(properties.getFrozenBuckets());
+    }
+
+    @Configuration
+    @ConditionalOnProperty(value = "quickpay.sharding.enabled", havingValue = "true")
+    static class ShardDataSourceConfiguration {
+
+        @Bean
+        @FlywayDataSource
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource globalShardDataSource(DataSourceProperties properties) {
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            dataSource.setPoolName("shard-0");
+            return dataSource;
+        }
+
+        @Bean
+        public ShardDataSources shardDataSources(
+                @Qualifier("globalShardDataSource") HikariDataSource globalShardDataSource,
+                DataSourceProperties dataSourceProperties,
+                ShardingProperties properties,
+                MeterRegistry meterRegistry,
+                @Value("${spring.flyway.locations:classpath:db/migration}") List<String> migrationLocations,
+                @Value("${quickpay.datasource.replica.enabled:false}") boolean replicaEnabled
+        ) {
+            if (replicaEnabled) {
+                throw new IllegalStateException(
+                        "quickpay.sharding.enabled and quickpay.datasource.replica.enabled cannot be used together");
+            }
+            List<HikariDataSource> shards = new ArrayList<>();
+            shards.add(globalShardDataSource);
+            for (ShardingProperties.Shard shard : properties.getShards()) {
+                HikariDataSource dataSource = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .driverClassName(dataSourceProperties.determineDriverClassName())
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .build();
+                dataSource.setPoolName("shard-" + shards.size());
+                dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+                // bean 이 아니므로 hikaricp.* metric 을 직접 등록
+                dataSource.setMetricRegistry(meterRegistry);
+                ShardSchemaMigrator.migrate(dataSource, shards.size(), migrationLocations);
+                shards.add(dataSource);
+            }
+            return new ShardDataSources(shards);
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardDataSources shardDataSources) {
+            Map<Object, Object> targets = new HashMap<>();
+            List<DataSource> shards = shardDataSources.all();
+            for (int shard = 0; shard < shards.size(); shard++) {
+                targets.put(shard, shards.get(shard));
+            }
+            ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+            routingDataSource.setTargetDataSources(targets);
+            routingDataSource.setDefaultTargetDataSource(shards.get(ShardMap.GLOBAL_SHARD));
+            routingDataSource.afterPropertiesSet();
+            return new LazyConnectionDataSourceProxy(routingDataSource);
+        }
+
+        @Bean
+        public AccountShardMigrator accountShardMigrator(
+                ShardMap shardMap,
+                ShardDataSources shardDataSources,
+                ShardingProperties properties
+        ) {
+            return new AccountShardMigrator(shardMap, shardDataSources.all(), properties.getMigrationChunkSize());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.quickpay.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * quickpay.sharding.*
+ * 0번(global) 샤드는 spring.datasource 를 사용하고, shards 에는 1번 샤드부터 나열한다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("quickpay.sharding")
+public class ShardingProperties {
+    private boolean enabled;
+    // 계좌 번호 hash bucket 수 (재분할 단위, 운영 중에는 바꾸지 않음)
+    private int bucketCount = 1024;
+    // "시작-끝:샤드" 목록, 비어 있으면 bucket 을 샤드 수로 고르게 나눔
+    private String buckets = "";
+    // 이전 중인 bucket (쓰기 거절)
+    private List<Integer> frozenBuckets = new ArrayList<>();
+    private int maximumPoolSize = 10;
+    // 재분할 시 한 번에 복사/삭제할 계좌 수 (AccountShardMigrator)
+    private int migrationChunkSize = 500;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.quickpay.config;
+
+import com.example.quickpay.common.id.SnowflakeTransactionIdGenerator;
+import com.example.quickpay.common.id.TransactionIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 거래 id 생성기
+ * node-id 를 지정하지 않으면 기동할 때 Redis 에서 node id lease 를 받는다. (TransactionIdNodeLease)
+ * (application, application-reactive 가 같은 key 를 사용하므로 동시에 떠 있는 1024 개 노드까지 겹치지 않음)
+ * 생성기가 lease 에 의존하므로 종료할 때 생성기를 쓰는 bean 이 모두 내려간 뒤에 lease 를 놓는다.
+ */
+@Slf4j
+@Configuration
+public class TransactionIdConfiguration {
+    public static final String NODE_COUNTER_KEY = "quickpay:transaction-id:node";
+
+    @Bean(destroyMethod = "release")
+    public TransactionIdNodeLease transactionIdNodeLease(
+            RedissonClient redissonClient,
+            @Value("${quickpay.transaction-id.node-id:-1}") int nodeId,
+            @Value("${quickpay.transaction-id.lease-ttl-millis:30000}") long leaseTtlMillis
+    ) {
+        return new TransactionIdNodeLease(redissonClient, NODE_COUNTER_KEY, nodeId, Duration.ofMillis(leaseTtlMillis));
+    }
+
+    @Bean
+    public TransactionIdGenerator transactionIdGenerator(TransactionIdNodeLease transactionIdNodeLease) {
+        log.info("Transaction id node : {}", transactionIdNodeLease.getNodeId());
+        return new SnowflakeTransactionIdGenerator(transactionIdNodeLease.getNodeId());
+    }
+}
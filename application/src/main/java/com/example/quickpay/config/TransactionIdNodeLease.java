@@ -0,0 +1,115 @@
+package com.example.quickpay.config;
+
+import com.example.quickpay.common.id.SnowflakeTransactionIdGenerator;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * snowflake node id lease
+ * node id 마다 Redis key 하나를 SET NX + TTL 로 잡고, heartbeat 로 TTL 을 연장한다.
+ * 노드가 죽으면 TTL 이 지난 뒤에 다른 노드가 같은 id 를 받는다. (counter 나머지처럼 살아 있는 노드와 겹치지 않음)
+ * 연장 전에 key 가 사라졌으면 (Redis 장애 등) 같은 id 를 다시 잡는다.
+ * node id 를 설정으로 지정하면 Redis 없이 그 값을 그대로 쓴다.
+ */
+@Slf4j
+public class TransactionIdNodeLease {
+    public static final String NODE_KEY_PREFIX = "quickpay:transaction-id:node:";
+
+    private static final String RENEW_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('pexpire', KEYS[1], ARGV[2]) " +
+            "end " +
+            "return 0";
+    private static final String RELEASE_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('del', KEYS[1]) " +
+            "end " +
+            "return 0";
+
+    private final RedissonClient redissonClient;
+    private final Duration ttl;
+    private final String owner = UUID.randomUUID().toString();
+    private final ScheduledExecutorService heartbeat;
+
+    @Getter
+    private final int nodeId;
+
+    public TransactionIdNodeLease(RedissonClient redissonClient, String counterKey, int configuredNodeId, Duration ttl) {
+        this.redissonClient = redissonClient;
+        this.ttl = ttl;
+        if (configuredNodeId >= 0) {
+            this.nodeId = configuredNodeId;
+            this.heartbeat = null;
+            return;
+        }
+        this.nodeId = acquire(counterKey);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-id-node-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, ttl.toMillis() / 3);
+        heartbeat.scheduleWithFixedDelay(this::renew, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // counter 로 시작 위치를 나눠서 기동하는 노드끼리 같은 id 를 두고 다투지 않게 한다
+    private int acquire(String counterKey) {
+        long start = redissonClient.getAtomicLong(counterKey).incrementAndGet();
+        for (int i = 0; i <= SnowflakeTransactionIdGenerator.MAX_NODE_ID; i++) {
+            int candidate = (int) Math.floorMod(start + i, SnowflakeTransactionIdGenerator.MAX_NODE_ID + 1);
+            if (bucket(candidate).setIfAbsent(owner, ttl)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("no free transaction id node among "
+                + (SnowflakeTransactionIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    void renew() {
+        try {
+            if (Boolean.TRUE.equals(eval(RENEW_SCRIPT, owner, String.valueOf(ttl.toMillis())))) {
+                return;
+            }
+            if (bucket(nodeId).setIfAbsent(owner, ttl)) {
+                log.warn("Transaction id node lease expired and re-acquired : {}", nodeId);
+                return;
+            }
+            log.error("Transaction id node lease taken by another node, ids may collide : {}", nodeId);
+        } catch (RuntimeException e) {
+            log.error("Failed to renew transaction id node lease : {}", nodeId, e);
+        }
+    }
+
+    public void release() {
+        if (heartbeat == null) {
+            return;
+        }
+        heartbeat.shutdownNow();
+        try {
+            eval(RELEASE_SCRIPT, owner);
+        } catch (RuntimeException e) {
+            // TTL 이 지나면 풀린다
+            log.warn("Failed to release transaction id node lease : {}", nodeId, e);
+        }
+    }
+
+    private Boolean eval(String script, Object... values) {
+        return redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, script,
+                RScript.ReturnType.BOOLEAN, List.of(NODE_KEY_PREFIX + nodeId), values);
+    }
+
+    private RBucket<String> bucket(int candidate) {
+        return redissonClient.getBucket(NODE_KEY_PREFIX + candidate, StringCodec.INSTANCE);
+    }
+}
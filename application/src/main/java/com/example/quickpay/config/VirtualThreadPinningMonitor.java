@@ -0,0 +1,89 @@
+package com.example.quickpay.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * virtual thread pinning 감시
+ * synchronized 블록이나 native 호출 안에서 block 되어 carrier thread 를 붙잡은 경우(jdk.VirtualThreadPinned)
+ * 경고 로그와 quickpay.virtual.pinned metric 을 남긴다.
+ * lock/JDBC 경로에 pinning 이 생기면 carrier 수(=CPU 수) 만큼만 동시에 처리되므로 0 을 유지해야 한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.example.quickpay";
+    private static final int LOGGED_FRAMES = 15;
+
+    private final Duration threshold;
+    private final Counter applicationPinnedCounter;
+    private final Counter libraryPinnedCounter;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${quickpay.virtual.pinning.threshold-millis:20}") long thresholdMillis,
+            MeterRegistry meterRegistry
+    ) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.applicationPinnedCounter = Counter.builder("quickpay.virtual.pinned")
+                .tag("source", "application")
+                .description("virtual thread pinned events with application frames on the stack")
+                .register(meterRegistry);
+        this.libraryPinnedCounter = Counter.builder("quickpay.virtual.pinned")
+                .tag("source", "library")
+                .description("virtual thread pinned events inside libraries only")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT)
+                .withThreshold(threshold)
+                .withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started. threshold : {}ms", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null
+                ? List.of()
+                : event.getStackTrace().getFrames();
+        boolean fromApplication = frames.stream()
+                .anyMatch(frame -> frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE));
+        if (fromApplication) {
+            applicationPinnedCounter.increment();
+        } else {
+            libraryPinnedCounter.increment();
+        }
+        log.warn("Virtual thread pinned for {}ms\n{}", event.getDuration().toMillis(), frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "."
+                        + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n")));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.quickpay.controller;
 
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.common.type.TransactionType;
 import com.example.quickpay.dto.AccountInfo;
 import com.example.quickpay.dto.CreateAccount;
 import com.example.quickpay.dto.DeleteAccount;
+import com.example.quickpay.dto.TransactionHistory;
 import com.example.quickpay.service.AccountService;
+import com.example.quickpay.service.TransactionHistoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,6 +22,7 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/v1")
 public class AccountController {
     private final AccountService accountService;
+    private final TransactionHistoryService transactionHistoryService;
 
     @PostMapping("/account")
     public CreateAccount.Response createAccount(@RequestBody @Valid CreateAccount.Request request) {
@@ -49,4 +56,27 @@ public class AccountController {
         return AccountInfo.from(accountService.getAccount(id));
     }
 
+    /**
+     * 계좌 거래 내역 (최근 거래부터)
+     * 다음 페이지는 응답의 nextCursor 를 cursor 로 넘겨서 조회
+     */
+    @GetMapping("/account/{accountNumber}/transactions")
+    public TransactionHistory.Response getTransactions(
+            @PathVariable("accountNumber") String accountNumber,
+            @RequestParam(value = "transaction_type", required = false) TransactionType transactionType,
+            @RequestParam(value = "transaction_result", required = false) TransactionResultType transactionResult,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        return TransactionHistory.Response.from(
+                transactionHistoryService.getTransactions(
+                        accountNumber, transactionType, transactionResult, from, to, cursor, size
+                )
+        );
+    }
+
 }
@@ -1,19 +1,36 @@
 package com.example.quickpay.controller;
 
 import com.example.quickpay.aop.AccountLock;
+import com.example.quickpay.aop.BalanceWriteMode;
+import com.example.quickpay.aop.Idempotent;
 import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.TransactionType;
 import com.example.quickpay.dto.CancelBalance;
 import com.example.quickpay.dto.QueryTransactionResponse;
 import com.example.quickpay.dto.UseBalance;
+import com.example.quickpay.dto.UseBalanceBatch;
+import com.example.quickpay.service.FailedTransactionAuditor;
+import com.example.quickpay.service.TransactionBatchService;
+import com.example.quickpay.service.TransactionGroupCommitter;
 import com.example.quickpay.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * 1. 잔액 사용
+ *    - /transaction/use/conditional : lock 없이 조건부 UPDATE 로 차감
+ *    - /transaction/use/batch : 계좌별로 묶어 처리하고 항목별 결과를 NDJSON 으로 전달
  * 2. 잔액 사용 취소
+ *    - 사용/취소는 Idempotency-Key header 로 재시도 시 처음 응답을 그대로 받는다
  * 3. 거래 확인
  */
 @Slf4j
@@ -21,20 +38,58 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 @RequestMapping("/api/v1")
 public class TransactionController {
+    private static final long BATCH_TIMEOUT_MILLIS = 60_000L;
+    private static final MediaType NDJSON = new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8);
+
     private final TransactionService transactionService;
+    private final TransactionGroupCommitter transactionGroupCommitter;
+    private final FailedTransactionAuditor failedTransactionAuditor;
+    private final TransactionBatchService transactionBatchService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/transaction/use")
+    @Idempotent("use")
     @AccountLock
     public UseBalance.Response useBalance(
             @Valid @RequestBody UseBalance.Request request
     ) {
+        if (transactionGroupCommitter.isEnabled()) {
+            // 실패 거래도 group commit batch 안에서 저장된다
+            return UseBalance.Response.from(
+                    transactionGroupCommitter.useBalance(request.getUserId(), request.getAccountNumber(), request.getAmount())
+            );
+        }
         try {
             return UseBalance.Response.from(
                     transactionService.useBalance(request.getUserId(), request.getAccountNumber(), request.getAmount())
             );
         } catch (QuickPayException e) {
             log.error("Failed to use balance. ");
-            transactionService.saveFailedUseTransaction(
+            // 실패 거래는 비동기로 기록하고 lock 을 바로 놓는다
+            failedTransactionAuditor.record(
+                    TransactionType.USE,
+                    request.getAccountNumber(),
+                    request.getAmount()
+            );
+            throw e;
+        }
+    }
+
+    @PostMapping("/transaction/use/conditional")
+    @Idempotent("use")
+    @AccountLock(writeMode = BalanceWriteMode.CONDITIONAL_UPDATE)
+    public UseBalance.Response useBalanceWithConditionalUpdate(
+            @Valid @RequestBody UseBalance.Request request
+    ) {
+        try {
+            return UseBalance.Response.from(
+                    transactionService.useBalanceWithConditionalUpdate(request.getUserId(), request.getAccountNumber(), request.getAmount())
+            );
+        } catch (QuickPayException e) {
+            log.error("Failed to use balance. ");
+            // 실패 거래는 비동기로 기록하고 lock 을 바로 놓는다
+            failedTransactionAuditor.record(
+                    TransactionType.USE,
                     request.getAccountNumber(),
                     request.getAmount()
             );
@@ -42,7 +97,34 @@ public class TransactionController {
         }
     }
 
+    @PostMapping("/transaction/use/batch")
+    public ResponseBodyEmitter useBalances(
+            @Valid @RequestBody UseBalanceBatch.Request request
+    ) {
+        List<UseBalance.Request> items = request.getItems();
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(BATCH_TIMEOUT_MILLIS);
+        transactionBatchService.useBalances(request.toCommands(), (index, result) -> {
+            try {
+                // 한 줄을 한 번에 보내야 여러 계좌의 결과가 섞이지 않는다
+                emitter.send(objectMapper.writeValueAsString(
+                        UseBalanceBatch.ItemResponse.from(index, items.get(index), result)) + "\n",
+                        NDJSON);
+            } catch (IOException | IllegalStateException e) {
+                // 클라이언트 연결이 끊겨도 나머지 항목은 계속 처리된다
+                log.warn("Failed to send batch item result. index : {}", index);
+            }
+        }).whenComplete((ignored, e) -> {
+            if (e != null) {
+                emitter.completeWithError(e);
+            } else {
+                emitter.complete();
+            }
+        });
+        return emitter;
+    }
+
     @PostMapping("/transaction/cancel")
+    @Idempotent("cancel")
     @AccountLock
     public CancelBalance.Response cancelBalance(
             @Valid @RequestBody CancelBalance.Request request
@@ -53,7 +135,8 @@ public class TransactionController {
             );
         } catch (QuickPayException e) {
             log.error("Failed to use balance. ");
-            transactionService.saveFailedCancelTransaction(
+            failedTransactionAuditor.record(
+                    TransactionType.CANCEL,
                     request.getAccountNumber(),
                     request.getAmount()
             );
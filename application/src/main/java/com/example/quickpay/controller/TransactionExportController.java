@@ -0,0 +1,66 @@
+package com.example.quickpay.controller;
+
+import com.example.quickpay.service.TransactionExportService;
+import com.example.quickpay.service.dto.TransactionExportFormat;
+import com.example.quickpay.service.dto.TransactionHistoryCursor;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 하루치 거래 내보내기 (NDJSON / CSV)
+ * 응답 출력 스트림에 바로 쓰고, Accept-Encoding 에 gzip 이 있으면 gzip 으로 압축한다.
+ * 중간에 끊기면 마지막으로 받은 행의 cursor 를 넘겨서 이어받는다.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1")
+public class TransactionExportController {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final TransactionExportService transactionExportService;
+
+    @GetMapping("/transaction/export")
+    public void exportTransactions(
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(value = "format", defaultValue = "NDJSON") TransactionExportFormat format,
+            @RequestParam(value = "shard", defaultValue = "0") int shard,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
+        // 응답을 쓰기 전에 검증해서 잘못된 cursor, 샤드 번호는 일반 오류 응답으로 돌려준다
+        transactionExportService.validateShard(shard);
+        TransactionHistoryCursor after = cursor == null ? null : TransactionHistoryCursor.decode(cursor);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("transactions-" + date + "." + format.getExtension())
+                .build()
+                .toString());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE)) {
+                transactionExportService.export(date, format, shard, after, gzipOut);
+            }
+        } else {
+            transactionExportService.export(date, format, shard, after, out);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.quickpay.dto;
 
 import com.example.quickpay.aop.AccountLockIdInterface;
+import com.example.quickpay.aop.TransactionIdInterface;
 import com.example.quickpay.common.type.TransactionResultType;
 import com.example.quickpay.service.dto.TransactionDto;
 import jakarta.validation.constraints.*;
@@ -16,7 +17,7 @@ public class CancelBalance {
     @AllArgsConstructor
     @NoArgsConstructor
     @Builder
-    public static class Request implements AccountLockIdInterface {
+    public static class Request implements AccountLockIdInterface, TransactionIdInterface {
         @NotNull
         private String transactionId;
 
@@ -0,0 +1,30 @@
+package com.example.quickpay.dto;
+
+import com.example.quickpay.service.dto.TransactionHistoryPage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+public class TransactionHistory {
+    @Getter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Response {
+        private List<QueryTransactionResponse> transactions;
+        // 다음 페이지 요청 시 cursor 로 넘긴다. 마지막 페이지면 null
+        private String nextCursor;
+
+        public static Response from(TransactionHistoryPage page) {
+            return builder()
+                    .transactions(page.getTransactions().stream()
+                            .map(QueryTransactionResponse::from)
+                            .toList())
+                    .nextCursor(page.getNextCursor())
+                    .build();
+        }
+    }
+}
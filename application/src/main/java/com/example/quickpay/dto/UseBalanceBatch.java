@@ -0,0 +1,80 @@
+package com.example.quickpay.dto;
+
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.service.dto.TransactionDto;
+import com.example.quickpay.service.dto.UseBalanceCommand;
+import com.example.quickpay.service.dto.UseBalanceResult;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class UseBalanceBatch {
+    @Getter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Request {
+        @NotEmpty
+        @Size(max = 1000)
+        private List<@Valid UseBalance.Request> items;
+
+        public List<UseBalanceCommand> toCommands() {
+            return items.stream()
+                    .map(item -> UseBalanceCommand.builder()
+                            .userId(item.getUserId())
+                            .accountNumber(item.getAccountNumber())
+                            .amount(item.getAmount())
+                            .build())
+                    .toList();
+        }
+    }
+
+    /**
+     * 항목별 결과 (NDJSON 한 줄)
+     * index 는 요청 items 안의 위치
+     */
+    @Getter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class ItemResponse {
+        private int index;
+        private String accountNumber;
+        private TransactionResultType transactionResult;
+        private String transactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+        private ErrorCode errorCode;
+        private String errorMessage;
+
+        public static ItemResponse from(int index, UseBalance.Request request, UseBalanceResult result) {
+            if (!result.isSuccess()) {
+                return builder()
+                        .index(index)
+                        .accountNumber(request.getAccountNumber())
+                        .transactionResult(TransactionResultType.FAILED)
+                        .amount(request.getAmount())
+                        .errorCode(result.getErrorCode())
+                        .errorMessage(result.getErrorCode().getDescription())
+                        .build();
+            }
+            TransactionDto transactionDto = result.getTransaction();
+            return builder()
+                    .index(index)
+                    .accountNumber(transactionDto.getAccountNumber())
+                    .transactionResult(transactionDto.getTransactionResultType())
+                    .transactionId(transactionDto.getTransactionId())
+                    .amount(transactionDto.getAmount())
+                    .transactedAt(transactionDto.getTransactedAt())
+                    .build();
+        }
+    }
+}
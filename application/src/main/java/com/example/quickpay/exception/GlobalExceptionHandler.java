@@ -4,10 +4,13 @@ import com.example.quickpay.common.exception.QuickPayException;
 import com.example.quickpay.exception.dto.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import static com.example.quickpay.common.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
 import static com.example.quickpay.common.type.ErrorCode.INTERNAL_SERVER_ERROR;
 import static com.example.quickpay.common.type.ErrorCode.INVALID_REQUEST;
 
@@ -34,6 +37,17 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    // query parameter 형식 오류 (enum, 날짜 등)
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ErrorResponse handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException e) {
+        log.error("MethodArgumentTypeMismatchException is occurred.", e);
+
+        return ErrorResponse.builder()
+                .errorCode(INVALID_REQUEST)
+                .errorMessage(INVALID_REQUEST.getDescription())
+                .build();
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException e) {
         log.error("DataIntegrityViolationException is occurred.", e);
@@ -44,6 +58,17 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    // 조건부 UPDATE 와 동시에 엔티티 변경이 일어나 version 이 어긋난 경우
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ErrorResponse handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        log.error("OptimisticLockingFailureException is occurred.", e);
+
+        return ErrorResponse.builder()
+                .errorCode(ACCOUNT_TRANSACTION_LOCK)
+                .errorMessage(ACCOUNT_TRANSACTION_LOCK.getDescription())
+                .build();
+    }
+
     @ExceptionHandler(Exception.class)
     public ErrorResponse handleException(Exception e) {
         log.error("Exception is occurred.", e);
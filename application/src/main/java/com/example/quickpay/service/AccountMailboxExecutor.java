@@ -0,0 +1,281 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.config.PrimaryDataSourceContext;
+import com.example.quickpay.domain.mysql.shard.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 계좌별 단일 실행기 (mailbox)
+ * 한 계좌의 사용/취소 요청은 해당 계좌 mailbox 에 순서대로 쌓이고,
+ * 공용 worker pool 에서 한 번에 하나씩 실행된다.
+ * 같은 계좌 요청이 동시에 실행되지 않으므로 lock 을 잡지 않는다.
+ * (노드 간 동시 실행은 Account version 컬럼으로 막는다)
+ * 작업은 worker 스레드에서 실행되므로 호출 스레드의 샤드/primary 지정 (ShardContext, PrimaryDataSourceContext) 을 옮겨서 실행한다.
+ */
+@Slf4j
+@Component
+public class AccountMailboxExecutor {
+    // mailbox 하나가 worker 를 연속으로 점유하는 최대 작업 수
+    private static final int DRAIN_BATCH_SIZE = 64;
+
+    @Getter
+    private final boolean enabled;
+    private final int queueCapacity;
+    private final int maxPending;
+    private final long waitMillis;
+    private final ExecutorService workers;
+
+    private final ConcurrentHashMap<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Counter rejectedCounter;
+    private final Counter abandonedCounter;
+
+    public AccountMailboxExecutor(
+            @Value("${quickpay.mailbox.enabled:false}") boolean enabled,
+            @Value("${quickpay.mailbox.worker-threads:16}") int workerThreads,
+            @Value("${quickpay.mailbox.queue-capacity:128}") int queueCapacity,
+            @Value("${quickpay.mailbox.max-pending:10000}") int maxPending,
+            @Value("${quickpay.mailbox.wait-millis:3000}") long waitMillis,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.maxPending = maxPending;
+        this.waitMillis = waitMillis;
+        this.workers = enabled ? Executors.newFixedThreadPool(workerThreads, workerThreadFactory()) : null;
+
+        Gauge.builder("quickpay.mailbox.pending", pending, AtomicInteger::get)
+                .description("commands queued in account mailboxes")
+                .register(meterRegistry);
+        Gauge.builder("quickpay.mailbox.active", mailboxes, ConcurrentHashMap::size)
+                .description("accounts with queued or running commands")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("quickpay.mailbox.rejected")
+                .description("commands rejected because the mailbox was full")
+                .register(meterRegistry);
+        this.abandonedCounter = Counter.builder("quickpay.mailbox.abandoned")
+                .description("commands abandoned by callers before they started")
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    public interface AccountCommand<T> {
+        T run() throws Throwable;
+    }
+
+    /**
+     * 계좌 mailbox 에 작업을 넣고 결과를 기다린다.
+     * 대기 시간 안에 작업이 시작되지 않으면 작업을 취소하고 ACCOUNT_TRANSACTION_LOCK 을 던진다.
+     */
+    public <T> T execute(String accountNumber, AccountCommand<T> command) throws Throwable {
+        Task<T> task = new Task<>(command);
+        submit(accountNumber, task);
+        try {
+            return task.result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (task.claimed.compareAndSet(false, true)) {
+                abandonedCounter.increment();
+                log.error("========Account mailbox wait timeout=======");
+                throw new QuickPayException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+            // 이미 실행 중인 작업은 결과를 끝까지 기다린다
+            try {
+                return task.result.join();
+            } catch (CompletionException ce) {
+                throw ce.getCause();
+            }
+        }
+    }
+
+    private void submit(String accountNumber, Task<?> task) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            rejectedCounter.increment();
+            throw new QuickPayException(ErrorCode.ACCOUNT_REQUEST_QUEUE_FULL);
+        }
+
+        Admission[] admission = new Admission[1];
+        Mailbox mailbox = mailboxes.compute(accountNumber, (key, current) -> {
+            Mailbox target = current == null ? new Mailbox(key) : current;
+            admission[0] = target.offer(task);
+            return target;
+        });
+
+        if (admission[0] == Admission.REJECTED) {
+            pending.decrementAndGet();
+            rejectedCounter.increment();
+            throw new QuickPayException(ErrorCode.ACCOUNT_REQUEST_QUEUE_FULL);
+        }
+        if (admission[0] == Admission.SCHEDULE) {
+            schedule(mailbox);
+        }
+    }
+
+    // 종료 중이라 worker 에 넣지 못하면 mailbox 에 쌓인 작업을 모두 거절한다 (대기 수도 같이 줄임)
+    private void schedule(Mailbox mailbox) {
+        try {
+            workers.execute(mailbox);
+        } catch (RejectedExecutionException e) {
+            log.error("Account mailbox worker rejected, accountNumber : {}", mailbox.accountNumber);
+            mailbox.rejectAll();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (workers == null) {
+            return;
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Account mailbox workers did not terminate in time");
+        }
+    }
+
+    private enum Admission {
+        QUEUED, SCHEDULE, REJECTED
+    }
+
+    private final class Mailbox implements Runnable {
+        private final String accountNumber;
+        private final Queue<Task<?>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        // offer / 종료 판단은 mailboxes.compute 안에서만 일어난다
+        private boolean scheduled;
+
+        private Mailbox(String accountNumber) {
+            this.accountNumber = accountNumber;
+        }
+
+        private Admission offer(Task<?> task) {
+            if (size.get() >= queueCapacity) {
+                return Admission.REJECTED;
+            }
+            queue.add(task);
+            size.incrementAndGet();
+            if (scheduled) {
+                return Admission.QUEUED;
+            }
+            scheduled = true;
+            return Admission.SCHEDULE;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < DRAIN_BATCH_SIZE; i++) {
+                Task<?> task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                size.decrementAndGet();
+                pending.decrementAndGet();
+                task.run();
+            }
+
+            // 남은 작업이 있으면 다시 예약하고, 없으면 mailbox 를 제거한다
+            boolean[] reschedule = new boolean[1];
+            mailboxes.computeIfPresent(accountNumber, (key, current) -> {
+                if (current.queue.isEmpty()) {
+                    current.scheduled = false;
+                    return null;
+                }
+                reschedule[0] = true;
+                return current;
+            });
+            if (reschedule[0]) {
+                schedule(this);
+            }
+        }
+
+        private void rejectAll() {
+            // 제거한 뒤로는 이 mailbox 에 작업이 들어오지 않는다 (offer 는 mailboxes.compute 안에서만)
+            mailboxes.computeIfPresent(accountNumber, (key, current) -> current == this ? null : current);
+            Task<?> task;
+            while ((task = queue.poll()) != null) {
+                size.decrementAndGet();
+                pending.decrementAndGet();
+                rejectedCounter.increment();
+                task.reject(new QuickPayException(ErrorCode.ACCOUNT_REQUEST_QUEUE_FULL));
+            }
+        }
+    }
+
+    private static final class Task<T> implements Runnable {
+        private final AccountCommand<T> command;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        // 실행 시작과 호출자 포기 중 먼저 온 쪽만 성공한다
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        // 작업을 넣은 스레드의 context
+        private final Integer shard = ShardContext.current();
+        private final boolean primaryRequired = PrimaryDataSourceContext.isPrimaryRequired();
+
+        private Task(AccountCommand<T> command) {
+            this.command = command;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            Integer previousShard = ShardContext.current();
+            boolean previousPrimaryRequired = PrimaryDataSourceContext.isPrimaryRequired();
+            applyContext(shard, primaryRequired);
+            try {
+                result.complete(command.run());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                applyContext(previousShard, previousPrimaryRequired);
+            }
+        }
+
+        private void reject(QuickPayException e) {
+            if (claimed.compareAndSet(false, true)) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static void applyContext(Integer shard, boolean primaryRequired) {
+        if (shard == null) {
+            ShardContext.clear();
+        } else {
+            ShardContext.set(shard);
+        }
+        if (primaryRequired) {
+            PrimaryDataSourceContext.requirePrimary();
+        } else {
+            PrimaryDataSourceContext.clear();
+        }
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "account-mailbox-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
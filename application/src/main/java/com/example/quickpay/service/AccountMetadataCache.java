@@ -0,0 +1,109 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.redis.RedisTopics;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.config.PrimaryDataSourceContext;
+import com.example.quickpay.domain.mysql.repository.AccountRepository;
+import com.example.quickpay.service.dto.AccountMetadata;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * 계좌 번호 -> 계좌 정보(id, 소유주, 상태) near cache
+ * 소유주는 바뀌지 않고 상태는 해지 방향으로만 바뀌므로, 캐시가 늦게 갱신되어도
+ * 잔액 row 를 읽은 뒤 한 번 더 검증하면 정합성이 유지된다.
+ * 상태가 바뀌면 commit 이후 Redis pub/sub 으로 모든 노드에 무효화를 알린다.
+ */
+@Slf4j
+@Component
+public class AccountMetadataCache {
+    private final AccountRepository accountRepository;
+    private final RTopic invalidationTopic;
+    private final Cache<String, AccountMetadata> cache;
+    private int listenerId;
+
+    public AccountMetadataCache(
+            AccountRepository accountRepository,
+            RedissonClient redissonClient,
+            @Value("${quickpay.account-cache.max-size:100000}") long maxSize,
+            @Value("${quickpay.account-cache.ttl-seconds:600}") long ttlSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        this.accountRepository = accountRepository;
+        this.invalidationTopic = redissonClient.getTopic(RedisTopics.ACCOUNT_METADATA_INVALIDATION, StringCodec.INSTANCE);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "account-metadata");
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerId = invalidationTopic.addListener(String.class,
+                (channel, accountNumber) -> cache.invalidate(accountNumber));
+    }
+
+    /**
+     * 없는 계좌는 캐시하지 않는다.
+     * 쓰기 검증에 쓰는 값이므로 replica 가 아닌 primary 에서 읽는다.
+     */
+    public AccountMetadata get(String accountNumber) {
+        AccountMetadata metadata = cache.get(accountNumber, key -> PrimaryDataSourceContext.callOnPrimary(
+                () -> accountRepository.findByAccountNumber(key)
+                        .map(AccountMetadata::from)
+                        .orElse(null)));
+        if (metadata == null) {
+            throw new QuickPayException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+        return metadata;
+    }
+
+    /**
+     * 상태 변경 후 호출
+     * 트랜잭션 안이면 commit 이후에 무효화해서, commit 전 값이 다시 캐시되지 않도록 한다.
+     */
+    public void invalidate(String accountNumber) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(accountNumber);
+                }
+            });
+        } else {
+            broadcast(accountNumber);
+        }
+    }
+
+    private void broadcast(String accountNumber) {
+        cache.invalidate(accountNumber);
+        try {
+            invalidationTopic.publish(accountNumber);
+        } catch (RuntimeException e) {
+            // 다른 노드는 TTL 이 지나면 다시 읽는다
+            log.error("Failed to publish account metadata invalidation : {}", accountNumber, e);
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        invalidationTopic.removeListener(listenerId);
+    }
+}
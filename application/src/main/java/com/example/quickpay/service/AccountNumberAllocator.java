@@ -0,0 +1,98 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.domain.mysql.shard.ShardContext;
+import com.example.quickpay.domain.mysql.shard.ShardMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 계좌 번호 구간 예약
+ * account_number_seq row 에서 block-size 만큼 번호를 한 번에 예약하고 메모리에서 나눠준다.
+ * 예약은 row lock(select ... for update) 으로 직렬화되므로 여러 노드가 동시에 예약해도 구간이 겹치지 않는다.
+ * Hibernate sequence 테이블처럼 별도 트랜잭션(REQUIRES_NEW)으로 바로 commit 해서
+ * 계좌 생성 트랜잭션이 끝날 때까지 seq row lock 을 잡고 있지 않도록 한다.
+ * (서버가 내려가면 남은 구간은 버려져서 계좌 번호에 빈 구간이 생길 수 있다)
+ * 샤드를 나눠도 계좌 번호는 global 샤드의 account_number_seq 하나에서 예약한다.
+ */
+@Slf4j
+@Component
+public class AccountNumberAllocator {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final long blockSize;
+
+    private final ReentrantLock reserveLock = new ReentrantLock();
+    private volatile Block block = Block.EMPTY;
+
+    public AccountNumberAllocator(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${quickpay.account-number.block-size:1000}") long blockSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    public String nextAccountNumber() {
+        long accountNumber = block.next();
+        if (accountNumber < 0) {
+            accountNumber = nextFromNewBlock();
+        }
+        return String.valueOf(accountNumber);
+    }
+
+    private long nextFromNewBlock() {
+        reserveLock.lock();
+        try {
+            // 기다리는 동안 다른 스레드가 이미 예약한 경우
+            long accountNumber = block.next();
+            while (accountNumber < 0) {
+                block = reserve();
+                accountNumber = block.next();
+            }
+            return accountNumber;
+        } finally {
+            reserveLock.unlock();
+        }
+    }
+
+    private Block reserve() {
+        Block reserved = ShardContext.callOnShard(ShardMap.GLOBAL_SHARD, () -> newTransaction.execute(status -> {
+            Long lo = jdbcTemplate.queryForObject("select next_val from account_number_seq for update", Long.class);
+            jdbcTemplate.update("update account_number_seq set next_val = ?", lo + blockSize);
+            return new Block(lo, lo + blockSize);
+        }));
+        log.debug("Reserved account numbers [{}, {})", reserved.lo, reserved.end);
+        return reserved;
+    }
+
+    private static final class Block {
+        private static final Block EMPTY = new Block(0, 0);
+
+        private final long lo;
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long lo, long end) {
+            this.lo = lo;
+            this.next = new AtomicLong(lo);
+            this.end = end;
+        }
+
+        // 구간을 다 쓰면 -1
+        private long next() {
+            long accountNumber = next.getAndIncrement();
+            return accountNumber < end ? accountNumber : -1;
+        }
+    }
+}
@@ -6,7 +6,6 @@ import com.example.quickpay.common.type.ErrorCode;
 import com.example.quickpay.domain.mysql.entity.Account;
 import com.example.quickpay.domain.mysql.entity.Member;
 import com.example.quickpay.domain.mysql.repository.AccountRepository;
-import com.example.quickpay.domain.mysql.repository.MemberRepository;
 import com.example.quickpay.service.dto.AccountDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -22,41 +21,60 @@ import static com.example.quickpay.common.type.ErrorCode.*;
 @Service
 @RequiredArgsConstructor
 public class AccountService {
+    // 이전 중인 bucket 에 걸린 번호를 다시 뽑는 횟수
+    private static final int MAX_ACCOUNT_NUMBER_ATTEMPTS = 100;
+
     private final AccountRepository accountRepository;
-    private final MemberRepository memberRepository;
+    private final MemberCache memberCache;
+    private final AccountMetadataCache accountMetadataCache;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountShardRouter accountShardRouter;
+    private final ExistenceFilter existenceFilter;
 
     /**
+     * 계좌 번호를 생성하고 (계좌 번호로 샤드가 정해지므로 먼저 생성, 검증에 실패하면 번호는 버려진다)
+     * - 이전 중인 bucket 의 번호는 버리고 다시 생성
      * 사용자가 있는지 조회
      * 계좌가 10개 있는지 조회
-     * 계좌 번호를 생성하고
-     * 계좌를 저장하고, 그 정보를 넘긴다
+     * 계좌를 저장하고 (계좌 번호 filter 에도 추가), 그 정보를 넘긴다
      */
     @Transactional
     public AccountDto createAccount(Long userId, Long initialBalance) {
+        String newAccountNumber = nextWritableAccountNumber();
+        accountShardRouter.bindTransaction(newAccountNumber);
         Member member = getMember(userId);
         validateCreateAccount(member);
-        String newAccountNumber = createNewAccountNumber();
         Account account = accountRepository.save(createNewAccount(initialBalance, member, newAccountNumber));
+        existenceFilter.addAccount(newAccountNumber);
         return AccountDto.fromEntity(account);
     }
 
+    private String nextWritableAccountNumber() {
+        for (int attempt = 0; attempt < MAX_ACCOUNT_NUMBER_ATTEMPTS; attempt++) {
+            String accountNumber = accountNumberAllocator.nextAccountNumber();
+            if (!accountShardRouter.isFrozen(accountNumber)) {
+                return accountNumber;
+            }
+        }
+        throw new QuickPayException(ErrorCode.ACCOUNT_MIGRATING);
+    }
+
     private Member getMember(Long userId) {
-        return memberRepository.findById(userId)
+        return memberCache.findById(userId)
                 .orElseThrow(() -> new QuickPayException(USER_NOT_FOUND));
     }
 
+    // 사용자의 계좌는 여러 샤드에 나뉘어 있을 수 있다
     private void validateCreateAccount(Member member) {
-        if (accountRepository.countByAccountUser(member).equals(10)) {
+        int accounts = accountShardRouter.queryAllShards(() -> List.of(accountRepository.countByAccountUser(member)))
+                .stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        if (accounts >= 10) {
             throw new QuickPayException(ErrorCode.MAX_ACCOUNT_PER_USER_10);
         }
     }
 
-    private String createNewAccountNumber() {
-        return accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "")
-                .orElse("1000000000");
-    }
-
     private Account createNewAccount(Long initialBalance, Member member, String newAccountNumber) {
         return Account.builder()
                 .accountUser(member)
@@ -69,6 +87,7 @@ public class AccountService {
 
     @Transactional
     public AccountDto deleteAccount(Long userId, String accountNumber) {
+        accountShardRouter.bindTransaction(accountNumber);
         Member member = getMember(userId);
         Account account = getAccount(accountNumber);
 
@@ -76,6 +95,8 @@ public class AccountService {
 
         account.setAccountStatus(AccountStatus.UNREGISTERED);
         account.setUnRegisteredAt(LocalDateTime.now());
+        // commit 이후 모든 노드의 계좌 캐시에서 제거
+        accountMetadataCache.invalidate(accountNumber);
 
         return AccountDto.fromEntity(account);
     }
@@ -97,19 +118,20 @@ public class AccountService {
         }
     }
 
+    /**
+     * 모든 샤드에서 읽기 전용 트랜잭션으로 조회해서 합친다.
+     */
     public List<AccountDto> getAccountsByUserId(Long userId) {
         Member member = getMember(userId);
 
-        List<Account> accounts = accountRepository.findByAccountUser(member);
-
-        return accounts.stream()
-                .map(AccountDto::fromEntity)
-                .collect(Collectors.toList());
+        return accountShardRouter.queryAllShards(() -> accountRepository.findRowsByUserId(member.getId()).stream()
+                .map(AccountDto::fromRow)
+                .collect(Collectors.toList()));
     }
 
     public AccountDto getAccount(Long id) {
-        return AccountDto.fromEntity(accountRepository.findById(id)
-                .orElseThrow(() -> new QuickPayException(ACCOUNT_NOT_FOUND)
-                ));
+        return accountShardRouter.findOnAnyShard(() -> accountRepository.findRowById(id)
+                        .map(AccountDto::fromRow))
+                .orElseThrow(() -> new QuickPayException(ACCOUNT_NOT_FOUND));
     }
 }
@@ -0,0 +1,175 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.domain.mysql.shard.ShardContext;
+import com.example.quickpay.domain.mysql.shard.ShardMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 계좌 번호 기준 샤드 선택
+ * - 계좌 하나를 다루는 트랜잭션 : 첫 쿼리 전에 bindTransaction 으로 계좌의 샤드에 고정
+ * - 계좌를 특정할 수 없는 조회 (사용자별 계좌, 거래 id) : 모든 샤드에 동시에 조회해서 합친다
+ * - 여러 계좌 묶음 : partitionByShard 로 샤드별로 나눈 뒤 샤드마다 트랜잭션 하나
+ * 샤드가 하나면 (quickpay.sharding.enabled=false) 샤드 지정 없이 기존처럼 동작한다.
+ */
+@Component
+public class AccountShardRouter {
+    private final ShardMap shardMap;
+    private final TransactionOperations readOnlyTransaction;
+    private final Executor taskExecutor;
+
+    @Autowired
+    public AccountShardRouter(
+            ShardMap shardMap,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor
+    ) {
+        this(shardMap, readOnly(transactionManager), taskExecutor);
+    }
+
+    AccountShardRouter(ShardMap shardMap, TransactionOperations readOnlyTransaction, Executor taskExecutor) {
+        this.shardMap = shardMap;
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.taskExecutor = taskExecutor;
+    }
+
+    public int shardCount() {
+        return shardMap.shardCount();
+    }
+
+    public int shardOf(String accountNumber) {
+        return shardMap.shardOf(accountNumber);
+    }
+
+    // 이전 중인 bucket 의 계좌 (쓰기 거절)
+    public boolean isFrozen(String accountNumber) {
+        return shardMap.shardCount() > 1 && shardMap.isFrozen(accountNumber);
+    }
+
+    /**
+     * 현재 트랜잭션을 계좌의 샤드에 고정한다. (트랜잭션 종료 시 해제)
+     * 트랜잭션의 첫 쿼리 전에 호출해야 하며, 이전 중인 계좌는 쓰기 트랜잭션이면 거절한다.
+     */
+    public void bindTransaction(String accountNumber) {
+        if (shardMap.shardCount() == 1) {
+            return;
+        }
+        if (isFrozen(accountNumber) && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new QuickPayException(ErrorCode.ACCOUNT_MIGRATING);
+        }
+        bindTransactionToShard(shardMap.shardOf(accountNumber));
+    }
+
+    /**
+     * 묶음의 계좌는 모두 같은 샤드여야 한다. (partitionByShard 로 나눈 묶음)
+     */
+    public void bindTransaction(Collection<String> accountNumbers) {
+        if (shardMap.shardCount() == 1 || accountNumbers.isEmpty()) {
+            return;
+        }
+        String first = accountNumbers.iterator().next();
+        for (String accountNumber : accountNumbers) {
+            if (shardMap.shardOf(accountNumber) != shardMap.shardOf(first)) {
+                throw new IllegalArgumentException("accounts of a transaction must be on the same shard : "
+                        + first + ", " + accountNumber);
+            }
+        }
+        accountNumbers.forEach(this::bindTransaction);
+    }
+
+    public void bindTransactionToShard(int shard) {
+        if (shardMap.shardCount() == 1) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("no transaction to bind to shard " + shard);
+        }
+        Integer bound = ShardContext.current();
+        if (bound != null) {
+            if (bound != shard) {
+                throw new IllegalStateException("transaction already bound to shard " + bound + ", requested " + shard);
+            }
+            return;
+        }
+        ShardContext.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ShardContext.clear();
+            }
+        });
+    }
+
+    /**
+     * 모든 샤드에서 읽기 전용 트랜잭션으로 조회해서 샤드 순서대로 합친다. (scatter-gather)
+     */
+    public <T> List<T> queryAllShards(Supplier<List<T>> query) {
+        if (shardMap.shardCount() == 1) {
+            return readOnlyTransaction.execute(status -> query.get());
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shardMap.shardCount());
+        for (int shard = 0; shard < shardMap.shardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> ShardContext.callOnShard(target,
+                    () -> readOnlyTransaction.execute(status -> query.get())), taskExecutor));
+        }
+        List<T> merged = new ArrayList<>();
+        for (CompletableFuture<List<T>> future : futures) {
+            try {
+                merged.addAll(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 샤드 하나에만 있는 행을 찾을 때 (거래 id, 계좌 id)
+     */
+    public <T> Optional<T> findOnAnyShard(Supplier<Optional<T>> query) {
+        return queryAllShards(() -> query.get().stream().toList()).stream().findFirst();
+    }
+
+    public <T> Map<Integer, List<T>> partitionByShard(List<T> items, Function<T, String> accountNumberOf) {
+        if (shardMap.shardCount() == 1) {
+            return Map.of(ShardMap.GLOBAL_SHARD, items);
+        }
+        Map<Integer, List<T>> partitions = new LinkedHashMap<>();
+        for (T item : items) {
+            partitions.computeIfAbsent(shardMap.shardOf(accountNumberOf.apply(item)), key -> new ArrayList<>())
+                    .add(item);
+        }
+        return partitions;
+    }
+
+    private static TransactionOperations readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate;
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.bloom.ScalableBloomFilter;
+import com.example.quickpay.common.id.SnowflakeTransactionIdGenerator;
+import com.example.quickpay.common.id.TransactionIdGenerator;
+import com.example.quickpay.common.redis.RedisTopics;
+import com.example.quickpay.config.PrimaryDataSourceContext;
+import com.example.quickpay.domain.mysql.shard.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 있는 계좌 번호 / 거래 id Bloom filter (노드마다 로컬)
+ * 없는 계좌, 거래 요청을 lock 과 DB 조회 없이 거절하는 데 쓴다. (ExistenceFilterAspect, 거래 조회)
+ * - 주기적으로 DB(모든 샤드의 account, transaction, transaction_archive)를 읽어 새로 만들고 바꿔 끼운다
+ * - 계좌/거래를 저장할 때 commit 전에 로컬에 넣고, 다른 노드에는 Redis pub/sub 으로 알린다
+ *   (application-reactive 모듈도 같은 topic 으로 알린다 - ExistenceFilterPublisher)
+ *   (rollback 되면 오탐이 하나 늘 뿐이다)
+ * - 처음 만들기 전에는 모두 있다고 본다
+ * pub/sub 은 메시지를 잃을 수 있으므로 filter 에 없다고 바로 거절하지 않는다.
+ * - 거래 id : 마지막 rebuild 시작(- recent-grace) 이후에 발급된 id 는 있다고 보고 DB 조회에 맡긴다 (snowflake 시각)
+ * - 계좌 번호 : 계좌 번호에는 시각이 없으므로 primary 에서 한 번 확인하고, 있으면 filter 에 넣는다
+ * - Redis 재연결(재구독) 때는 끊긴 동안 놓친 값을 위해 다시 만든다
+ */
+@Slf4j
+@Component
+public class ExistenceFilter {
+    private static final String ACCOUNT_PREFIX = RedisTopics.EXISTENCE_FILTER_ACCOUNT_PREFIX;
+    private static final String TRANSACTION_PREFIX = RedisTopics.EXISTENCE_FILTER_TRANSACTION_PREFIX;
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final AccountShardRouter accountShardRouter;
+    private final RTopic addTopic;
+    private final RebuildableFilter accounts;
+    private final RebuildableFilter transactions;
+
+    private final Counter rejectedAccountCounter;
+    private final Counter rejectedTransactionCounter;
+    private final Counter missedAccountCounter;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private int listenerId;
+    private int statusListenerId;
+
+    public ExistenceFilter(
+            DataSource dataSource,
+            AccountShardRouter accountShardRouter,
+            RedissonClient redissonClient,
+            @Value("${quickpay.existence-filter.enabled:false}") boolean enabled,
+            @Value("${quickpay.existence-filter.account-capacity:1000000}") long accountCapacity,
+            @Value("${quickpay.existence-filter.transaction-capacity:10000000}") long transactionCapacity,
+            @Value("${quickpay.existence-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${quickpay.existence-filter.recent-grace-seconds:30}") long recentGraceSeconds,
+            @Value("${quickpay.existence-filter.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.accountShardRouter = accountShardRouter;
+        this.addTopic = redissonClient.getTopic(RedisTopics.EXISTENCE_FILTER_ADD, StringCodec.INSTANCE);
+        this.accounts = new RebuildableFilter(
+                new ScalableBloomFilter(accountCapacity, falsePositiveRate), recentGraceSeconds * 1_000_000_000L);
+        this.transactions = new RebuildableFilter(
+                new ScalableBloomFilter(transactionCapacity, falsePositiveRate), recentGraceSeconds * 1_000_000_000L);
+        this.rejectedAccountCounter = Counter.builder("quickpay.existence-filter.rejected")
+                .tag("type", "account")
+                .description("requests rejected because the account number is definitely unknown")
+                .register(meterRegistry);
+        this.rejectedTransactionCounter = Counter.builder("quickpay.existence-filter.rejected")
+                .tag("type", "transaction")
+                .description("requests rejected because the transaction id is definitely unknown")
+                .register(meterRegistry);
+        this.missedAccountCounter = Counter.builder("quickpay.existence-filter.missed")
+                .tag("type", "account")
+                .description("account numbers missing from the filter but found in the database")
+                .register(meterRegistry);
+        Gauge.builder("quickpay.existence-filter.bits", accounts, RebuildableFilter::bitSize)
+                .tag("type", "account")
+                .register(meterRegistry);
+        Gauge.builder("quickpay.existence-filter.bits", transactions, RebuildableFilter::bitSize)
+                .tag("type", "transaction")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (!enabled) {
+            return;
+        }
+        statusListenerId = addTopic.addListener(new BaseStatusListener() {
+            @Override
+            public void onSubscribe(String channel) {
+                // 처음 구독이 아니면 연결이 끊긴 동안 메시지를 놓쳤을 수 있다
+                if (!subscribed.compareAndSet(false, true)) {
+                    log.warn("Existence filter topic resubscribed, rebuilding");
+                    CompletableFuture.runAsync(ExistenceFilter.this::rebuild);
+                }
+            }
+        });
+        listenerId = addTopic.addListener(String.class, (channel, message) -> {
+            if (message.startsWith(ACCOUNT_PREFIX)) {
+                accounts.add(message.substring(ACCOUNT_PREFIX.length()));
+            } else if (message.startsWith(TRANSACTION_PREFIX)) {
+                for (String transactionId : message.substring(TRANSACTION_PREFIX.length()).split(",")) {
+                    transactions.add(transactionId);
+                }
+            }
+        });
+    }
+
+    public boolean mightContainAccount(String accountNumber) {
+        if (!enabled || accounts.mightContain(accountNumber)) {
+            return true;
+        }
+        if (existsAccount(accountNumber)) {
+            missedAccountCounter.increment();
+            accounts.add(accountNumber);
+            return true;
+        }
+        rejectedAccountCounter.increment();
+        return false;
+    }
+
+    public boolean mightContainTransaction(String transactionId) {
+        if (!enabled || transactions.mightContain(transactionId) || issuedAfterLastRebuild(transactionId)) {
+            return true;
+        }
+        rejectedTransactionCounter.increment();
+        return false;
+    }
+
+    // 다른 노드가 만든 계좌의 pub/sub 메시지를 놓쳤을 수 있다 (replica 지연이 없도록 primary 에서)
+    private boolean existsAccount(String accountNumber) {
+        try {
+            return ShardContext.callOnShard(accountShardRouter.shardOf(accountNumber),
+                    () -> PrimaryDataSourceContext.callOnPrimary(() -> Boolean.TRUE.equals(jdbcTemplate.query(
+                            "select 1 from account where account_number = ? limit 1",
+                            (ResultSetExtractor<Boolean>) ResultSet::next, accountNumber))));
+        } catch (RuntimeException e) {
+            // 확인하지 못하면 거절하지 않는다
+            log.error("Failed to check account existence : {}", accountNumber, e);
+            return true;
+        }
+    }
+
+    // 시각이 마지막 rebuild 이후이고 미래가 아닌 snowflake id 는 DB 에서 찾아야 한다 (이전 UUID 형식 id 는 더 생기지 않음)
+    private boolean issuedAfterLastRebuild(String transactionId) {
+        OptionalLong parsed = TransactionIdGenerator.parse(transactionId);
+        if (parsed.isEmpty()) {
+            return false;
+        }
+        long issuedAt = SnowflakeTransactionIdGenerator.timestampMillisOf(parsed.getAsLong());
+        return issuedAt >= transactions.coveredBeforeMillis()
+                && issuedAt <= System.currentTimeMillis() + transactions.recentGraceMillis();
+    }
+
+    public void addAccount(String accountNumber) {
+        if (!enabled) {
+            return;
+        }
+        accounts.add(accountNumber);
+        publish(ACCOUNT_PREFIX + accountNumber);
+    }
+
+    public void addTransactions(Collection<Long> transactionIds) {
+        if (!enabled || transactionIds.isEmpty()) {
+            return;
+        }
+        List<String> formatted = transactionIds.stream()
+                .map(TransactionIdGenerator::format)
+                .collect(Collectors.toList());
+        formatted.forEach(transactions::add);
+        publish(TRANSACTION_PREFIX + String.join(",", formatted));
+    }
+
+    // 잔액 변경 트랜잭션 안에서 호출되므로 응답을 기다리지 않는다
+    private void publish(String message) {
+        addTopic.publishAsync(message).whenComplete((receivers, e) -> {
+            if (e != null) {
+                // 다른 노드는 다음 rebuild 때 반영된다
+                log.error("Failed to publish existence filter add : {}", message, e);
+            }
+        });
+    }
+
+    /**
+     * 기동 직후, 이후 rebuild-interval 마다 새로 만든다.
+     * 만드는 동안 들어온 값과 직전 recent-grace 동안 들어온 값(아직 commit 되지 않아 DB 에서 못 읽을 수 있음)도 넣는다.
+     */
+    @Scheduled(fixedDelayString = "${quickpay.existence-filter.rebuild-interval-millis:21600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        // 주기 rebuild 와 재구독 rebuild 가 겹치지 않게 한다
+        rebuildLock.lock();
+        try {
+            rebuildAllShards();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildAllShards() {
+        long startedAt = System.nanoTime();
+        ScalableBloomFilter nextAccounts = accounts.startRebuild();
+        ScalableBloomFilter nextTransactions = transactions.startRebuild();
+        try {
+            for (int shard = 0; shard < accountShardRouter.shardCount(); shard++) {
+                ShardContext.callOnShard(shard, () -> {
+                    streamingJdbcTemplate.query("select account_number from account",
+                            resultSet -> {
+                                nextAccounts.add(resultSet.getString(1));
+                            });
+                    for (String table : List.of("transaction", "transaction_archive")) {
+                        streamingJdbcTemplate.query(
+                                "select transaction_id, legacy_transaction_id from " + table,
+                                resultSet -> {
+                                    long transactionId = resultSet.getLong(1);
+                                    if (!resultSet.wasNull()) {
+                                        nextTransactions.add(TransactionIdGenerator.format(transactionId));
+                                    }
+                                    String legacyTransactionId = resultSet.getString(2);
+                                    if (legacyTransactionId != null) {
+                                        nextTransactions.add(legacyTransactionId);
+                                    }
+                                });
+                    }
+                    return null;
+                });
+            }
+        } catch (RuntimeException e) {
+            accounts.abortRebuild();
+            transactions.abortRebuild();
+            log.error("Failed to rebuild existence filter", e);
+            return;
+        }
+        accounts.finishRebuild();
+        transactions.finishRebuild();
+        log.info("Existence filter rebuilt. accounts : {}, transactions : {}, elapsed : {}ms",
+                nextAccounts.count(), nextTransactions.count(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (enabled) {
+            addTopic.removeListener(listenerId, statusListenerId);
+        }
+    }
+
+    /**
+     * 사용 중인 filter 와 만드는 중인 filter
+     * 최근 값은 rebuild 시작 때 새 filter 에 다시 넣기 위해 recent-grace 동안 기억한다.
+     * 사용 중인 filter 는 그 rebuild 시작 시각 - recent-grace 전에 생긴 값을 모두 담고 있다. (coveredBeforeMillis)
+     */
+    static final class RebuildableFilter {
+        private final ScalableBloomFilter template;
+        private final long recentGraceNanos;
+        private final Deque<RecentValue> recentValues = new ArrayDeque<>();
+        private volatile ScalableBloomFilter current;
+        private volatile long coveredBeforeMillis = Long.MIN_VALUE;
+        private ScalableBloomFilter building;
+        private long buildingStartedAtMillis;
+
+        RebuildableFilter(ScalableBloomFilter template, long recentGraceNanos) {
+            this.template = template;
+            this.recentGraceNanos = recentGraceNanos;
+        }
+
+        boolean mightContain(String value) {
+            ScalableBloomFilter filter = current;
+            return filter == null || filter.mightContain(value);
+        }
+
+        synchronized void add(String value) {
+            long now = System.nanoTime();
+            while (!recentValues.isEmpty() && now - recentValues.peekFirst().addedAt() > recentGraceNanos) {
+                recentValues.pollFirst();
+            }
+            recentValues.addLast(new RecentValue(value, now));
+            if (current != null) {
+                current.add(value);
+            }
+            if (building != null) {
+                building.add(value);
+            }
+        }
+
+        synchronized ScalableBloomFilter startRebuild() {
+            buildingStartedAtMillis = System.currentTimeMillis();
+            building = template.emptyCopy();
+            recentValues.forEach(recent -> building.add(recent.value()));
+            return building;
+        }
+
+        synchronized void finishRebuild() {
+            current = building;
+            coveredBeforeMillis = buildingStartedAtMillis - recentGraceMillis();
+            building = null;
+        }
+
+        synchronized void abortRebuild() {
+            building = null;
+        }
+
+        long coveredBeforeMillis() {
+            return coveredBeforeMillis;
+        }
+
+        long recentGraceMillis() {
+            return recentGraceNanos / 1_000_000;
+        }
+
+        double bitSize() {
+            ScalableBloomFilter filter = current;
+            return filter == null ? 0 : filter.bitSize();
+        }
+
+        private record RecentValue(String value, long addedAt) {
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.type.TransactionType;
+import com.example.quickpay.service.dto.FailedTransactionRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 실패 거래 비동기 기록
+ * 실패 거래는 bounded queue 에 넣고 바로 돌아가므로 계좌 lock 을 오래 잡지 않는다.
+ * background writer 가 묶음으로 DB 에 저장하고,
+ * queue 가 가득 차거나 DB 저장이 실패하면 spill 파일에 남겼다가 다시 저장한다.
+ * 잔액 스냅샷은 저장 시점이 아니라 실패 시점 잔액이어야 하므로, 호출한 요청 thread 에서 (계좌 lock 을 잡은 채로) 읽어서 기록에 담는다.
+ */
+@Slf4j
+@Component
+public class FailedTransactionAuditor {
+    private final TransactionService transactionService;
+    private final AccountShardRouter accountShardRouter;
+
+    private final boolean async;
+    private final int batchSize;
+    private final long replayIntervalMillis;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path replayOffsetFile;
+
+    private final BlockingQueue<FailedTransactionRecord> queue;
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter spilledCounter;
+    private final Counter writtenCounter;
+
+    public FailedTransactionAuditor(
+            TransactionService transactionService,
+            AccountShardRouter accountShardRouter,
+            @Value("${quickpay.failed-audit.async:true}") boolean async,
+            @Value("${quickpay.failed-audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${quickpay.failed-audit.batch-size:200}") int batchSize,
+            @Value("${quickpay.failed-audit.replay-interval-millis:30000}") long replayIntervalMillis,
+            @Value("${quickpay.failed-audit.spill-file:./data/failed-transaction.spill}") String spillFile,
+            MeterRegistry meterRegistry
+    ) {
+        this.transactionService = transactionService;
+        this.accountShardRouter = accountShardRouter;
+        this.async = async;
+        this.batchSize = batchSize;
+        this.replayIntervalMillis = replayIntervalMillis;
+        this.spillFile = Paths.get(spillFile);
+        this.replayFile = Paths.get(spillFile + ".replay");
+        this.replayOffsetFile = Paths.get(spillFile + ".replay.offset");
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("quickpay.failed-audit.queue.size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        this.spilledCounter = Counter.builder("quickpay.failed-audit.spilled")
+                .description("failed transaction records written to the spill file")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("quickpay.failed-audit.written")
+                .description("failed transaction records written to the database")
+                .register(meterRegistry);
+
+        if (async) {
+            writer = new Thread(this::writeLoop, "failed-transaction-audit");
+            writer.setDaemon(true);
+            writer.start();
+        } else {
+            writer = null;
+        }
+    }
+
+    public void record(TransactionType transactionType, String accountNumber, Long amount) {
+        if (!async) {
+            saveSynchronously(transactionType, accountNumber, amount);
+            return;
+        }
+        FailedTransactionRecord failedRecord = FailedTransactionRecord.builder()
+                .transactionType(transactionType)
+                .accountNumber(accountNumber)
+                .amount(amount)
+                .failedAt(LocalDateTime.now())
+                .balanceSnapshot(findBalance(accountNumber))
+                .build();
+        if (!queue.offer(failedRecord)) {
+            spill(List.of(failedRecord));
+        }
+    }
+
+    // 조회가 실패해도 실패 거래 기록은 남긴다 (저장 시점 잔액으로 대신함)
+    private Long findBalance(String accountNumber) {
+        try {
+            return transactionService.findBalance(accountNumber);
+        } catch (RuntimeException e) {
+            log.warn("Failed to read balance of failed transaction. accountNumber : {}", accountNumber, e);
+            return null;
+        }
+    }
+
+    private void saveSynchronously(TransactionType transactionType, String accountNumber, Long amount) {
+        if (transactionType == TransactionType.USE) {
+            transactionService.saveFailedUseTransaction(accountNumber, amount);
+        } else {
+            transactionService.saveFailedCancelTransaction(accountNumber, amount);
+        }
+    }
+
+    private void writeLoop() {
+        long lastReplayAt = System.currentTimeMillis();
+        while (running || !queue.isEmpty()) {
+            // DB 장애가 계속되면 queue 가 비지 않으므로 queue 상태와 상관없이 주기마다 replay
+            if (running && System.currentTimeMillis() - lastReplayAt >= replayIntervalMillis) {
+                lastReplayAt = System.currentTimeMillis();
+                replaySpillFile();
+            }
+            List<FailedTransactionRecord> batch = new ArrayList<>(batchSize);
+            try {
+                FailedTransactionRecord first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+            } catch (InterruptedException e) {
+                queue.drainTo(batch, batchSize);
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    // 샤드마다 트랜잭션이 따로이므로 샤드별로 나눠서 저장하고, 실패한 샤드의 기록만 spill 한다
+    private void write(List<FailedTransactionRecord> batch) {
+        accountShardRouter.partitionByShard(batch, FailedTransactionRecord::getAccountNumber)
+                .values()
+                .forEach(this::writeShard);
+    }
+
+    private void writeShard(List<FailedTransactionRecord> batch) {
+        try {
+            transactionService.saveFailedTransactions(batch);
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} failed transaction records, spilling to file", batch.size(), e);
+            spill(batch);
+        }
+    }
+
+    private void spill(List<FailedTransactionRecord> records) {
+        spillLock.lock();
+        try {
+            Files.createDirectories(spillFile.toAbsolutePath().getParent());
+            Files.write(spillFile,
+                    records.stream().map(FailedTransactionRecord::toLine).collect(Collectors.toList()),
+                    StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            spilledCounter.increment(records.size());
+        } catch (IOException e) {
+            log.error("Failed to spill {} failed transaction records : {}", records.size(),
+                    records.stream().map(FailedTransactionRecord::toLine).collect(Collectors.joining(" | ")), e);
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * spill 파일을 replay 파일로 옮긴 뒤 묶음으로 다시 저장한다.
+     * 저장에 실패한 기록은 write 에서 다시 spill 파일로 돌아간다.
+     * 묶음마다 처리한 줄 수를 offset 파일에 남겨서, 중간에 끊기면 다음 replay 는 이어서 처리한다. (이미 저장한 기록을 다시 넣지 않음)
+     */
+    void replaySpillFile() {
+        spillLock.lock();
+        try {
+            // 이전 replay 가 중간에 끊긴 경우 그 파일부터 처리
+            if (!Files.exists(replayFile)) {
+                if (!Files.exists(spillFile)) {
+                    return;
+                }
+                // replay 파일 삭제 뒤 끊겨서 남은 offset
+                Files.deleteIfExists(replayOffsetFile);
+                Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            log.error("Failed to prepare spill file replay", e);
+            return;
+        } finally {
+            spillLock.unlock();
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            long offset = readReplayOffset();
+            long lineNumber = 0;
+            List<FailedTransactionRecord> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (++lineNumber <= offset || line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(FailedTransactionRecord.fromLine(line));
+                } catch (RuntimeException e) {
+                    log.error("Skip malformed spill line : {}", line, e);
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    writeReplayOffset(lineNumber);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            Files.delete(replayFile);
+            Files.deleteIfExists(replayOffsetFile);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to replay spill file {}", replayFile, e);
+        }
+    }
+
+    private long readReplayOffset() throws IOException {
+        if (!Files.exists(replayOffsetFile)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(replayOffsetFile, StandardCharsets.UTF_8).trim());
+    }
+
+    private void writeReplayOffset(long lineNumber) throws IOException {
+        Path temp = Paths.get(replayOffsetFile + ".tmp");
+        Files.writeString(temp, Long.toString(lineNumber), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DSYNC);
+        Files.move(temp, replayOffsetFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // 저장하지 못한 기록은 다음 기동 때 replay 되도록 파일로 남긴다
+        List<FailedTransactionRecord> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.type.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Idempotency-Key 별 요청 본문과 응답 (Redis, 키 하나에 JSON 하나)
+ * 선점 중에는 응답이 null 이고, 처리 중 노드가 죽어도 in-progress-ttl 뒤에 다시 시도할 수 있다.
+ * 선점마다 claim id 를 두고, 결과 저장/선점 해제는 키가 아직 그 선점일 때만 한다. (선점이 만료되어 없으면 저장은 한다)
+ */
+@Component
+public class IdempotencyStore {
+    private static final String KEY_PREFIX = "quickpay:idempotency:";
+    // 선점 값이 그대로(또는 만료되어 없음)일 때만 결과로 바꾼다
+    private static final String REPLACE_CLAIM_SCRIPT =
+            "local current = redis.call('get', KEYS[1]) " +
+            "if current == false or current == ARGV[1] then " +
+            "redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1 end " +
+            "return 0";
+    private static final String RELEASE_CLAIM_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then redis.call('del', KEYS[1]) return 1 end " +
+            "return 0";
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inProgressTtl;
+
+    private final Counter replayedCounter;
+    private final Counter claimedCounter;
+    private final Counter lostCounter;
+
+    public IdempotencyStore(
+            RedissonClient redissonClient,
+            ObjectMapper objectMapper,
+            @Value("${quickpay.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${quickpay.idempotency.in-progress-ttl-seconds:600}") long inProgressTtlSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.inProgressTtl = Duration.ofSeconds(inProgressTtlSeconds);
+        this.replayedCounter = Counter.builder("quickpay.idempotency")
+                .tag("result", "replayed")
+                .description("requests answered from a saved idempotent response")
+                .register(meterRegistry);
+        this.claimedCounter = Counter.builder("quickpay.idempotency")
+                .tag("result", "claimed")
+                .description("idempotency keys claimed for a first execution")
+                .register(meterRegistry);
+        this.lostCounter = Counter.builder("quickpay.idempotency")
+                .tag("result", "lost")
+                .description("results not saved because another request claimed the key")
+                .register(meterRegistry);
+    }
+
+    public Optional<IdempotencyRecord> find(String key) {
+        String value = bucket(key).get();
+        if (value == null) {
+            return Optional.empty();
+        }
+        IdempotencyRecord record = read(value);
+        if (record.response() != null) {
+            replayedCounter.increment();
+        }
+        return Optional.of(record);
+    }
+
+    /**
+     * 키가 없을 때만 처리 중으로 저장하고 claim id 를 돌려준다. (SET NX)
+     */
+    public Optional<String> claim(String key, String request) {
+        String claimId = UUID.randomUUID().toString();
+        if (!bucket(key).setIfAbsent(write(claimRecord(request, claimId)), inProgressTtl)) {
+            return Optional.empty();
+        }
+        claimedCounter.increment();
+        return Optional.of(claimId);
+    }
+
+    /**
+     * 성공 응답 저장
+     * @return 다른 요청이 키를 선점해서 저장하지 못하면 false
+     */
+    public boolean complete(String key, String claimId, String request, String response) {
+        return replaceClaim(key, claimId, request, new IdempotencyRecord(request, response, null, null));
+    }
+
+    /**
+     * 반영 여부를 알 수 없는 실패 저장. 같은 키의 재시도는 다시 실행하지 않고 errorCode 로 실패한다.
+     */
+    public boolean fail(String key, String claimId, String request, ErrorCode errorCode) {
+        return replaceClaim(key, claimId, request, new IdempotencyRecord(request, null, null, errorCode));
+    }
+
+    /**
+     * 아무것도 반영되지 않은 실패 - 같은 키로 다시 시도할 수 있게 선점을 푼다.
+     */
+    public void release(String key, String claimId, String request) {
+        redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, RELEASE_CLAIM_SCRIPT,
+                RScript.ReturnType.BOOLEAN, List.of(KEY_PREFIX + key), write(claimRecord(request, claimId)));
+    }
+
+    private boolean replaceClaim(String key, String claimId, String request, IdempotencyRecord record) {
+        Boolean replaced = redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE,
+                REPLACE_CLAIM_SCRIPT, RScript.ReturnType.BOOLEAN, List.of(KEY_PREFIX + key),
+                write(claimRecord(request, claimId)), write(record), String.valueOf(ttl.toMillis()));
+        if (!Boolean.TRUE.equals(replaced)) {
+            lostCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private static IdempotencyRecord claimRecord(String request, String claimId) {
+        return new IdempotencyRecord(request, null, claimId, null);
+    }
+
+    private RBucket<String> bucket(String key) {
+        return redissonClient.getBucket(KEY_PREFIX + key, StringCodec.INSTANCE);
+    }
+
+    private IdempotencyRecord read(String value) {
+        try {
+            return objectMapper.readValue(value, IdempotencyRecord.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("invalid idempotency record : " + value, e);
+        }
+    }
+
+    private String write(IdempotencyRecord record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * response 는 직렬화된 응답 JSON, response 와 errorCode 가 모두 null 이면 처리 중 (claimId 로 선점한 요청)
+     * errorCode 는 반영 여부를 알 수 없이 끝난 요청
+     */
+    public record IdempotencyRecord(String request, String response, String claimId, ErrorCode errorCode) {
+        public boolean inProgress() {
+            return response == null && errorCode == null;
+        }
+    }
+}
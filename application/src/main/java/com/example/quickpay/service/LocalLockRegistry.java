@@ -0,0 +1,36 @@
+package com.example.quickpay.service;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JVM 내부 계좌 lock (striped)
+ * 같은 계좌 요청은 이 노드 안에서 먼저 줄을 세우고,
+ * stripe 를 얻은 스레드만 Redis lock 을 시도한다.
+ */
+@Component
+public class LocalLockRegistry {
+    private final ReentrantLock[] stripes;
+    @Getter
+    private final long waitMillis;
+
+    public LocalLockRegistry(
+            @Value("${quickpay.lock.local.stripes:1024}") int stripeCount,
+            @Value("${quickpay.lock.local.wait-millis:1000}") long waitMillis
+    ) {
+        // stripe 수는 2의 거듭제곱으로 맞춘다
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.waitMillis = waitMillis;
+    }
+
+    public ReentrantLock stripeOf(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -2,27 +2,136 @@ package com.example.quickpay.service;
 
 import com.example.quickpay.common.exception.QuickPayException;
 import com.example.quickpay.common.type.ErrorCode;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * 계좌 lock (2단계)
+ * 1. JVM 내부 striped lock 으로 같은 계좌 요청을 노드 안에서 직렬화
+ * 2. 로컬 lock 을 얻은 스레드만 Redis(ACLK:) lock 시도
+ * 두 lock 모두 잡은 스레드에서만 풀 수 있으므로, lock 구간은 executeWithLock 으로만 연다.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class LockService {
     private final RedissonClient redissonClient;
+    private final LocalLockRegistry localLockRegistry;
 
-    public void lock(String accountNumber) {
+    // lock 보유 시작 시각 (로컬 lock 으로 계좌당 한 스레드만 들어온다)
+    private final Map<String, Long> holdStartedAt = new ConcurrentHashMap<>();
+
+    private final Timer localWaitTimer;
+    private final Timer redisWaitTimer;
+    private final Timer holdTimer;
+    private final Counter localContendedCounter;
+    private final Counter redisAttemptCounter;
+    private final Counter localFailedCounter;
+    private final Counter redisFailedCounter;
+    private final Counter unlockMismatchCounter;
+
+    public LockService(
+            RedissonClient redissonClient,
+            LocalLockRegistry localLockRegistry,
+            MeterRegistry meterRegistry
+    ) {
+        this.redissonClient = redissonClient;
+        this.localLockRegistry = localLockRegistry;
+        this.localWaitTimer = Timer.builder("quickpay.lock.wait")
+                .tag("tier", "local")
+                .description("time spent waiting for the in-JVM account lock")
+                .register(meterRegistry);
+        this.redisWaitTimer = Timer.builder("quickpay.lock.wait")
+                .tag("tier", "redis")
+                .description("time spent waiting for the Redis account lock")
+                .register(meterRegistry);
+        this.holdTimer = Timer.builder("quickpay.lock.hold")
+                .description("time the account lock is held")
+                .register(meterRegistry);
+        this.localContendedCounter = Counter.builder("quickpay.lock.local.contended")
+                .description("lock requests queued in-JVM instead of contending on Redis")
+                .register(meterRegistry);
+        this.redisAttemptCounter = Counter.builder("quickpay.lock.redis.attempts")
+                .description("Redis lock acquisition attempts")
+                .register(meterRegistry);
+        this.localFailedCounter = Counter.builder("quickpay.lock.failed")
+                .tag("tier", "local")
+                .register(meterRegistry);
+        this.redisFailedCounter = Counter.builder("quickpay.lock.failed")
+                .tag("tier", "redis")
+                .register(meterRegistry);
+        this.unlockMismatchCounter = Counter.builder("quickpay.lock.unlock.mismatch")
+                .description("unlock attempts from a thread that does not hold the account lock")
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    public interface LockedCommand<T> {
+        T run() throws Throwable;
+    }
+
+    /**
+     * 계좌 lock 을 잡고 작업을 실행한 뒤 같은 스레드에서 푼다.
+     */
+    public <T> T executeWithLock(String accountNumber, LockedCommand<T> command) throws Throwable {
+        lock(accountNumber);
+        try {
+            return command.run();
+        } finally {
+            unlock(accountNumber);
+        }
+    }
+
+    void lock(String accountNumber) {
+        ReentrantLock localLock = localLockRegistry.stripeOf(accountNumber);
+        lockLocal(localLock);
+        try {
+            lockRedis(accountNumber);
+        } catch (RuntimeException e) {
+            localLock.unlock();
+            throw e;
+        }
+        holdStartedAt.put(accountNumber, System.nanoTime());
+    }
+
+    private void lockLocal(ReentrantLock localLock) {
+        long startedAt = System.nanoTime();
+        boolean isLock = localLock.tryLock();
+        if (!isLock) {
+            localContendedCounter.increment();
+            try {
+                isLock = localLock.tryLock(localLockRegistry.getWaitMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        localWaitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        if (!isLock) {
+            localFailedCounter.increment();
+            log.error("========Local lock acquisition failed=======");
+            throw new QuickPayException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    private void lockRedis(String accountNumber) {
         RLock lock = redissonClient.getLock(getLockKey(accountNumber));
         log.debug("Trying lock for accountNumber : {}", accountNumber);
 
+        redisAttemptCounter.increment();
+        long startedAt = System.nanoTime();
         try {
             boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
             if (!isLock) {
+                redisFailedCounter.increment();
                 log.error("========Lock acquisition failed=======");
                 throw new QuickPayException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
             }
@@ -30,12 +139,32 @@ public class LockService {
             throw e;
         } catch (Exception e) {
             log.error("Redis lock failed", e);
+        } finally {
+            redisWaitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
         }
     }
 
-    public void unlock(String accountNumber) {
+    /**
+     * lock 을 잡은 스레드가 아니면 아무것도 풀지 않고 IllegalMonitorStateException 을 던진다.
+     * (조용히 넘어가면 로컬 lock stripe 가 영영 풀리지 않는다)
+     */
+    void unlock(String accountNumber) {
         log.debug("Unlock for accountNumber : {}", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        ReentrantLock localLock = localLockRegistry.stripeOf(accountNumber);
+        if (!localLock.isHeldByCurrentThread()) {
+            unlockMismatchCounter.increment();
+            log.error("========Unlock from a thread not holding the lock======= accountNumber : {}", accountNumber);
+            throw new IllegalMonitorStateException("account lock is not held by current thread : " + accountNumber);
+        }
+        Long startedAt = holdStartedAt.remove(accountNumber);
+        if (startedAt != null) {
+            holdTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        try {
+            redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        } finally {
+            localLock.unlock();
+        }
     }
 
     private String getLockKey(String accountNumber) {
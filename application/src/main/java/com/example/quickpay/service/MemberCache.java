@@ -0,0 +1,103 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.config.PrimaryDataSourceContext;
+import com.example.quickpay.domain.mysql.entity.Member;
+import com.example.quickpay.domain.mysql.repository.MemberRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 사용자 read-through cache
+ * 사용자는 거의 바뀌지 않으므로 요청마다 member 테이블을 조회하지 않는다.
+ * 없는 사용자 id 는 짧은 시간 동안 따로 기억해서 반복 조회를 막는다.
+ * 캐시에 없는 사용자는 primary 에서 읽는다. (replica 지연으로 새 사용자를 없는 사용자로 기억하지 않도록)
+ */
+@Slf4j
+@Component
+public class MemberCache {
+    private final MemberRepository memberRepository;
+    private final int warmUpSize;
+
+    private final Cache<Long, Member> members;
+    private final Cache<Long, Boolean> unknownMembers;
+
+    public MemberCache(
+            MemberRepository memberRepository,
+            @Value("${quickpay.member-cache.max-size:100000}") long maxSize,
+            @Value("${quickpay.member-cache.ttl-seconds:3600}") long ttlSeconds,
+            @Value("${quickpay.member-cache.negative-ttl-seconds:30}") long negativeTtlSeconds,
+            @Value("${quickpay.member-cache.warm-up-size:10000}") int warmUpSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.memberRepository = memberRepository;
+        this.warmUpSize = warmUpSize;
+        this.members = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.unknownMembers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, members, "member");
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownMembers, "member-unknown");
+    }
+
+    /**
+     * data.sql 적재가 끝난 뒤 최근 사용자부터 warm-up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmUpSize <= 0) {
+            return;
+        }
+        List<Member> loaded = memberRepository.findAll(
+                PageRequest.of(0, warmUpSize, Sort.by(Sort.Direction.DESC, "id"))).getContent();
+        loaded.forEach(member -> members.put(member.getId(), member));
+        log.info("Member cache warmed up with {} members", loaded.size());
+    }
+
+    public Optional<Member> findById(Long userId) {
+        if (unknownMembers.getIfPresent(userId) != null) {
+            return Optional.empty();
+        }
+        Member member = members.get(userId, key -> PrimaryDataSourceContext.callOnPrimary(
+                () -> memberRepository.findById(key).orElse(null)));
+        if (member == null) {
+            unknownMembers.put(userId, Boolean.TRUE);
+        }
+        return Optional.ofNullable(member);
+    }
+
+    /**
+     * 캐시에 없는 사용자만 한 번에 조회한다. 없는 사용자는 결과에서 빠진다.
+     */
+    public Map<Long, Member> findAllById(Collection<Long> userIds) {
+        Set<Long> candidates = userIds.stream()
+                .filter(userId -> unknownMembers.getIfPresent(userId) == null)
+                .collect(Collectors.toSet());
+        Map<Long, Member> found = members.getAll(candidates, missing -> PrimaryDataSourceContext.callOnPrimary(
+                () -> memberRepository.findAllById(new ArrayList<>(missing)).stream()
+                        .collect(Collectors.toMap(Member::getId, Function.identity()))));
+        candidates.stream()
+                .filter(userId -> !found.containsKey(userId))
+                .forEach(userId -> unknownMembers.put(userId, Boolean.TRUE));
+        return found;
+    }
+}
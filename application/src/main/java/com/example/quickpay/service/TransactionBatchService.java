@@ -0,0 +1,128 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.service.dto.UseBalanceCommand;
+import com.example.quickpay.service.dto.UseBalanceResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 잔액 사용 묶음 처리
+ * 요청을 계좌별로 묶어 계좌마다 lock 을 한 번만 잡고, 요청 순서대로 chunk 단위로 반영한다.
+ * 계좌 묶음은 서로 독립이므로 병렬로 처리하고, chunk 가 commit 될 때마다 항목별 결과를 바로 전달한다.
+ */
+@Slf4j
+@Service
+public class TransactionBatchService {
+    private final TransactionService transactionService;
+    private final LockService lockService;
+    private final AccountMailboxExecutor accountMailboxExecutor;
+    private final AsyncTaskExecutor taskExecutor;
+    private final int chunkSize;
+
+    public TransactionBatchService(
+            TransactionService transactionService,
+            LockService lockService,
+            AccountMailboxExecutor accountMailboxExecutor,
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+            @Value("${quickpay.batch.chunk-size:100}") int chunkSize
+    ) {
+        this.transactionService = transactionService;
+        this.lockService = lockService;
+        this.accountMailboxExecutor = accountMailboxExecutor;
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 항목별 결과는 listener 로 전달되며, 계좌가 다르면 요청 순서와 다르게 도착할 수 있다.
+     * 모든 항목의 결과가 전달되면 반환된 future 가 완료된다.
+     */
+    public CompletableFuture<Void> useBalances(List<UseBalanceCommand> commands, ResultListener listener) {
+        Map<String, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            indexesByAccount.computeIfAbsent(commands.get(i).getAccountNumber(), key -> new ArrayList<>())
+                    .add(i);
+        }
+
+        return CompletableFuture.allOf(indexesByAccount.entrySet().stream()
+                .map(entry -> CompletableFuture.runAsync(
+                        () -> processAccount(entry.getKey(), entry.getValue(), commands, listener),
+                        taskExecutor))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    private void processAccount(
+            String accountNumber,
+            List<Integer> indexes,
+            List<UseBalanceCommand> commands,
+            ResultListener listener
+    ) {
+        try {
+            if (accountMailboxExecutor.isEnabled()) {
+                // mailbox 모드에서는 단건 요청과 같은 계좌 실행기에서 순서대로 처리
+                accountMailboxExecutor.execute(accountNumber, () -> {
+                    applyInChunks(indexes, commands, listener);
+                    return null;
+                });
+                return;
+            }
+            lockService.executeWithLock(accountNumber, () -> {
+                applyInChunks(indexes, commands, listener);
+                return null;
+            });
+        } catch (QuickPayException e) {
+            // lock 을 얻지 못하면 해당 계좌의 항목 전체가 실패
+            log.error("Failed to use balances for accountNumber : {}, {}", accountNumber, e.getErrorCode());
+            indexes.forEach(index -> listener.onResult(index, UseBalanceResult.failed(e.getErrorCode())));
+        } catch (Throwable t) {
+            log.error("Failed to use balances for accountNumber : {}", accountNumber, t);
+            indexes.forEach(index -> listener.onResult(index, UseBalanceResult.failed(ErrorCode.INTERNAL_SERVER_ERROR)));
+        }
+    }
+
+    private void applyInChunks(List<Integer> indexes, List<UseBalanceCommand> commands, ResultListener listener) {
+        for (int from = 0; from < indexes.size(); from += chunkSize) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + chunkSize, indexes.size()));
+            List<UseBalanceResult> results;
+            try {
+                results = transactionService.useBalances(chunk.stream()
+                        .map(commands::get)
+                        .toList());
+            } catch (OptimisticLockingFailureException e) {
+                log.error("Version conflict while using balances, chunk of {} rejected", chunk.size(), e);
+                results = failedAll(chunk.size(), ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            } catch (RuntimeException e) {
+                log.error("Failed to use balances, chunk of {} rejected", chunk.size(), e);
+                results = failedAll(chunk.size(), ErrorCode.INTERNAL_SERVER_ERROR);
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                listener.onResult(chunk.get(i), results.get(i));
+            }
+        }
+    }
+
+    private List<UseBalanceResult> failedAll(int size, ErrorCode errorCode) {
+        List<UseBalanceResult> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(UseBalanceResult.failed(errorCode));
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    public interface ResultListener {
+        void onResult(int index, UseBalanceResult result);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.id.TransactionIdGenerator;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.common.type.TransactionType;
+import com.example.quickpay.service.dto.TransactionExportFormat;
+import com.example.quickpay.service.dto.TransactionExportRow;
+import com.example.quickpay.service.dto.TransactionHistoryCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 하루치 거래 내보내기 (정산용)
+ * forward-only JDBC result set 을 fetch-size 단위로 받아 한 행씩 출력 스트림에 쓰므로
+ * 행 수와 관계없이 메모리 사용량이 일정하다. (영속성 컨텍스트를 거치지 않음)
+ * MySQL 드라이버는 fetch-size 가 Integer.MIN_VALUE 일 때 한 행씩 streaming 하고,
+ * 그 동안 connection 하나를 계속 사용한다.
+ * 읽기 전용 트랜잭션이라 replica 를 사용하면 replica 에서 읽는다.
+ * (transacted_at, id) 순서로 내보내고 각 행에 cursor 를 붙여서, 끊긴 경우 마지막 행 cursor 부터 이어받을 수 있다.
+ * 샤드를 나누면 샤드마다 따로 내보낸다. (cursor 도 샤드별)
+ */
+@Slf4j
+@Service
+public class TransactionExportService {
+    private static final String SELECT = "select t.id, t.transaction_id, t.legacy_transaction_id, a.account_number, " +
+            "t.transaction_type, t.transaction_result_type, t.amount, t.balance_snapshot, t.transacted_at " +
+            "from transaction t join account a on a.id = t.account_id " +
+            "where t.transacted_at >= ? and t.transacted_at < ? ";
+    private static final String ORDER_BY = "order by t.transacted_at, t.id";
+    private static final String EXPORT_SQL = SELECT + ORDER_BY;
+    private static final String EXPORT_AFTER_SQL = SELECT + "and (t.transacted_at, t.id) > (?, ?) " + ORDER_BY;
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AccountShardRouter accountShardRouter;
+
+    public TransactionExportService(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            AccountShardRouter accountShardRouter,
+            @Value("${quickpay.export.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize
+    ) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.accountShardRouter = accountShardRouter;
+    }
+
+    public void validateShard(int shard) {
+        if (shard < 0 || shard >= accountShardRouter.shardCount()) {
+            throw new QuickPayException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+
+    /**
+     * @param after null 이면 하루의 처음부터, 아니면 cursor 다음 행부터
+     * @return 내보낸 행 수
+     */
+    @Transactional(readOnly = true)
+    public long export(
+            LocalDate date,
+            TransactionExportFormat format,
+            int shard,
+            TransactionHistoryCursor after,
+            OutputStream out
+    ) throws IOException {
+        accountShardRouter.bindTransactionToShard(shard);
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        TransactionExportWriter writer = TransactionExportWriter.of(format, out, objectMapper);
+        ExportRowHandler handler = new ExportRowHandler(writer);
+
+        long startedAt = System.nanoTime();
+        try {
+            if (after == null) {
+                streamingJdbcTemplate.query(EXPORT_SQL, handler, from, to);
+            } else {
+                streamingJdbcTemplate.query(EXPORT_AFTER_SQL, handler, from, to, after.getTransactedAt(), after.getId());
+            }
+        } catch (UncheckedIOException e) {
+            // 클라이언트 연결이 끊긴 경우
+            log.warn("Transaction export aborted. date : {}, shard : {}, rows : {}", date, shard, handler.rows);
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Transaction export finished. date : {}, shard : {}, format : {}, rows : {}, elapsed : {}ms",
+                date, shard, format, handler.rows, (System.nanoTime() - startedAt) / 1_000_000);
+        return handler.rows;
+    }
+
+    private static class ExportRowHandler implements RowCallbackHandler {
+        private final TransactionExportWriter writer;
+        private long rows;
+
+        private ExportRowHandler(TransactionExportWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            try {
+                writer.write(toRow(resultSet));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows++;
+        }
+
+        private TransactionExportRow toRow(ResultSet resultSet) throws SQLException {
+            long id = resultSet.getLong("id");
+            LocalDateTime transactedAt = resultSet.getObject("transacted_at", LocalDateTime.class);
+            String legacyTransactionId = resultSet.getString("legacy_transaction_id");
+            return new TransactionExportRow(
+                    new TransactionHistoryCursor(transactedAt, id).encode(),
+                    legacyTransactionId != null
+                            ? legacyTransactionId
+                            : TransactionIdGenerator.format(resultSet.getLong("transaction_id")),
+                    resultSet.getString("account_number"),
+                    TransactionType.valueOf(resultSet.getString("transaction_type")),
+                    TransactionResultType.valueOf(resultSet.getString("transaction_result_type")),
+                    resultSet.getLong("amount"),
+                    resultSet.getLong("balance_snapshot"),
+                    transactedAt);
+        }
+    }
+}
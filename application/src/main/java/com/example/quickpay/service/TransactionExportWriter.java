@@ -0,0 +1,112 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.service.dto.TransactionExportFormat;
+import com.example.quickpay.service.dto.TransactionExportRow;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 거래 내보내기 행 단위 writer
+ * 행을 모으지 않고 받은 즉시 버퍼를 거쳐 출력 스트림에 쓴다.
+ * flush 는 스트림을 닫지 않는다. (gzip 종료, 응답 종료는 호출한 쪽에서)
+ */
+public interface TransactionExportWriter {
+    void write(TransactionExportRow row) throws IOException;
+
+    void flush() throws IOException;
+
+    static TransactionExportWriter of(TransactionExportFormat format, OutputStream out, ObjectMapper objectMapper)
+            throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8));
+            case CSV -> new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024));
+        };
+    }
+
+    class NdjsonWriter implements TransactionExportWriter {
+        private final JsonGenerator generator;
+
+        NdjsonWriter(JsonGenerator generator) {
+            this.generator = generator;
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(TransactionExportRow row) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("cursor", row.getCursor());
+            generator.writeStringField("transactionId", row.getTransactionId());
+            generator.writeStringField("accountNumber", row.getAccountNumber());
+            generator.writeStringField("transactionType", row.getTransactionType().name());
+            generator.writeStringField("transactionResult", row.getTransactionResultType().name());
+            generator.writeNumberField("amount", row.getAmount());
+            generator.writeNumberField("balanceSnapshot", row.getBalanceSnapshot());
+            generator.writeStringField("transactedAt", row.getTransactedAt().toString());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    /**
+     * 값에 쉼표/따옴표가 들어가지 않으므로(숫자, enum, 시각, base64url cursor) 따옴표 처리는 하지 않는다
+     */
+    class CsvWriter implements TransactionExportWriter {
+        static final String HEADER = "cursor,transactionId,accountNumber,transactionType,transactionResult,amount,balanceSnapshot,transactedAt";
+
+        private final Writer writer;
+        private boolean headerWritten;
+
+        CsvWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(TransactionExportRow row) throws IOException {
+            writeHeaderIfNeeded();
+            writer.write(row.getCursor());
+            writer.write(',');
+            writer.write(row.getTransactionId());
+            writer.write(',');
+            writer.write(row.getAccountNumber());
+            writer.write(',');
+            writer.write(row.getTransactionType().name());
+            writer.write(',');
+            writer.write(row.getTransactionResultType().name());
+            writer.write(',');
+            writer.write(Long.toString(row.getAmount()));
+            writer.write(',');
+            writer.write(Long.toString(row.getBalanceSnapshot()));
+            writer.write(',');
+            writer.write(row.getTransactedAt().toString());
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // 거래가 없어도 header 는 내보낸다
+            writeHeaderIfNeeded();
+            writer.flush();
+        }
+
+        private void writeHeaderIfNeeded() throws IOException {
+            if (!headerWritten) {
+                writer.write(HEADER);
+                writer.write('\n');
+                headerWritten = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.service.dto.TransactionDto;
+import com.example.quickpay.service.dto.UseBalanceCommand;
+import com.example.quickpay.service.dto.UseBalanceResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * 잔액 사용 group commit
+ * 여러 계좌의 동시 요청을 짧은 시간(window) 동안 모아 한 DB 트랜잭션, 한 JDBC batch 로 반영하고
+ * 요청별 결과를 각 호출자에게 돌려준다.
+ * 실패 거래도 같은 batch 에서 저장되므로 호출자가 따로 저장하지 않는다.
+ * 호출자는 계좌 lock 을 잡은 채 기다리므로 batch 에 들어가기 전이면 wait-millis 까지만 기다리고,
+ * batch 가 이미 가져간 요청은 반영 여부가 정해질 때까지 기다린다.
+ */
+@Slf4j
+@Component
+public class TransactionGroupCommitter {
+    private final TransactionService transactionService;
+    private final AccountShardRouter accountShardRouter;
+
+    @Getter
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long waitMillis;
+
+    private final BlockingQueue<PendingUse> queue = new LinkedBlockingQueue<>();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final DistributionSummary batchSizeSummary;
+
+    public TransactionGroupCommitter(
+            TransactionService transactionService,
+            AccountShardRouter accountShardRouter,
+            @Value("${quickpay.group-commit.enabled:false}") boolean enabled,
+            @Value("${quickpay.group-commit.window-micros:300}") long windowMicros,
+            @Value("${quickpay.group-commit.max-batch-size:100}") int maxBatchSize,
+            @Value("${quickpay.group-commit.wait-millis:3000}") long waitMillis,
+            MeterRegistry meterRegistry
+    ) {
+        this.transactionService = transactionService;
+        this.accountShardRouter = accountShardRouter;
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+        this.waitMillis = waitMillis;
+        this.batchSizeSummary = DistributionSummary.builder("quickpay.group-commit.batch.size")
+                .description("requests flushed per group commit")
+                .register(meterRegistry);
+
+        if (enabled) {
+            flusher = new Thread(this::flushLoop, "transaction-group-commit");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        PendingUse pendingUse = new PendingUse(UseBalanceCommand.builder()
+                .userId(userId)
+                .accountNumber(accountNumber)
+                .amount(amount)
+                .build());
+        if (!running) {
+            throw new QuickPayException(ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+        queue.add(pendingUse);
+        // shutdown 이 queue 를 비운 뒤에 들어간 요청은 처리되지 않는다
+        if (!running && queue.remove(pendingUse)) {
+            throw new QuickPayException(ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+        try {
+            return pendingUse.result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new QuickPayException(ErrorCode.INTERNAL_SERVER_ERROR);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // batch 에 들어가기 전에 뺀 요청만 실패로 돌려준다
+            if (queue.remove(pendingUse)) {
+                log.error("========Group commit wait timeout=======");
+                throw new QuickPayException(ErrorCode.INTERNAL_SERVER_ERROR);
+            }
+            // 이미 batch 가 가져간 요청은 commit 될 수 있으므로 계좌 lock 을 잡은 채 batch 가 끝날 때까지 기다린다
+            log.warn("Group commit batch is slower than {}ms, waiting for its result", waitMillis);
+            return awaitBatch(pendingUse);
+        }
+    }
+
+    private TransactionDto awaitBatch(PendingUse pendingUse) {
+        try {
+            return pendingUse.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new QuickPayException(ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private void flushLoop() {
+        while (running || !queue.isEmpty()) {
+            List<PendingUse> batch = new ArrayList<>(maxBatchSize);
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // 종료 중 : 남은 요청을 마저 처리한다
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    flush(batch);
+                } catch (Error e) {
+                    // flusher 가 죽으면 더 이상 요청을 받지 않고 기다리는 요청을 모두 실패로 알린다
+                    running = false;
+                    batch.forEach(pendingUse -> pendingUse.result.completeExceptionally(
+                            new QuickPayException(ErrorCode.INTERNAL_SERVER_ERROR)));
+                    failPending();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void collect(List<PendingUse> batch) throws InterruptedException {
+        PendingUse first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || batch.size() >= maxBatchSize) {
+                return;
+            }
+            PendingUse next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    // 샤드마다 트랜잭션이 따로이므로 샤드별로 나눠서 반영한다
+    private void flush(List<PendingUse> batch) {
+        batchSizeSummary.record(batch.size());
+        accountShardRouter.partitionByShard(batch, pendingUse -> pendingUse.getCommand().getAccountNumber())
+                .values()
+                .forEach(this::flushShard);
+    }
+
+    private void flushShard(List<PendingUse> batch) {
+        try {
+            List<UseBalanceResult> results = transactionService.useBalances(batch.stream()
+                    .map(PendingUse::getCommand)
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), results.get(i));
+            }
+        } catch (RuntimeException e) {
+            // batch 전체가 실패하면 (DB 오류, version 충돌 등) 요청별로 다시 처리
+            log.warn("Group commit of {} requests failed, retrying one by one", batch.size(), e);
+            batch.forEach(this::flushOne);
+        }
+    }
+
+    private void complete(PendingUse pendingUse, UseBalanceResult result) {
+        if (result.isSuccess()) {
+            pendingUse.result.complete(result.getTransaction());
+        } else {
+            pendingUse.result.completeExceptionally(new QuickPayException(result.getErrorCode()));
+        }
+    }
+
+    private void flushOne(PendingUse pendingUse) {
+        UseBalanceCommand command = pendingUse.getCommand();
+        try {
+            pendingUse.result.complete(transactionService.useBalance(
+                    command.getUserId(), command.getAccountNumber(), command.getAmount()));
+        } catch (QuickPayException e) {
+            saveFailedUseTransaction(command);
+            pendingUse.result.completeExceptionally(e);
+        } catch (RuntimeException e) {
+            pendingUse.result.completeExceptionally(e);
+        }
+    }
+
+    private void saveFailedUseTransaction(UseBalanceCommand command) {
+        try {
+            transactionService.saveFailedUseTransaction(command.getAccountNumber(), command.getAmount());
+        } catch (RuntimeException e) {
+            log.error("Failed to save failed use transaction.", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        failPending();
+    }
+
+    // 처리되지 못한 요청은 호출자에게 실패로 알린다
+    private void failPending() {
+        PendingUse pendingUse;
+        while ((pendingUse = queue.poll()) != null) {
+            pendingUse.result.completeExceptionally(new QuickPayException(ErrorCode.INTERNAL_SERVER_ERROR));
+        }
+    }
+
+    @Getter
+    private static final class PendingUse {
+        private final UseBalanceCommand command;
+        private final CompletableFuture<TransactionDto> result = new CompletableFuture<>();
+
+        private PendingUse(UseBalanceCommand command) {
+            this.command = command;
+        }
+    }
+}
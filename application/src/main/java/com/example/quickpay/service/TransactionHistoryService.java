@@ -0,0 +1,82 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.common.type.TransactionType;
+import com.example.quickpay.domain.mysql.repository.TransactionRepository;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionHistoryCondition;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionHistoryRow;
+import com.example.quickpay.service.dto.AccountMetadata;
+import com.example.quickpay.service.dto.TransactionDto;
+import com.example.quickpay.service.dto.TransactionHistoryCursor;
+import com.example.quickpay.service.dto.TransactionHistoryPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 계좌별 거래 내역 조회
+ * 최근 거래부터 (transacted_at, id) 역순 keyset pagination 으로 읽는다.
+ * 계좌 id 는 계좌 캐시에서 찾고, 거래는 projection 으로만 읽어서 엔티티를 올리지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryService {
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountMetadataCache accountMetadataCache;
+    private final AccountShardRouter accountShardRouter;
+
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage getTransactions(
+            String accountNumber,
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            LocalDateTime from,
+            LocalDateTime to,
+            String cursor,
+            int size
+    ) {
+        validateGetTransactions(from, to, size);
+        accountShardRouter.bindTransaction(accountNumber);
+        AccountMetadata accountMetadata = accountMetadataCache.get(accountNumber);
+        TransactionHistoryCursor after = cursor == null ? null : TransactionHistoryCursor.decode(cursor);
+
+        // 한 건 더 읽어서 다음 페이지가 있는지 확인
+        List<TransactionHistoryRow> rows = transactionRepository.findHistory(TransactionHistoryCondition.builder()
+                .accountId(accountMetadata.getId())
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .from(from)
+                .to(to)
+                .afterTransactedAt(after == null ? null : after.getTransactedAt())
+                .afterId(after == null ? null : after.getId())
+                .limit(size + 1)
+                .build());
+
+        boolean hasNext = rows.size() > size;
+        List<TransactionHistoryRow> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            TransactionHistoryRow last = page.get(page.size() - 1);
+            nextCursor = new TransactionHistoryCursor(last.getTransactedAt(), last.getId()).encode();
+        }
+        return new TransactionHistoryPage(page.stream()
+                .map(row -> TransactionDto.fromHistoryRow(row, accountNumber))
+                .toList(), nextCursor);
+    }
+
+    private void validateGetTransactions(LocalDateTime from, LocalDateTime to, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new QuickPayException(ErrorCode.INVALID_REQUEST);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new QuickPayException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.quickpay.service;
 
 import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.id.TransactionIdGenerator;
 import com.example.quickpay.common.type.AccountStatus;
 import com.example.quickpay.common.type.ErrorCode;
 import com.example.quickpay.common.type.TransactionResultType;
@@ -8,18 +9,25 @@ import com.example.quickpay.common.type.TransactionType;
 import com.example.quickpay.domain.mysql.entity.Account;
 import com.example.quickpay.domain.mysql.entity.Member;
 import com.example.quickpay.domain.mysql.entity.Transaction;
+import com.example.quickpay.domain.mysql.entity.TransactionArchive;
 import com.example.quickpay.domain.mysql.repository.AccountRepository;
-import com.example.quickpay.domain.mysql.repository.MemberRepository;
+import com.example.quickpay.domain.mysql.repository.TransactionArchiveRepository;
 import com.example.quickpay.domain.mysql.repository.TransactionRepository;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionQueryRow;
+import com.example.quickpay.service.dto.AccountMetadata;
+import com.example.quickpay.service.dto.FailedTransactionRecord;
 import com.example.quickpay.service.dto.TransactionDto;
+import com.example.quickpay.service.dto.UseBalanceCommand;
+import com.example.quickpay.service.dto.UseBalanceResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.example.quickpay.common.type.TransactionResultType.FAILED;
 import static com.example.quickpay.common.type.TransactionResultType.SUCCESS;
@@ -31,24 +39,114 @@ import static com.example.quickpay.common.type.TransactionType.USE;
 @RequiredArgsConstructor
 public class TransactionService {
     private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
     private final AccountRepository accountRepository;
-    private final MemberRepository memberRepository;
+    private final MemberCache memberCache;
+    private final AccountMetadataCache accountMetadataCache;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final AccountShardRouter accountShardRouter;
+    private final ExistenceFilter existenceFilter;
 
     @Transactional
     public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        accountShardRouter.bindTransaction(accountNumber);
         Member member = getMember(userId);
-        Account account = getAccount(accountNumber);
+        // 소유주/상태는 캐시로 먼저 거르고, 통과한 요청만 잔액 row 를 읽는다
+        AccountMetadata accountMetadata = accountMetadataCache.get(accountNumber);
+        validateAccountMetadata(member, accountMetadata);
+        Account account = getAccount(accountMetadata);
         validateUseBalance(member, account, amount);
         account.useBalance(amount);
         return TransactionDto.fromEntity(saveTransaction(USE, SUCCESS, account, amount));
     }
 
+    /**
+     * lock 없이 조건부 UPDATE 한 번으로 잔액 차감
+     * 영향 row 가 없으면 실패 경로에서만 계좌를 조회해 실패 원인을 돌려준다.
+     * 성공하면 계좌 entity 를 다시 읽지 않고, 같은 트랜잭션에서 잔액 컬럼만 읽어 계좌 참조와 함께 거래를 저장한다.
+     * (UPDATE 가 잡은 row lock 이 commit 까지 유지되므로 읽은 잔액은 이번 차감 직후 잔액)
+     */
+    @Transactional
+    public TransactionDto useBalanceWithConditionalUpdate(Long userId, String accountNumber, Long amount) {
+        accountShardRouter.bindTransaction(accountNumber);
+        Member member = getMember(userId);
+        AccountMetadata accountMetadata = accountMetadataCache.get(accountNumber);
+        if (accountRepository.useBalanceIfSufficient(member.getId(), accountNumber, amount) == 0) {
+            Account account = getAccount(accountMetadata);
+            validateUseBalance(member, account, amount);
+            // 검증 직후 다른 요청이 잔액을 먼저 사용한 경우
+            throw new QuickPayException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        Transaction transaction = Transaction.builder()
+                .transactionType(USE)
+                .transactionResultType(SUCCESS)
+                .account(accountRepository.getReferenceById(accountMetadata.getId()))
+                .amount(amount)
+                .balanceSnapshot(accountRepository.findBalanceById(accountMetadata.getId()))
+                .transactionId(transactionIdGenerator.nextId())
+                .transactedAt(LocalDateTime.now())
+                .build();
+        existenceFilter.addTransactions(List.of(transaction.getTransactionId()));
+        transactionRepository.save(transaction);
+        return TransactionDto.fromEntity(transaction, accountNumber);
+    }
+
+    /**
+     * 여러 잔액 사용 요청을 한 DB 트랜잭션으로 처리
+     * 사용자/계좌는 한 번에 조회하고, 항목별 검증 실패는 결과와 실패 거래로 남긴 뒤 다음 항목을 처리한다.
+     * 같은 계좌 요청은 넣은 순서대로 반영된다.
+     * 묶음의 계좌는 모두 같은 샤드여야 한다. (AccountShardRouter.partitionByShard)
+     */
+    @Transactional
+    public List<UseBalanceResult> useBalances(List<UseBalanceCommand> commands) {
+        accountShardRouter.bindTransaction(commands.stream()
+                .map(UseBalanceCommand::getAccountNumber)
+                .collect(Collectors.toList()));
+        Map<Long, Member> members = memberCache.findAllById(commands.stream()
+                .map(UseBalanceCommand::getUserId)
+                .collect(Collectors.toSet()));
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(commands.stream()
+                        .map(UseBalanceCommand::getAccountNumber)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+        List<Transaction> transactions = new ArrayList<>(commands.size());
+        List<UseBalanceResult> results = new ArrayList<>(commands.size());
+        for (UseBalanceCommand command : commands) {
+            Account account = accounts.get(command.getAccountNumber());
+            try {
+                Member member = Optional.ofNullable(members.get(command.getUserId()))
+                        .orElseThrow(() -> new QuickPayException(ErrorCode.USER_NOT_FOUND));
+                if (account == null) {
+                    throw new QuickPayException(ErrorCode.ACCOUNT_NOT_FOUND);
+                }
+                validateUseBalance(member, account, command.getAmount());
+                account.useBalance(command.getAmount());
+
+                Transaction transaction = newTransaction(USE, SUCCESS, account, command.getAmount());
+                transactions.add(transaction);
+                results.add(UseBalanceResult.success(TransactionDto.fromEntity(transaction)));
+            } catch (QuickPayException e) {
+                if (account != null) {
+                    transactions.add(newTransaction(USE, FAILED, account, command.getAmount()));
+                }
+                results.add(UseBalanceResult.failed(e.getErrorCode()));
+            }
+        }
+        saveTransactions(transactions);
+        return results;
+    }
+
     @Transactional
     public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        accountShardRouter.bindTransaction(accountNumber);
         Account account = getAccount(accountNumber);
 
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new QuickPayException(ErrorCode.TRANSACTION_NOT_FOUND));
+        Transaction transaction = findTransaction(transactionId)
+                .orElseThrow(() -> findArchivedTransaction(transactionId).isPresent()
+                        // 보관된 거래는 모두 취소 기간이 지난 거래
+                        ? new QuickPayException(ErrorCode.TOO_OLD_TRANSACTION_TO_CANCEL)
+                        : new QuickPayException(ErrorCode.TRANSACTION_NOT_FOUND));
 
         validateCancelBalance(transaction, account, amount);
 
@@ -58,10 +156,19 @@ public class TransactionService {
 
 
     private Member getMember(Long userId) {
-        return memberRepository.findById(userId)
+        return memberCache.findById(userId)
                 .orElseThrow(() -> new QuickPayException(ErrorCode.USER_NOT_FOUND));
     }
 
+    private void validateAccountMetadata(Member member, AccountMetadata accountMetadata) {
+        if (!Objects.equals(member.getId(), accountMetadata.getOwnerId())) {
+            throw new QuickPayException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+        if (accountMetadata.getAccountStatus() != AccountStatus.IN_USE) {
+            throw new QuickPayException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+    }
+
     private void validateUseBalance(Member member, Account account, Long amount) {
         if (!Objects.equals(member.getId(), account.getAccountUser().getId())) {
             throw new QuickPayException(ErrorCode.USER_ACCOUNT_UN_MATCH);
@@ -77,20 +184,77 @@ public class TransactionService {
 
     @Transactional
     public void saveFailedUseTransaction(String accountNumber, Long amount) {
+        accountShardRouter.bindTransaction(accountNumber);
         Account account = getAccount(accountNumber);
         saveTransaction(USE, FAILED, account, amount);
     }
 
+    /**
+     * 실패 거래 기록용 현재 잔액 (계좌 row 전체를 읽지 않음)
+     * 없는 계좌면 null
+     */
+    @Transactional(readOnly = true)
+    public Long findBalance(String accountNumber) {
+        accountShardRouter.bindTransaction(accountNumber);
+        return accountRepository.findBalanceByAccountNumber(accountNumber).orElse(null);
+    }
+
+    /**
+     * 실패 거래 묶음 저장 (비동기 audit writer 에서 호출)
+     * 계좌는 한 번에 조회하고, 없는 계좌의 기록은 버린다.
+     * 잔액 스냅샷은 기록에 담긴 실패 시점 잔액을 쓴다.
+     * 묶음의 계좌는 모두 같은 샤드여야 한다.
+     */
+    @Transactional
+    public void saveFailedTransactions(List<FailedTransactionRecord> records) {
+        accountShardRouter.bindTransaction(records.stream()
+                .map(FailedTransactionRecord::getAccountNumber)
+                .collect(Collectors.toList()));
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(records.stream()
+                        .map(FailedTransactionRecord::getAccountNumber)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+        List<Transaction> transactions = new ArrayList<>(records.size());
+        for (FailedTransactionRecord record : records) {
+            Account account = accounts.get(record.getAccountNumber());
+            if (account == null) {
+                log.warn("Drop failed transaction record of unknown account : {}", record.getAccountNumber());
+                continue;
+            }
+            Long balanceSnapshot = record.getBalanceSnapshot() != null ? record.getBalanceSnapshot() : account.getBalance();
+            transactions.add(newTransaction(record.getTransactionType(), FAILED, account, record.getAmount(), balanceSnapshot, record.getFailedAt()));
+        }
+        saveTransactions(transactions);
+    }
+
     private Transaction saveTransaction(TransactionType transactionType, TransactionResultType transactionResultType, Account account, Long amount) {
-        return transactionRepository.save(Transaction.builder()
+        Transaction transaction = newTransaction(transactionType, transactionResultType, account, amount);
+        existenceFilter.addTransactions(List.of(transaction.getTransactionId()));
+        return transactionRepository.save(transaction);
+    }
+
+    private void saveTransactions(List<Transaction> transactions) {
+        transactionRepository.saveAll(transactions);
+        existenceFilter.addTransactions(transactions.stream()
+                .map(Transaction::getTransactionId)
+                .collect(Collectors.toList()));
+    }
+
+    private Transaction newTransaction(TransactionType transactionType, TransactionResultType transactionResultType, Account account, Long amount) {
+        return newTransaction(transactionType, transactionResultType, account, amount, account.getBalance(), LocalDateTime.now());
+    }
+
+    private Transaction newTransaction(TransactionType transactionType, TransactionResultType transactionResultType, Account account, Long amount, Long balanceSnapshot, LocalDateTime transactedAt) {
+        return Transaction.builder()
                 .transactionType(transactionType)
                 .transactionResultType(transactionResultType)
                 .account(account)
                 .amount(amount)
-                .balanceSnapshot(account.getBalance())
-                .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                .transactedAt(LocalDateTime.now())
-                .build());
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(transactionIdGenerator.nextId())
+                .transactedAt(transactedAt)
+                .build();
     }
 
 
@@ -107,19 +271,61 @@ public class TransactionService {
         }
     }
 
+    @Transactional
     public void saveFailedCancelTransaction(String accountNumber, Long amount) {
+        accountShardRouter.bindTransaction(accountNumber);
         Account account = getAccount(accountNumber);
         saveTransaction(CANCEL, FAILED, account, amount);
     }
 
     private Account getAccount(String accountNumber) {
-        return accountRepository.findByAccountNumber(accountNumber)
+        return getAccount(accountMetadataCache.get(accountNumber));
+    }
+
+    private Account getAccount(AccountMetadata accountMetadata) {
+        return accountRepository.findById(accountMetadata.getId())
                 .orElseThrow(() -> new QuickPayException(ErrorCode.ACCOUNT_NOT_FOUND));
     }
 
+    /**
+     * 거래 id 로는 샤드를 알 수 없으므로 모든 샤드에서 읽기 전용 트랜잭션으로 찾는다.
+     * 거래 id filter 에 없으면 조회하지 않는다.
+     */
     public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new QuickPayException(ErrorCode.TRANSACTION_NOT_FOUND)));
+        if (!existenceFilter.mightContainTransaction(transactionId)) {
+            throw new QuickPayException(ErrorCode.TRANSACTION_NOT_FOUND);
+        }
+        return accountShardRouter.findOnAnyShard(() -> findTransactionRow(transactionId)
+                        .map(TransactionDto::fromQueryRow))
+                .orElseThrow(() -> new QuickPayException(ErrorCode.TRANSACTION_NOT_FOUND));
+    }
+
+    // 10진수가 아니면 UUID 형식 이전 거래 id 로 조회
+    private Optional<Transaction> findTransaction(String transactionId) {
+        OptionalLong parsed = TransactionIdGenerator.parse(transactionId);
+        if (parsed.isPresent()) {
+            return transactionRepository.findByTransactionId(parsed.getAsLong());
+        }
+        return transactionRepository.findByLegacyTransactionId(transactionId);
+    }
+
+    // 응답에 필요한 컬럼만 읽음. transaction 에 없으면 transaction_archive 에서 조회
+    private Optional<TransactionQueryRow> findTransactionRow(String transactionId) {
+        OptionalLong parsed = TransactionIdGenerator.parse(transactionId);
+        if (parsed.isPresent()) {
+            return transactionRepository.findQueryRowByTransactionId(parsed.getAsLong())
+                    .or(() -> transactionArchiveRepository.findQueryRowByTransactionId(parsed.getAsLong()));
+        }
+        return transactionRepository.findQueryRowByLegacyTransactionId(transactionId)
+                .or(() -> transactionArchiveRepository.findQueryRowByLegacyTransactionId(transactionId));
+    }
 
+    // transaction 에 없으면 보관 테이블에서 조회 (TransactionArchiveTasklet)
+    private Optional<TransactionArchive> findArchivedTransaction(String transactionId) {
+        OptionalLong parsed = TransactionIdGenerator.parse(transactionId);
+        if (parsed.isPresent()) {
+            return transactionArchiveRepository.findByTransactionId(parsed.getAsLong());
+        }
+        return transactionArchiveRepository.findByLegacyTransactionId(transactionId);
     }
 }
@@ -1,6 +1,7 @@
 package com.example.quickpay.service.dto;
 
 import com.example.quickpay.domain.mysql.entity.Account;
+import com.example.quickpay.domain.mysql.repository.dto.AccountRow;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -29,4 +30,14 @@ public class AccountDto {
                 .unRegisteredAt(account.getUnRegisteredAt())
                 .build();
     }
+
+    public static AccountDto fromRow(AccountRow row) {
+        return builder()
+                .userId(row.userId())
+                .accountNumber(row.accountNumber())
+                .balance(row.balance())
+                .registeredAt(row.registeredAt())
+                .unRegisteredAt(row.unRegisteredAt())
+                .build();
+    }
 }
@@ -0,0 +1,31 @@
+package com.example.quickpay.service.dto;
+
+import com.example.quickpay.common.type.AccountStatus;
+import com.example.quickpay.domain.mysql.entity.Account;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 캐시에 올리는 계좌 정보 (잔액 제외)
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccountMetadata {
+    private Long id;
+    private String accountNumber;
+    private Long ownerId;
+    private AccountStatus accountStatus;
+
+    public static AccountMetadata from(Account account) {
+        return builder()
+                .id(account.getId())
+                .accountNumber(account.getAccountNumber())
+                .ownerId(account.getAccountUser().getId())
+                .accountStatus(account.getAccountStatus())
+                .build();
+    }
+}
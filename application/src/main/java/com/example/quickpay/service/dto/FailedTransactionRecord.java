@@ -0,0 +1,42 @@
+package com.example.quickpay.service.dto;
+
+import com.example.quickpay.common.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 실패 거래 기록 (비동기 저장 대기)
+ * spill 파일에는 "거래종류,계좌번호,금액,실패시각,실패시점잔액" 한 줄로 저장된다.
+ * 실패 시점 잔액을 모르면 (조회 실패, 이전 형식의 spill 줄) 비워두고 저장 시점 잔액을 쓴다.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FailedTransactionRecord {
+    private TransactionType transactionType;
+    private String accountNumber;
+    private Long amount;
+    private LocalDateTime failedAt;
+    private Long balanceSnapshot;
+
+    public String toLine() {
+        return transactionType + "," + accountNumber + "," + amount + "," + failedAt + ","
+                + (balanceSnapshot == null ? "" : balanceSnapshot);
+    }
+
+    public static FailedTransactionRecord fromLine(String line) {
+        String[] fields = line.split(",");
+        return builder()
+                .transactionType(TransactionType.valueOf(fields[0]))
+                .accountNumber(fields[1])
+                .amount(Long.parseLong(fields[2]))
+                .failedAt(LocalDateTime.parse(fields[3]))
+                .balanceSnapshot(fields.length > 4 && !fields[4].isEmpty() ? Long.parseLong(fields[4]) : null)
+                .build();
+    }
+}
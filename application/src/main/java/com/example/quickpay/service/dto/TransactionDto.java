@@ -1,8 +1,11 @@
 package com.example.quickpay.service.dto;
 
+import com.example.quickpay.common.id.TransactionIdGenerator;
 import com.example.quickpay.common.type.TransactionResultType;
 import com.example.quickpay.common.type.TransactionType;
 import com.example.quickpay.domain.mysql.entity.Transaction;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionHistoryRow;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionQueryRow;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -25,14 +28,51 @@ public class TransactionDto {
 
 
     public static TransactionDto fromEntity(Transaction transaction) {
+        return fromEntity(transaction, transaction.getAccount().getAccountNumber());
+    }
+
+    // 계좌가 조회하지 않은 참조(proxy)일 때
+    public static TransactionDto fromEntity(Transaction transaction, String accountNumber) {
         return builder()
-                .accountNumber(transaction.getAccount().getAccountNumber())
+                .accountNumber(accountNumber)
                 .transactionType(transaction.getTransactionType())
                 .transactionResultType(transaction.getTransactionResultType())
                 .amount(transaction.getAmount())
                 .balanceSnapshot(transaction.getBalanceSnapshot())
-                .transactionId(transaction.getTransactionId())
+                .transactionId(formatTransactionId(transaction.getTransactionId(), transaction.getLegacyTransactionId()))
                 .transactedAt(transaction.getTransactedAt())
                 .build();
     }
+
+    public static TransactionDto fromHistoryRow(TransactionHistoryRow row, String accountNumber) {
+        return builder()
+                .accountNumber(accountNumber)
+                .transactionType(row.getTransactionType())
+                .transactionResultType(row.getTransactionResultType())
+                .amount(row.getAmount())
+                .balanceSnapshot(row.getBalanceSnapshot())
+                .transactionId(formatTransactionId(row.getTransactionId(), row.getLegacyTransactionId()))
+                .transactedAt(row.getTransactedAt())
+                .build();
+    }
+
+    public static TransactionDto fromQueryRow(TransactionQueryRow row) {
+        return builder()
+                .accountNumber(row.accountNumber())
+                .transactionType(row.transactionType())
+                .transactionResultType(row.transactionResultType())
+                .amount(row.amount())
+                .balanceSnapshot(row.balanceSnapshot())
+                .transactionId(formatTransactionId(row.transactionId(), row.legacyTransactionId()))
+                .transactedAt(row.transactedAt())
+                .build();
+    }
+
+    // 이전 거래는 처음 발급한 UUID 형식 id 를 그대로 보여준다
+    private static String formatTransactionId(Long transactionId, String legacyTransactionId) {
+        if (legacyTransactionId != null) {
+            return legacyTransactionId;
+        }
+        return TransactionIdGenerator.format(transactionId);
+    }
 }
@@ -0,0 +1,40 @@
+package com.example.quickpay.service.dto;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 거래 내역 다음 페이지 위치 (이전 페이지 마지막 거래의 transacted_at, id)
+ * 클라이언트에는 내용을 알 수 없는 문자열(base64url)로 내보낸다.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionHistoryCursor {
+    private static final String SEPARATOR = "|";
+
+    private LocalDateTime transactedAt;
+    private Long id;
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((transactedAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionHistoryCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            return new TransactionHistoryCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new QuickPayException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+}
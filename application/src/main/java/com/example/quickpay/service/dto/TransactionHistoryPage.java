@@ -0,0 +1,14 @@
+package com.example.quickpay.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TransactionHistoryPage {
+    private List<TransactionDto> transactions;
+    // 다음 페이지가 없으면 null
+    private String nextCursor;
+}
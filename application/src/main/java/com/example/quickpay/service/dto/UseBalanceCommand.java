@@ -0,0 +1,16 @@
+package com.example.quickpay.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UseBalanceCommand {
+    private Long userId;
+    private String accountNumber;
+    private Long amount;
+}
@@ -0,0 +1,32 @@
+package com.example.quickpay.service.dto;
+
+import com.example.quickpay.common.type.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 묶음 처리 시 항목별 결과
+ * 성공이면 transaction, 실패면 errorCode 가 채워진다.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UseBalanceResult {
+    private TransactionDto transaction;
+    private ErrorCode errorCode;
+
+    public boolean isSuccess() {
+        return errorCode == null;
+    }
+
+    public static UseBalanceResult success(TransactionDto transactionDto) {
+        return builder().transaction(transactionDto).build();
+    }
+
+    public static UseBalanceResult failed(ErrorCode errorCode) {
+        return builder().errorCode(errorCode).build();
+    }
+}
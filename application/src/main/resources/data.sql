@@ -1,6 +0,0 @@
-insert into member(id, name, created_at, updated_at)
-values (1, "iron", now(), now());
-insert into member(id, name, created_at, updated_at)
-values (2, "Lupi", now(), now());
-insert into member(id, name, created_at, updated_at)
-values (3, "Eddie", now(), now());
\ No newline at end of file
@@ -0,0 +1,9 @@
+-- 로컬 개발용 사용자 (spring.flyway.locations 에서 db/seed 를 빼면 적용되지 않음)
+insert ignore into member(id, name, created_at, updated_at)
+values (1, 'iron', now(), now()),
+       (2, 'Lupi', now(), now()),
+       (3, 'Eddie', now(), now());
+
+-- 직접 넣은 id 와 겹치지 않도록 member_seq 를 뒤로 민다
+update member_seq
+set next_val = greatest(next_val, 4);
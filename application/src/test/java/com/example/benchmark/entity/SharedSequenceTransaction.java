@@ -0,0 +1,42 @@
+package com.example.benchmark.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * TransactionInsertBenchmark 전용 거래 엔티티
+ * 변경 전처럼 모든 엔티티가 한 sequence 행을 같이 쓰고 id 를 하나씩 받아오는 table generator 를 사용한다.
+ * (테이블은 benchmark 에서 만들고 지움)
+ * application 의 entity scan 범위(com.example.quickpay) 밖에 두고, TransactionInsertBenchmark 의 context 에만 등록한다.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "bench_shared_sequence_transaction")
+public class SharedSequenceTransaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "shared_sequence")
+    @TableGenerator(name = "shared_sequence", table = "bench_shared_sequence",
+            pkColumnName = "sequence_name", valueColumnName = "next_val", pkColumnValue = "default",
+            allocationSize = 1)
+    private Long id;
+    private String transactionType;
+    private String transactionResultType;
+    private Long accountId;
+    private Long amount;
+    private Long balanceSnapshot;
+    private Long transactionId;
+    private LocalDateTime transactedAt;
+}
@@ -0,0 +1,77 @@
+package com.example.quickpay.aop;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.dto.CancelBalance;
+import com.example.quickpay.dto.UseBalance;
+import com.example.quickpay.service.ExistenceFilter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ExistenceFilterAspectTest {
+    @Mock
+    private ExistenceFilter existenceFilter;
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @InjectMocks
+    private ExistenceFilterAspect existenceFilterAspect;
+
+    @Test
+    @DisplayName("filter 에 있는 계좌 - 그대로 실행")
+    void knownAccount() throws Throwable {
+        //given
+        UseBalance.Request request = UseBalance.Request.builder()
+                .userId(1L).accountNumber("1234567890").amount(1000L).build();
+        given(existenceFilter.mightContainAccount("1234567890")).willReturn(true);
+        //when
+        existenceFilterAspect.aroundMethod(proceedingJoinPoint, request);
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+    @Test
+    @DisplayName("filter 에 없는 계좌 - 실행 전에 실패")
+    void unknownAccount() throws Throwable {
+        //given
+        UseBalance.Request request = UseBalance.Request.builder()
+                .userId(1L).accountNumber("1234567890").amount(1000L).build();
+        given(existenceFilter.mightContainAccount("1234567890")).willReturn(false);
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> existenceFilterAspect.aroundMethod(proceedingJoinPoint, request));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+
+    @Test
+    @DisplayName("취소 - filter 에 없는 거래 id 면 실행 전에 실패")
+    void unknownTransaction() throws Throwable {
+        //given
+        CancelBalance.Request request = CancelBalance.Request.builder()
+                .transactionId("1234").accountNumber("1234567890").amount(1000L).build();
+        given(existenceFilter.mightContainAccount("1234567890")).willReturn(true);
+        given(existenceFilter.mightContainTransaction("1234")).willReturn(false);
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> existenceFilterAspect.aroundMethod(proceedingJoinPoint, request));
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+}
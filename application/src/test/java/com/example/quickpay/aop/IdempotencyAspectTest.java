@@ -0,0 +1,250 @@
+package com.example.quickpay.aop;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.dto.UseBalance;
+import com.example.quickpay.service.IdempotencyStore;
+import com.example.quickpay.service.IdempotencyStore.IdempotencyRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyAspectTest {
+    private static final String KEY = "use:1234567890:retry-1";
+    private static final String CLAIM_ID = "claim-1";
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+    @Mock
+    private MethodSignature methodSignature;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final UseBalance.Request request = UseBalance.Request.builder()
+            .userId(1L).accountNumber("1234567890").amount(1000L).build();
+    private final MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+
+    private IdempotencyAspect idempotencyAspect;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyAspect = new IdempotencyAspect(idempotencyStore, objectMapper);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key 가 없으면 그대로 실행")
+    void withoutKey() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed()).willReturn(response());
+        //when
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent(), request);
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verify(idempotencyStore, never()).find(anyString());
+    }
+
+    @Test
+    @DisplayName("처음 요청 - 키를 선점하고 실행한 뒤 응답 저장")
+    void firstRequest() throws Throwable {
+        //given
+        httpRequest.addHeader(IdempotencyAspect.HEADER, "retry-1");
+        String requestBody = objectMapper.writeValueAsString(request);
+        UseBalance.Response response = response();
+        given(idempotencyStore.find(KEY)).willReturn(Optional.empty());
+        given(idempotencyStore.claim(KEY, requestBody)).willReturn(Optional.of(CLAIM_ID));
+        given(proceedingJoinPoint.proceed()).willReturn(response);
+        given(idempotencyStore.complete(KEY, CLAIM_ID, requestBody, objectMapper.writeValueAsString(response)))
+                .willReturn(true);
+        //when
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent(), request);
+        //then
+        assertSame(response, result);
+        verify(idempotencyStore, times(1)).complete(KEY, CLAIM_ID, requestBody, objectMapper.writeValueAsString(response));
+    }
+
+    @Test
+    @DisplayName("재시도 - 저장된 응답을 실행 없이 돌려준다")
+    void replay() throws Throwable {
+        //given
+        httpRequest.addHeader(IdempotencyAspect.HEADER, "retry-1");
+        String requestBody = objectMapper.writeValueAsString(request);
+        given(idempotencyStore.find(KEY)).willReturn(Optional.of(
+                new IdempotencyRecord(requestBody, objectMapper.writeValueAsString(response()), null, null)));
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getReturnType()).willReturn(UseBalance.Response.class);
+        //when
+        UseBalance.Response result = (UseBalance.Response) idempotencyAspect.aroundMethod(
+                proceedingJoinPoint, idempotent(), request);
+        //then
+        assertEquals("1700000000000", result.getTransactionId());
+        assertEquals(TransactionResultType.SUCCESS, result.getTransactionResult());
+        verify(proceedingJoinPoint, never()).proceed();
+        verify(idempotencyStore, never()).claim(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("처리 중인 키로 재시도 - 실패")
+    void inProgress() throws Throwable {
+        //given
+        httpRequest.addHeader(IdempotencyAspect.HEADER, "retry-1");
+        String requestBody = objectMapper.writeValueAsString(request);
+        given(idempotencyStore.find(KEY))
+                .willReturn(Optional.empty())
+                .willReturn(Optional.of(new IdempotencyRecord(requestBody, null, CLAIM_ID, null)));
+        given(idempotencyStore.claim(KEY, requestBody)).willReturn(Optional.empty());
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent(), request));
+        //then
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS, exception.getErrorCode());
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+
+    @Test
+    @DisplayName("같은 키로 다른 요청 - 실패")
+    void reusedKey() throws Throwable {
+        //given
+        httpRequest.addHeader(IdempotencyAspect.HEADER, "retry-1");
+        String otherRequest = objectMapper.writeValueAsString(UseBalance.Request.builder()
+                .userId(1L).accountNumber("1234567890").amount(2000L).build());
+        given(idempotencyStore.find(KEY)).willReturn(Optional.of(
+                new IdempotencyRecord(otherRequest, objectMapper.writeValueAsString(response()), null, null)));
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent(), request));
+        //then
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_REUSED, exception.getErrorCode());
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+
+    @Test
+    @DisplayName("반영 전에 거절된 실패 - 선점을 풀어서 다시 시도할 수 있게 한다")
+    void releaseOnFailure() throws Throwable {
+        //given
+        httpRequest.addHeader(IdempotencyAspect.HEADER, "retry-1");
+        String requestBody = objectMapper.writeValueAsString(request);
+        given(idempotencyStore.find(KEY)).willReturn(Optional.empty());
+        given(idempotencyStore.claim(eq(KEY), anyString())).willReturn(Optional.of(CLAIM_ID));
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new QuickPayException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        //when
+        assertThrows(QuickPayException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent(), request));
+        //then
+        verify(idempotencyStore, times(1)).release(KEY, CLAIM_ID, requestBody);
+        verify(idempotencyStore, never()).complete(anyString(), anyString(), anyString(), anyString());
+        verify(idempotencyStore, never()).fail(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("반영되었을 수 있는 실패 - 선점을 풀지 않고 결과를 알 수 없음으로 저장")
+    void unknownOutcomeOnFailure() throws Throwable {
+        //given
+        httpRequest.addHeader(IdempotencyAspect.HEADER, "retry-1");
+        String requestBody = objectMapper.writeValueAsString(request);
+        given(idempotencyStore.find(KEY)).willReturn(Optional.empty());
+        given(idempotencyStore.claim(eq(KEY), anyString())).willReturn(Optional.of(CLAIM_ID));
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new QuickPayException(ErrorCode.INTERNAL_SERVER_ERROR))
+                .willThrow(new IllegalStateException("lock release failed"));
+        given(idempotencyStore.fail(KEY, CLAIM_ID, requestBody, ErrorCode.IDEMPOTENCY_OUTCOME_UNKNOWN))
+                .willReturn(true);
+        //when
+        assertThrows(QuickPayException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent(), request));
+        assertThrows(IllegalStateException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent(), request));
+        //then
+        verify(idempotencyStore, times(2)).fail(KEY, CLAIM_ID, requestBody, ErrorCode.IDEMPOTENCY_OUTCOME_UNKNOWN);
+        verify(idempotencyStore, never()).release(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("결과를 알 수 없는 키로 재시도 - 실행하지 않고 실패")
+    void replayUnknownOutcome() throws Throwable {
+        //given
+        httpRequest.addHeader(IdempotencyAspect.HEADER, "retry-1");
+        String requestBody = objectMapper.writeValueAsString(request);
+        given(idempotencyStore.find(KEY)).willReturn(Optional.of(
+                new IdempotencyRecord(requestBody, null, null, ErrorCode.IDEMPOTENCY_OUTCOME_UNKNOWN)));
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent(), request));
+        //then
+        assertEquals(ErrorCode.IDEMPOTENCY_OUTCOME_UNKNOWN, exception.getErrorCode());
+        verify(proceedingJoinPoint, never()).proceed();
+        verify(idempotencyStore, never()).claim(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("응답 저장 중 Redis 오류 - 잠시 뒤 다시 저장")
+    void retryComplete() throws Throwable {
+        //given
+        httpRequest.addHeader(IdempotencyAspect.HEADER, "retry-1");
+        UseBalance.Response response = response();
+        given(idempotencyStore.find(KEY)).willReturn(Optional.empty());
+        given(idempotencyStore.claim(eq(KEY), anyString())).willReturn(Optional.of(CLAIM_ID));
+        given(proceedingJoinPoint.proceed()).willReturn(response);
+        given(idempotencyStore.complete(eq(KEY), eq(CLAIM_ID), anyString(), anyString()))
+                .willThrow(new IllegalStateException("redis timeout"))
+                .willThrow(new IllegalStateException("redis timeout"))
+                .willReturn(true);
+        //when
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, idempotent(), request);
+        //then
+        assertSame(response, result);
+        verify(idempotencyStore, times(3)).complete(eq(KEY), eq(CLAIM_ID), anyString(), anyString());
+    }
+
+    private static UseBalance.Response response() {
+        return UseBalance.Response.builder()
+                .accountNumber("1234567890")
+                .transactionResult(TransactionResultType.SUCCESS)
+                .transactionId("1700000000000")
+                .amount(1000L)
+                .transactedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5))
+                .build();
+    }
+
+    private static Idempotent idempotent() throws NoSuchMethodException {
+        return AnnotatedMethods.class.getDeclaredMethod("use").getAnnotation(Idempotent.class);
+    }
+
+    private static class AnnotatedMethods {
+        @Idempotent("use")
+        void use() {
+        }
+    }
+}
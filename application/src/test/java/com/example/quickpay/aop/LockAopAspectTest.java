@@ -2,6 +2,7 @@ package com.example.quickpay.aop;
 
 import com.example.quickpay.common.exception.QuickPayException;
 import com.example.quickpay.dto.UseBalance;
+import com.example.quickpay.service.AccountMailboxExecutor;
 import com.example.quickpay.service.LockService;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.junit.jupiter.api.Test;
@@ -14,7 +15,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import static com.example.quickpay.common.type.ErrorCode.ACCOUNT_NOT_FOUND;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -23,6 +28,9 @@ class LockAopAspectTest {
     @Mock
     private LockService lockService;
 
+    @Mock
+    private AccountMailboxExecutor accountMailboxExecutor;
+
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
@@ -33,36 +41,77 @@ class LockAopAspectTest {
     void lockAndUnLock() throws Throwable {
         //given
         ArgumentCaptor<String> lockCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> unLockCaptor = ArgumentCaptor.forClass(String.class);
         UseBalance.Request request = UseBalance.Request.builder()
                 .userId(1L).accountNumber("1234567890").amount(1000L).build();
+        givenLockAcquired();
         //when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("lock"), request);
         //then
-        verify(lockService, times(1)).lock(lockCaptor.capture());
-        verify(lockService, times(1)).unlock(unLockCaptor.capture());
+        verify(lockService, times(1)).executeWithLock(lockCaptor.capture(), any());
+        verify(proceedingJoinPoint, times(1)).proceed();
 
         assertEquals("1234567890", lockCaptor.getValue());
-        assertEquals("1234567890", unLockCaptor.getValue());
+    }
+
+    @Test
+    void conditionalUpdate_skipLock() throws Throwable {
+        //given
+        UseBalance.Request request = UseBalance.Request.builder()
+                .userId(1L).accountNumber("1234567890").amount(1000L).build();
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("conditionalUpdate"), request);
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verify(lockService, never()).executeWithLock(anyString(), any());
+    }
+
+    @Test
+    void mailboxMode_skipLock() throws Throwable {
+        //given
+        UseBalance.Request request = UseBalance.Request.builder()
+                .userId(1L).accountNumber("1234567890").amount(1000L).build();
+        given(accountMailboxExecutor.isEnabled()).willReturn(true);
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("lock"), request);
+        //then
+        verify(accountMailboxExecutor, times(1)).execute(eq("1234567890"), any());
+        verify(lockService, never()).executeWithLock(anyString(), any());
     }
 
     @Test
     void lockAndUnLock_evenIfThrow() throws Throwable {
         //given
         ArgumentCaptor<String> lockCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> unLockCaptor = ArgumentCaptor.forClass(String.class);
         UseBalance.Request request = UseBalance.Request.builder()
                 .userId(1L).accountNumber("1234567890").amount(1000L).build();
+        givenLockAcquired();
         given(proceedingJoinPoint.proceed())
                 .willThrow(new QuickPayException(ACCOUNT_NOT_FOUND));
         //when
         assertThrows(QuickPayException.class,
-                () -> lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+                () -> lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("lock"), request));
         //then
-        verify(lockService, times(1)).lock(lockCaptor.capture());
-        verify(lockService, times(1)).unlock(unLockCaptor.capture());
+        verify(lockService, times(1)).executeWithLock(lockCaptor.capture(), any());
 
         assertEquals("1234567890", lockCaptor.getValue());
-        assertEquals("1234567890", unLockCaptor.getValue());
+    }
+
+    private void givenLockAcquired() throws Throwable {
+        given(lockService.executeWithLock(anyString(), any()))
+                .willAnswer(invocation -> invocation.<LockService.LockedCommand<?>>getArgument(1).run());
+    }
+
+    private static AccountLock accountLock(String methodName) throws NoSuchMethodException {
+        return AnnotatedMethods.class.getDeclaredMethod(methodName).getAnnotation(AccountLock.class);
+    }
+
+    private static class AnnotatedMethods {
+        @AccountLock
+        void lock() {
+        }
+
+        @AccountLock(writeMode = BalanceWriteMode.CONDITIONAL_UPDATE)
+        void conditionalUpdate() {
+        }
     }
 }
\ No newline at end of file
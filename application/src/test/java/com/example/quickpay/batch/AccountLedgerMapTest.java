@@ -0,0 +1,59 @@
+package com.example.quickpay.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLedgerMapTest {
+
+    @Test
+    @DisplayName("첫 거래 직전 잔액에 성공 거래를 다시 반영한다")
+    void apply() {
+        //given
+        AccountLedgerMap ledgers = new AccountLedgerMap(4);
+        //when
+        // 잔액 10,000 계좌 : 사용 1,000 -> 실패 -> 취소 500
+        ledgers.apply(7L, -1_000L, 9_000L);
+        ledgers.apply(7L, 0L, 9_000L);
+        ledgers.apply(7L, 500L, 9_500L);
+        ledgers.apply(8L, -100L, 0L);
+        //then
+        int index = ledgers.indexOf(7L);
+        assertEquals(9_500L, ledgers.ledgerBalance(index));
+        assertEquals(9_500L, ledgers.lastSnapshot(index));
+        assertEquals(3L, ledgers.transactionCount(index));
+        assertEquals(0L, ledgers.ledgerBalance(ledgers.indexOf(8L)));
+        assertEquals(-1, ledgers.indexOf(9L));
+        assertEquals(2, ledgers.size());
+    }
+
+    @Test
+    @DisplayName("예상보다 계좌가 많아도 누적값을 잃지 않는다")
+    void apply_resize() {
+        //given
+        AccountLedgerMap ledgers = new AccountLedgerMap(4);
+        //when
+        for (long accountId = 1; accountId <= 10_000; accountId++) {
+            ledgers.apply(accountId, -accountId, 0L);
+            ledgers.apply(accountId, accountId * 2, accountId * 2);
+        }
+        //then
+        assertEquals(10_000, ledgers.size());
+        for (long accountId = 1; accountId <= 10_000; accountId++) {
+            int index = ledgers.indexOf(accountId);
+            assertEquals(accountId * 2, ledgers.ledgerBalance(index));
+            assertEquals(2L, ledgers.transactionCount(index));
+        }
+    }
+
+    @Test
+    @DisplayName("계좌 id 0 은 누적할 수 없다")
+    void apply_zeroAccountId() {
+        //given
+        AccountLedgerMap ledgers = new AccountLedgerMap(4);
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class, () -> ledgers.apply(0L, 0L, 0L));
+    }
+}
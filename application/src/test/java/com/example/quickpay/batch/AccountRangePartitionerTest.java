@@ -0,0 +1,86 @@
+package com.example.quickpay.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class AccountRangePartitionerTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("계좌 id 범위를 빈틈없이 겹치지 않게 나눈다")
+    void partition() {
+        //given
+        givenAccountIdRange(1L, 1_000L);
+        //when
+        Map<String, ExecutionContext> partitions = new AccountRangePartitioner(jdbcTemplate, 1).partition(3);
+        //then
+        List<ExecutionContext> contexts = new ArrayList<>(partitions.values());
+        assertEquals(3, contexts.size());
+        assertEquals(1L, contexts.get(0).getLong(AccountRangePartitioner.MIN_ACCOUNT_ID));
+        for (int i = 1; i < contexts.size(); i++) {
+            assertEquals(contexts.get(i - 1).getLong(AccountRangePartitioner.MAX_ACCOUNT_ID) + 1,
+                    contexts.get(i).getLong(AccountRangePartitioner.MIN_ACCOUNT_ID));
+        }
+        assertEquals(1_000L, contexts.get(2).getLong(AccountRangePartitioner.MAX_ACCOUNT_ID));
+    }
+
+    @Test
+    @DisplayName("계좌가 파티션 수보다 적으면 계좌 수만큼만 나눈다")
+    void partition_fewAccounts() {
+        //given
+        givenAccountIdRange(5L, 6L);
+        //when
+        Map<String, ExecutionContext> partitions = new AccountRangePartitioner(jdbcTemplate, 1).partition(4);
+        //then
+        assertEquals(2, partitions.size());
+    }
+
+    @Test
+    @DisplayName("계좌가 없으면 파티션도 없다")
+    void partition_noAccount() {
+        //given
+        givenAccountIdRange(0L, 0L);
+        //when
+        Map<String, ExecutionContext> partitions = new AccountRangePartitioner(jdbcTemplate, 1).partition(4);
+        //then
+        assertTrue(partitions.isEmpty());
+    }
+
+    @Test
+    @DisplayName("샤드마다 계좌 id 범위를 나누고 파티션에 샤드 번호를 남긴다")
+    void partition_shards() {
+        //given
+        givenAccountIdRange(1L, 1_000L);
+        //when
+        Map<String, ExecutionContext> partitions = new AccountRangePartitioner(jdbcTemplate, 3).partition(2);
+        //then
+        List<ExecutionContext> contexts = new ArrayList<>(partitions.values());
+        assertEquals(6, contexts.size());
+        for (int i = 0; i < contexts.size(); i++) {
+            assertEquals(i / 2, contexts.get(i).getInt(ShardPartitioner.SHARD));
+        }
+        assertTrue(partitions.containsKey("shard2-partition1"));
+    }
+
+    private void givenAccountIdRange(long min, long max) {
+        given(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class)))
+                .willReturn(new long[]{min, max});
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.quickpay.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationTaskletTest {
+    private static final long MIN_ACCOUNT_ID = 1L;
+    private static final long MAX_ACCOUNT_ID = 100L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final StepExecution stepExecution = new StepExecution("reconciliationStep", new JobExecution(1L));
+    private final StepContribution contribution = new StepContribution(stepExecution);
+    private final ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+
+    @Test
+    @DisplayName("원장 잔액이 다르면 원장 불일치, 원장은 맞고 snapshot 만 다르면 snapshot 불일치")
+    void classify() {
+        //given
+        //when
+        //then
+        assertNull(ReconciliationTasklet.classify(1_000L, 1_000L, 1_000L));
+        assertEquals(ReconciliationResultType.LEDGER_MISMATCH,
+                ReconciliationTasklet.classify(1_000L, 900L, 1_000L));
+        assertEquals(ReconciliationResultType.SNAPSHOT_MISMATCH,
+                ReconciliationTasklet.classify(1_000L, 1_000L, 900L));
+    }
+
+    @Test
+    @DisplayName("다시 계산해도 다른 계좌만 불일치 종류와 함께 저장")
+    void execute_discrepancies() throws Exception {
+        //given
+        givenAccountCount(4L);
+        givenRows(ReconciliationTasklet.TRANSACTION_SQL,
+                // 7 : 잔액 10,000 에서 사용 1,000 -> 일치
+                new Object[]{7L, -1_000L, 9_000L},
+                // 8 : 잔액 10,000 에서 사용 1,000, 계좌 잔액은 8,000
+                new Object[]{8L, -1_000L, 9_000L},
+                // 9 : 사용 1,000 뒤 실패 거래의 snapshot 이 틀림
+                new Object[]{9L, -1_000L, 9_000L},
+                new Object[]{9L, 0L, 8_500L});
+        givenRows(ReconciliationTasklet.ACCOUNT_SQL,
+                new Object[]{7L, "1000000007", 9_000L},
+                new Object[]{8L, "1000000008", 8_000L},
+                new Object[]{9L, "1000000009", 9_000L},
+                // 거래 없는 계좌
+                new Object[]{10L, "1000000010", 5_000L});
+        givenRecheck(8L, 8_000L, 10_000L, -1_000L, 9_000L, 1L);
+        givenRecheck(9L, 9_000L, 10_000L, -1_000L, 8_500L, 2L);
+        //when
+        newTasklet().execute(contribution, chunkContext);
+        //then
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(ReconciliationTasklet.INSERT_SQL), captor.capture());
+        List<Object[]> results = captor.getValue();
+        assertEquals(2, results.size());
+        assertArrayEquals(new Object[]{1L, 8L, "1000000008", "LEDGER_MISMATCH", 8_000L, 9_000L, 9_000L, 1L},
+                Arrays.copyOf(results.get(0), 8));
+        assertArrayEquals(new Object[]{1L, 9L, "1000000009", "SNAPSHOT_MISMATCH", 9_000L, 9_000L, 8_500L, 2L},
+                Arrays.copyOf(results.get(1), 8));
+        verify(jdbcTemplate, never()).queryForObject(eq(ReconciliationTasklet.RECHECK_SQL), any(RowMapper.class), eq(7L));
+        verify(jdbcTemplate, never()).queryForObject(eq(ReconciliationTasklet.RECHECK_SQL), any(RowMapper.class), eq(10L));
+        assertEquals(2L, contribution.getWriteCount());
+        assertEquals(4L, stepExecution.getExecutionContext().getLong(ReconciliationTasklet.TRANSACTION_COUNT));
+    }
+
+    @Test
+    @DisplayName("대사 중 들어온 거래 때문에 생긴 차이는 다시 계산해서 걸러낸다")
+    void execute_recheckMatches() throws Exception {
+        //given
+        givenAccountCount(1L);
+        givenRows(ReconciliationTasklet.TRANSACTION_SQL, new Object[]{8L, -1_000L, 9_000L});
+        // 거래를 읽은 뒤 사용 500 이 들어와서 계좌 잔액은 8,500
+        givenRows(ReconciliationTasklet.ACCOUNT_SQL, new Object[]{8L, "1000000008", 8_500L});
+        givenRecheck(8L, 8_500L, 10_000L, -1_500L, 8_500L, 2L);
+        //when
+        newTasklet().execute(contribution, chunkContext);
+        //then
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(0L, contribution.getWriteCount());
+    }
+
+    @Test
+    @DisplayName("원장 map 은 id 구간이 아니라 계좌 수로 크기를 잡는다")
+    void execute_sizedByAccountCount() throws Exception {
+        //given
+        givenAccountCount(0L);
+        givenRows(ReconciliationTasklet.TRANSACTION_SQL);
+        givenRows(ReconciliationTasklet.ACCOUNT_SQL);
+        //when
+        new ReconciliationTasklet(jdbcTemplate, jdbcTemplate, 0, 1L, Long.MAX_VALUE - 1)
+                .execute(contribution, chunkContext);
+        //then
+        verify(jdbcTemplate, times(1)).queryForObject(
+                ReconciliationTasklet.ACCOUNT_COUNT_SQL, Long.class, 1L, Long.MAX_VALUE - 1);
+        verify(jdbcTemplate, never()).queryForObject(
+                eq(ReconciliationTasklet.RECHECK_SQL), any(RowMapper.class), anyLong());
+    }
+
+    private ReconciliationTasklet newTasklet() {
+        return new ReconciliationTasklet(jdbcTemplate, jdbcTemplate, 0, MIN_ACCOUNT_ID, MAX_ACCOUNT_ID);
+    }
+
+    private void givenAccountCount(long count) {
+        given(jdbcTemplate.queryForObject(eq(ReconciliationTasklet.ACCOUNT_COUNT_SQL), eq(Long.class), anyLong(), anyLong()))
+                .willReturn(count);
+    }
+
+    // cursor 로 읽는 행 (문자열은 getString, 숫자는 getLong, 컬럼 순서대로)
+    private void givenRows(String sql, Object[]... rows) {
+        willAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        }).given(jdbcTemplate).query(eq(sql), any(RowCallbackHandler.class), anyLong(), anyLong());
+    }
+
+    private void givenRecheck(long accountId, long balance, long opening, long net, long lastSnapshot,
+                              long transactionCount) throws SQLException {
+        ResultSet resultSet = lenientResultSet();
+        given(resultSet.getLong("balance")).willReturn(balance);
+        given(resultSet.getLong("opening")).willReturn(opening);
+        given(resultSet.getLong("net")).willReturn(net);
+        given(resultSet.getLong("last_snapshot")).willReturn(lastSnapshot);
+        given(resultSet.getLong("transaction_count")).willReturn(transactionCount);
+        willAnswer(invocation -> invocation.<RowMapper<?>>getArgument(1).mapRow(resultSet, 0))
+                .given(jdbcTemplate).queryForObject(eq(ReconciliationTasklet.RECHECK_SQL), any(RowMapper.class), eq(accountId));
+    }
+
+    private static ResultSet resultSet(Object[] row) throws SQLException {
+        ResultSet resultSet = lenientResultSet();
+        for (int column = 1; column <= row.length; column++) {
+            Object value = row[column - 1];
+            if (value instanceof String text) {
+                given(resultSet.getString(column)).willReturn(text);
+            } else {
+                given(resultSet.getLong(column)).willReturn((Long) value);
+            }
+        }
+        return resultSet;
+    }
+
+    // 거래 없는 계좌는 일부 컬럼만 읽는다
+    private static ResultSet lenientResultSet() {
+        return mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+    }
+}
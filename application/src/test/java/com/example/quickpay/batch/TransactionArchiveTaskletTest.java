@@ -0,0 +1,110 @@
+package com.example.quickpay.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiveTaskletTest {
+    private static final LocalDateTime CUTOFF = LocalDateTime.now().minusDays(400);
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final StepContribution contribution =
+            new StepContribution(new StepExecution("transactionArchiveStep", new JobExecution(1L)));
+
+    @Test
+    @DisplayName("chunk 를 가득 옮기면 다음 chunk 를 이어서 옮긴다")
+    void execute_fullChunk() {
+        //given
+        givenIds(List.of(1L, 2L, 3L));
+        givenUpdated(3, 3);
+        //when
+        RepeatStatus status = newTasklet(CUTOFF).execute(contribution, null);
+        //then
+        assertEquals(RepeatStatus.CONTINUABLE, status);
+        assertEquals(3L, contribution.getWriteCount());
+    }
+
+    @Test
+    @DisplayName("chunk 보다 적게 남으면 옮기고 끝낸다")
+    void execute_lastChunk() {
+        //given
+        givenIds(List.of(1L, 2L));
+        givenUpdated(2, 2);
+        //when
+        RepeatStatus status = newTasklet(CUTOFF).execute(contribution, null);
+        //then
+        assertEquals(RepeatStatus.FINISHED, status);
+    }
+
+    @Test
+    @DisplayName("옮길 거래가 없으면 insert/delete 하지 않는다")
+    void execute_empty() {
+        //given
+        givenIds(List.of());
+        //when
+        RepeatStatus status = newTasklet(CUTOFF).execute(contribution, null);
+        //then
+        assertEquals(RepeatStatus.FINISHED, status);
+        verify(jdbcTemplate, never()).update(anyString(), any(SqlParameterSource.class));
+    }
+
+    @Test
+    @DisplayName("옮긴 건수와 지운 건수가 다르면 chunk 를 rollback 한다")
+    void execute_countMismatch() {
+        //given
+        givenIds(List.of(1L, 2L));
+        givenUpdated(2, 1);
+        //when
+        //then
+        assertThrows(IllegalStateException.class,
+                () -> newTasklet(CUTOFF).execute(contribution, null));
+    }
+
+    @Test
+    @DisplayName("취소 가능한 거래가 포함되는 cutoff 는 거절한다")
+    void cutoffWithinCancelPeriod() {
+        //given
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class,
+                () -> newTasklet(LocalDateTime.now().minusDays(300)));
+    }
+
+    private void givenIds(List<Long> ids) {
+        given(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .willReturn(ids);
+    }
+
+    private void givenUpdated(int archived, int deleted) {
+        given(jdbcTemplate.update(startsWith("insert"), any(SqlParameterSource.class))).willReturn(archived);
+        given(jdbcTemplate.update(startsWith("delete"), any(SqlParameterSource.class))).willReturn(deleted);
+    }
+
+    private TransactionArchiveTasklet newTasklet(LocalDateTime cutoff) {
+        return new TransactionArchiveTasklet(jdbcTemplate, TransactionOperations.withoutTransaction(), 0, cutoff, 3);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.quickpay.benchmark;
+
+import com.example.quickpay.QuickpayApplication;
+import com.example.quickpay.common.type.AccountStatus;
+import com.example.quickpay.domain.mysql.entity.Account;
+import com.example.quickpay.domain.mysql.entity.Member;
+import com.example.quickpay.domain.mysql.repository.AccountRepository;
+import com.example.quickpay.domain.mysql.repository.MemberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * platform thread / virtual thread 동시 처리 요청 수 비교
+ * 같은 부하(소수 계좌에 몰리는 잔액 사용 요청)를 두 설정으로 각각 기동한 서버에 보내고
+ * 서버 안에서 동시에 처리 중인 요청 수의 최대값과 처리량을 출력한다.
+ * virtual 설정에서는 lock/JDBC 경로에서 pinning 이 없어야 한다.
+ * 로컬 docker compose 환경에서 ./gradlew application:benchmarkTest 로 실행
+ */
+@Tag("benchmark")
+class InFlightRequestBenchmark {
+    private static final int REQUESTS = 4_000;
+    private static final int ACCOUNTS = 20;
+
+    @Test
+    void maxInFlightRequests() throws Exception {
+        Result platform = run();
+        Result virtual = run("virtual");
+
+        System.out.printf("use balance, %d concurrent requests over %d accounts%n", REQUESTS, ACCOUNTS);
+        System.out.println("  platform threads : " + platform);
+        System.out.println("  virtual threads  : " + virtual);
+        assertEquals(0.0, virtual.applicationPinned);
+    }
+
+    private Result run(String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                QuickpayApplication.class, InFlightConfiguration.class)
+                .profiles(profiles)
+                .properties("server.port=0", "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.show_sql=false")
+                .run()) {
+            List<String> accountNumbers = createAccounts(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            InFlightFilter inFlightFilter = context.getBean(InFlightFilter.class);
+
+            long startedAt = System.nanoTime();
+            Map<Integer, LongAdder> statuses = sendAll(port, accountNumbers);
+            long elapsedNanos = System.nanoTime() - startedAt;
+
+            double applicationPinned = context.getBean(MeterRegistry.class)
+                    .find("quickpay.virtual.pinned").tag("source", "application")
+                    .counters().stream().mapToDouble(counter -> counter.count()).sum();
+            return new Result(inFlightFilter.maxInFlight.get(),
+                    REQUESTS * 1_000_000_000L / elapsedNanos, statuses, applicationPinned);
+        }
+    }
+
+    private List<String> createAccounts(ConfigurableApplicationContext context) {
+        Member member = context.getBean(MemberRepository.class).findById(1L).orElseThrow();
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        List<String> accountNumbers = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = accountRepository.save(Account.builder()
+                    .accountUser(member)
+                    .accountStatus(AccountStatus.IN_USE)
+                    .accountNumber(String.valueOf(ThreadLocalRandom.current().nextLong(9_000_000_000L, 9_999_999_999L)))
+                    .balance(1_000_000_000L)
+                    .registeredAt(LocalDateTime.now())
+                    .build());
+            accountNumbers.add(account.getAccountNumber());
+        }
+        return accountNumbers;
+    }
+
+    private Map<Integer, LongAdder> sendAll(int port, List<String> accountNumbers) throws Exception {
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .executor(clients)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+            List<Future<?>> futures = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                String accountNumber = accountNumbers.get(i % accountNumbers.size());
+                futures.add(clients.submit(() -> {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/transaction/use"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"userId\":1,\"accountNumber\":\"" + accountNumber + "\",\"amount\":100}"))
+                            .build();
+                    int status;
+                    try {
+                        status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    }
+                    statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return statuses;
+    }
+
+    private record Result(int maxInFlight, long requestsPerSecond, Map<Integer, LongAdder> statuses,
+                          double applicationPinned) {
+        @Override
+        public String toString() {
+            return String.format("max in-flight %,6d | %,6d req/s | status %s | pinned %.0f",
+                    maxInFlight, requestsPerSecond, statuses, applicationPinned);
+        }
+    }
+
+    @Configuration
+    static class InFlightConfiguration {
+        @Bean
+        InFlightFilter inFlightFilter() {
+            return new InFlightFilter();
+        }
+    }
+
+    static class InFlightFilter extends OncePerRequestFilter {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
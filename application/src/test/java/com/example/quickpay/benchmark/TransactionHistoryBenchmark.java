@@ -0,0 +1,125 @@
+package com.example.quickpay.benchmark;
+
+import com.example.quickpay.common.type.AccountStatus;
+import com.example.quickpay.domain.mysql.entity.Account;
+import com.example.quickpay.domain.mysql.entity.Member;
+import com.example.quickpay.domain.mysql.repository.AccountRepository;
+import com.example.quickpay.domain.mysql.repository.MemberRepository;
+import com.example.quickpay.service.TransactionHistoryService;
+import com.example.quickpay.service.dto.TransactionHistoryCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 계좌 거래 내역 페이지 위치별 응답 시간
+ * - keyset : TransactionHistoryService (이전 페이지 마지막 행 다음부터 읽음)
+ * - offset : 같은 조건의 limit/offset 쿼리
+ * 한 계좌에 거래를 ROWS 건 넣고 1, 100, 1,000, 10,000 번째 페이지를 조회한다.
+ * keyset 은 페이지 위치와 관계없이 일정해야 한다.
+ * 로컬 docker compose 환경에서 ./gradlew application:benchmarkTest 로 실행
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.show_sql=false"})
+class TransactionHistoryBenchmark {
+    private static final int ROWS = 500_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int REPEAT = 20;
+    // pooled-lo 로 발급되는 id 와 겹치지 않는 구간
+    private static final long FIRST_ID = 1_000_000_000_000_000L;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        Member member = memberRepository.findById(1L).orElseThrow();
+        account = accountRepository.save(Account.builder()
+                .accountUser(member)
+                .accountStatus(AccountStatus.IN_USE)
+                .accountNumber(String.valueOf(ThreadLocalRandom.current().nextLong(9_000_000_000L, 9_999_999_999L)))
+                .balance(0L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+
+        LocalDateTime startedAt = LocalDateTime.now().minusDays(30);
+        List<Object[]> chunk = new ArrayList<>(1_000);
+        for (int i = 0; i < ROWS; i++) {
+            long id = FIRST_ID + i;
+            chunk.add(new Object[]{id, account.getId(), id, Timestamp.valueOf(startedAt.plusSeconds(i / 3))});
+            if (chunk.size() == 1_000) {
+                insert(chunk);
+                chunk.clear();
+            }
+        }
+        insert(chunk);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from transaction where account_id = ?", account.getId());
+        accountRepository.delete(account);
+    }
+
+    @Test
+    void pageLatency() {
+        System.out.printf("transaction history, %,d rows in one account, page size %d%n", ROWS, PAGE_SIZE);
+        for (int page : new int[]{1, 100, 1_000, 10_000}) {
+            String cursor = cursorBefore(page);
+            long keyset = averageNanos(() -> transactionHistoryService.getTransactions(
+                    account.getAccountNumber(), null, null, null, null, cursor, PAGE_SIZE));
+            long offset = averageNanos(() -> jdbcTemplate.queryForList(
+                    "select id, transaction_id, transaction_type, transaction_result_type, amount, balance_snapshot, transacted_at " +
+                            "from transaction where account_id = ? order by transacted_at desc, id desc limit ? offset ?",
+                    account.getId(), PAGE_SIZE, (page - 1) * PAGE_SIZE));
+            System.out.printf("  page %,6d | keyset %,8d us | offset %,8d us%n", page, keyset / 1_000, offset / 1_000);
+        }
+    }
+
+    // page 번째 페이지를 요청할 때 넘길 cursor (직전 페이지 마지막 행)
+    private String cursorBefore(int page) {
+        if (page == 1) {
+            return null;
+        }
+        return jdbcTemplate.queryForObject(
+                "select id, transacted_at from transaction where account_id = ? " +
+                        "order by transacted_at desc, id desc limit 1 offset ?",
+                (resultSet, rowNum) -> new TransactionHistoryCursor(
+                        resultSet.getTimestamp("transacted_at").toLocalDateTime(),
+                        resultSet.getLong("id")).encode(),
+                account.getId(), (page - 1) * PAGE_SIZE - 1);
+    }
+
+    private long averageNanos(Runnable query) {
+        query.run();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < REPEAT; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - startedAt) / REPEAT;
+    }
+
+    private void insert(List<Object[]> chunk) {
+        jdbcTemplate.batchUpdate("insert into transaction (id, account_id, transaction_id, transacted_at, " +
+                "transaction_type, transaction_result_type, amount, balance_snapshot) " +
+                "values (?, ?, ?, ?, 'USE', 'SUCCESS', 100, 0)", chunk);
+    }
+}
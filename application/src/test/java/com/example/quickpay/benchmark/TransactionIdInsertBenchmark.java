@@ -0,0 +1,88 @@
+package com.example.quickpay.benchmark;
+
+import com.example.quickpay.common.id.SnowflakeTransactionIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * 거래 id 형식별 insert 처리량 비교
+ * - uuid      : varchar(32) unique index, 무작위 값이라 index 전체 page 에 흩어져서 insert
+ * - snowflake : bigint unique index, 시간 순서라 index 마지막 page 에만 insert
+ * 같은 구조의 임시 테이블에 chunk 단위 batch insert 를 반복하고, 행 수가 늘어날 때 구간별 처리량을 출력한다.
+ * (index 가 buffer pool 보다 커지면 uuid 쪽이 급격히 느려지므로 ROWS 를 늘려서 확인)
+ * 로컬 docker compose 환경에서 ./gradlew application:benchmarkTest 로 실행
+ */
+@Tag("benchmark")
+@SpringBootTest
+class TransactionIdInsertBenchmark {
+    private static final int ROWS = 1_000_000;
+    private static final int CHUNK_SIZE = 1_000;
+    private static final int REPORT_EVERY = 200_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dropTables();
+        jdbcTemplate.execute("create table bench_uuid_transaction (id bigint not null auto_increment primary key, " +
+                "transaction_id varchar(32) not null, amount bigint, unique key uk_transaction_id (transaction_id))");
+        jdbcTemplate.execute("create table bench_snowflake_transaction (id bigint not null auto_increment primary key, " +
+                "transaction_id bigint not null, amount bigint, unique key uk_transaction_id (transaction_id))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dropTables();
+    }
+
+    @Test
+    void insertThroughput() {
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(0);
+
+        System.out.printf("transaction id insert, %,d rows, chunk %d%n", ROWS, CHUNK_SIZE);
+        insert("uuid", "bench_uuid_transaction", () -> UUID.randomUUID().toString().replace("-", ""));
+        insert("snowflake", "bench_snowflake_transaction", generator::nextId);
+    }
+
+    private void insert(String name, String table, Supplier<Object> idSupplier) {
+        String sql = "insert into " + table + " (transaction_id, amount) values (?, ?)";
+        long startedAt = System.nanoTime();
+        long intervalStartedAt = startedAt;
+        for (int inserted = 0; inserted < ROWS; inserted += CHUNK_SIZE) {
+            List<Object[]> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                chunk.add(new Object[]{idSupplier.get(), 100L});
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, chunk));
+
+            int total = inserted + CHUNK_SIZE;
+            if (total % REPORT_EVERY == 0) {
+                long now = System.nanoTime();
+                System.out.printf("  %-9s | rows %,9d | %,8d rows/s%n",
+                        name, total, REPORT_EVERY * 1_000_000_000L / (now - intervalStartedAt));
+                intervalStartedAt = now;
+            }
+        }
+        System.out.printf("  %-9s | total       | %,8d rows/s%n",
+                name, ROWS * 1_000_000_000L / (System.nanoTime() - startedAt));
+    }
+
+    private void dropTables() {
+        jdbcTemplate.execute("drop table if exists bench_uuid_transaction");
+        jdbcTemplate.execute("drop table if exists bench_snowflake_transaction");
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.quickpay.benchmark;
+
+import com.example.benchmark.entity.SharedSequenceTransaction;
+import com.example.quickpay.QuickpayApplication;
+import com.example.quickpay.common.id.TransactionIdGenerator;
+import com.example.quickpay.common.type.AccountStatus;
+import com.example.quickpay.domain.mysql.entity.Account;
+import com.example.quickpay.domain.mysql.entity.Member;
+import com.example.quickpay.domain.mysql.entity.Transaction;
+import com.example.quickpay.domain.mysql.repository.AccountRepository;
+import com.example.quickpay.domain.mysql.repository.MemberRepository;
+import com.example.quickpay.domain.mysql.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.example.quickpay.common.type.TransactionResultType.SUCCESS;
+import static com.example.quickpay.common.type.TransactionType.USE;
+
+/**
+ * Transaction insert 처리량 비교
+ * - before         : 요청 하나당 save + commit (기존 TransactionService 경로)
+ * - shared sequence : 변경 전 id 생성 방식 (공유 sequence 행에서 id 를 하나씩 받음, SharedSequenceTransaction) + chunk 단위 commit
+ * - after          : pooled-lo id + JDBC batch insert 로 chunk 단위 saveAll + commit
+ * 로컬 docker compose 환경에서 ./gradlew application:benchmarkTest 로 실행
+ */
+@Tag("benchmark")
+@SpringBootTest
+class TransactionInsertBenchmark {
+    private static final int ROWS = 20_000;
+    private static final int CHUNK_SIZE = 100;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Account account;
+
+    // application entity 에 benchmark 전용 entity 를 더해서 이 benchmark context 에서만 scan
+    @TestConfiguration
+    @EntityScan(basePackageClasses = {QuickpayApplication.class, SharedSequenceTransaction.class})
+    static class BenchmarkEntityConfig {
+    }
+
+    @BeforeEach
+    void setUp() {
+        Member member = memberRepository.findById(1L).orElseThrow();
+        account = accountRepository.save(Account.builder()
+                .accountUser(member)
+                .accountStatus(AccountStatus.IN_USE)
+                .accountNumber(String.valueOf(ThreadLocalRandom.current().nextLong(9_000_000_000L, 9_999_999_999L)))
+                .balance(0L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        dropTables();
+        jdbcTemplate.execute("create table bench_shared_sequence (sequence_name varchar(255) not null primary key, " +
+                "next_val bigint)");
+        jdbcTemplate.execute("create table bench_shared_sequence_transaction (id bigint not null primary key, " +
+                "transaction_type varchar(20), transaction_result_type varchar(20), account_id bigint, amount bigint, " +
+                "balance_snapshot bigint, transaction_id bigint not null, transacted_at datetime(6), " +
+                "unique key uk_transaction_id (transaction_id))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dropTables();
+    }
+
+    @Test
+    void insertThroughput() {
+        // warm-up
+        insertOneByOne(1_000);
+        insertInChunksWithSharedSequence(1_000);
+        insertInChunks(1_000);
+
+        long before = insertOneByOne(ROWS);
+        long sharedSequence = insertInChunksWithSharedSequence(ROWS);
+        long after = insertInChunks(ROWS);
+
+        System.out.printf("transaction insert, %d rows%n", ROWS);
+        System.out.printf("  one-by-one commit                 : %,10d rows/s%n", rowsPerSecond(before));
+        System.out.printf("  shared sequence, chunk %d commit : %,10d rows/s%n", CHUNK_SIZE, rowsPerSecond(sharedSequence));
+        System.out.printf("  pooled-lo, batched (chunk %d)    : %,10d rows/s%n", CHUNK_SIZE, rowsPerSecond(after));
+    }
+
+    private long insertOneByOne(int rows) {
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            transactionTemplate.executeWithoutResult(status -> transactionRepository.save(newTransaction()));
+        }
+        return System.nanoTime() - startedAt;
+    }
+
+    private long insertInChunks(int rows) {
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < rows; i += CHUNK_SIZE) {
+            List<Transaction> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int j = 0; j < CHUNK_SIZE; j++) {
+                chunk.add(newTransaction());
+            }
+            transactionTemplate.executeWithoutResult(status -> transactionRepository.saveAll(chunk));
+        }
+        return System.nanoTime() - startedAt;
+    }
+
+    // id 마다 공유 sequence 행을 별도 트랜잭션으로 잠그고 갱신한다
+    private long insertInChunksWithSharedSequence(int rows) {
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < rows; i += CHUNK_SIZE) {
+            List<SharedSequenceTransaction> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int j = 0; j < CHUNK_SIZE; j++) {
+                chunk.add(SharedSequenceTransaction.builder()
+                        .transactionType(USE.name())
+                        .transactionResultType(SUCCESS.name())
+                        .accountId(account.getId())
+                        .amount(100L)
+                        .balanceSnapshot(0L)
+                        .transactionId(transactionIdGenerator.nextId())
+                        .transactedAt(LocalDateTime.now())
+                        .build());
+            }
+            transactionTemplate.executeWithoutResult(status -> chunk.forEach(entityManager::persist));
+        }
+        return System.nanoTime() - startedAt;
+    }
+
+    private Transaction newTransaction() {
+        return Transaction.builder()
+                .transactionType(USE)
+                .transactionResultType(SUCCESS)
+                .account(account)
+                .amount(100L)
+                .balanceSnapshot(0L)
+                .transactionId(transactionIdGenerator.nextId())
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void dropTables() {
+        jdbcTemplate.execute("drop table if exists bench_shared_sequence_transaction");
+        jdbcTemplate.execute("drop table if exists bench_shared_sequence");
+    }
+
+    private long rowsPerSecond(long elapsedNanos) {
+        return ROWS * 1_000_000_000L / elapsedNanos;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.quickpay.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static com.example.quickpay.config.ReadWriteRoutingDataSource.Target.PRIMARY;
+import static com.example.quickpay.config.ReadWriteRoutingDataSource.Target.REPLICA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        PrimaryDataSourceContext.clear();
+    }
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션만 replica 로 보낸다")
+    void route() {
+        //given
+        //when
+        Object outsideTransaction = routingDataSource.determineCurrentLookupKey();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Object readOnly = routingDataSource.determineCurrentLookupKey();
+        //then
+        assertEquals(PRIMARY, outsideTransaction);
+        assertEquals(REPLICA, readOnly);
+        assertEquals(1.0, meterRegistry.get("quickpay.datasource.route").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    @DisplayName("primary 가 필요한 동안은 읽기 전용 트랜잭션도 primary 로 보낸다")
+    void route_primaryRequired() {
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        //when
+        Object insideCall = PrimaryDataSourceContext.callOnPrimary(routingDataSource::determineCurrentLookupKey);
+        Object afterCall = routingDataSource.determineCurrentLookupKey();
+        //then
+        assertEquals(PRIMARY, insideCall);
+        assertEquals(REPLICA, afterCall);
+    }
+
+    @Test
+    @DisplayName("요청 단위로 primary 를 요구하면 안쪽 호출이 끝나도 유지된다")
+    void route_nestedPrimaryRequired() {
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        PrimaryDataSourceContext.requirePrimary();
+        //when
+        PrimaryDataSourceContext.callOnPrimary(() -> null);
+        //then
+        assertEquals(PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.quickpay.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(2000L);
+
+    @Test
+    @DisplayName("쓰기 요청은 primary 를 쓰고 sticky 기간을 내려준다")
+    void write() throws Exception {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/transaction/use");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+        //when
+        long before = System.currentTimeMillis();
+        filter.doFilter(request, response, (req, res) -> primaryRequired.set(PrimaryDataSourceContext.isPrimaryRequired()));
+        //then
+        assertTrue(primaryRequired.get());
+        assertFalse(PrimaryDataSourceContext.isPrimaryRequired());
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertTrue(Long.parseLong(cookie.getValue()) >= before + 2000L);
+        assertEquals(cookie.getValue(), response.getHeader(ReadYourWritesFilter.HEADER_NAME));
+    }
+
+    @Test
+    @DisplayName("sticky 기간 안의 조회는 primary 를 쓴다")
+    void readAfterWrite() throws Exception {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/account");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() + 1000L)));
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+        //when
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> primaryRequired.set(PrimaryDataSourceContext.isPrimaryRequired()));
+        //then
+        assertTrue(primaryRequired.get());
+    }
+
+    @Test
+    @DisplayName("sticky 기간이 지났거나 값이 없으면 조회는 replica 를 쓸 수 있다")
+    void read() throws Exception {
+        //given
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/api/v1/account");
+        expired.addHeader(ReadYourWritesFilter.HEADER_NAME, Long.toString(System.currentTimeMillis() - 1L));
+        MockHttpServletRequest invalid = new MockHttpServletRequest("GET", "/api/v1/account");
+        invalid.addHeader(ReadYourWritesFilter.HEADER_NAME, "not-a-number");
+        AtomicBoolean primaryRequired = new AtomicBoolean(true);
+        //when
+        //then
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{expired, invalid}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response,
+                    (req, res) -> primaryRequired.set(PrimaryDataSourceContext.isPrimaryRequired()));
+            assertFalse(primaryRequired.get());
+            assertNull(response.getCookie(ReadYourWritesFilter.COOKIE_NAME));
+        }
+    }
+}
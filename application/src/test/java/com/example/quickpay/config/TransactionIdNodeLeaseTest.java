@@ -0,0 +1,96 @@
+package com.example.quickpay.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionIdNodeLeaseTest {
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RAtomicLong counter;
+    @Mock
+    private RBucket<Object> takenBucket;
+    @Mock
+    private RBucket<Object> freeBucket;
+    @Mock
+    private RScript script;
+
+    private TransactionIdNodeLease lease;
+
+    @AfterEach
+    void tearDown() {
+        if (lease != null) {
+            lease.release();
+        }
+    }
+
+    @Test
+    @DisplayName("다른 노드가 잡은 node id 는 건너뛰고 비어 있는 다음 id 를 받는다")
+    void skipTakenNode() {
+        //given
+        givenCounter(1025L);
+        // 1025 % 1024 = 1 은 사용 중, 2 는 비어 있음
+        given(redissonClient.getBucket(eq(TransactionIdNodeLease.NODE_KEY_PREFIX + 1), any(StringCodec.class)))
+                .willReturn(takenBucket);
+        given(redissonClient.getBucket(eq(TransactionIdNodeLease.NODE_KEY_PREFIX + 2), any(StringCodec.class)))
+                .willReturn(freeBucket);
+        given(takenBucket.setIfAbsent(anyString(), eq(TTL))).willReturn(false);
+        given(freeBucket.setIfAbsent(anyString(), eq(TTL))).willReturn(true);
+        //when
+        lease = new TransactionIdNodeLease(redissonClient, "counter", -1, TTL);
+        //then
+        assertEquals(2, lease.getNodeId());
+    }
+
+    @Test
+    @DisplayName("연장 전에 key 가 사라졌으면 같은 node id 를 다시 잡는다")
+    void renew_reacquireExpired() {
+        //given
+        givenCounter(7L);
+        given(redissonClient.getBucket(eq(TransactionIdNodeLease.NODE_KEY_PREFIX + 7), any(StringCodec.class)))
+                .willReturn(freeBucket);
+        given(freeBucket.setIfAbsent(anyString(), eq(TTL))).willReturn(true);
+        given(redissonClient.getScript(any(StringCodec.class))).willReturn(script);
+        given(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class)))
+                .willReturn(false);
+        lease = new TransactionIdNodeLease(redissonClient, "counter", -1, TTL);
+        //when
+        lease.renew();
+        //then
+        verify(freeBucket, times(2)).setIfAbsent(anyString(), eq(TTL));
+    }
+
+    @Test
+    @DisplayName("지정한 node id 는 Redis 없이 그대로 사용")
+    void configuredNode() {
+        //when
+        lease = new TransactionIdNodeLease(redissonClient, "counter", 12, TTL);
+        //then
+        assertEquals(12, lease.getNodeId());
+        verifyNoInteractions(redissonClient);
+    }
+
+    private void givenCounter(long value) {
+        given(redissonClient.getAtomicLong("counter")).willReturn(counter);
+        given(counter.incrementAndGet()).willReturn(value);
+    }
+}
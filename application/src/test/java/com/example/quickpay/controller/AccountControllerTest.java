@@ -4,7 +4,10 @@ import com.example.quickpay.common.exception.QuickPayException;
 import com.example.quickpay.dto.CreateAccount;
 import com.example.quickpay.dto.DeleteAccount;
 import com.example.quickpay.service.AccountService;
+import com.example.quickpay.service.TransactionHistoryService;
 import com.example.quickpay.service.dto.AccountDto;
+import com.example.quickpay.service.dto.TransactionDto;
+import com.example.quickpay.service.dto.TransactionHistoryPage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,9 +22,17 @@ import java.util.Arrays;
 import java.util.List;
 
 import static com.example.quickpay.common.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.example.quickpay.common.type.TransactionResultType.SUCCESS;
+import static com.example.quickpay.common.type.TransactionType.USE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.anyLong;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -31,6 +42,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class AccountControllerTest {
     @MockBean
     private AccountService accountService;
+    @MockBean
+    private TransactionHistoryService transactionHistoryService;
 
     @Autowired
     private MockMvc mockMvc;
@@ -129,4 +142,47 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.errorMessage").value("계좌가 없습니다."))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("계좌 거래 내역 조회 성공")
+    void successGetTransactions() throws Exception {
+        //given
+        given(transactionHistoryService.getTransactions(eq("1234567890"), eq(USE), isNull(),
+                eq(LocalDateTime.of(2024, 1, 1, 0, 0)), isNull(), eq("cursor"), eq(2)))
+                .willReturn(new TransactionHistoryPage(List.of(
+                        TransactionDto.builder()
+                                .accountNumber("1234567890")
+                                .transactionType(USE)
+                                .transactionResultType(SUCCESS)
+                                .transactionId("7154873921232896001")
+                                .amount(1000L)
+                                .transactedAt(LocalDateTime.now())
+                                .build()),
+                        "nextCursor"));
+        //when
+        //then
+        mockMvc.perform(get("/api/v1/account/1234567890/transactions")
+                        .param("transaction_type", "USE")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("cursor", "cursor")
+                        .param("size", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("7154873921232896001"))
+                .andExpect(jsonPath("$.transactions[0].transactionResult").value("SUCCESS"))
+                .andExpect(jsonPath("$.nextCursor").value("nextCursor"));
+    }
+
+    @Test
+    @DisplayName("거래 종류 형식 오류 - 계좌 거래 내역 조회 실패")
+    void failedGetTransactions_invalidTransactionType() throws Exception {
+        //given
+        //when
+        //then
+        mockMvc.perform(get("/api/v1/account/1234567890/transactions")
+                        .param("transaction_type", "UNKNOWN"))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+        verify(transactionHistoryService, never()).getTransactions(anyString(), any(), any(), any(), any(), any(), anyInt());
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.quickpay.controller;
 
 import com.example.quickpay.dto.CancelBalance;
+import com.example.quickpay.common.type.ErrorCode;
 import com.example.quickpay.dto.UseBalance;
+import com.example.quickpay.dto.UseBalanceBatch;
+import com.example.quickpay.service.FailedTransactionAuditor;
+import com.example.quickpay.service.TransactionBatchService;
+import com.example.quickpay.service.TransactionGroupCommitter;
 import com.example.quickpay.service.TransactionService;
 import com.example.quickpay.service.dto.TransactionDto;
+import com.example.quickpay.service.dto.UseBalanceResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,16 +18,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.example.quickpay.common.type.TransactionResultType.SUCCESS;
 import static com.example.quickpay.common.type.TransactionType.USE;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
@@ -29,6 +41,15 @@ class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private TransactionGroupCommitter transactionGroupCommitter;
+
+    @MockBean
+    private FailedTransactionAuditor failedTransactionAuditor;
+
+    @MockBean
+    private TransactionBatchService transactionBatchService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -60,6 +81,105 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.transactionResult").value("SUCCESS"));
     }
 
+    @Test
+    @DisplayName("group commit 거래 사용 성공")
+    void successUseBalanceWithGroupCommit() throws Exception {
+        //given
+        given(transactionGroupCommitter.isEnabled()).willReturn(true);
+        given(transactionGroupCommitter.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .amount(1000L)
+                        .transactedAt(LocalDateTime.now())
+                        .transactionType(USE)
+                        .transactionResultType(SUCCESS)
+                        .transactionId("transactionId").build());
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UseBalance.Request(1L, "1234567890", 1000L))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.transactionResult").value("SUCCESS"));
+        verify(transactionService, never()).useBalance(anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE 거래 사용 성공")
+    void successUseBalanceWithConditionalUpdate() throws Exception {
+        //given
+        given(transactionService.useBalanceWithConditionalUpdate(anyLong(), anyString(), anyLong()))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .amount(1000L)
+                        .transactedAt(LocalDateTime.now())
+                        .transactionType(USE)
+                        .transactionResultType(SUCCESS)
+                        .transactionId("transactionId").build());
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/transaction/use/conditional")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UseBalance.Request(1L, "1234567890", 1000L))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$.transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.amount").value(1000L))
+                .andExpect(jsonPath("$.transactionResult").value("SUCCESS"));
+    }
+
+    @Test
+    @DisplayName("묶음 거래 사용 항목별 결과 전달")
+    void useBalanceBatch() throws Exception {
+        //given
+        given(transactionBatchService.useBalances(anyList(), any()))
+                .willAnswer(invocation -> {
+                    TransactionBatchService.ResultListener listener = invocation.getArgument(1);
+                    listener.onResult(1, UseBalanceResult.failed(ErrorCode.AMOUNT_EXCEED_BALANCE));
+                    listener.onResult(0, UseBalanceResult.success(TransactionDto.builder()
+                            .accountNumber("1234567890")
+                            .amount(1000L)
+                            .transactedAt(LocalDateTime.now())
+                            .transactionType(USE)
+                            .transactionResultType(SUCCESS)
+                            .transactionId("transactionId").build()));
+                    return CompletableFuture.completedFuture(null);
+                });
+        //when
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/transaction/use/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UseBalanceBatch.Request(List.of(
+                                new UseBalance.Request(1L, "1234567890", 1000L),
+                                new UseBalance.Request(1L, "1234567891", 5000L))))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvcResult.getAsyncResult();
+        //then
+        String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"index\":1"));
+        assertTrue(lines[0].contains("AMOUNT_EXCEED_BALANCE"));
+        assertTrue(lines[1].contains("\"index\":0"));
+        assertTrue(lines[1].contains("transactionId"));
+    }
+
+    @Test
+    @DisplayName("묶음 거래 사용 빈 요청 실패")
+    void useBalanceBatch_emptyItems() throws Exception {
+        //given
+        //when
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/transaction/use/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UseBalanceBatch.Request(List.of()))))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+        verify(transactionBatchService, never()).useBalances(anyList(), any());
+    }
+
     @Test
     @DisplayName("거래 취소 성공")
     void successCancelBalance() throws Exception {
@@ -0,0 +1,112 @@
+package com.example.quickpay.controller;
+
+import com.example.quickpay.service.TransactionExportService;
+import com.example.quickpay.service.dto.TransactionExportFormat;
+import com.example.quickpay.service.dto.TransactionHistoryCursor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TransactionExportController.class)
+class TransactionExportControllerTest {
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("거래 내보내기 - NDJSON")
+    void exportNdjson() throws Exception {
+        //given
+        givenExport("{\"transactionId\":\"1\"}\n");
+        //when
+        MvcResult result = mockMvc.perform(get("/api/v1/transaction/export")
+                        .param("date", "2024-03-01"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-2024-03-01.ndjson\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+        //then
+        assertEquals("application/x-ndjson;charset=UTF-8", result.getResponse().getContentType());
+        assertNull(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"transactionId\":\"1\"}\n", result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        verify(transactionExportService).export(eq(DATE), eq(TransactionExportFormat.NDJSON), eq(0), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("거래 내보내기 - gzip 을 받으면 압축하고 cursor 다음부터 내보낸다")
+    void exportCsvGzip() throws Exception {
+        //given
+        givenExport("cursor,transactionId\n");
+        TransactionHistoryCursor cursor = new TransactionHistoryCursor(LocalDateTime.of(2024, 3, 1, 12, 0), 20L);
+        //when
+        MvcResult result = mockMvc.perform(get("/api/v1/transaction/export")
+                        .param("date", "2024-03-01")
+                        .param("format", "CSV")
+                        .param("cursor", cursor.encode())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        //then
+        byte[] body = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))
+                .readAllBytes();
+        assertEquals("cursor,transactionId\n", new String(body, StandardCharsets.UTF_8));
+        verify(transactionExportService).export(eq(DATE), eq(TransactionExportFormat.CSV), eq(0),
+                argThat(after -> after.getId() == 20L
+                        && after.getTransactedAt().equals(cursor.getTransactedAt())), any());
+    }
+
+    @Test
+    @DisplayName("잘못된 cursor - 거래 내보내기 실패")
+    void export_invalidCursor() throws Exception {
+        //given
+        //when
+        //then
+        mockMvc.perform(get("/api/v1/transaction/export")
+                        .param("date", "2024-03-01")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+        verify(transactionExportService, never()).export(any(), any(), anyInt(), any(), any());
+    }
+
+    private void givenExport(String body) throws Exception {
+        given(transactionExportService.export(any(), any(), anyInt(), any(), any()))
+                .willAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(4);
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+    }
+}
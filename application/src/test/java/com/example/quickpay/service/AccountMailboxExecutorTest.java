@@ -0,0 +1,165 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.config.PrimaryDataSourceContext;
+import com.example.quickpay.domain.mysql.shard.ShardContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.quickpay.common.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountMailboxExecutorTest {
+    private AccountMailboxExecutor executor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("같은 계좌 작업은 동시에 실행되지 않는다")
+    void sameAccount_runSerially() throws Exception {
+        //given
+        executor = new AccountMailboxExecutor(true, 8, 1000, 10000, 5000, new SimpleMeterRegistry());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        //when
+        for (int i = 0; i < 200; i++) {
+            int value = i;
+            futures.add(CompletableFuture.supplyAsync(() -> call(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.yield();
+                running.decrementAndGet();
+                return value;
+            })));
+        }
+        //then
+        for (CompletableFuture<Integer> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    @DisplayName("한 호출자의 작업은 넣은 순서대로 실행된다")
+    void sameAccount_keepOrder() throws Throwable {
+        //given
+        executor = new AccountMailboxExecutor(true, 4, 1000, 10000, 5000, new SimpleMeterRegistry());
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        //when
+        for (int i = 0; i < 50; i++) {
+            int value = i;
+            executor.execute("1234567890", () -> executed.add(value));
+        }
+        //then
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, executed.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("mailbox 가 가득 차면 거절")
+    void queueFull_rejected() throws Exception {
+        //given
+        executor = new AccountMailboxExecutor(true, 2, 1, 10000, 5000, new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> blocking = CompletableFuture.supplyAsync(() -> call(() -> {
+            started.countDown();
+            release.await();
+            return null;
+        }));
+        started.await();
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> call(() -> null));
+        waitUntilQueued();
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> executor.execute("1234567890", () -> null));
+        release.countDown();
+        //then
+        assertEquals(ErrorCode.ACCOUNT_REQUEST_QUEUE_FULL, exception.getErrorCode());
+        blocking.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("작업 예외는 호출자에게 그대로 전달")
+    void commandException_propagated() {
+        //given
+        executor = new AccountMailboxExecutor(true, 2, 10, 10000, 5000, new SimpleMeterRegistry());
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> executor.execute("1234567890", () -> {
+                    throw new QuickPayException(ACCOUNT_NOT_FOUND);
+                }));
+        //then
+        assertEquals(ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("호출 스레드의 샤드/primary 지정을 worker 에서 그대로 사용")
+    void callerContext_propagated() throws Throwable {
+        //given
+        executor = new AccountMailboxExecutor(true, 2, 10, 10000, 5000, new SimpleMeterRegistry());
+        ShardContext.set(3);
+        PrimaryDataSourceContext.requirePrimary();
+        try {
+            //when
+            List<Object> context = executor.execute("1234567890",
+                    () -> List.of(ShardContext.current(), PrimaryDataSourceContext.isPrimaryRequired()));
+            //then
+            assertEquals(List.of(3, true), context);
+        } finally {
+            ShardContext.clear();
+            PrimaryDataSourceContext.clear();
+        }
+        // worker 에는 남지 않는다
+        List<Object> context = executor.execute("1234567890",
+                () -> Arrays.asList(ShardContext.current(), PrimaryDataSourceContext.isPrimaryRequired()));
+        assertEquals(Arrays.asList(null, false), context);
+    }
+
+    @Test
+    @DisplayName("종료 뒤 들어온 작업은 거절하고 대기 수를 되돌림")
+    void afterShutdown_rejected() throws Exception {
+        //given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        executor = new AccountMailboxExecutor(true, 2, 10, 10000, 5000, meterRegistry);
+        executor.shutdown();
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> executor.execute("1234567890", () -> 1));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_REQUEST_QUEUE_FULL, exception.getErrorCode());
+        assertEquals(0.0, meterRegistry.get("quickpay.mailbox.pending").gauge().value());
+        assertEquals(0.0, meterRegistry.get("quickpay.mailbox.active").gauge().value());
+        assertEquals(1.0, meterRegistry.get("quickpay.mailbox.rejected").counter().count());
+    }
+
+    private void waitUntilQueued() throws InterruptedException {
+        // 두 번째 작업이 mailbox 에 들어갈 때까지 잠시 대기
+        TimeUnit.MILLISECONDS.sleep(200);
+    }
+
+    private <T> T call(AccountMailboxExecutor.AccountCommand<T> command) {
+        try {
+            return executor.execute("1234567890", command);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
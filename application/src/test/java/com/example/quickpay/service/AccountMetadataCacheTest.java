@@ -0,0 +1,123 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.redis.RedisTopics;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.domain.mysql.entity.Account;
+import com.example.quickpay.domain.mysql.entity.Member;
+import com.example.quickpay.domain.mysql.repository.AccountRepository;
+import com.example.quickpay.service.dto.AccountMetadata;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+
+import java.util.Optional;
+
+import static com.example.quickpay.common.type.AccountStatus.IN_USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountMetadataCacheTest {
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RTopic rTopic;
+
+    private AccountMetadataCache accountMetadataCache;
+
+    @BeforeEach
+    void setUp() {
+        given(redissonClient.getTopic(anyString(), any()))
+                .willReturn(rTopic);
+        accountMetadataCache = new AccountMetadataCache(accountRepository, redissonClient, 100, 60, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("한 번 읽은 계좌는 DB 를 다시 조회하지 않는다")
+    void cacheHit() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account()));
+        //when
+        accountMetadataCache.get("1000000012");
+        AccountMetadata accountMetadata = accountMetadataCache.get("1000000012");
+        //then
+        assertEquals(1L, accountMetadata.getId());
+        assertEquals(12L, accountMetadata.getOwnerId());
+        assertEquals(IN_USE, accountMetadata.getAccountStatus());
+        verify(accountRepository, times(1)).findByAccountNumber("1000000012");
+    }
+
+    @Test
+    @DisplayName("없는 계좌는 캐시하지 않는다")
+    void accountNotFound_notCached() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.empty());
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> accountMetadataCache.get("1000000012"));
+        assertThrows(QuickPayException.class, () -> accountMetadataCache.get("1000000012"));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+        verify(accountRepository, times(2)).findByAccountNumber("1000000012");
+    }
+
+    @Test
+    @DisplayName("무효화하면 다른 노드에 알리고 다시 조회")
+    void invalidate_publishAndReload() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account()));
+        accountMetadataCache.get("1000000012");
+        //when
+        accountMetadataCache.invalidate("1000000012");
+        accountMetadataCache.get("1000000012");
+        //then
+        verify(rTopic, times(1)).publish("1000000012");
+        verify(accountRepository, times(2)).findByAccountNumber("1000000012");
+    }
+
+    @Test
+    @DisplayName("다른 노드의 무효화 메시지를 받으면 캐시에서 제거")
+    @SuppressWarnings("unchecked")
+    void invalidationMessage_evict() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account()));
+        ArgumentCaptor<MessageListener<String>> captor = ArgumentCaptor.forClass(MessageListener.class);
+        accountMetadataCache.subscribe();
+        verify(rTopic).addListener(eq(String.class), captor.capture());
+        accountMetadataCache.get("1000000012");
+        //when
+        captor.getValue().onMessage(RedisTopics.ACCOUNT_METADATA_INVALIDATION, "1000000012");
+        accountMetadataCache.get("1000000012");
+        //then
+        verify(accountRepository, times(2)).findByAccountNumber("1000000012");
+    }
+
+    private Account account() {
+        return Account.builder()
+                .id(1L)
+                .accountUser(Member.builder().id(12L).name("iron").build())
+                .accountStatus(IN_USE)
+                .accountNumber("1000000012")
+                .balance(10000L)
+                .build();
+    }
+}
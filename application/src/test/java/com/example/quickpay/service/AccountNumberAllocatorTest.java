@@ -0,0 +1,93 @@
+package com.example.quickpay.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // account_number_seq.next_val 과 select ... for update 의 row lock
+    private final AtomicLong nextVal = new AtomicLong(1_000_000_000L);
+    private final ReentrantLock rowLock = new ReentrantLock();
+
+    @BeforeEach
+    void setUp() {
+        given(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .willAnswer(invocation -> {
+                    rowLock.lock();
+                    return nextVal.get();
+                });
+        given(jdbcTemplate.update(anyString(), anyLong()))
+                .willAnswer(invocation -> {
+                    nextVal.set(invocation.getArgument(1));
+                    rowLock.unlock();
+                    return 1;
+                });
+    }
+
+    @Test
+    @DisplayName("구간을 다 쓸 때만 account_number_seq 를 조회한다")
+    void nextAccountNumber_reservesBlock() {
+        //given
+        AccountNumberAllocator allocator = new AccountNumberAllocator(jdbcTemplate, transactionManager, 10);
+        //when
+        List<String> accountNumbers = IntStream.range(0, 25)
+                .mapToObj(i -> allocator.nextAccountNumber())
+                .toList();
+        //then
+        assertEquals("1000000000", accountNumbers.get(0));
+        assertEquals("1000000024", accountNumbers.get(24));
+        assertEquals(1_000_000_030L, nextVal.get());
+        verify(jdbcTemplate, times(3)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("같은 seq row 를 쓰는 두 노드의 계좌 번호가 겹치지 않는다")
+    void nextAccountNumber_multipleNodes() throws InterruptedException {
+        //given
+        AccountNumberAllocator node1 = new AccountNumberAllocator(jdbcTemplate, transactionManager, 7);
+        AccountNumberAllocator node2 = new AccountNumberAllocator(jdbcTemplate, transactionManager, 7);
+        Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        //when
+        for (int i = 0; i < 8; i++) {
+            AccountNumberAllocator allocator = i % 2 == 0 ? node1 : node2;
+            executorService.submit(() -> {
+                for (int j = 0; j < 500; j++) {
+                    accountNumbers.add(allocator.nextAccountNumber());
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+        //then
+        assertEquals(4_000, accountNumbers.size());
+    }
+}
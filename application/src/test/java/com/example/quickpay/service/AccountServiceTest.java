@@ -6,7 +6,8 @@ import com.example.quickpay.common.type.ErrorCode;
 import com.example.quickpay.domain.mysql.entity.Account;
 import com.example.quickpay.domain.mysql.entity.Member;
 import com.example.quickpay.domain.mysql.repository.AccountRepository;
-import com.example.quickpay.domain.mysql.repository.MemberRepository;
+import com.example.quickpay.domain.mysql.repository.dto.AccountRow;
+import com.example.quickpay.domain.mysql.shard.ShardMap;
 import com.example.quickpay.service.dto.AccountDto;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,7 +15,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.Arrays;
 import java.util.List;
@@ -24,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -32,7 +36,17 @@ class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
     @Mock
-    private MemberRepository memberRepository;
+    private MemberCache memberCache;
+    @Mock
+    private AccountMetadataCache accountMetadataCache;
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+    @Mock
+    private ExistenceFilter existenceFilter;
+
+    @Spy
+    private AccountShardRouter accountShardRouter =
+            new AccountShardRouter(ShardMap.single(), TransactionOperations.withoutTransaction(), Runnable::run);
 
     @InjectMocks
     private AccountService accountService;
@@ -45,12 +59,10 @@ class AccountServiceTest {
                 .id(12L)
                 .name("iron")
                 .build();
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.of(Account.builder()
-                        .accountNumber("1000000012")
-                        .build()));
+        given(accountNumberAllocator.nextAccountNumber())
+                .willReturn("1000000013");
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
                         .accountUser(member)
@@ -64,40 +76,38 @@ class AccountServiceTest {
         verify(accountRepository, times(1)).save(captor.capture());
         assertEquals(12L, accountDto.getUserId());
         assertEquals("1000000013", captor.getValue().getAccountNumber());
+        verify(existenceFilter, times(1)).addAccount("1000000013");
     }
 
     @Test
-    @DisplayName("첫 계좌 생성 성공")
-    void createFirstAccountSuccess() {
+    @DisplayName("계좌 생성 - 이전 중인 bucket 의 번호는 버리고 다시 발급")
+    void createAccount_skipFrozenBucket() {
         //given
         Member member = Member.builder()
-                .id(15L)
+                .id(12L)
                 .name("iron")
                 .build();
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.empty());
+        given(accountNumberAllocator.nextAccountNumber())
+                .willReturn("1000000013", "1000000014");
+        willReturn(true).given(accountShardRouter).isFrozen("1000000013");
         given(accountRepository.save(any()))
-                .willReturn(Account.builder()
-                        .accountUser(member)
-                        .accountNumber("1000000013")
-                        .build());
+                .willAnswer(invocation -> invocation.getArgument(0));
         ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
-
         //when
-        AccountDto accountDto = accountService.createAccount(1L, 1000L);
+        accountService.createAccount(1L, 1000L);
         //then
         verify(accountRepository, times(1)).save(captor.capture());
-        assertEquals(15L, accountDto.getUserId());
-        assertEquals("1000000000", captor.getValue().getAccountNumber());
+        assertEquals("1000000014", captor.getValue().getAccountNumber());
+        verify(existenceFilter, times(1)).addAccount("1000000014");
     }
 
     @Test
     @DisplayName("해당 유저 없음 - 계좌 생성 실패")
     void createAccount_UserNotFound() {
         //given
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.empty());
 
         //when
@@ -116,7 +126,7 @@ class AccountServiceTest {
                 .id(15L)
                 .name("iron")
                 .build();
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
         given(accountRepository.countByAccountUser(any()))
                 .willReturn(10);
@@ -135,7 +145,7 @@ class AccountServiceTest {
                 .id(12L)
                 .name("iron")
                 .build();
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
@@ -147,6 +157,7 @@ class AccountServiceTest {
         AccountDto accountDto = accountService.deleteAccount(member.getId(), "1000000012");
         //then
         assertEquals(12L, accountDto.getUserId());
+        verify(accountMetadataCache, times(1)).invalidate("1000000012");
     }
 
 
@@ -154,7 +165,7 @@ class AccountServiceTest {
     @DisplayName("해당 유저 없음 - 계좌 해지 실패")
     void deleteAccount_UserNotFound() {
         //given
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.empty());
 
         //when
@@ -173,7 +184,7 @@ class AccountServiceTest {
                 .id(15L)
                 .name("iron")
                 .build();
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
@@ -193,7 +204,7 @@ class AccountServiceTest {
         Member member1 = Member.builder()
                 .id(12L).name("haven").build();
 
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
@@ -214,7 +225,7 @@ class AccountServiceTest {
         Member member = Member.builder()
                 .id(15L).name("iron").build();
 
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
@@ -236,7 +247,7 @@ class AccountServiceTest {
         Member member = Member.builder()
                 .id(15L).name("iron").build();
 
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
@@ -259,31 +270,15 @@ class AccountServiceTest {
         //given
         Member member = Member.builder()
                 .id(15L).name("iron").build();
-        List<Account> accounts = Arrays.asList(
-                Account.builder()
-                        .accountUser(member)
-                        .accountNumber("1111111111")
-                        .balance(2000L)
-                        .build(),
-                Account.builder()
-                        .accountUser(member)
-                        .accountNumber("4444444444")
-                        .balance(3000L)
-                        .build(),
-                Account.builder()
-                        .accountUser(member)
-                        .accountNumber("3333333333")
-                        .balance(4000L)
-                        .build(),
-                Account.builder()
-                        .accountUser(member)
-                        .accountNumber("2222222222")
-                        .balance(5000L)
-                        .build()
+        List<AccountRow> accounts = Arrays.asList(
+                new AccountRow(15L, "1111111111", 2000L, null, null),
+                new AccountRow(15L, "4444444444", 3000L, null, null),
+                new AccountRow(15L, "3333333333", 4000L, null, null),
+                new AccountRow(15L, "2222222222", 5000L, null, null)
         );
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
-        given(accountRepository.findByAccountUser(any()))
+        given(accountRepository.findRowsByUserId(15L))
                 .willReturn(accounts);
         //when
         List<AccountDto> accountDtos = accountService.getAccountsByUserId(member.getId());
@@ -303,7 +298,7 @@ class AccountServiceTest {
     @DisplayName("해당 유저 없음 - 계좌 리스트 조회 실패")
     void failedGetAccountsByUserId_userNotFound() {
         //given
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.empty());
 
         //when
@@ -0,0 +1,202 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.domain.mysql.shard.ShardContext;
+import com.example.quickpay.domain.mysql.shard.ShardMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountShardRouterTest {
+    private static final ShardMap SHARD_MAP = ShardMap.of(2, 8, "");
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ShardContext.clear();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("계좌의 샤드에 트랜잭션을 고정하고, 트랜잭션이 끝나면 해제")
+    void bindTransaction() {
+        //given
+        String accountNumber = accountOnShard(1);
+        //when
+        newRouter(SHARD_MAP).bindTransaction(accountNumber);
+        //then
+        assertEquals(1, ShardContext.current());
+        completeTransaction();
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    @DisplayName("같은 샤드 계좌를 다시 고정하면 그대로, 다른 샤드 계좌는 실패")
+    void bindTransaction_alreadyBound() {
+        //given
+        AccountShardRouter router = newRouter(SHARD_MAP);
+        router.bindTransaction(accountOnShard(1));
+        //when
+        router.bindTransaction(accountOnShard(1));
+        //then
+        assertThrows(IllegalStateException.class, () -> router.bindTransaction(accountOnShard(0)));
+        assertEquals(1, ShardContext.current());
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+    }
+
+    @Test
+    @DisplayName("트랜잭션 밖에서 고정하면 실패")
+    void bindTransaction_noTransaction() {
+        //given
+        TransactionSynchronizationManager.clearSynchronization();
+        //when
+        //then
+        assertThrows(IllegalStateException.class, () -> newRouter(SHARD_MAP).bindTransaction(accountOnShard(1)));
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    @DisplayName("이전 중인 bucket 의 계좌 - 쓰기 트랜잭션은 거절, 읽기 전용은 허용")
+    void bindTransaction_frozen() {
+        //given
+        String accountNumber = accountOnShard(1);
+        AccountShardRouter router = newRouter(SHARD_MAP.withFrozenBuckets(List.of(SHARD_MAP.bucketOf(accountNumber))));
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> router.bindTransaction(accountNumber));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        router.bindTransaction(accountNumber);
+        //then
+        assertEquals(ErrorCode.ACCOUNT_MIGRATING, exception.getErrorCode());
+        assertEquals(1, ShardContext.current());
+        assertTrue(router.isFrozen(accountNumber));
+        assertFalse(router.isFrozen(accountOnShard(0)));
+    }
+
+    @Test
+    @DisplayName("계좌 묶음 - 같은 샤드면 고정, 다른 샤드가 섞이면 실패")
+    void bindTransaction_collection() {
+        //given
+        List<String> sameShard = accountsOnShard(0, 2);
+        List<String> mixed = List.of(accountOnShard(0), accountOnShard(1));
+        //when
+        assertThrows(IllegalArgumentException.class, () -> newRouter(SHARD_MAP).bindTransaction(mixed));
+        assertNull(ShardContext.current());
+        newRouter(SHARD_MAP).bindTransaction(sameShard);
+        //then
+        assertEquals(0, ShardContext.current());
+    }
+
+    @Test
+    @DisplayName("샤드가 하나면 고정하지 않는다")
+    void bindTransaction_singleShard() {
+        //given
+        TransactionSynchronizationManager.clearSynchronization();
+        //when
+        newRouter(ShardMap.single()).bindTransaction("1000000012");
+        //then
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    @DisplayName("모든 샤드 조회 - 끝난 순서와 상관없이 샤드 순서대로 합친다")
+    void queryAllShards() {
+        //given
+        AccountShardRouter router = newRouter(SHARD_MAP);
+        //when
+        List<String> merged = router.queryAllShards(() -> {
+            int shard = ShardContext.current();
+            if (shard == 0) {
+                sleep(200);
+            }
+            return List.of("shard-" + shard + "-a", "shard-" + shard + "-b");
+        });
+        //then
+        assertEquals(List.of("shard-0-a", "shard-0-b", "shard-1-a", "shard-1-b"), merged);
+    }
+
+    @Test
+    @DisplayName("모든 샤드 조회 - 샤드에서 난 예외를 CompletionException 없이 그대로 던진다")
+    void queryAllShards_exception() {
+        //given
+        AccountShardRouter router = newRouter(SHARD_MAP);
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class, () -> router.queryAllShards(() -> {
+            if (ShardContext.current() == 1) {
+                throw new QuickPayException(ErrorCode.TRANSACTION_NOT_FOUND);
+            }
+            return List.of();
+        }));
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("한 샤드에만 있는 행을 찾는다")
+    void findOnAnyShard() {
+        //given
+        AccountShardRouter router = newRouter(SHARD_MAP);
+        //when
+        Optional<String> found = router.findOnAnyShard(() ->
+                ShardContext.current() == 1 ? Optional.of("transaction") : Optional.empty());
+        Optional<String> notFound = router.findOnAnyShard(Optional::<String>empty);
+        //then
+        assertEquals(Optional.of("transaction"), found);
+        assertTrue(notFound.isEmpty());
+    }
+
+    private AccountShardRouter newRouter(ShardMap shardMap) {
+        return new AccountShardRouter(shardMap, TransactionOperations.withoutTransaction(), executor);
+    }
+
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private static String accountOnShard(int shard) {
+        return accountsOnShard(shard, 1).get(0);
+    }
+
+    private static List<String> accountsOnShard(int shard, int count) {
+        return LongStream.iterate(1_000_000_000L, accountNumber -> accountNumber + 1)
+                .mapToObj(String::valueOf)
+                .filter(accountNumber -> SHARD_MAP.shardOf(accountNumber) == shard)
+                .limit(count)
+                .toList();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
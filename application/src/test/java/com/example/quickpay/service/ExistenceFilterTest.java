@@ -0,0 +1,226 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.bloom.ScalableBloomFilter;
+import com.example.quickpay.common.id.SnowflakeTransactionIdGenerator;
+import com.example.quickpay.service.ExistenceFilter.RebuildableFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ExistenceFilterTest {
+    private static final long GRACE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    @Test
+    @DisplayName("처음 만들기 전에는 모두 있다고 본다")
+    void beforeFirstBuild() {
+        //given
+        RebuildableFilter filter = newFilter(GRACE_NANOS);
+        //when
+        //then
+        assertTrue(filter.mightContain("1000000012"));
+        assertEquals(0, filter.bitSize());
+    }
+
+    @Test
+    @DisplayName("만드는 동안 들어온 값과 DB 에서 읽은 값이 새 filter 에 모두 있다")
+    void addDuringRebuild() {
+        //given
+        RebuildableFilter filter = newFilter(GRACE_NANOS);
+        //when
+        ScalableBloomFilter building = filter.startRebuild();
+        building.add("1000000012");
+        filter.add("1000000013");
+        filter.finishRebuild();
+        //then
+        assertTrue(filter.mightContain("1000000012"));
+        assertTrue(filter.mightContain("1000000013"));
+        assertFalse(filter.mightContain("1000000014"));
+    }
+
+    @Test
+    @DisplayName("직전 grace 동안 들어온 값은 DB 에서 못 읽어도 새 filter 에 다시 넣는다")
+    void recentValuesCarriedOver() {
+        //given
+        RebuildableFilter filter = newFilter(GRACE_NANOS);
+        filter.startRebuild();
+        filter.finishRebuild();
+        // 아직 commit 되지 않아 다음 rebuild 의 DB 조회에 빠지는 값
+        filter.add("1000000012");
+        //when
+        filter.startRebuild();
+        filter.finishRebuild();
+        //then
+        assertTrue(filter.mightContain("1000000012"));
+    }
+
+    @Test
+    @DisplayName("grace 가 지난 값은 DB 에서 읽어야 새 filter 에 들어간다")
+    void expiredRecentValuesDropped() throws InterruptedException {
+        //given
+        RebuildableFilter filter = newFilter(0);
+        filter.add("1000000012");
+        TimeUnit.MILLISECONDS.sleep(1);
+        filter.add("1000000013");
+        //when
+        filter.startRebuild();
+        filter.finishRebuild();
+        //then
+        assertFalse(filter.mightContain("1000000012"));
+        assertTrue(filter.mightContain("1000000013"));
+    }
+
+    @Test
+    @DisplayName("rebuild 중에도 사용 중인 filter 로 조회하고, 새 값은 사용 중인 filter 에도 넣는다")
+    void currentFilterDuringRebuild() {
+        //given
+        RebuildableFilter filter = newFilter(GRACE_NANOS);
+        filter.startRebuild().add("1000000012");
+        filter.finishRebuild();
+        //when
+        filter.startRebuild();
+        filter.add("1000000013");
+        //then
+        assertTrue(filter.mightContain("1000000012"));
+        assertTrue(filter.mightContain("1000000013"));
+        assertFalse(filter.mightContain("1000000014"));
+    }
+
+    @Test
+    @DisplayName("rebuild 를 중단하면 사용 중인 filter 를 그대로 쓰고 다음 rebuild 는 빈 filter 부터 만든다")
+    void abortRebuild() {
+        //given
+        RebuildableFilter filter = newFilter(GRACE_NANOS);
+        filter.startRebuild().add("1000000012");
+        filter.finishRebuild();
+        ScalableBloomFilter aborted = filter.startRebuild();
+        aborted.add("1000000099");
+        //when
+        filter.abortRebuild();
+        filter.add("1000000013");
+        //then
+        assertTrue(filter.mightContain("1000000012"));
+        assertTrue(filter.mightContain("1000000013"));
+        assertFalse(aborted.mightContain("1000000013"));
+        assertNotSame(aborted, filter.startRebuild());
+    }
+
+    @Test
+    @DisplayName("rebuild 를 반복하는 동안 동시에 넣은 값을 잃지 않는다")
+    void noValueLostAcrossRebuilds() throws InterruptedException {
+        //given
+        RebuildableFilter filter = newFilter(GRACE_NANOS);
+        filter.startRebuild();
+        filter.finishRebuild();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                filter.add("value-" + i);
+            }
+        });
+        //when
+        writer.start();
+        while (writer.isAlive()) {
+            // DB 에는 아직 아무것도 없다고 보고 다시 만든다
+            filter.startRebuild();
+            filter.finishRebuild();
+        }
+        writer.join();
+        filter.startRebuild();
+        filter.finishRebuild();
+        //then
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("value-" + i), "value-" + i);
+        }
+    }
+
+    @Test
+    @DisplayName("filter 에 없는 값 중 마지막 rebuild 이후(- grace) 발급된 거래 id 는 거절하지 않는다")
+    void transactionIssuedAfterRebuild() {
+        //given
+        ExistenceFilter existenceFilter = newExistenceFilter(mock(DataSource.class));
+        existenceFilter.rebuild();
+        long now = System.currentTimeMillis();
+        //when
+        //then
+        assertTrue(existenceFilter.mightContainTransaction(snowflakeId(now)));
+        assertTrue(existenceFilter.mightContainTransaction(snowflakeId(now - TimeUnit.SECONDS.toMillis(10))));
+        assertFalse(existenceFilter.mightContainTransaction(snowflakeId(now - TimeUnit.HOURS.toMillis(1))));
+        // 시각이 미래인 값은 발급된 적 없는 id
+        assertFalse(existenceFilter.mightContainTransaction(snowflakeId(now + TimeUnit.HOURS.toMillis(1))));
+        // 이전 UUID 형식 id 는 rebuild 로 모두 들어 있다
+        assertFalse(existenceFilter.mightContainTransaction("0f8fad5bd9cb469fa16570867728950e"));
+    }
+
+    @Test
+    @DisplayName("filter 에 없는 계좌 번호는 DB 에서 확인하고, 있으면 filter 에 넣는다")
+    void accountMissingFromFilter() throws SQLException {
+        //given
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        given(dataSource.getConnection()).willReturn(connection);
+        given(connection.prepareStatement(anyString())).willReturn(statement);
+        given(statement.executeQuery()).willReturn(resultSet);
+        // 1000000012 는 있고 1000000013 은 없다
+        given(resultSet.next()).willReturn(true, false);
+        ExistenceFilter existenceFilter = newExistenceFilter(dataSource);
+        existenceFilter.rebuild();
+        //when
+        boolean missed = existenceFilter.mightContainAccount("1000000012");
+        boolean unknown = existenceFilter.mightContainAccount("1000000013");
+        boolean added = existenceFilter.mightContainAccount("1000000012");
+        //then
+        assertTrue(missed);
+        assertFalse(unknown);
+        assertTrue(added);
+        verify(statement, times(2)).executeQuery();
+    }
+
+    @Test
+    @DisplayName("DB 확인에 실패하면 거절하지 않는다")
+    void accountCheckFailed() throws SQLException {
+        //given
+        DataSource dataSource = mock(DataSource.class);
+        given(dataSource.getConnection()).willThrow(new SQLException("connection refused"));
+        ExistenceFilter existenceFilter = newExistenceFilter(dataSource);
+        existenceFilter.rebuild();
+        //when
+        //then
+        assertTrue(existenceFilter.mightContainAccount("1000000012"));
+    }
+
+    // 샤드가 없어서 rebuild 는 빈 filter 를 만든다
+    private static ExistenceFilter newExistenceFilter(DataSource dataSource) {
+        AccountShardRouter accountShardRouter = mock(AccountShardRouter.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        given(redissonClient.getTopic(anyString(), any())).willReturn(mock(RTopic.class));
+        return new ExistenceFilter(dataSource, accountShardRouter, redissonClient, true,
+                1_000, 1_000, 0.001, 30, 0, new SimpleMeterRegistry());
+    }
+
+    private static String snowflakeId(long millis) {
+        return String.valueOf((millis - SnowflakeTransactionIdGenerator.EPOCH_MILLIS)
+                << (SnowflakeTransactionIdGenerator.NODE_BITS + SnowflakeTransactionIdGenerator.SEQUENCE_BITS));
+    }
+
+    private static RebuildableFilter newFilter(long graceNanos) {
+        return new RebuildableFilter(new ScalableBloomFilter(1_000, 0.001), graceNanos);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.domain.mysql.shard.ShardMap;
+import com.example.quickpay.service.dto.FailedTransactionRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.example.quickpay.common.type.TransactionType.CANCEL;
+import static com.example.quickpay.common.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionAuditorTest {
+    private static final AccountShardRouter SINGLE_SHARD =
+            new AccountShardRouter(ShardMap.single(), TransactionOperations.withoutTransaction(), Runnable::run);
+
+    @Mock
+    private TransactionService transactionService;
+
+    @TempDir
+    private Path tempDir;
+
+    private FailedTransactionAuditor auditor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (auditor != null) {
+            auditor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("실패 거래를 묶어서 비동기 저장")
+    void writeInBackground() {
+        //given
+        auditor = newAuditor(true, 100);
+        //when
+        auditor.record(USE, "1000000012", 100L);
+        auditor.record(CANCEL, "1000000012", 200L);
+        //then
+        verify(transactionService, timeout(3000).atLeastOnce()).saveFailedTransactions(anyList());
+        verify(transactionService, never()).saveFailedUseTransaction(any(), any());
+    }
+
+    @Test
+    @DisplayName("DB 저장 실패 시 spill 파일에 남기고 다시 저장")
+    void spillAndReplay() throws Exception {
+        //given
+        willThrow(new QueryTimeoutException("timeout"))
+                .willDoNothing()
+                .given(transactionService).saveFailedTransactions(anyList());
+        given(transactionService.findBalance("1000000012")).willReturn(5000L);
+        auditor = newAuditor(true, 100);
+        //when
+        auditor.record(USE, "1000000012", 100L);
+        verify(transactionService, timeout(3000).times(1)).saveFailedTransactions(anyList());
+        waitUntilSpilled();
+        auditor.replaySpillFile();
+        //then
+        ArgumentCaptor<List<FailedTransactionRecord>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionService, times(2)).saveFailedTransactions(captor.capture());
+        assertEquals("1000000012", captor.getValue().get(0).getAccountNumber());
+        assertEquals(100L, captor.getValue().get(0).getAmount());
+        // 실패 시점 잔액은 spill 파일을 거쳐도 유지
+        assertEquals(5000L, captor.getValue().get(0).getBalanceSnapshot());
+        assertFalse(Files.exists(tempDir.resolve("failed.spill")));
+        assertFalse(Files.exists(tempDir.resolve("failed.spill.replay")));
+    }
+
+    @Test
+    @DisplayName("replay 가 중간에 끊기면 다음 replay 는 저장하지 않은 줄부터 이어서 처리")
+    void resumeInterruptedReplay() throws Exception {
+        //given
+        auditor = newAuditor(false, 100, 2);
+        Files.write(tempDir.resolve("failed.spill"), LongStream.rangeClosed(1, 5)
+                .mapToObj(amount -> FailedTransactionRecord.builder()
+                        .transactionType(USE)
+                        .accountNumber("1000000012")
+                        .amount(amount)
+                        .failedAt(LocalDateTime.now())
+                        .build()
+                        .toLine())
+                .collect(Collectors.toList()));
+        List<Long> saved = new ArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        willAnswer(invocation -> {
+            // 두 번째 묶음 저장 중 종료
+            if (calls.incrementAndGet() == 2) {
+                throw new Error("shutdown");
+            }
+            List<FailedTransactionRecord> batch = invocation.getArgument(0);
+            batch.forEach(failedRecord -> saved.add(failedRecord.getAmount()));
+            return null;
+        }).given(transactionService).saveFailedTransactions(anyList());
+        //when
+        assertThrows(Error.class, () -> auditor.replaySpillFile());
+        auditor.replaySpillFile();
+        //then
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), saved);
+        assertFalse(Files.exists(tempDir.resolve("failed.spill.replay")));
+        assertFalse(Files.exists(tempDir.resolve("failed.spill.replay.offset")));
+    }
+
+    @Test
+    @DisplayName("잔액이 없는 이전 형식의 spill 줄도 읽음")
+    void readLegacySpillLine() {
+        //given
+        String line = "USE,1000000012,100,2024-01-01T10:00";
+        //when
+        FailedTransactionRecord failedRecord = FailedTransactionRecord.fromLine(line);
+        //then
+        assertEquals(100L, failedRecord.getAmount());
+        assertNull(failedRecord.getBalanceSnapshot());
+    }
+
+    @Test
+    @DisplayName("동기 모드는 기존 실패 거래 저장 호출")
+    void synchronousMode() {
+        //given
+        auditor = newAuditor(false, 100);
+        //when
+        auditor.record(USE, "1000000012", 100L);
+        auditor.record(CANCEL, "1000000012", 200L);
+        //then
+        verify(transactionService, times(1)).saveFailedUseTransaction("1000000012", 100L);
+        verify(transactionService, times(1)).saveFailedCancelTransaction("1000000012", 200L);
+    }
+
+    private void waitUntilSpilled() throws InterruptedException {
+        Path spillFile = tempDir.resolve("failed.spill");
+        for (int i = 0; i < 30 && !Files.exists(spillFile); i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        assertTrue(Files.exists(spillFile));
+    }
+
+    private FailedTransactionAuditor newAuditor(boolean async, int queueCapacity) {
+        return newAuditor(async, queueCapacity, 100);
+    }
+
+    private FailedTransactionAuditor newAuditor(boolean async, int queueCapacity, int batchSize) {
+        return new FailedTransactionAuditor(transactionService, SINGLE_SHARD, async, queueCapacity, batchSize, 3_600_000L,
+                tempDir.resolve("failed.spill").toString(), new SimpleMeterRegistry());
+    }
+}
@@ -2,17 +2,25 @@ package com.example.quickpay.service;
 
 import com.example.quickpay.common.exception.QuickPayException;
 import com.example.quickpay.common.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
@@ -22,9 +30,16 @@ class LockServiceTest {
     @Mock
     private RLock rlock;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
+
     private LockService lockService;
-    
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockService = new LockService(redissonClient, new LocalLockRegistry(16, 100), meterRegistry);
+    }
+
     @Test
     void successGetLock () throws InterruptedException {
         //given
@@ -50,5 +65,94 @@ class LockServiceTest {
         //then
         assertEquals(exception.getErrorCode(), ErrorCode.ACCOUNT_TRANSACTION_LOCK);
     }
-    
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Redis lock 실패 시 로컬 lock 도 해제")
+    void failedGetLock_releaseLocalLock() throws Exception {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rlock);
+        given(rlock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(false, true);
+        assertThrows(QuickPayException.class, () -> lockService.lock("1234567890"));
+        //when
+        //then
+        CompletableFuture.runAsync(() -> lockService.lock("1234567890")).get();
+        verify(rlock, times(2)).tryLock(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("같은 계좌는 로컬 lock 에서 대기 - Redis 시도 없음")
+    void sameAccount_waitOnLocalLock() throws Exception {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rlock);
+        given(rlock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        lockService.lock("1234567890");
+        //when
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> CompletableFuture.runAsync(() -> lockService.lock("1234567890")).get());
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                ((QuickPayException) exception.getCause()).getErrorCode());
+        verify(rlock, times(1)).tryLock(anyLong(), anyLong(), any());
+        assertEquals(1.0, meterRegistry.get("quickpay.lock.local.contended").counter().count());
+        assertEquals(1.0, meterRegistry.get("quickpay.lock.redis.attempts").counter().count());
+    }
+
+    @Test
+    @DisplayName("lock 해제 후 보유 시간 기록")
+    void unlock_recordHoldTime() throws InterruptedException {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rlock);
+        given(rlock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        lockService.lock("1234567890");
+        //when
+        lockService.unlock("1234567890");
+        //then
+        verify(rlock, times(1)).unlock();
+        assertEquals(1L, meterRegistry.get("quickpay.lock.hold").timer().count());
+    }
+
+    @Test
+    @DisplayName("작업이 실패해도 lock 을 잡은 스레드에서 해제")
+    void executeWithLock_unlockEvenIfThrow() throws Exception {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rlock);
+        given(rlock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        //when
+        assertThrows(QuickPayException.class, () -> lockService.executeWithLock("1234567890", () -> {
+            throw new QuickPayException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }));
+        //then
+        verify(rlock, times(1)).unlock();
+        // 다른 스레드에서 바로 lock 을 잡을 수 있다
+        CompletableFuture.runAsync(() -> lockService.lock("1234567890")).get();
+    }
+
+    @Test
+    @DisplayName("lock 을 잡지 않은 스레드의 unlock 은 예외 - Redis lock 도 풀지 않음")
+    void unlock_fromOtherThread() throws Exception {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rlock);
+        given(rlock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        lockService.lock("1234567890");
+        //when
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> CompletableFuture.runAsync(() -> lockService.unlock("1234567890")).get());
+        //then
+        assertInstanceOf(IllegalMonitorStateException.class, exception.getCause());
+        verify(rlock, never()).unlock();
+        assertEquals(1.0, meterRegistry.get("quickpay.lock.unlock.mismatch").counter().count());
+        // lock 을 잡은 스레드는 그대로 해제할 수 있다
+        lockService.unlock("1234567890");
+        verify(rlock, times(1)).unlock();
+    }
+}
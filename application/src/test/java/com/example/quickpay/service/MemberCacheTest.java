@@ -0,0 +1,109 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.domain.mysql.entity.Member;
+import com.example.quickpay.domain.mysql.repository.MemberRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberCacheTest {
+    @Mock
+    private MemberRepository memberRepository;
+
+    private MemberCache memberCache;
+
+    @BeforeEach
+    void setUp() {
+        memberCache = new MemberCache(memberRepository, 100, 60, 60, 10, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("한 번 읽은 사용자는 DB 를 다시 조회하지 않는다")
+    void cacheHit() {
+        //given
+        given(memberRepository.findById(anyLong()))
+                .willReturn(Optional.of(member(12L)));
+        //when
+        memberCache.findById(12L);
+        Optional<Member> member = memberCache.findById(12L);
+        //then
+        assertEquals(12L, member.orElseThrow().getId());
+        verify(memberRepository, times(1)).findById(12L);
+    }
+
+    @Test
+    @DisplayName("없는 사용자는 negative cache 로 반복 조회를 막는다")
+    void unknownMember_negativeCached() {
+        //given
+        given(memberRepository.findById(anyLong()))
+                .willReturn(Optional.empty());
+        //when
+        Optional<Member> first = memberCache.findById(99L);
+        Optional<Member> second = memberCache.findById(99L);
+        //then
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        verify(memberRepository, times(1)).findById(99L);
+    }
+
+    @Test
+    @DisplayName("묶음 조회는 캐시에 없는 사용자만 조회")
+    @SuppressWarnings("unchecked")
+    void findAllById_onlyMissing() {
+        //given
+        given(memberRepository.findById(12L))
+                .willReturn(Optional.of(member(12L)));
+        memberCache.findById(12L);
+        given(memberRepository.findAllById(any()))
+                .willReturn(List.of(member(13L)));
+        //when
+        Map<Long, Member> members = memberCache.findAllById(Set.of(12L, 13L, 99L));
+        //then
+        assertEquals(Set.of(12L, 13L), members.keySet());
+        ArgumentCaptor<Iterable<Long>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(memberRepository, times(1)).findAllById(captor.capture());
+        assertEquals(Set.of(13L, 99L), Set.copyOf((Collection<Long>) captor.getValue()));
+        assertTrue(memberCache.findById(99L).isEmpty());
+        verify(memberRepository, never()).findById(99L);
+    }
+
+    @Test
+    @DisplayName("기동 후 사용자 warm-up")
+    void warmUp() {
+        //given
+        given(memberRepository.findAll(any(Pageable.class)))
+                .willReturn(new PageImpl<>(List.of(member(1L), member(2L))));
+        //when
+        memberCache.warmUp();
+        memberCache.findById(1L);
+        //then
+        verify(memberRepository, never()).findById(anyLong());
+    }
+
+    private Member member(Long id) {
+        return Member.builder()
+                .id(id)
+                .name("iron")
+                .build();
+    }
+}
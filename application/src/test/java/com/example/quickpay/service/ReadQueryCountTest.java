@@ -0,0 +1,122 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.type.AccountStatus;
+import com.example.quickpay.domain.mysql.entity.Account;
+import com.example.quickpay.domain.mysql.entity.Member;
+import com.example.quickpay.domain.mysql.repository.AccountRepository;
+import com.example.quickpay.domain.mysql.repository.MemberRepository;
+import com.example.quickpay.service.dto.AccountDto;
+import com.example.quickpay.service.dto.TransactionDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 조회 API 의 SQL 수
+ * 조회는 응답 컬럼만 읽는 projection 이라 엔티티를 올리지 않고 쿼리 하나로 끝나야 한다.
+ * (Transaction -> Account -> Member eager 조회가 다시 생기면 쿼리 수/엔티티 load 수가 늘어난다)
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReadQueryCountTest {
+    // pooled-lo 로 발급되는 id 와 겹치지 않는 구간
+    private static final long TRANSACTION_ID = 1_100_000_000_000_000L;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Member member;
+    private Account account;
+    private long transactionId;
+
+    @BeforeEach
+    void setUp() {
+        member = memberRepository.findById(1L).orElseThrow();
+        account = accountRepository.save(Account.builder()
+                .accountUser(member)
+                .accountStatus(AccountStatus.IN_USE)
+                .accountNumber(String.valueOf(ThreadLocalRandom.current().nextLong(9_000_000_000L, 9_999_999_999L)))
+                .balance(1000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        transactionId = TRANSACTION_ID + ThreadLocalRandom.current().nextInt(1_000_000);
+        jdbcTemplate.update("insert into transaction (id, account_id, transaction_id, transacted_at, " +
+                        "transaction_type, transaction_result_type, amount, balance_snapshot) " +
+                        "values (?, ?, ?, ?, 'USE', 'SUCCESS', 100, 900)",
+                transactionId, account.getId(), transactionId, Timestamp.valueOf(LocalDateTime.now()));
+        // 사용자 캐시를 채운 뒤 측정
+        accountService.getAccountsByUserId(member.getId());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from transaction where account_id = ?", account.getId());
+        accountRepository.delete(account);
+    }
+
+    @Test
+    @DisplayName("거래 조회 - 쿼리 하나, 엔티티 load 없음")
+    void queryTransaction() {
+        //given
+        //when
+        TransactionDto transactionDto = transactionService.queryTransaction(String.valueOf(transactionId));
+        //then
+        assertEquals(account.getAccountNumber(), transactionDto.getAccountNumber());
+        assertEquals(900L, transactionDto.getBalanceSnapshot());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("사용자 계좌 리스트 조회 - 쿼리 하나, 엔티티 load 없음")
+    void getAccountsByUserId() {
+        //given
+        //when
+        List<AccountDto> accounts = accountService.getAccountsByUserId(member.getId());
+        //then
+        assertTrue(accounts.stream().anyMatch(dto -> dto.getAccountNumber().equals(account.getAccountNumber())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("계좌 id 조회 - 쿼리 하나, 엔티티 load 없음")
+    void getAccount() {
+        //given
+        //when
+        AccountDto accountDto = accountService.getAccount(account.getId());
+        //then
+        assertEquals(member.getId(), accountDto.getUserId());
+        assertEquals(1000L, accountDto.getBalance());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
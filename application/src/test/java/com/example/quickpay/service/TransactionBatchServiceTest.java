@@ -0,0 +1,123 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.service.dto.TransactionDto;
+import com.example.quickpay.service.dto.UseBalanceCommand;
+import com.example.quickpay.service.dto.UseBalanceResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+    @Mock
+    private TransactionService transactionService;
+    @Mock
+    private LockService lockService;
+    @Mock
+    private AccountMailboxExecutor accountMailboxExecutor;
+
+    private TransactionBatchService transactionBatchService;
+
+    @BeforeEach
+    void setUp() {
+        transactionBatchService = new TransactionBatchService(transactionService, lockService,
+                accountMailboxExecutor, new SimpleAsyncTaskExecutor(), 2);
+    }
+
+    @Test
+    @DisplayName("계좌별로 lock 을 한 번만 잡고 chunk 단위로 반영")
+    void lockOncePerAccount() throws Throwable {
+        //given
+        givenLockAcquired();
+        given(transactionService.useBalances(anyList()))
+                .willAnswer(invocation -> {
+                    List<UseBalanceCommand> commands = invocation.getArgument(0);
+                    return commands.stream()
+                            .map(command -> UseBalanceResult.success(TransactionDto.builder()
+                                    .accountNumber(command.getAccountNumber())
+                                    .amount(command.getAmount())
+                                    .build()))
+                            .collect(Collectors.toList());
+                });
+        List<UseBalanceCommand> commands = List.of(
+                command("1000000001", 100L),
+                command("1000000002", 200L),
+                command("1000000001", 300L),
+                command("1000000001", 400L));
+        Map<Integer, UseBalanceResult> results = new ConcurrentHashMap<>();
+        //when
+        transactionBatchService.useBalances(commands, results::put)
+                .get(5, TimeUnit.SECONDS);
+        //then
+        assertEquals(4, results.size());
+        assertEquals(300L, results.get(2).getTransaction().getAmount());
+        assertEquals("1000000002", results.get(1).getTransaction().getAccountNumber());
+        verify(lockService, times(1)).executeWithLock(eq("1000000001"), any());
+        verify(lockService, times(1)).executeWithLock(eq("1000000002"), any());
+        // 1000000001 : chunk 2개 (2건 + 1건), 1000000002 : chunk 1개
+        verify(transactionService, times(3)).useBalances(anyList());
+    }
+
+    @Test
+    @DisplayName("lock 실패 시 해당 계좌 항목만 실패")
+    void lockFailed_onlyThatAccountFails() throws Throwable {
+        //given
+        given(lockService.executeWithLock(anyString(), any()))
+                .willAnswer(invocation -> {
+                    if ("1000000001".equals(invocation.getArgument(0))) {
+                        throw new QuickPayException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                    }
+                    return invocation.<LockService.LockedCommand<?>>getArgument(1).run();
+                });
+        given(transactionService.useBalances(anyList()))
+                .willReturn(List.of(UseBalanceResult.success(TransactionDto.builder()
+                        .accountNumber("1000000002")
+                        .amount(200L)
+                        .build())));
+        List<UseBalanceCommand> commands = List.of(
+                command("1000000001", 100L),
+                command("1000000002", 200L),
+                command("1000000001", 300L));
+        Map<Integer, UseBalanceResult> results = new ConcurrentHashMap<>();
+        //when
+        transactionBatchService.useBalances(commands, results::put)
+                .get(5, TimeUnit.SECONDS);
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, results.get(0).getErrorCode());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, results.get(2).getErrorCode());
+        assertTrue(results.get(1).isSuccess());
+    }
+
+    private void givenLockAcquired() throws Throwable {
+        given(lockService.executeWithLock(anyString(), any()))
+                .willAnswer(invocation -> invocation.<LockService.LockedCommand<?>>getArgument(1).run());
+    }
+
+    private UseBalanceCommand command(String accountNumber, Long amount) {
+        return UseBalanceCommand.builder()
+                .userId(1L)
+                .accountNumber(accountNumber)
+                .amount(amount)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.service.dto.TransactionExportFormat;
+import com.example.quickpay.service.dto.TransactionExportRow;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static com.example.quickpay.common.type.TransactionResultType.SUCCESS;
+import static com.example.quickpay.common.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionExportWriterTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_000);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("NDJSON - 한 줄에 거래 하나")
+    void writeNdjson() throws IOException {
+        //given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionExportWriter writer = TransactionExportWriter.of(TransactionExportFormat.NDJSON, out, objectMapper);
+        //when
+        writer.write(row("1", 1000L));
+        writer.write(row("2", 2000L));
+        writer.flush();
+        //then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("cursor-1", first.get("cursor").asText());
+        assertEquals("1", first.get("transactionId").asText());
+        assertEquals("1000000012", first.get("accountNumber").asText());
+        assertEquals("USE", first.get("transactionType").asText());
+        assertEquals("SUCCESS", first.get("transactionResult").asText());
+        assertEquals(1000L, first.get("amount").asLong());
+        assertEquals(NOW.toString(), first.get("transactedAt").asText());
+        assertEquals("2", objectMapper.readTree(lines[1]).get("transactionId").asText());
+    }
+
+    @Test
+    @DisplayName("CSV - header 다음에 거래 행")
+    void writeCsv() throws IOException {
+        //given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionExportWriter writer = TransactionExportWriter.of(TransactionExportFormat.CSV, out, objectMapper);
+        //when
+        writer.write(row("1", 1000L));
+        writer.flush();
+        //then
+        assertEquals(TransactionExportWriter.CsvWriter.HEADER + "\n" +
+                        "cursor-1,1,1000000012,USE,SUCCESS,1000,9000," + NOW + "\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("CSV - 거래가 없어도 header 는 내보낸다")
+    void writeCsv_empty() throws IOException {
+        //given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionExportWriter writer = TransactionExportWriter.of(TransactionExportFormat.CSV, out, objectMapper);
+        //when
+        writer.flush();
+        //then
+        assertEquals(TransactionExportWriter.CsvWriter.HEADER + "\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private TransactionExportRow row(String transactionId, Long amount) {
+        return new TransactionExportRow("cursor-" + transactionId, transactionId, "1000000012",
+                USE, SUCCESS, amount, 9000L, NOW);
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.domain.mysql.shard.ShardMap;
+import com.example.quickpay.service.dto.TransactionDto;
+import com.example.quickpay.service.dto.UseBalanceCommand;
+import com.example.quickpay.service.dto.UseBalanceResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionGroupCommitterTest {
+    private static final AccountShardRouter SINGLE_SHARD =
+            new AccountShardRouter(ShardMap.single(), TransactionOperations.withoutTransaction(), Runnable::run);
+
+    @Mock
+    private TransactionService transactionService;
+
+    private TransactionGroupCommitter groupCommitter;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        groupCommitter.shutdown();
+    }
+
+    @Test
+    @DisplayName("동시 요청을 모아 한 번에 반영하고 요청별 결과 전달")
+    void groupConcurrentRequests() throws Exception {
+        //given
+        groupCommitter = new TransactionGroupCommitter(transactionService, SINGLE_SHARD, true, 50_000, 100, 5_000, new SimpleMeterRegistry());
+        given(transactionService.useBalances(anyList()))
+                .willAnswer(invocation -> {
+                    List<UseBalanceCommand> commands = invocation.getArgument(0);
+                    return commands.stream()
+                            .map(command -> command.getAmount() > 500
+                                    ? UseBalanceResult.failed(ErrorCode.AMOUNT_EXCEED_BALANCE)
+                                    : UseBalanceResult.success(TransactionDto.builder()
+                                    .accountNumber(command.getAccountNumber())
+                                    .amount(command.getAmount())
+                                    .build()))
+                            .collect(Collectors.toList());
+                });
+        //when
+        List<CompletableFuture<TransactionDto>> futures = IntStream.range(0, 10)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() ->
+                        groupCommitter.useBalance(1L, "100000000" + i, 100L)))
+                .collect(Collectors.toList());
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> groupCommitter.useBalance(1L, "1000000099", 1000L));
+        //then
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("100000000" + i, futures.get(i).get(5, TimeUnit.SECONDS).getAccountNumber());
+        }
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("batch 실패 시 요청별로 다시 처리")
+    void fallbackToSingleRequest() {
+        //given
+        groupCommitter = new TransactionGroupCommitter(transactionService, SINGLE_SHARD, true, 100, 100, 5_000, new SimpleMeterRegistry());
+        given(transactionService.useBalances(anyList()))
+                .willThrow(new QueryTimeoutException("timeout"));
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willThrow(new QuickPayException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> groupCommitter.useBalance(1L, "1000000000", 1000L));
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionService, times(1)).saveFailedUseTransaction("1000000000", 1000L);
+    }
+
+    @Test
+    @DisplayName("종료된 뒤의 요청은 queue 에 넣지 않고 바로 실패")
+    void rejectAfterShutdown() throws InterruptedException {
+        //given
+        groupCommitter = new TransactionGroupCommitter(transactionService, SINGLE_SHARD, true, 100, 100, 5_000, new SimpleMeterRegistry());
+        groupCommitter.shutdown();
+        //when
+        QuickPayException exception = assertTimeoutPreemptively(Duration.ofSeconds(1), () ->
+                assertThrows(QuickPayException.class, () -> groupCommitter.useBalance(1L, "1000000000", 100L)));
+        //then
+        assertEquals(ErrorCode.INTERNAL_SERVER_ERROR, exception.getErrorCode());
+        verify(transactionService, never()).useBalances(anyList());
+    }
+
+    @Test
+    @DisplayName("wait-millis 안에 batch 에 들어가지 못한 요청은 queue 에서 빼고 실패")
+    void waitTimeout_queued() throws Exception {
+        //given
+        groupCommitter = new TransactionGroupCommitter(transactionService, SINGLE_SHARD, true, 100, 1, 100, new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(transactionService.useBalances(anyList()))
+                .willAnswer(invocation -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return successes(invocation.getArgument(0));
+                });
+        // 첫 요청의 batch 가 끝나지 않아 다음 요청은 queue 에 남는다
+        CompletableFuture<TransactionDto> first = CompletableFuture.supplyAsync(() ->
+                groupCommitter.useBalance(1L, "1000000000", 100L));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        //when
+        QuickPayException exception;
+        try {
+            exception = assertTimeoutPreemptively(Duration.ofSeconds(2), () ->
+                    assertThrows(QuickPayException.class, () -> groupCommitter.useBalance(1L, "1000000001", 100L)));
+        } finally {
+            release.countDown();
+        }
+        //then
+        assertEquals(ErrorCode.INTERNAL_SERVER_ERROR, exception.getErrorCode());
+        assertEquals("1000000000", first.get(5, TimeUnit.SECONDS).getAccountNumber());
+        verify(transactionService, times(1)).useBalances(anyList());
+    }
+
+    @Test
+    @DisplayName("batch 가 이미 가져간 요청은 wait-millis 가 지나도 batch 결과를 기다린다")
+    void waitTimeout_inBatch() {
+        //given
+        groupCommitter = new TransactionGroupCommitter(transactionService, SINGLE_SHARD, true, 100, 100, 100, new SimpleMeterRegistry());
+        given(transactionService.useBalances(anyList()))
+                .willAnswer(invocation -> {
+                    TimeUnit.MILLISECONDS.sleep(500);
+                    return successes(invocation.getArgument(0));
+                });
+        //when
+        TransactionDto transactionDto = assertTimeoutPreemptively(Duration.ofSeconds(3), () ->
+                groupCommitter.useBalance(1L, "1000000000", 100L));
+        //then
+        assertEquals("1000000000", transactionDto.getAccountNumber());
+    }
+
+    @Test
+    @DisplayName("flusher 가 Error 로 죽으면 기다리던 요청은 실패하고 이후 요청은 거절")
+    void flusherDies() {
+        //given
+        groupCommitter = new TransactionGroupCommitter(transactionService, SINGLE_SHARD, true, 100, 100, 5_000, new SimpleMeterRegistry());
+        given(transactionService.useBalances(anyList()))
+                .willThrow(new StackOverflowError());
+        //when
+        QuickPayException exception = assertTimeoutPreemptively(Duration.ofSeconds(2), () ->
+                assertThrows(QuickPayException.class, () -> groupCommitter.useBalance(1L, "1000000000", 100L)));
+        QuickPayException rejected = assertThrows(QuickPayException.class,
+                () -> groupCommitter.useBalance(1L, "1000000001", 100L));
+        //then
+        assertEquals(ErrorCode.INTERNAL_SERVER_ERROR, exception.getErrorCode());
+        assertEquals(ErrorCode.INTERNAL_SERVER_ERROR, rejected.getErrorCode());
+        verify(transactionService, times(1)).useBalances(anyList());
+    }
+
+    private static List<UseBalanceResult> successes(List<UseBalanceCommand> commands) {
+        return commands.stream()
+                .map(command -> UseBalanceResult.success(TransactionDto.builder()
+                        .accountNumber(command.getAccountNumber())
+                        .amount(command.getAmount())
+                        .build()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.quickpay.service;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.AccountStatus;
+import com.example.quickpay.common.type.ErrorCode;
+import com.example.quickpay.domain.mysql.repository.TransactionRepository;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionHistoryCondition;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionHistoryRow;
+import com.example.quickpay.domain.mysql.shard.ShardMap;
+import com.example.quickpay.service.dto.AccountMetadata;
+import com.example.quickpay.service.dto.TransactionHistoryCursor;
+import com.example.quickpay.service.dto.TransactionHistoryPage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.quickpay.common.type.TransactionResultType.SUCCESS;
+import static com.example.quickpay.common.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionHistoryServiceTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_000);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private AccountMetadataCache accountMetadataCache;
+
+    @Spy
+    private AccountShardRouter accountShardRouter =
+            new AccountShardRouter(ShardMap.single(), TransactionOperations.withoutTransaction(), Runnable::run);
+
+    @InjectMocks
+    private TransactionHistoryService transactionHistoryService;
+
+    @Test
+    @DisplayName("한 건 더 읽히면 마지막 행 위치를 다음 cursor 로 돌려준다")
+    void getTransactions_hasNext() {
+        //given
+        givenAccount();
+        given(transactionRepository.findHistory(any()))
+                .willReturn(List.of(row(30L, NOW), row(20L, NOW), row(10L, NOW.minusSeconds(1))));
+        ArgumentCaptor<TransactionHistoryCondition> captor = ArgumentCaptor.forClass(TransactionHistoryCondition.class);
+        //when
+        TransactionHistoryPage page = transactionHistoryService.getTransactions(
+                "1000000012", USE, null, null, null, null, 2);
+        //then
+        verify(transactionRepository).findHistory(captor.capture());
+        assertEquals(1L, captor.getValue().getAccountId());
+        assertEquals(USE, captor.getValue().getTransactionType());
+        assertEquals(3, captor.getValue().getLimit());
+        assertNull(captor.getValue().getAfterTransactedAt());
+
+        assertEquals(2, page.getTransactions().size());
+        assertEquals("1000000012", page.getTransactions().get(0).getAccountNumber());
+        assertEquals("30", page.getTransactions().get(0).getTransactionId());
+        TransactionHistoryCursor next = TransactionHistoryCursor.decode(page.getNextCursor());
+        assertEquals(NOW, next.getTransactedAt());
+        assertEquals(20L, next.getId());
+    }
+
+    @Test
+    @DisplayName("cursor 를 넘기면 그 다음 행부터 조회하고, 마지막 페이지는 cursor 가 없다")
+    void getTransactions_lastPage() {
+        //given
+        givenAccount();
+        given(transactionRepository.findHistory(any()))
+                .willReturn(List.of(row(10L, NOW.minusSeconds(1))));
+        String cursor = new TransactionHistoryCursor(NOW, 20L).encode();
+        ArgumentCaptor<TransactionHistoryCondition> captor = ArgumentCaptor.forClass(TransactionHistoryCondition.class);
+        //when
+        TransactionHistoryPage page = transactionHistoryService.getTransactions(
+                "1000000012", null, SUCCESS, null, null, cursor, 2);
+        //then
+        verify(transactionRepository).findHistory(captor.capture());
+        assertEquals(NOW, captor.getValue().getAfterTransactedAt());
+        assertEquals(20L, captor.getValue().getAfterId());
+        assertEquals(SUCCESS, captor.getValue().getTransactionResultType());
+        assertEquals(1, page.getTransactions().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("잘못된 cursor - 거래 내역 조회 실패")
+    void getTransactions_invalidCursor() {
+        //given
+        givenAccount();
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> transactionHistoryService.getTransactions("1000000012", null, null, null, null, "not-a-cursor", 20));
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+        verify(transactionRepository, never()).findHistory(any());
+    }
+
+    @Test
+    @DisplayName("페이지 크기 초과 - 거래 내역 조회 실패")
+    void getTransactions_pageSizeExceeded() {
+        //given
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> transactionHistoryService.getTransactions("1000000012", null, null, null, null, null,
+                        TransactionHistoryService.MAX_PAGE_SIZE + 1));
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+        verify(accountMetadataCache, never()).get(anyString());
+    }
+
+    private void givenAccount() {
+        given(accountMetadataCache.get(anyString()))
+                .willReturn(AccountMetadata.builder()
+                        .id(1L)
+                        .accountNumber("1000000012")
+                        .ownerId(12L)
+                        .accountStatus(AccountStatus.IN_USE)
+                        .build());
+    }
+
+    private TransactionHistoryRow row(Long id, LocalDateTime transactedAt) {
+        return new TransactionHistoryRow(id, id, null, USE, SUCCESS, 1000L, 9000L, transactedAt);
+    }
+}
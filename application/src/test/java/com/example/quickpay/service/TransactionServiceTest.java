@@ -1,24 +1,36 @@
 package com.example.quickpay.service;
 
 import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.id.TransactionIdGenerator;
 import com.example.quickpay.common.type.AccountStatus;
 import com.example.quickpay.common.type.ErrorCode;
 import com.example.quickpay.domain.mysql.entity.Account;
 import com.example.quickpay.domain.mysql.entity.Member;
 import com.example.quickpay.domain.mysql.entity.Transaction;
+import com.example.quickpay.domain.mysql.entity.TransactionArchive;
 import com.example.quickpay.domain.mysql.repository.AccountRepository;
-import com.example.quickpay.domain.mysql.repository.MemberRepository;
+import com.example.quickpay.domain.mysql.repository.TransactionArchiveRepository;
 import com.example.quickpay.domain.mysql.repository.TransactionRepository;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionQueryRow;
+import com.example.quickpay.domain.mysql.shard.ShardMap;
+import com.example.quickpay.service.dto.AccountMetadata;
 import com.example.quickpay.service.dto.TransactionDto;
+import com.example.quickpay.service.dto.UseBalanceCommand;
+import com.example.quickpay.service.dto.UseBalanceResult;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.example.quickpay.common.type.AccountStatus.IN_USE;
@@ -28,8 +40,11 @@ import static com.example.quickpay.common.type.TransactionType.CANCEL;
 import static com.example.quickpay.common.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -38,13 +53,28 @@ class TransactionServiceTest {
     @Mock
     private AccountRepository accountRepository;
     @Mock
-    private MemberRepository memberRepository;
+    private MemberCache memberCache;
     @Mock
     private TransactionRepository transactionRepository;
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+    @Mock
+    private AccountMetadataCache accountMetadataCache;
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+    @Mock
+    private ExistenceFilter existenceFilter;
+
+    @Spy
+    private AccountShardRouter accountShardRouter =
+            new AccountShardRouter(ShardMap.single(), TransactionOperations.withoutTransaction(), Runnable::run);
 
     @InjectMocks
     private TransactionService transactionService;
 
+    @Captor
+    private ArgumentCaptor<List<Transaction>> transactionsCaptor;
+
     @Test
     @DisplayName("잔액 사용 성공")
     void useBalanceSuccess() {
@@ -53,7 +83,7 @@ class TransactionServiceTest {
                 .id(12L)
                 .name("iron")
                 .build();
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
         Account account = Account.builder()
                 .accountUser(member)
@@ -61,8 +91,7 @@ class TransactionServiceTest {
                 .accountNumber("1000000012")
                 .balance(10000L)
                 .build();
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
+        givenAccount(account);
         given(transactionRepository.save(any()))
                 .willReturn(Transaction.builder()
                         .transactionType(USE)
@@ -70,7 +99,7 @@ class TransactionServiceTest {
                         .account(account)
                         .amount(1000L)
                         .balanceSnapshot(9000L)
-                        .transactionId("transactionId")
+                        .transactionId(1234L)
                         .transactedAt(LocalDateTime.now())
                         .build());
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
@@ -90,7 +119,7 @@ class TransactionServiceTest {
     @DisplayName("해당 유저 없음 - 잔액 사용 실패")
     void useBalanceFailed_UserNotFound() {
         //given
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.empty());
 
         //when
@@ -109,10 +138,9 @@ class TransactionServiceTest {
                 .id(15L)
                 .name("iron")
                 .build();
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.empty());
+        givenAccountNotFound();
         //when
         QuickPayException exception = assertThrows(QuickPayException.class,
                 () -> transactionService.useBalance(1L, "1234567890", 200L));
@@ -130,13 +158,12 @@ class TransactionServiceTest {
         Member member1 = Member.builder()
                 .id(12L).name("haven").build();
 
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(Account.builder()
-                        .accountUser(member1)
-                        .accountNumber("1000000013")
-                        .build()));
+        givenAccount(Account.builder()
+                .accountUser(member1)
+                .accountNumber("1000000013")
+                .build());
         //when
         QuickPayException exception = assertThrows(QuickPayException.class,
                 () -> transactionService.useBalance(1L, "1234567890", 200L));
@@ -151,15 +178,14 @@ class TransactionServiceTest {
         Member member = Member.builder()
                 .id(15L).name("iron").build();
 
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(Account.builder()
-                        .accountUser(member)
-                        .balance(0L)
-                        .accountStatus(AccountStatus.UNREGISTERED)
-                        .accountNumber("1000000013")
-                        .build()));
+        givenAccount(Account.builder()
+                .accountUser(member)
+                .balance(0L)
+                .accountStatus(AccountStatus.UNREGISTERED)
+                .accountNumber("1000000013")
+                .build());
         //when
         QuickPayException exception = assertThrows(QuickPayException.class,
                 () -> transactionService.useBalance(1L, "1234567890", 200L));
@@ -175,7 +201,7 @@ class TransactionServiceTest {
                 .id(12L)
                 .name("iron")
                 .build();
-        given(memberRepository.findById(anyLong()))
+        given(memberCache.findById(anyLong()))
                 .willReturn(Optional.of(member));
         Account account = Account.builder()
                 .accountUser(member)
@@ -183,8 +209,7 @@ class TransactionServiceTest {
                 .accountNumber("1000000012")
                 .balance(100L)
                 .build();
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
+        givenAccount(account);
 
         //when
         QuickPayException exception = assertThrows(QuickPayException.class,
@@ -193,6 +218,114 @@ class TransactionServiceTest {
         assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("조건부 UPDATE 잔액 사용 성공")
+    void useBalanceWithConditionalUpdateSuccess() {
+        //given
+        Member member = Member.builder()
+                .id(12L)
+                .name("iron")
+                .build();
+        given(memberCache.findById(anyLong()))
+                .willReturn(Optional.of(member));
+        given(accountRepository.useBalanceIfSufficient(anyLong(), anyString(), anyLong()))
+                .willReturn(1);
+        Account account = Account.builder()
+                .id(34L)
+                .accountUser(member)
+                .accountStatus(IN_USE)
+                .accountNumber("1000000012")
+                .balance(10000L)
+                .build();
+        givenAccount(account);
+        given(accountRepository.getReferenceById(34L))
+                .willReturn(account);
+        given(accountRepository.findBalanceById(34L))
+                .willReturn(9800L);
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        //when
+        TransactionDto transactionDto = transactionService.useBalanceWithConditionalUpdate(12L, "1000000012", 200L);
+        //then
+        verify(accountRepository, times(1)).useBalanceIfSufficient(12L, "1000000012", 200L);
+        // 성공하면 계좌 entity 를 다시 읽지 않고 같은 트랜잭션에서 잔액만 읽는다
+        verify(accountRepository, never()).findById(any());
+        verify(accountRepository, times(1)).findBalanceById(34L);
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(200L, captor.getValue().getAmount());
+        assertEquals(9800L, captor.getValue().getBalanceSnapshot());
+        assertEquals(34L, captor.getValue().getAccount().getId());
+        assertEquals("1000000012", transactionDto.getAccountNumber());
+        assertEquals(9800L, transactionDto.getBalanceSnapshot());
+        assertEquals(SUCCESS, transactionDto.getTransactionResultType());
+        assertEquals(USE, transactionDto.getTransactionType());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE 영향 row 없음 - 잔액 사용 실패")
+    void useBalanceWithConditionalUpdateFailed_exceedAmount() {
+        //given
+        Member member = Member.builder()
+                .id(12L)
+                .name("iron")
+                .build();
+        given(memberCache.findById(anyLong()))
+                .willReturn(Optional.of(member));
+        given(accountRepository.useBalanceIfSufficient(anyLong(), anyString(), anyLong()))
+                .willReturn(0);
+        givenAccount(Account.builder()
+                .accountUser(member)
+                .accountStatus(IN_USE)
+                .accountNumber("1000000012")
+                .balance(100L)
+                .build());
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> transactionService.useBalanceWithConditionalUpdate(12L, "1000000012", 200L));
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("묶음 잔액 사용 - 항목별 결과")
+    void useBalancesSuccessAndFailed() {
+        //given
+        Member member = Member.builder()
+                .id(12L)
+                .name("iron")
+                .build();
+        Account account = Account.builder()
+                .accountUser(member)
+                .accountStatus(IN_USE)
+                .accountNumber("1000000012")
+                .balance(1000L)
+                .build();
+        given(memberCache.findAllById(any()))
+                .willReturn(Map.of(12L, member));
+        given(accountRepository.findByAccountNumberIn(any()))
+                .willReturn(List.of(account));
+        //when
+        List<UseBalanceResult> results = transactionService.useBalances(List.of(
+                new UseBalanceCommand(12L, "1000000012", 600L),
+                new UseBalanceCommand(12L, "1000000012", 600L),
+                new UseBalanceCommand(12L, "1000000099", 100L)
+        ));
+        //then
+        verify(transactionRepository, times(1)).saveAll(transactionsCaptor.capture());
+        List<Transaction> saved = transactionsCaptor.getValue();
+        assertEquals(2, saved.size());
+        assertEquals(SUCCESS, saved.get(0).getTransactionResultType());
+        assertEquals(400L, saved.get(0).getBalanceSnapshot());
+        assertEquals(FAILED, saved.get(1).getTransactionResultType());
+        assertEquals(400L, account.getBalance());
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, results.get(1).getErrorCode());
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, results.get(2).getErrorCode());
+    }
+
     @Test
     @DisplayName("실패 트랜잭션 저장 성공")
     void saveFailedUseTransactionSuccess() {
@@ -207,14 +340,13 @@ class TransactionServiceTest {
                 .accountNumber("1000000012")
                 .balance(10000L)
                 .build();
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
+        givenAccount(account);
         given(transactionRepository.save(any()))
                 .willReturn(Transaction.builder()
                         .account(account)
                         .transactionType(USE)
                         .transactionResultType(SUCCESS)
-                        .transactionId("transactionId")
+                        .transactionId(1234L)
                         .transactedAt(LocalDateTime.now())
                         .amount(1000L)
                         .balanceSnapshot(9000L)
@@ -249,12 +381,11 @@ class TransactionServiceTest {
                 .transactionResultType(SUCCESS)
                 .amount(100L)
                 .balanceSnapshot(100L)
-                .transactionId("transactionId")
+                .transactionId(1234L)
                 .transactedAt(LocalDateTime.now())
                 .build();
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
-        given(transactionRepository.findByTransactionId(anyString()))
+        givenAccount(account);
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
         given(transactionRepository.save(any()))
                 .willReturn(Transaction.builder()
@@ -263,13 +394,13 @@ class TransactionServiceTest {
                         .transactionResultType(SUCCESS)
                         .amount(100L)
                         .balanceSnapshot(100L)
-                        .transactionId("transactionId")
+                        .transactionId(1234L)
                         .transactedAt(LocalDateTime.now())
                         .build());
 
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
         //when
-        TransactionDto transactionDto = transactionService.cancelBalance("transactionId", "1000000012", 100L);
+        TransactionDto transactionDto = transactionService.cancelBalance("1234", "1000000012", 100L);
         verify(transactionRepository, times(1)).save(captor.capture());
         //then
         assertEquals(100L, captor.getValue().getAmount());
@@ -284,11 +415,10 @@ class TransactionServiceTest {
     @DisplayName("해당 계좌 없음 - 거래 취소 실패")
     void cancelBalanceFailed_AccountNotFound() {
         //given
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.empty());
+        givenAccountNotFound();
         //when
         QuickPayException exception = assertThrows(QuickPayException.class,
-                () -> transactionService.cancelBalance("transactionId", "1234567890", 200L));
+                () -> transactionService.cancelBalance("1234", "1234567890", 200L));
         //then
         assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
     }
@@ -308,13 +438,12 @@ class TransactionServiceTest {
                 .balance(0L)
                 .build();
 
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
-        given(transactionRepository.findByTransactionId(any()))
+        givenAccount(account);
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.empty());
         //when
         QuickPayException exception = assertThrows(QuickPayException.class,
-                () -> transactionService.cancelBalance("transactionId", "1234567890", 200L));
+                () -> transactionService.cancelBalance("1234", "1234567890", 200L));
         //then
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
@@ -348,16 +477,15 @@ class TransactionServiceTest {
                 .transactionResultType(SUCCESS)
                 .amount(100L)
                 .balanceSnapshot(100L)
-                .transactionId("transactionId")
+                .transactionId(1234L)
                 .transactedAt(LocalDateTime.now())
                 .build();
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
-        given(transactionRepository.findByTransactionId(any()))
+        givenAccount(account);
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
         //when
         QuickPayException exception = assertThrows(QuickPayException.class,
-                () -> transactionService.cancelBalance("transactionId", "1234567890", 200L));
+                () -> transactionService.cancelBalance("1234", "1234567890", 200L));
         //then
         assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH, exception.getErrorCode());
     }
@@ -378,12 +506,11 @@ class TransactionServiceTest {
                 .transactionResultType(SUCCESS)
                 .amount(100L)
                 .balanceSnapshot(100L)
-                .transactionId("transactionId")
+                .transactionId(1234L)
                 .transactedAt(LocalDateTime.now())
                 .build();
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
-        given(transactionRepository.findByTransactionId(any()))
+        givenAccount(account);
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
 
         //when
@@ -410,12 +537,11 @@ class TransactionServiceTest {
                 .transactionResultType(SUCCESS)
                 .amount(100L)
                 .balanceSnapshot(100L)
-                .transactionId("transactionId")
+                .transactionId(1234L)
                 .transactedAt(LocalDateTime.now().minusYears(1))
                 .build();
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
-        given(transactionRepository.findByTransactionId(any()))
+        givenAccount(account);
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
 
         //when
@@ -428,46 +554,136 @@ class TransactionServiceTest {
     @Test
     @DisplayName("거래 조회 성공")
     void queryTransactionSuccess() {
-        Member member = Member.builder()
-                .id(12L).name("iron").build();
-        Account account = Account.builder()
-                .accountUser(member).accountStatus(IN_USE).accountNumber("1000000012")
-                .balance(0L).build();
-        Transaction transaction = Transaction.builder()
-                .id(2L)
-                .account(account)
-                .transactionType(USE)
-                .transactionResultType(SUCCESS)
-                .amount(100L)
-                .balanceSnapshot(100L)
-                .transactionId("transactionId")
-                .transactedAt(LocalDateTime.now().minusYears(1))
-                .build();
         //given
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
+        given(existenceFilter.mightContainTransaction(anyString()))
+                .willReturn(true);
+        given(transactionRepository.findQueryRowByTransactionId(1234L))
+                .willReturn(Optional.of(new TransactionQueryRow("1000000012", USE, SUCCESS, 100L, 100L,
+                        1234L, null, LocalDateTime.now().minusYears(1))));
 
         //when
-        TransactionDto transactionDto = transactionService.queryTransaction("transactionId");
+        TransactionDto transactionDto = transactionService.queryTransaction("1234");
         //then
         assertEquals(USE, transactionDto.getTransactionType());
         assertEquals(SUCCESS, transactionDto.getTransactionResultType());
         assertEquals(100L, transactionDto.getBalanceSnapshot());
         assertEquals(100L, transactionDto.getAmount());
-        assertEquals("transactionId", transactionDto.getTransactionId());
+        assertEquals("1234", transactionDto.getTransactionId());
+    }
+
+    @Test
+    @DisplayName("UUID 형식 이전 거래 id 로 조회")
+    void queryTransaction_legacyTransactionId() {
+        //given
+        given(existenceFilter.mightContainTransaction(anyString()))
+                .willReturn(true);
+        given(transactionRepository.findQueryRowByLegacyTransactionId("3f1c0a9b7e2d4c5f8a6b1e0d9c8b7a65"))
+                .willReturn(Optional.of(new TransactionQueryRow("1000000012", USE, SUCCESS, 100L, 100L,
+                        2L, "3f1c0a9b7e2d4c5f8a6b1e0d9c8b7a65", LocalDateTime.now())));
+        //when
+        TransactionDto transactionDto = transactionService.queryTransaction("3f1c0a9b7e2d4c5f8a6b1e0d9c8b7a65");
+        //then
+        assertEquals("3f1c0a9b7e2d4c5f8a6b1e0d9c8b7a65", transactionDto.getTransactionId());
+        verify(transactionRepository, never()).findQueryRowByTransactionId(anyLong());
     }
 
     @Test
     @DisplayName("해당 거래 없음 - 거래 조회 실패")
     void queryTransactionFailed_TransactionNotFound() {
         //given
-
-        given(transactionRepository.findByTransactionId(any()))
+        given(existenceFilter.mightContainTransaction(anyString()))
+                .willReturn(true);
+        given(transactionRepository.findQueryRowByTransactionId(anyLong()))
+                .willReturn(Optional.empty());
+        given(transactionArchiveRepository.findQueryRowByTransactionId(anyLong()))
                 .willReturn(Optional.empty());
         //when
         QuickPayException exception = assertThrows(QuickPayException.class,
-                () -> transactionService.queryTransaction("transactionId"));
+                () -> transactionService.queryTransaction("1234"));
         //then
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("거래 id filter 에 없음 - DB 조회 없이 거래 조회 실패")
+    void queryTransactionFailed_unknownToFilter() {
+        //given
+        given(existenceFilter.mightContainTransaction("1234"))
+                .willReturn(false);
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> transactionService.queryTransaction("1234"));
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+        verify(transactionRepository, never()).findQueryRowByTransactionId(anyLong());
+        verify(transactionArchiveRepository, never()).findQueryRowByTransactionId(anyLong());
+    }
+
+    @Test
+    @DisplayName("transaction 에 없으면 보관 테이블에서 조회")
+    void queryTransaction_archived() {
+        //given
+        given(existenceFilter.mightContainTransaction(anyString()))
+                .willReturn(true);
+        given(transactionRepository.findQueryRowByTransactionId(anyLong()))
+                .willReturn(Optional.empty());
+        given(transactionArchiveRepository.findQueryRowByTransactionId(1234L))
+                .willReturn(Optional.of(new TransactionQueryRow("1000000012", USE, SUCCESS, 100L, 100L,
+                        1234L, null, LocalDateTime.now().minusYears(2))));
+        //when
+        TransactionDto transactionDto = transactionService.queryTransaction("1234");
+        //then
+        assertEquals("1234", transactionDto.getTransactionId());
+        assertEquals("1000000012", transactionDto.getAccountNumber());
+        assertEquals(100L, transactionDto.getAmount());
+    }
+
+    @Test
+    @DisplayName("보관된 거래 - 거래 취소 실패")
+    void cancelBalanceFailed_ArchivedTransaction() {
+        //given
+        Member member = Member.builder()
+                .id(12L).name("iron").build();
+        Account account = Account.builder()
+                .accountUser(member).accountStatus(IN_USE).accountNumber("1000000012")
+                .balance(0L).build();
+        givenAccount(account);
+        given(transactionRepository.findByTransactionId(anyLong()))
+                .willReturn(Optional.empty());
+        given(transactionArchiveRepository.findByTransactionId(1234L))
+                .willReturn(Optional.of(archivedTransaction(account)));
+        //when
+        QuickPayException exception = assertThrows(QuickPayException.class,
+                () -> transactionService.cancelBalance("1234", "1000000012", 100L));
+        //then
+        assertEquals(ErrorCode.TOO_OLD_TRANSACTION_TO_CANCEL, exception.getErrorCode());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    private TransactionArchive archivedTransaction(Account account) {
+        return TransactionArchive.builder()
+                .id(2L)
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(SUCCESS)
+                .amount(100L)
+                .balanceSnapshot(100L)
+                .transactionId(1234L)
+                .transactedAt(LocalDateTime.now().minusYears(2))
+                .archivedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void givenAccount(Account account) {
+        given(accountMetadataCache.get(anyString()))
+                .willReturn(AccountMetadata.from(account));
+        // 캐시 검증에서 먼저 실패하면 잔액 row 는 조회하지 않는다
+        lenient().when(accountRepository.findById(any()))
+                .thenReturn(Optional.of(account));
+    }
+
+    private void givenAccountNotFound() {
+        given(accountMetadataCache.get(anyString()))
+                .willThrow(new QuickPayException(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.quickpay.benchmarks;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.AccountStatus;
+import com.example.quickpay.domain.mysql.entity.Account;
+import com.example.quickpay.domain.mysql.entity.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 엔티티 잔액 변경
+ * - useBalance / cancelBalance : 성공 경로 (잔액은 매번 되돌림)
+ * - useBalance_exceeded : 잔액 부족, QuickPayException 생성(stack trace 포함)까지
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountBalanceBenchmark {
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        account = Account.builder()
+                .id(1L)
+                .accountUser(Member.builder().id(1L).name("iron").build())
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1_000_000L)
+                .registeredAt(LocalDateTime.now())
+                .version(0L)
+                .build();
+    }
+
+    @Benchmark
+    public Long useBalance() {
+        account.setBalance(1_000_000L);
+        account.useBalance(100L);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public Long cancelBalance() {
+        account.setBalance(1_000_000L);
+        account.cancelBalance(100L);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public Object useBalance_exceeded() {
+        account.setBalance(10L);
+        try {
+            account.useBalance(100L);
+            return account.getBalance();
+        } catch (QuickPayException e) {
+            return e;
+        }
+    }
+}
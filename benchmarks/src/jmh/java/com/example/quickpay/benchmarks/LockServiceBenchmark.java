@@ -0,0 +1,117 @@
+package com.example.quickpay.benchmarks;
+
+import com.example.quickpay.service.LocalLockRegistry;
+import com.example.quickpay.service.LockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.redisson.Redisson;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LockService.executeWithLock (로컬 striped lock + Redis lock, 빈 작업)
+ * backend
+ * - stub  : Redis 대신 JVM 안의 ReentrantLock (네트워크 없이 LockService 자체 비용만)
+ * - redis : 로컬 Redis (docker compose, 127.0.0.1:6379)
+ * - lockUnlock : 스레드마다 다른 계좌
+ * - lockUnlock_sameAccount_8threads : 8 스레드가 한 계좌 (로컬 lock 대기 포함)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LockServiceBenchmark {
+    private static final String SHARED_ACCOUNT = "1000000000";
+
+    @Param({"stub", "redis"})
+    public String backend;
+
+    private RedissonClient redissonClient;
+    private LockService lockService;
+
+    @Setup
+    public void setUp() {
+        if (backend.equals("redis")) {
+            Config config = new Config();
+            config.useSingleServer().setAddress("redis://127.0.0.1:6379");
+            redissonClient = Redisson.create(config);
+        } else {
+            redissonClient = InMemoryRedisson.create();
+        }
+        lockService = new LockService(redissonClient, new LocalLockRegistry(1024, 1000), new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        redissonClient.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadAccount {
+        private static final AtomicInteger SEQUENCE = new AtomicInteger();
+        private final String accountNumber = String.valueOf(2_000_000_000L + SEQUENCE.incrementAndGet());
+    }
+
+    @Benchmark
+    public void lockUnlock(ThreadAccount threadAccount) throws Throwable {
+        lockService.executeWithLock(threadAccount.accountNumber, () -> null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void lockUnlock_sameAccount_8threads() throws Throwable {
+        lockService.executeWithLock(SHARED_ACCOUNT, () -> null);
+    }
+
+    /**
+     * LockService 가 쓰는 getLock / RLock.tryLock / unlock 만 구현한 RedissonClient
+     */
+    static final class InMemoryRedisson {
+        private InMemoryRedisson() {
+        }
+
+        static RedissonClient create() {
+            Map<String, RLock> locks = new ConcurrentHashMap<>();
+            return (RedissonClient) Proxy.newProxyInstance(
+                    RedissonClient.class.getClassLoader(),
+                    new Class<?>[]{RedissonClient.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getLock" -> locks.computeIfAbsent((String) args[0], key -> lock());
+                        case "shutdown" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private static RLock lock() {
+            ReentrantLock lock = new ReentrantLock();
+            return (RLock) Proxy.newProxyInstance(
+                    RLock.class.getClassLoader(),
+                    new Class<?>[]{RLock.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        // tryLock(waitTime, leaseTime, unit)
+                        case "tryLock" -> lock.tryLock((Long) args[0], (TimeUnit) args[2]);
+                        case "unlock" -> {
+                            lock.unlock();
+                            yield null;
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
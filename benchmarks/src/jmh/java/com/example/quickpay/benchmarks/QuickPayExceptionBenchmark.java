@@ -0,0 +1,57 @@
+package com.example.quickpay.benchmarks;
+
+import com.example.quickpay.common.exception.QuickPayException;
+import com.example.quickpay.common.type.ErrorCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QuickPayException 생성 비용
+ * 생성 시 stack trace 를 채우므로 호출 깊이(depth)에 비례한다.
+ * (요청 처리 중에는 Tomcat, Spring MVC, AOP proxy 아래라 100 프레임 이상인 경우가 많다)
+ * - construct : new QuickPayException(ErrorCode)
+ * - throwAndCatch : 던지고 받는 것까지
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QuickPayExceptionBenchmark {
+    @Param({"0", "100"})
+    public int depth;
+
+    @Benchmark
+    public QuickPayException construct() {
+        return construct(depth);
+    }
+
+    @Benchmark
+    public ErrorCode throwAndCatch() {
+        try {
+            throwAt(depth);
+            return null;
+        } catch (QuickPayException e) {
+            return e.getErrorCode();
+        }
+    }
+
+    private static QuickPayException construct(int depth) {
+        if (depth == 0) {
+            return new QuickPayException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        return construct(depth - 1);
+    }
+
+    private static void throwAt(int depth) {
+        if (depth == 0) {
+            throw new QuickPayException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        throwAt(depth - 1);
+    }
+}
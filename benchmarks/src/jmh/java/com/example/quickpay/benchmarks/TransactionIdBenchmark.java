@@ -0,0 +1,62 @@
+package com.example.quickpay.benchmarks;
+
+import com.example.quickpay.common.id.SnowflakeTransactionIdGenerator;
+import com.example.quickpay.common.id.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래 id 생성 비용 비교
+ * - uuidString      : 기존 방식, UUID.randomUUID() (SecureRandom) + 문자열 2개
+ * - snowflake       : 시간 순서 long id
+ * - snowflakeString : 응답에 내보내는 10진수 문자열까지 포함
+ * - parse           : 요청의 거래 id 문자열 -> long (취소, 조회마다)
+ * 8 스레드 변형은 같은 생성기를 동시에 호출할 때(CAS 경합)의 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionIdBenchmark {
+    private final SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(1);
+    private final String formatted = TransactionIdGenerator.format(generator.nextId());
+
+    @Benchmark
+    public String uuidString() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Benchmark
+    public long snowflake() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String snowflakeString() {
+        return TransactionIdGenerator.format(generator.nextId());
+    }
+
+    @Benchmark
+    public long parse() {
+        return TransactionIdGenerator.parse(formatted).orElseThrow();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String uuidString_8threads() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long snowflake_8threads() {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.quickpay.benchmarks;
+
+import com.example.quickpay.common.type.AccountStatus;
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.common.type.TransactionType;
+import com.example.quickpay.domain.mysql.entity.Account;
+import com.example.quickpay.domain.mysql.entity.Member;
+import com.example.quickpay.domain.mysql.entity.Transaction;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionQueryRow;
+import com.example.quickpay.dto.QueryTransactionResponse;
+import com.example.quickpay.dto.UseBalance;
+import com.example.quickpay.service.dto.TransactionDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래 응답 변환
+ * - entityToDto : Transaction -> TransactionDto (거래 id 문자열 변환 포함)
+ * - entityToResponse : Transaction -> TransactionDto -> UseBalance.Response
+ * - entityToJson : 응답 JSON 직렬화까지 (Spring MVC 와 같은 설정의 ObjectMapper)
+ * - queryRowToResponse : 거래 조회 projection -> QueryTransactionResponse
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionMappingBenchmark {
+    private Transaction transaction;
+    private TransactionQueryRow queryRow;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        Account account = Account.builder()
+                .id(1L)
+                .accountUser(Member.builder().id(1L).name("iron").build())
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1_000_000L)
+                .build();
+        LocalDateTime transactedAt = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        transaction = Transaction.builder()
+                .id(2L)
+                .account(account)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.SUCCESS)
+                .amount(100L)
+                .balanceSnapshot(999_900L)
+                .transactionId(7_158_234_567_890_123_456L)
+                .transactedAt(transactedAt)
+                .build();
+        queryRow = new TransactionQueryRow("1000000012", TransactionType.USE, TransactionResultType.SUCCESS,
+                100L, 999_900L, 7_158_234_567_890_123_456L, null, transactedAt);
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Benchmark
+    public TransactionDto entityToDto() {
+        return TransactionDto.fromEntity(transaction);
+    }
+
+    @Benchmark
+    public UseBalance.Response entityToResponse() {
+        return UseBalance.Response.from(TransactionDto.fromEntity(transaction));
+    }
+
+    @Benchmark
+    public byte[] entityToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(UseBalance.Response.from(TransactionDto.fromEntity(transaction)));
+    }
+
+    @Benchmark
+    public QueryTransactionResponse queryRowToResponse() {
+        return QueryTransactionResponse.from(TransactionDto.fromQueryRow(queryRow));
+    }
+}
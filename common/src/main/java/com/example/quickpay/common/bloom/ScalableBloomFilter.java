@@ -0,0 +1,142 @@
+package com.example.quickpay.common.bloom;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 크기가 늘어나는 Bloom filter (scalable Bloom filter)
+ * 층(layer)이 가득 차면 용량 2배, 오탐률 절반인 층을 새로 붙인다.
+ * 전체 오탐률은 층 수와 관계없이 falsePositiveRate 이하로 유지된다. (첫 층은 절반에서 시작)
+ * mightContain 이 false 면 넣은 적 없는 값이다. (true 는 오탐일 수 있음)
+ * 여러 스레드에서 동시에 add / mightContain 해도 된다.
+ */
+public class ScalableBloomFilter {
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private final long initialCapacity;
+    private final double falsePositiveRate;
+    private volatile Layer[] layers;
+    private long count;
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException(
+                    "invalid bloom filter. capacity : " + initialCapacity + ", fpp : " + falsePositiveRate);
+        }
+        this.initialCapacity = initialCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.layers = new Layer[]{new Layer(initialCapacity, falsePositiveRate * (1 - TIGHTENING))};
+    }
+
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (Layer layer : layers) {
+            if (layer.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized void add(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        Layer[] current = layers;
+        for (Layer layer : current) {
+            if (layer.mightContain(hash1, hash2)) {
+                return;
+            }
+        }
+        Layer last = current[current.length - 1];
+        if (last.count == last.capacity) {
+            Layer[] grown = new Layer[current.length + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            last = new Layer(last.capacity * GROWTH, last.falsePositiveRate * TIGHTENING);
+            grown[current.length] = last;
+            layers = grown;
+        }
+        last.put(hash1, hash2);
+        count++;
+    }
+
+    // 넣은 값 수 (이미 있다고 판단된 값은 세지 않음)
+    public synchronized long count() {
+        return count;
+    }
+
+    public long bitSize() {
+        long bits = 0;
+        for (Layer layer : layers) {
+            bits += layer.bitSize;
+        }
+        return bits;
+    }
+
+    public int layerCount() {
+        return layers.length;
+    }
+
+    public ScalableBloomFilter emptyCopy() {
+        return new ScalableBloomFilter(initialCapacity, falsePositiveRate);
+    }
+
+    // FNV-1a 64 + splitmix64 finalizer
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static final class Layer {
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitSize;
+        private final int hashCount;
+        private final AtomicLongArray bits;
+        private long count;
+
+        private Layer(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            // m = -n ln p / (ln 2)^2, k = m / n ln 2
+            long words = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)) / 64);
+            if (words > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("bloom filter layer too large. capacity : " + capacity);
+            }
+            this.bits = new AtomicLongArray((int) Math.max(words, 1));
+            this.bitSize = (long) bits.length() * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitSize / capacity * Math.log(2)));
+        }
+
+        private boolean mightContain(long hash1, long hash2) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitSize);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long hash1, long hash2) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitSize);
+                int word = (int) (index >>> 6);
+                // 쓰기는 add 의 lock 안에서만, 읽기는 lock 없이 (AtomicLongArray volatile 읽기)
+                bits.set(word, bits.get(word) | (1L << index));
+            }
+            count++;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.quickpay.common.id;
+
+import java.util.OptionalLong;
+
+/**
+ * 거래 id 생성기
+ * DB 에는 BIGINT 로 저장하고 API 에는 10진수 문자열로 내보낸다.
+ * (JSON number 로 내보내면 2^53 을 넘는 값이 JavaScript 에서 깨진다)
+ */
+public interface TransactionIdGenerator {
+    long nextId();
+
+    static String format(long transactionId) {
+        return Long.toString(transactionId);
+    }
+
+    /**
+     * 10진수 문자열이 아니거나 long 범위를 넘으면 empty
+     * (이전 UUID 형식 거래 id 는 empty 로 구분된다)
+     */
+    static OptionalLong parse(String transactionId) {
+        if (transactionId == null || transactionId.isEmpty() || transactionId.length() > 19) {
+            return OptionalLong.empty();
+        }
+        long value = 0;
+        for (int i = 0; i < transactionId.length(); i++) {
+            int digit = transactionId.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return OptionalLong.empty();
+            }
+            value = value * 10 + digit;
+            if (value < 0) {
+                return OptionalLong.empty();
+            }
+        }
+        return OptionalLong.of(value);
+    }
+}
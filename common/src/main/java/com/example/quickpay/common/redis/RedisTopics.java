@@ -0,0 +1,19 @@
+package com.example.quickpay.common.redis;
+
+/**
+ * application, application-reactive 모듈이 같이 쓰는 Redis pub/sub topic
+ * 한쪽만 이름을 바꾸면 다른 모듈 노드에 알림이 가지 않으므로 여기서만 정의한다.
+ */
+public final class RedisTopics {
+    // 계좌 상태 변경 -> 계좌 정보 near cache 무효화 (message : 계좌 번호)
+    public static final String ACCOUNT_METADATA_INVALIDATION = "quickpay:account-metadata:invalidate";
+
+    // 계좌/거래 저장 -> 있는 계좌 번호, 거래 id Bloom filter 에 추가
+    // (message : "A:" + 계좌 번호 또는 "T:" + 쉼표로 이은 거래 id)
+    public static final String EXISTENCE_FILTER_ADD = "quickpay:existence-filter:add";
+    public static final String EXISTENCE_FILTER_ACCOUNT_PREFIX = "A:";
+    public static final String EXISTENCE_FILTER_TRANSACTION_PREFIX = "T:";
+
+    private RedisTopics() {
+    }
+}
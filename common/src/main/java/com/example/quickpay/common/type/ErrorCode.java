@@ -11,6 +11,11 @@ public enum ErrorCode {
     MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개 입니다."),
     ACCOUNT_NOT_FOUND("계좌가 없습니다."),
     ACCOUNT_TRANSACTION_LOCK("해당 계좌는 사용 중 입니다."),
+    ACCOUNT_REQUEST_QUEUE_FULL("해당 계좌에 대기 중인 요청이 너무 많습니다."),
+    ACCOUNT_MIGRATING("해당 계좌는 이전 중이라 변경할 수 없습니다."),
+    IDEMPOTENCY_KEY_IN_PROGRESS("같은 Idempotency-Key 요청을 처리 중입니다."),
+    IDEMPOTENCY_KEY_REUSED("Idempotency-Key 가 다른 요청에 이미 사용되었습니다."),
+    IDEMPOTENCY_OUTCOME_UNKNOWN("처리 결과를 확인할 수 없습니다. 거래 내역을 확인한 뒤 새 Idempotency-Key 로 요청해 주세요."),
     TRANSACTION_NOT_FOUND("거래가 없습니다."),
     AMOUNT_EXCEED_BALANCE("거래 금액이 계좌 금액보다 큽니다."),
     USER_ACCOUNT_UN_MATCH("사용자와 계좌의 소유주가 다릅니다."),
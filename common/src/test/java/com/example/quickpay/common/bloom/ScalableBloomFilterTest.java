@@ -0,0 +1,55 @@
+package com.example.quickpay.common.bloom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("넣은 값은 항상 있다고 판단하고, 용량을 넘으면 층을 늘린다")
+    void noFalseNegative() {
+        //given
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        //when
+        for (long accountNumber = 1_000_000_000L; accountNumber < 1_000_100_000L; accountNumber++) {
+            filter.add(String.valueOf(accountNumber));
+        }
+        //then
+        for (long accountNumber = 1_000_000_000L; accountNumber < 1_000_100_000L; accountNumber++) {
+            assertTrue(filter.mightContain(String.valueOf(accountNumber)));
+        }
+        assertTrue(filter.layerCount() > 1);
+    }
+
+    @Test
+    @DisplayName("층이 늘어나도 오탐률은 지정한 값 이하")
+    void falsePositiveRate() {
+        //given
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (long transactionId = 0; transactionId < 100_000; transactionId++) {
+            filter.add(String.valueOf(transactionId));
+        }
+        //when
+        int falsePositives = 0;
+        for (long transactionId = 1_000_000; transactionId < 1_100_000; transactionId++) {
+            if (filter.mightContain(String.valueOf(transactionId))) {
+                falsePositives++;
+            }
+        }
+        //then
+        assertTrue(falsePositives < 1_000, "false positives : " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("빈 filter 는 아무 값도 없다고 판단")
+    void empty() {
+        //given
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        //when
+        //then
+        assertFalse(filter.mightContain("1234567890"));
+        assertEquals(0, filter.count());
+    }
+}
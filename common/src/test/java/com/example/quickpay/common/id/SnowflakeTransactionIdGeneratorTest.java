@@ -0,0 +1,93 @@
+package com.example.quickpay.common.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeTransactionIdGeneratorTest {
+    private static final long NOW = SnowflakeTransactionIdGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    @Test
+    @DisplayName("id 에 생성 시각과 node id 가 들어간다")
+    void nextId_containsTimestampAndNode() {
+        //given
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(37, () -> NOW);
+        //when
+        long id = generator.nextId();
+        //then
+        assertEquals(NOW, SnowflakeTransactionIdGenerator.timestampMillisOf(id));
+        assertEquals(37, SnowflakeTransactionIdGenerator.nodeIdOf(id));
+    }
+
+    @Test
+    @DisplayName("같은 millis 의 sequence 를 다 쓰거나 시계가 뒤로 가도 id 는 계속 증가한다")
+    void nextId_monotonic() {
+        //given
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(1, clock::get);
+        //when
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.addAndGet(-10);
+            }
+            long id = generator.nextId();
+            //then
+            assertTrue(id > previous);
+            assertEquals(1, SnowflakeTransactionIdGenerator.nodeIdOf(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    @DisplayName("여러 스레드에서 만들어도 id 가 겹치지 않는다")
+    void nextId_concurrent() throws InterruptedException {
+        //given
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        //when
+        for (int i = 0; i < 8; i++) {
+            executorService.submit(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+        //then
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    @DisplayName("node id 범위를 벗어나면 생성 실패")
+    void invalidNodeId() {
+        //given
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeTransactionIdGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeTransactionIdGenerator(-1));
+    }
+
+    @Test
+    @DisplayName("10진수 문자열만 거래 id 로 읽는다")
+    void parse() {
+        //given
+        //when
+        //then
+        assertEquals(123456789012345L, TransactionIdGenerator.parse("123456789012345").orElseThrow());
+        assertEquals("123456789012345", TransactionIdGenerator.format(123456789012345L));
+        assertTrue(TransactionIdGenerator.parse("9223372036854775808").isEmpty());
+        assertTrue(TransactionIdGenerator.parse("3f1c0a9b7e2d4c5f8a6b1e0d9c8b7a65").isEmpty());
+        assertTrue(TransactionIdGenerator.parse("").isEmpty());
+    }
+}
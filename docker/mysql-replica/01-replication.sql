@@ -0,0 +1,10 @@
+-- primary(mysql 서비스) 의 GTID 를 처음부터 받아서 복제
+change replication source to
+    source_host = 'mysql',
+    source_port = 3306,
+    source_user = 'root',
+    source_password = 'quickpay',
+    source_auto_position = 1,
+    source_connect_retry = 5,
+    get_source_public_key = 1;
+start replica;
@@ -0,0 +1,113 @@
+package com.example.quickpay.domain.mysql.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 기동 시 필수 index 확인
+ * 조회 경로(계좌 번호, 거래 id, 계좌별 거래 내역, 일자별 거래 내보내기, 보관 거래 조회)가 full scan 이 되지 않도록
+ * migration 이 끝난 뒤 DatabaseMetaData 로 index 를 읽어서 없으면 기동을 중단한다.
+ * 같은 컬럼으로 시작하는 index 면 이름이 달라도 통과한다. (unique 는 컬럼이 정확히 같아야 함)
+ */
+@Slf4j
+@Component
+@DependsOnDatabaseInitialization
+public class SchemaIndexVerifier {
+    static final List<RequiredIndex> REQUIRED_INDEXES = List.of(
+            new RequiredIndex("account", List.of("account_number"), true),
+            new RequiredIndex("account", List.of("account_user_id"), false),
+            new RequiredIndex("transaction", List.of("transaction_id"), true),
+            new RequiredIndex("transaction", List.of("account_id", "transacted_at"), false),
+            new RequiredIndex("transaction", List.of("transacted_at"), false),
+            new RequiredIndex("transaction_archive", List.of("transaction_id"), true)
+    );
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    public SchemaIndexVerifier(
+            DataSource dataSource,
+            @Value("${quickpay.schema.verify-indexes:true}") boolean enabled
+    ) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void verify() throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        List<RequiredIndex> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, List<IndexInfo>> indexesByTable = new HashMap<>();
+            for (RequiredIndex required : REQUIRED_INDEXES) {
+                List<IndexInfo> indexes = indexesByTable.get(required.table());
+                if (indexes == null) {
+                    indexes = readIndexes(metaData, connection.getCatalog(), required.table());
+                    indexesByTable.put(required.table(), indexes);
+                }
+                if (indexes.stream().noneMatch(required::isSatisfiedBy)) {
+                    missing.add(required);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Required indexes are missing : " + missing);
+        }
+        log.info("Schema index verification passed. {} indexes checked", REQUIRED_INDEXES.size());
+    }
+
+    private List<IndexInfo> readIndexes(DatabaseMetaData metaData, String catalog, String table) throws SQLException {
+        // index 이름 -> (컬럼 순서 -> 컬럼 이름)
+        Map<String, TreeMap<Short, String>> columnsByIndex = new HashMap<>();
+        Map<String, Boolean> uniqueByIndex = new HashMap<>();
+        try (ResultSet resultSet = metaData.getIndexInfo(catalog, null, table, false, false)) {
+            while (resultSet.next()) {
+                String indexName = resultSet.getString("INDEX_NAME");
+                if (indexName == null) {
+                    continue;
+                }
+                columnsByIndex.computeIfAbsent(indexName, key -> new TreeMap<>())
+                        .put(resultSet.getShort("ORDINAL_POSITION"), resultSet.getString("COLUMN_NAME").toLowerCase());
+                uniqueByIndex.put(indexName, !resultSet.getBoolean("NON_UNIQUE"));
+            }
+        }
+        return columnsByIndex.entrySet().stream()
+                .map(entry -> new IndexInfo(List.copyOf(entry.getValue().values()), uniqueByIndex.get(entry.getKey())))
+                .toList();
+    }
+
+    record RequiredIndex(String table, List<String> columns, boolean unique) {
+        boolean isSatisfiedBy(IndexInfo index) {
+            if (unique) {
+                return index.unique() && index.columns().equals(columns);
+            }
+            return index.columns().size() >= columns.size()
+                    && index.columns().subList(0, columns.size()).equals(columns);
+        }
+
+        @Override
+        public String toString() {
+            return (unique ? "unique " : "") + table + columns;
+        }
+    }
+
+    record IndexInfo(List<String> columns, boolean unique) {
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -35,6 +36,10 @@ public class Account extends BaseEntity {
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
 
+    // lock 없는 조건부 UPDATE 와 엔티티 변경이 섞여도 잔액 갱신이 유실되지 않도록 한다
+    @Version
+    private Long version;
+
 
     public void useBalance(Long amount) {
         if (amount > balance) {
@@ -1,5 +1,6 @@
 package com.example.quickpay.domain.mysql.entity;
 
+import com.example.quickpay.domain.mysql.id.PooledSequenceIdGenerator;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
@@ -8,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
@@ -21,7 +23,8 @@ import java.time.LocalDateTime;
 @SuperBuilder
 public class BaseEntity {
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "pooled_sequence")
+    @GenericGenerator(name = "pooled_sequence", type = PooledSequenceIdGenerator.class)
     private Long id;
     @CreatedDate
     private LocalDateTime createdAt;
@@ -29,7 +29,10 @@ public class Transaction extends BaseEntity {
     private Long amount;
 
     private Long balanceSnapshot;
-    private String transactionId;
+    // 시간 순서 거래 id (SnowflakeTransactionIdGenerator)
+    private Long transactionId;
+    // UUID 형식 이전 거래 id
+    private String legacyTransactionId;
     private LocalDateTime transactedAt;
 
 
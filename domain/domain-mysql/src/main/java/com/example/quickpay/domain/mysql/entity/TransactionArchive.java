@@ -0,0 +1,47 @@
+package com.example.quickpay.domain.mysql.entity;
+
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.common.type.TransactionType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 취소 기간이 지나 transaction 에서 옮겨진 거래 (조회 전용)
+ * id 는 원래 transaction id 를 그대로 쓴다.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Immutable
+@Entity
+public class TransactionArchive {
+    @Id
+    private Long id;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+    @Enumerated(EnumType.STRING)
+    private TransactionResultType transactionResultType;
+    @ManyToOne
+    private Account account;
+    private Long amount;
+
+    private Long balanceSnapshot;
+    private Long transactionId;
+    private String legacyTransactionId;
+    private LocalDateTime transactedAt;
+    private LocalDateTime archivedAt;
+}
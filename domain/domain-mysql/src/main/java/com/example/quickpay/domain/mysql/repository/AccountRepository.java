@@ -3,20 +3,59 @@ package com.example.quickpay.domain.mysql.repository;
 
 import com.example.quickpay.domain.mysql.entity.Account;
 import com.example.quickpay.domain.mysql.entity.Member;
+import com.example.quickpay.domain.mysql.repository.dto.AccountRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
-    Optional<Account> findFirstByOrderByIdDesc();
-
     Integer countByAccountUser(Member account);
 
     Optional<Account> findByAccountNumber(String accountNumber);
 
-    List<Account> findByAccountUser(Member member);
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    // 계좌 조회 응답용 (account 테이블만 읽음)
+    String ROW = "select new com.example.quickpay.domain.mysql.repository.dto.AccountRow(" +
+            "a.accountUser.id, a.accountNumber, a.balance, a.registeredAt, a.unRegisteredAt) " +
+            "from Account a ";
+
+    @Query(ROW + "where a.accountUser.id = :userId")
+    List<AccountRow> findRowsByUserId(@Param("userId") Long userId);
+
+    @Query(ROW + "where a.id = :id")
+    Optional<AccountRow> findRowById(@Param("id") Long id);
+
+    @Query("select a.balance from Account a where a.accountNumber = :accountNumber")
+    Optional<Long> findBalanceByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * 잔액 차감 (조건부 UPDATE)
+     * 소유주, 사용 중 여부, 잔액 조건을 만족할 때만 차감하고 영향받은 row 수를 돌려준다.
+     * 차감 후 잔액은 같은 트랜잭션에서 findBalanceById 로 읽는다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1 " +
+            "where a.accountNumber = :accountNumber " +
+            "and a.accountUser.id = :userId " +
+            "and a.balance >= :amount " +
+            "and a.accountStatus = com.example.quickpay.common.type.AccountStatus.IN_USE")
+    int useBalanceIfSufficient(@Param("userId") Long userId,
+                               @Param("accountNumber") String accountNumber,
+                               @Param("amount") Long amount);
+
+    /**
+     * 잔액 컬럼만 읽음
+     * useBalanceIfSufficient 가 성공한 같은 트랜잭션에서 부르면, UPDATE 가 건 row lock 이 commit 까지 유지되므로 차감 후 잔액이다.
+     */
+    @Query("select a.balance from Account a where a.id = :id")
+    Long findBalanceById(@Param("id") Long id);
 
 }
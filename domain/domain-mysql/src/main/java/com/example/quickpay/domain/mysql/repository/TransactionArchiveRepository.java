@@ -0,0 +1,28 @@
+package com.example.quickpay.domain.mysql.repository;
+
+import com.example.quickpay.domain.mysql.entity.TransactionArchive;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionQueryRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TransactionArchiveRepository extends JpaRepository<TransactionArchive, Long> {
+    Optional<TransactionArchive> findByTransactionId(Long transactionId);
+
+    Optional<TransactionArchive> findByLegacyTransactionId(String legacyTransactionId);
+
+    String QUERY_ROW = "select new com.example.quickpay.domain.mysql.repository.dto.TransactionQueryRow(" +
+            "a.accountNumber, t.transactionType, t.transactionResultType, t.amount, t.balanceSnapshot, " +
+            "t.transactionId, t.legacyTransactionId, t.transactedAt) " +
+            "from TransactionArchive t join t.account a ";
+
+    @Query(QUERY_ROW + "where t.transactionId = :transactionId")
+    Optional<TransactionQueryRow> findQueryRowByTransactionId(@Param("transactionId") Long transactionId);
+
+    @Query(QUERY_ROW + "where t.legacyTransactionId = :legacyTransactionId")
+    Optional<TransactionQueryRow> findQueryRowByLegacyTransactionId(@Param("legacyTransactionId") String legacyTransactionId);
+}
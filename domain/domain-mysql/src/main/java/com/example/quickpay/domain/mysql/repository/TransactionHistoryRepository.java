@@ -0,0 +1,10 @@
+package com.example.quickpay.domain.mysql.repository;
+
+import com.example.quickpay.domain.mysql.repository.dto.TransactionHistoryCondition;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionHistoryRow;
+
+import java.util.List;
+
+public interface TransactionHistoryRepository {
+    List<TransactionHistoryRow> findHistory(TransactionHistoryCondition condition);
+}
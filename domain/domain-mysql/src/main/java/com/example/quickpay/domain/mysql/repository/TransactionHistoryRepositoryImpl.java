@@ -0,0 +1,67 @@
+package com.example.quickpay.domain.mysql.repository;
+
+import com.example.quickpay.domain.mysql.repository.dto.TransactionHistoryCondition;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionHistoryRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 계좌별 거래 내역 keyset 조회
+ * (account_id, transacted_at) index 를 역순으로 타고 (InnoDB 보조 index 뒤에 PK id 가 붙어 있어서 정렬이 index 순서와 같다)
+ * 이전 페이지 마지막 행 다음부터 읽으므로 OFFSET 과 달리 몇 번째 페이지든 읽는 행 수가 같다.
+ * 거래 종류/결과 조건은 index 에 없어서 읽으면서 거른다.
+ */
+@RequiredArgsConstructor
+public class TransactionHistoryRepositoryImpl implements TransactionHistoryRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TransactionHistoryRow> findHistory(TransactionHistoryCondition condition) {
+        StringBuilder jpql = new StringBuilder("select new " + TransactionHistoryRow.class.getName() + "(" +
+                "t.id, t.transactionId, t.legacyTransactionId, t.transactionType, t.transactionResultType, " +
+                "t.amount, t.balanceSnapshot, t.transactedAt) " +
+                "from Transaction t " +
+                "where t.account.id = :accountId");
+        if (condition.getTransactionType() != null) {
+            jpql.append(" and t.transactionType = :transactionType");
+        }
+        if (condition.getTransactionResultType() != null) {
+            jpql.append(" and t.transactionResultType = :transactionResultType");
+        }
+        if (condition.getFrom() != null) {
+            jpql.append(" and t.transactedAt >= :fromTransactedAt");
+        }
+        if (condition.getTo() != null) {
+            jpql.append(" and t.transactedAt < :toTransactedAt");
+        }
+        if (condition.getAfterTransactedAt() != null) {
+            jpql.append(" and (t.transactedAt < :afterTransactedAt" +
+                    " or (t.transactedAt = :afterTransactedAt and t.id < :afterId))");
+        }
+        jpql.append(" order by t.transactedAt desc, t.id desc");
+
+        TypedQuery<TransactionHistoryRow> query = entityManager.createQuery(jpql.toString(), TransactionHistoryRow.class)
+                .setParameter("accountId", condition.getAccountId())
+                .setMaxResults(condition.getLimit());
+        if (condition.getTransactionType() != null) {
+            query.setParameter("transactionType", condition.getTransactionType());
+        }
+        if (condition.getTransactionResultType() != null) {
+            query.setParameter("transactionResultType", condition.getTransactionResultType());
+        }
+        if (condition.getFrom() != null) {
+            query.setParameter("fromTransactedAt", condition.getFrom());
+        }
+        if (condition.getTo() != null) {
+            query.setParameter("toTransactedAt", condition.getTo());
+        }
+        if (condition.getAfterTransactedAt() != null) {
+            query.setParameter("afterTransactedAt", condition.getAfterTransactedAt())
+                    .setParameter("afterId", condition.getAfterId());
+        }
+        return query.getResultList();
+    }
+}
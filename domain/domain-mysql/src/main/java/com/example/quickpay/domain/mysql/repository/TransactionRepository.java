@@ -1,12 +1,29 @@
 package com.example.quickpay.domain.mysql.repository;
 
 import com.example.quickpay.domain.mysql.entity.Transaction;
+import com.example.quickpay.domain.mysql.repository.dto.TransactionQueryRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    Optional<Transaction> findByTransactionId(String transactionId);
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionHistoryRepository {
+    Optional<Transaction> findByTransactionId(Long transactionId);
+
+    Optional<Transaction> findByLegacyTransactionId(String legacyTransactionId);
+
+    // 거래 조회 응답용 (거래 + 계좌 번호, member 는 읽지 않음)
+    String QUERY_ROW = "select new com.example.quickpay.domain.mysql.repository.dto.TransactionQueryRow(" +
+            "a.accountNumber, t.transactionType, t.transactionResultType, t.amount, t.balanceSnapshot, " +
+            "t.transactionId, t.legacyTransactionId, t.transactedAt) " +
+            "from Transaction t join t.account a ";
+
+    @Query(QUERY_ROW + "where t.transactionId = :transactionId")
+    Optional<TransactionQueryRow> findQueryRowByTransactionId(@Param("transactionId") Long transactionId);
+
+    @Query(QUERY_ROW + "where t.legacyTransactionId = :legacyTransactionId")
+    Optional<TransactionQueryRow> findQueryRowByLegacyTransactionId(@Param("legacyTransactionId") String legacyTransactionId);
 }
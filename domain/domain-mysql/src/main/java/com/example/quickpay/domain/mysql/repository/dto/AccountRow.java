@@ -0,0 +1,16 @@
+package com.example.quickpay.domain.mysql.repository.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 계좌 조회용 projection
+ * 사용자 id 는 account.account_user_id 컬럼 값이라 member 를 join 하지 않는다.
+ */
+public record AccountRow(
+        Long userId,
+        String accountNumber,
+        Long balance,
+        LocalDateTime registeredAt,
+        LocalDateTime unRegisteredAt
+) {
+}
@@ -0,0 +1,32 @@
+package com.example.quickpay.domain.mysql.repository.dto;
+
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.common.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 내역 조회 조건
+ * 최근 거래부터 (transacted_at, id) 역순으로 읽고,
+ * 이전 페이지 마지막 거래(afterTransactedAt, afterId) 다음부터 limit 건을 가져온다. (keyset pagination)
+ * null 인 조건은 적용하지 않는다.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TransactionHistoryCondition {
+    private Long accountId;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    // [from, to)
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private LocalDateTime afterTransactedAt;
+    private Long afterId;
+    private int limit;
+}
@@ -0,0 +1,25 @@
+package com.example.quickpay.domain.mysql.repository.dto;
+
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.common.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 내역 조회용 projection
+ * Transaction -> Account -> Member 엔티티를 올리지 않고 필요한 컬럼만 읽는다.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionHistoryRow {
+    private Long id;
+    private Long transactionId;
+    private String legacyTransactionId;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+}
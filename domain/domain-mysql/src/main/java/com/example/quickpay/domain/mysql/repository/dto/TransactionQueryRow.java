@@ -0,0 +1,22 @@
+package com.example.quickpay.domain.mysql.repository.dto;
+
+import com.example.quickpay.common.type.TransactionResultType;
+import com.example.quickpay.common.type.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 단건 조회용 projection
+ * 거래 컬럼과 계좌 번호만 읽는다. (Account, Member 엔티티를 올리지 않음)
+ */
+public record TransactionQueryRow(
+        String accountNumber,
+        TransactionType transactionType,
+        TransactionResultType transactionResultType,
+        Long amount,
+        Long balanceSnapshot,
+        Long transactionId,
+        String legacyTransactionId,
+        LocalDateTime transactedAt
+) {
+}
@@ -0,0 +1,208 @@
+package com.example.quickpay.domain.mysql.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * bucket 단위 계좌 재분할 도구
+ * 1. 옮길 bucket 을 frozen 으로 지정해서 배포 (쓰기 거절)
+ * 2. copy : 원래 샤드의 계좌, 거래, 보관 거래를 id 그대로 대상 샤드에 복사하고 건수를 비교
+ * 3. bucket 을 대상 샤드로 지정하고 frozen 을 풀어서 배포
+ * 4. purge : 원래 샤드에 남은 bucket 의 row 를 삭제
+ * 계좌 묶음마다 대상 샤드 트랜잭션 하나로 (기존 row 삭제 후) 복사하므로, 중간에 실패하면 다시 실행하면 된다.
+ * id 는 샤드마다 다른 구간에서 발급하므로 (V7 migration) 복사해도 겹치지 않는다.
+ */
+@Slf4j
+public class AccountShardMigrator {
+    private final ShardMap shardMap;
+    private final List<DataSource> shards;
+    private final int chunkSize;
+    private final int fetchSize;
+
+    public AccountShardMigrator(ShardMap shardMap, List<DataSource> shards, int chunkSize) {
+        // 거래 행은 MySQL streaming result set 으로 읽음
+        this(shardMap, shards, chunkSize, Integer.MIN_VALUE);
+    }
+
+    AccountShardMigrator(ShardMap shardMap, List<DataSource> shards, int chunkSize, int fetchSize) {
+        if (shards.size() != shardMap.shardCount()) {
+            throw new IllegalArgumentException(
+                    "shard map has " + shardMap.shardCount() + " shards, but " + shards.size() + " datasources given");
+        }
+        this.shardMap = shardMap;
+        this.shards = shards;
+        this.chunkSize = chunkSize;
+        this.fetchSize = fetchSize;
+    }
+
+    public Result copy(int bucket, int sourceShard, int targetShard) {
+        if (sourceShard == targetShard || shardMap.shardOfBucket(bucket) != sourceShard) {
+            throw new IllegalArgumentException(
+                    "bucket " + bucket + " is not served by shard " + sourceShard + " (target " + targetShard + ")");
+        }
+        JdbcTemplate source = new JdbcTemplate(shards.get(sourceShard));
+        JdbcTemplate target = new JdbcTemplate(shards.get(targetShard));
+        JdbcTemplate streamingSource = new JdbcTemplate(shards.get(sourceShard));
+        streamingSource.setFetchSize(fetchSize);
+        TransactionTemplate targetTransaction =
+                new TransactionTemplate(new DataSourceTransactionManager(shards.get(targetShard)));
+
+        Result result = Result.EMPTY;
+        List<Long> accountIds;
+        long lastId = 0;
+        while (!(accountIds = findAccountIds(source, bucket, lastId)).isEmpty()) {
+            List<Long> chunk = accountIds;
+            Result copied = targetTransaction.execute(status -> {
+                deleteRows(target, chunk);
+                return new Result(
+                        copyRows(streamingSource, target, "account", "id", chunk),
+                        copyRows(streamingSource, target, "transaction", "account_id", chunk),
+                        copyRows(streamingSource, target, "transaction_archive", "account_id", chunk));
+            });
+            Result expected = countRows(source, chunk);
+            if (!expected.equals(copied)) {
+                throw new IllegalStateException(
+                        "bucket " + bucket + " copy mismatch. expected : " + expected + ", copied : " + copied);
+            }
+            result = result.plus(copied);
+            lastId = chunk.get(chunk.size() - 1);
+        }
+        log.info("Copied bucket {} from shard {} to shard {}. {}", bucket, sourceShard, targetShard, result);
+        return result;
+    }
+
+    /**
+     * bucket 을 다른 샤드로 지정한 뒤에만 삭제할 수 있다.
+     */
+    public Result purge(int bucket, int shard) {
+        if (shardMap.shardOfBucket(bucket) == shard) {
+            throw new IllegalArgumentException("bucket " + bucket + " is still served by shard " + shard);
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.get(shard));
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(shards.get(shard)));
+
+        Result result = Result.EMPTY;
+        List<Long> accountIds;
+        while (!(accountIds = findAccountIds(jdbcTemplate, bucket, 0)).isEmpty()) {
+            List<Long> chunk = accountIds;
+            result = result.plus(transaction.execute(status -> deleteRows(jdbcTemplate, chunk)));
+        }
+        log.info("Purged bucket {} from shard {}. {}", bucket, shard, result);
+        return result;
+    }
+
+    // id 순서로 읽으면서 bucket 에 속한 계좌 id 를 chunk-size 만큼 모은다
+    private List<Long> findAccountIds(JdbcTemplate jdbcTemplate, int bucket, long afterId) {
+        List<Long> accountIds = new ArrayList<>(chunkSize);
+        long lastId = afterId;
+        while (accountIds.size() < chunkSize) {
+            List<AccountKey> scanned = jdbcTemplate.query(
+                    "select id, account_number from account where id > ? order by id limit ?",
+                    (resultSet, rowNum) -> new AccountKey(resultSet.getLong("id"), resultSet.getString("account_number")),
+                    lastId, chunkSize);
+            if (scanned.isEmpty()) {
+                break;
+            }
+            for (AccountKey key : scanned) {
+                if (shardMap.bucketOf(key.accountNumber()) == bucket && accountIds.size() < chunkSize) {
+                    accountIds.add(key.id());
+                }
+                lastId = key.id();
+                if (accountIds.size() == chunkSize) {
+                    break;
+                }
+            }
+        }
+        return accountIds;
+    }
+
+    // 거래 수가 많은 계좌도 있으므로 한 번에 읽지 않고 chunk-size 행씩 batch insert
+    private long copyRows(JdbcTemplate source, JdbcTemplate target, String table, String keyColumn, List<Long> keys) {
+        long[] copied = {0};
+        source.query("select * from " + table + " where " + keyColumn + " in (" + placeholders(keys.size()) + ")",
+                resultSet -> {
+                    ResultSetMetaData metaData = resultSet.getMetaData();
+                    String insertSql = insertSql(table, metaData);
+                    List<Object[]> batch = new ArrayList<>(chunkSize);
+                    while (resultSet.next()) {
+                        batch.add(values(resultSet, metaData.getColumnCount()));
+                        if (batch.size() == chunkSize) {
+                            target.batchUpdate(insertSql, batch);
+                            copied[0] += batch.size();
+                            batch.clear();
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        target.batchUpdate(insertSql, batch);
+                        copied[0] += batch.size();
+                    }
+                    return null;
+                }, keys.toArray());
+        return copied[0];
+    }
+
+    // FK 때문에 거래, 계좌 순서로 삭제
+    private Result deleteRows(JdbcTemplate jdbcTemplate, List<Long> accountIds) {
+        String in = " where account_id in (" + placeholders(accountIds.size()) + ")";
+        Object[] args = accountIds.toArray();
+        long archived = jdbcTemplate.update("delete from transaction_archive" + in, args);
+        long transactions = jdbcTemplate.update("delete from transaction" + in, args);
+        long accounts = jdbcTemplate.update(
+                "delete from account where id in (" + placeholders(accountIds.size()) + ")", args);
+        return new Result(accounts, transactions, archived);
+    }
+
+    private Result countRows(JdbcTemplate jdbcTemplate, List<Long> accountIds) {
+        String in = " in (" + placeholders(accountIds.size()) + ")";
+        Object[] args = accountIds.toArray();
+        return new Result(
+                jdbcTemplate.queryForObject("select count(*) from account where id" + in, Long.class, args),
+                jdbcTemplate.queryForObject("select count(*) from transaction where account_id" + in, Long.class, args),
+                jdbcTemplate.queryForObject("select count(*) from transaction_archive where account_id" + in, Long.class, args));
+    }
+
+    private static String insertSql(String table, ResultSetMetaData metaData) throws SQLException {
+        List<String> columns = new ArrayList<>(metaData.getColumnCount());
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(metaData.getColumnName(i));
+        }
+        return "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                + placeholders(columns.size()) + ")";
+    }
+
+    private static Object[] values(ResultSet resultSet, int columnCount) throws SQLException {
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = resultSet.getObject(i + 1);
+        }
+        return values;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private record AccountKey(long id, String accountNumber) {
+    }
+
+    public record Result(long accounts, long transactions, long archivedTransactions) {
+        static final Result EMPTY = new Result(0, 0, 0);
+
+        Result plus(Result other) {
+            return new Result(
+                    accounts + other.accounts,
+                    transactions + other.transactions,
+                    archivedTransactions + other.archivedTransactions);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.quickpay.domain.mysql.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드가 사용할 샤드 (ShardRoutingDataSource)
+ * 트랜잭션의 connection 을 처음 가져올 때 결정되므로, 트랜잭션의 첫 쿼리 전에 지정해야 한다.
+ * 지정하지 않으면 global 샤드를 사용한다.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return SHARD.get();
+    }
+
+    public static void set(int shard) {
+        SHARD.set(shard);
+    }
+
+    public static void clear() {
+        SHARD.remove();
+    }
+
+    public static <T> T callOnShard(int shard, Supplier<T> supplier) {
+        Integer previous = SHARD.get();
+        SHARD.set(shard);
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) {
+                SHARD.remove();
+            } else {
+                SHARD.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.quickpay.domain.mysql.shard;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * 계좌 번호 -> 샤드 번호
+ * 계좌 번호를 고정 개수의 bucket 으로 hash 하고, bucket 마다 샤드를 지정한다.
+ * 계좌와 그 계좌의 거래는 같은 샤드에 있으므로 잔액 사용/취소는 샤드 하나 안에서 끝난다.
+ * 재분할은 bucket 단위로 옮긴다. 옮기는 동안 bucket 을 frozen 으로 지정해 쓰기를 막고,
+ * AccountShardMigrator 로 복사한 뒤 bucket 지정을 바꾼다.
+ * 0번 샤드는 global 샤드로 계좌 번호 예약(account_number_seq), batch 메타데이터를 둔다.
+ * 사용자(member)는 모든 샤드에 복제한다. (seed migration 을 샤드마다 실행)
+ */
+public final class ShardMap {
+    public static final int GLOBAL_SHARD = 0;
+
+    private final int shardCount;
+    private final int[] shardOfBucket;
+    private final BitSet frozenBuckets;
+
+    private ShardMap(int shardCount, int[] shardOfBucket, BitSet frozenBuckets) {
+        this.shardCount = shardCount;
+        this.shardOfBucket = shardOfBucket;
+        this.frozenBuckets = frozenBuckets;
+    }
+
+    public static ShardMap single() {
+        return new ShardMap(1, new int[1], new BitSet());
+    }
+
+    /**
+     * @param assignments "시작-끝:샤드" 를 쉼표로 나열 (예 "0-511:0,512-1023:1"), 비어 있으면 bucket 을 샤드 수로 고르게 나눔
+     */
+    public static ShardMap of(int shardCount, int bucketCount, String assignments) {
+        if (shardCount < 1 || bucketCount < shardCount) {
+            throw new IllegalArgumentException(
+                    "invalid shard map. shards : " + shardCount + ", buckets : " + bucketCount);
+        }
+        int[] shardOfBucket = new int[bucketCount];
+        if (assignments == null || assignments.isBlank()) {
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                shardOfBucket[bucket] = (int) ((long) bucket * shardCount / bucketCount);
+            }
+            return new ShardMap(shardCount, shardOfBucket, new BitSet());
+        }
+
+        Arrays.fill(shardOfBucket, -1);
+        for (String assignment : assignments.split(",")) {
+            String[] rangeAndShard = assignment.trim().split(":");
+            String[] range = rangeAndShard[0].split("-");
+            if (rangeAndShard.length != 2 || range.length != 2) {
+                throw new IllegalArgumentException("invalid bucket assignment : " + assignment);
+            }
+            int from = Integer.parseInt(range[0].trim());
+            int to = Integer.parseInt(range[1].trim());
+            int shard = Integer.parseInt(rangeAndShard[1].trim());
+            if (from < 0 || to >= bucketCount || from > to || shard < 0 || shard >= shardCount) {
+                throw new IllegalArgumentException("invalid bucket assignment : " + assignment);
+            }
+            for (int bucket = from; bucket <= to; bucket++) {
+                if (shardOfBucket[bucket] >= 0) {
+                    throw new IllegalArgumentException("bucket assigned twice : " + bucket);
+                }
+                shardOfBucket[bucket] = shard;
+            }
+        }
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            if (shardOfBucket[bucket] < 0) {
+                throw new IllegalArgumentException("bucket not assigned : " + bucket);
+            }
+        }
+        return new ShardMap(shardCount, shardOfBucket, new BitSet());
+    }
+
+    /**
+     * 옮기는 중인 bucket (쓰기 거절)
+     */
+    public ShardMap withFrozenBuckets(Collection<Integer> buckets) {
+        BitSet frozen = new BitSet(shardOfBucket.length);
+        for (int bucket : buckets) {
+            if (bucket < 0 || bucket >= shardOfBucket.length) {
+                throw new IllegalArgumentException("invalid frozen bucket : " + bucket);
+            }
+            frozen.set(bucket);
+        }
+        return new ShardMap(shardCount, shardOfBucket, frozen);
+    }
+
+    public boolean isFrozen(String accountNumber) {
+        return frozenBuckets.get(bucketOf(accountNumber));
+    }
+
+    public int shardOf(String accountNumber) {
+        return shardOfBucket[bucketOf(accountNumber)];
+    }
+
+    public int shardOfBucket(int bucket) {
+        return shardOfBucket[bucket];
+    }
+
+    /**
+     * String.hashCode 는 명세로 고정된 값이라 JVM/노드가 달라도 같은 bucket 이 나온다.
+     * 계좌 번호는 연속으로 발급되므로 섞어서 bucket 에 고르게 퍼지도록 한다. (murmur3 fmix32)
+     */
+    public int bucketOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, shardOfBucket.length);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int bucketCount() {
+        return shardOfBucket.length;
+    }
+}
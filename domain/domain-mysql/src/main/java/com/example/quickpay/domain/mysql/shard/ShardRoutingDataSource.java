@@ -0,0 +1,17 @@
+package com.example.quickpay.domain.mysql.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * ShardContext 의 샤드로 connection 을 보낸다. (지정하지 않으면 global 샤드)
+ * 트랜잭션 시작 후 샤드를 지정하는 경우가 있으므로 LazyConnectionDataSourceProxy 로 감싸서
+ * 첫 쿼리 때 connection 을 가져오도록 해야 한다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : ShardMap.GLOBAL_SHARD;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.quickpay.domain.mysql.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * global 샤드는 spring.flyway 설정으로 기동 시 migration 하고, 나머지 샤드는 이 클래스로 같은 migration 을 적용한다.
+ * seed(db/seed) 도 같이 적용되므로 사용자(member)는 모든 샤드에 같은 id 로 복제된다.
+ * shard_id placeholder 로 샤드마다 id 발급 구간을 나눈다. (V7 migration)
+ */
+@Slf4j
+public final class ShardSchemaMigrator {
+    public static final String SHARD_ID_PLACEHOLDER = "shard_id";
+
+    private ShardSchemaMigrator() {
+    }
+
+    public static void migrate(DataSource dataSource, int shard, List<String> locations) {
+        int applied = Flyway.configure()
+                .dataSource(dataSource)
+                .locations(locations.toArray(String[]::new))
+                .placeholders(Map.of(SHARD_ID_PLACEHOLDER, String.valueOf(shard)))
+                .load()
+                .migrate()
+                .migrationsExecuted;
+        log.info("Shard {} migrated. applied migrations : {}", shard, applied);
+    }
+}
@@ -0,0 +1,67 @@
+-- 엔티티별 pooled-lo id 예약 테이블 (PooledSequenceIdGenerator)
+create table member_seq
+(
+    next_val bigint
+) engine = InnoDB;
+insert into member_seq
+values (1);
+
+create table account_seq
+(
+    next_val bigint
+) engine = InnoDB;
+insert into account_seq
+values (1);
+
+create table transaction_seq
+(
+    next_val bigint
+) engine = InnoDB;
+insert into transaction_seq
+values (1);
+
+create table member
+(
+    id         bigint       not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    name       varchar(255),
+    primary key (id)
+) engine = InnoDB;
+
+create table account
+(
+    id               bigint      not null,
+    created_at       datetime(6),
+    updated_at       datetime(6),
+    account_user_id  bigint,
+    account_number   varchar(20) not null,
+    account_status   varchar(20),
+    balance          bigint,
+    registered_at    datetime(6),
+    un_registered_at datetime(6),
+    version          bigint,
+    primary key (id),
+    constraint uk_account_account_number unique (account_number),
+    index idx_account_account_user_id (account_user_id),
+    constraint fk_account_account_user foreign key (account_user_id) references member (id)
+) engine = InnoDB;
+
+create table transaction
+(
+    id                      bigint      not null,
+    created_at              datetime(6),
+    updated_at              datetime(6),
+    transaction_type        varchar(20),
+    transaction_result_type varchar(20),
+    account_id              bigint,
+    amount                  bigint,
+    balance_snapshot        bigint,
+    transaction_id          varchar(32) not null,
+    transacted_at           datetime(6),
+    primary key (id),
+    constraint uk_transaction_transaction_id unique (transaction_id),
+    -- 계좌별 거래 내역 조회 (account_id, transacted_at) 범위 검색
+    index idx_transaction_account_id_transacted_at (account_id, transacted_at),
+    constraint fk_transaction_account foreign key (account_id) references account (id)
+) engine = InnoDB;
@@ -0,0 +1,17 @@
+-- 거래 id 를 UUID 문자열(32자)에서 시간 순서 BIGINT(snowflake)로 변경
+-- 이전 거래 id 는 legacy_transaction_id 로 옮겨서 계속 조회할 수 있게 한다
+alter table transaction
+    change column transaction_id legacy_transaction_id varchar(32) null,
+    rename index uk_transaction_transaction_id to uk_transaction_legacy_transaction_id;
+
+alter table transaction
+    add column transaction_id bigint null after balance_snapshot;
+
+-- 기존 row 는 PK 로 채운다 (snowflake 값은 2^22 이상이라 겹치지 않음)
+update transaction
+set transaction_id = id
+where transaction_id is null;
+
+alter table transaction
+    modify column transaction_id bigint not null,
+    add constraint uk_transaction_transaction_id unique (transaction_id);
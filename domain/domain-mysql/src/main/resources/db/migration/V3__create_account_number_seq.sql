@@ -0,0 +1,10 @@
+-- 계좌 번호 구간 예약 테이블 (AccountNumberAllocator)
+-- 다음에 예약할 계좌 번호를 담고, 노드마다 구간을 예약해서 메모리에서 나눠준다
+create table account_number_seq
+(
+    next_val bigint
+) engine = InnoDB;
+
+insert into account_number_seq
+select greatest(1000000000, coalesce(max(cast(account_number as unsigned)) + 1, 1000000000))
+from account;
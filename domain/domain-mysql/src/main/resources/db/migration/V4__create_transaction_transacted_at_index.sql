@@ -0,0 +1,3 @@
+-- 하루치 거래 내보내기 (transacted_at, id) 범위 검색
+-- InnoDB 보조 index 뒤에 PK(id) 가 붙으므로 (transacted_at, id) 순서로 읽힌다
+create index idx_transaction_transacted_at on transaction (transacted_at);
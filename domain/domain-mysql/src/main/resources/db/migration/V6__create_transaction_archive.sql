@@ -0,0 +1,23 @@
+-- 취소할 수 없는(1년 지난) 거래 보관 테이블 (TransactionArchiveTasklet)
+-- transaction 테이블과 index 를 작게 유지해서 거래 처리 경로가 buffer pool 안에서 끝나도록 한다
+-- 거래 id 조회만 하므로 보조 index 는 거래 id 만 두고, 자주 읽지 않으므로 압축해서 저장
+create table transaction_archive
+(
+    id                      bigint      not null,
+    created_at              datetime(6),
+    updated_at              datetime(6),
+    transaction_type        varchar(20),
+    transaction_result_type varchar(20),
+    account_id              bigint,
+    amount                  bigint,
+    balance_snapshot        bigint,
+    transaction_id          bigint      not null,
+    legacy_transaction_id   varchar(32),
+    transacted_at           datetime(6),
+    archived_at             datetime(6) not null,
+    primary key (id),
+    constraint uk_transaction_archive_transaction_id unique (transaction_id),
+    constraint uk_transaction_archive_legacy_transaction_id unique (legacy_transaction_id)
+) engine = InnoDB
+  row_format = compressed
+  key_block_size = 8;
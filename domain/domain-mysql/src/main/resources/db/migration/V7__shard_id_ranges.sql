@@ -0,0 +1,8 @@
+-- 샤드별 id 구간 분리 (shard_id 는 flyway placeholder, 샤드를 쓰지 않으면 0)
+-- 계좌를 다른 샤드로 옮겨도 (AccountShardMigrator) id 가 겹치지 않도록 샤드마다 2^48 크기 구간에서 발급한다
+-- member 는 모든 샤드에 같은 id 로 복제하므로 구간을 나누지 않는다
+update account_seq
+set next_val = greatest(next_val, ${shard_id} * 281474976710656 + 1);
+
+update transaction_seq
+set next_val = greatest(next_val, ${shard_id} * 281474976710656 + 1);
@@ -0,0 +1,118 @@
+package com.example.quickpay.domain.mysql.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchemaIndexVerifierTest {
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    @Mock
+    private DatabaseMetaData metaData;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(dataSource.getConnection()).thenReturn(connection);
+        lenient().when(connection.getMetaData()).thenReturn(metaData);
+        lenient().when(connection.getCatalog()).thenReturn("quickpay");
+    }
+
+    @Test
+    @DisplayName("필수 index 가 모두 있으면 통과")
+    void verify_allPresent() throws SQLException {
+        //given
+        givenIndexes("account",
+                row("PRIMARY", 1, "id", true),
+                row("uk_account_account_number", 1, "account_number", true),
+                row("idx_account_account_user_id", 1, "account_user_id", false));
+        givenIndexes("transaction",
+                row("PRIMARY", 1, "id", true),
+                row("uk_transaction_transaction_id", 1, "transaction_id", true),
+                row("idx_transaction_account_id_transacted_at", 1, "account_id", false),
+                row("idx_transaction_account_id_transacted_at", 2, "transacted_at", false),
+                row("idx_transaction_transacted_at", 1, "transacted_at", false));
+        givenIndexes("transaction_archive",
+                row("PRIMARY", 1, "id", true),
+                row("uk_transaction_archive_transaction_id", 1, "transaction_id", true));
+        //when
+        //then
+        assertDoesNotThrow(() -> new SchemaIndexVerifier(dataSource, true).verify());
+    }
+
+    @Test
+    @DisplayName("unique 가 아니거나 컬럼 순서가 다른 index 는 필수 index 로 인정하지 않는다")
+    void verify_missing() throws SQLException {
+        //given
+        givenIndexes("account",
+                row("PRIMARY", 1, "id", true),
+                row("idx_account_number", 1, "account_number", false),
+                row("idx_account_account_user_id", 1, "account_user_id", false));
+        givenIndexes("transaction",
+                row("uk_transaction_transaction_id", 1, "transaction_id", true),
+                row("idx_transaction_transacted_at_account_id", 1, "transacted_at", false),
+                row("idx_transaction_transacted_at_account_id", 2, "account_id", false));
+        givenIndexes("transaction_archive",
+                row("uk_transaction_archive_transaction_id", 1, "transaction_id", true));
+        // (transacted_at, account_id) index 는 transacted_at 으로 시작하므로 일자별 조회 index 로 인정된다
+        //when
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new SchemaIndexVerifier(dataSource, true).verify());
+        //then
+        assertTrue(exception.getMessage().contains("unique account[account_number]"));
+        assertTrue(exception.getMessage().contains("transaction[account_id, transacted_at]"));
+        assertFalse(exception.getMessage().contains("account_user_id"));
+        assertFalse(exception.getMessage().contains("transaction[transacted_at]"));
+        assertFalse(exception.getMessage().contains("transaction_archive"));
+    }
+
+    @Test
+    @DisplayName("비활성화하면 DB 를 조회하지 않는다")
+    void verify_disabled() throws SQLException {
+        //given
+        //when
+        new SchemaIndexVerifier(dataSource, false).verify();
+        //then
+        verify(dataSource, never()).getConnection();
+    }
+
+    private void givenIndexes(String table, Object[]... rows) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        List<Object[]> remaining = new ArrayList<>(List.of(rows));
+        Object[][] current = new Object[1][];
+        given(resultSet.next()).willAnswer(invocation -> {
+            current[0] = remaining.isEmpty() ? null : remaining.remove(0);
+            return current[0] != null;
+        });
+        given(resultSet.getString(anyString())).willAnswer(invocation ->
+                "INDEX_NAME".equals(invocation.getArgument(0)) ? current[0][0] : current[0][2]);
+        given(resultSet.getShort("ORDINAL_POSITION")).willAnswer(invocation -> (short) (int) current[0][1]);
+        given(resultSet.getBoolean("NON_UNIQUE")).willAnswer(invocation -> !(boolean) current[0][3]);
+        given(metaData.getIndexInfo(eq("quickpay"), any(), eq(table), eq(false), eq(false)))
+                .willReturn(resultSet);
+    }
+
+    private Object[] row(String indexName, int ordinalPosition, String columnName, boolean unique) {
+        return new Object[]{indexName, ordinalPosition, columnName, unique};
+    }
+}
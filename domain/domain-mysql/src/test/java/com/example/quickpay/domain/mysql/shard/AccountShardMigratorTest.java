@@ -0,0 +1,180 @@
+package com.example.quickpay.domain.mysql.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountShardMigratorTest {
+    private static final int ACCOUNT_COUNT = 40;
+    private static final int CHUNK_SIZE = 3;
+    // 모든 bucket 을 샤드 0 이 담당
+    private static final ShardMap BEFORE = ShardMap.of(2, 8, "0-7:0");
+
+    private EmbeddedDatabase shard0;
+    private EmbeddedDatabase shard1;
+    private JdbcTemplate source;
+    private JdbcTemplate target;
+    private int bucket;
+
+    @BeforeEach
+    void setUp() {
+        shard0 = newShard();
+        shard1 = newShard();
+        source = new JdbcTemplate(shard0);
+        target = new JdbcTemplate(shard1);
+        for (long id = 1; id <= ACCOUNT_COUNT; id++) {
+            source.update("insert into account (id, account_number, balance) values (?, ?, ?)",
+                    id, accountNumber(id), id * 1_000L);
+            source.update("insert into transaction (id, account_id, amount) values (?, ?, ?)", id * 10, id, 100L);
+            source.update("insert into transaction (id, account_id, amount) values (?, ?, ?)", id * 10 + 1, id, 200L);
+            if (id % 2 == 0) {
+                source.update("insert into transaction_archive (id, account_id, amount) values (?, ?, ?)",
+                        id * 10, id, 300L);
+            }
+        }
+        bucket = BEFORE.bucketOf(accountNumber(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        shard0.shutdown();
+        shard1.shutdown();
+    }
+
+    @Test
+    @DisplayName("bucket 의 계좌, 거래, 보관 거래를 chunk 단위로 대상 샤드에 복사하고 원래 샤드는 그대로 둔다")
+    void copy() {
+        //given
+        List<Long> accountIds = accountIdsOfBucket();
+        long archived = accountIds.stream().filter(id -> id % 2 == 0).count();
+        //when
+        AccountShardMigrator.Result result = newMigrator(BEFORE).copy(bucket, 0, 1);
+        //then
+        assertTrue(accountIds.size() > CHUNK_SIZE);
+        assertEquals(new AccountShardMigrator.Result(accountIds.size(), accountIds.size() * 2L, archived), result);
+        assertEquals(accountIds, target.queryForList("select id from account order by id", Long.class));
+        Map<String, Object> copied = target.queryForMap(
+                "select account_number, balance from account where id = ?", accountIds.get(0));
+        assertEquals(accountNumber(accountIds.get(0)), copied.get("ACCOUNT_NUMBER"));
+        assertEquals(accountIds.get(0) * 1_000L, ((Number) copied.get("BALANCE")).longValue());
+        assertEquals(accountIds.size() * 2L, count(target, "transaction"));
+        assertEquals(ACCOUNT_COUNT, count(source, "account"));
+        assertEquals(ACCOUNT_COUNT * 2L, count(source, "transaction"));
+    }
+
+    @Test
+    @DisplayName("중간에 실패해서 다시 복사해도 중복 없이 같은 결과")
+    void copy_rerun() {
+        //given
+        AccountShardMigrator migrator = newMigrator(BEFORE);
+        AccountShardMigrator.Result first = migrator.copy(bucket, 0, 1);
+        // 첫 계좌의 거래 하나만 먼저 들어가 있던 상태
+        target.update("delete from transaction where account_id = ?", accountIdsOfBucket().get(0));
+        //when
+        AccountShardMigrator.Result second = migrator.copy(bucket, 0, 1);
+        //then
+        assertEquals(first, second);
+        assertEquals(first.accounts(), count(target, "account"));
+        assertEquals(first.transactions(), count(target, "transaction"));
+        assertEquals(first.archivedTransactions(), count(target, "transaction_archive"));
+    }
+
+    @Test
+    @DisplayName("원래 샤드가 담당하지 않는 bucket 은 복사할 수 없다")
+    void copy_notServed() {
+        //given
+        AccountShardMigrator migrator = newMigrator(moved());
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class, () -> migrator.copy(bucket, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> newMigrator(BEFORE).copy(bucket, 0, 0));
+        assertEquals(0, count(target, "account"));
+    }
+
+    @Test
+    @DisplayName("아직 담당 중인 bucket 은 삭제할 수 없다")
+    void purge_stillServed() {
+        //given
+        AccountShardMigrator migrator = newMigrator(BEFORE);
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class, () -> migrator.purge(bucket, 0));
+        assertEquals(ACCOUNT_COUNT, count(source, "account"));
+    }
+
+    @Test
+    @DisplayName("다른 샤드로 지정한 뒤에는 원래 샤드에서 그 bucket 의 row 만 삭제")
+    void purge() {
+        //given
+        List<Long> accountIds = accountIdsOfBucket();
+        long archived = accountIds.stream().filter(id -> id % 2 == 0).count();
+        newMigrator(BEFORE).copy(bucket, 0, 1);
+        //when
+        AccountShardMigrator.Result result = newMigrator(moved()).purge(bucket, 0);
+        //then
+        assertEquals(new AccountShardMigrator.Result(accountIds.size(), accountIds.size() * 2L, archived), result);
+        assertEquals(ACCOUNT_COUNT - accountIds.size(), count(source, "account"));
+        assertEquals((ACCOUNT_COUNT - accountIds.size()) * 2L, count(source, "transaction"));
+        assertEquals(ACCOUNT_COUNT / 2 - archived, count(source, "transaction_archive"));
+        assertTrue(source.queryForList("select account_number from account", String.class).stream()
+                .noneMatch(accountNumber -> BEFORE.bucketOf(accountNumber) == bucket));
+        assertEquals(accountIds.size(), count(target, "account"));
+    }
+
+    private AccountShardMigrator newMigrator(ShardMap shardMap) {
+        // H2 는 MySQL streaming fetch size(Integer.MIN_VALUE)를 받지 않는다
+        return new AccountShardMigrator(shardMap, List.of(shard0, shard1), CHUNK_SIZE, 0);
+    }
+
+    // bucket 만 샤드 1 로 옮긴 map
+    private ShardMap moved() {
+        StringBuilder assignments = new StringBuilder(bucket + "-" + bucket + ":1");
+        if (bucket > 0) {
+            assignments.append(",0-").append(bucket - 1).append(":0");
+        }
+        if (bucket < BEFORE.bucketCount() - 1) {
+            assignments.append(",").append(bucket + 1).append("-").append(BEFORE.bucketCount() - 1).append(":0");
+        }
+        return ShardMap.of(2, BEFORE.bucketCount(), assignments.toString());
+    }
+
+    private List<Long> accountIdsOfBucket() {
+        return source.queryForList("select id from account order by id", Long.class).stream()
+                .filter(id -> BEFORE.bucketOf(accountNumber(id)) == bucket)
+                .toList();
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+
+    private static String accountNumber(long id) {
+        return String.valueOf(1_000_000_000L + id);
+    }
+
+    // 복사에 필요한 컬럼만 둔 스키마
+    private static EmbeddedDatabase newShard() {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table account (id bigint not null primary key, "
+                + "account_number varchar(20) not null unique, balance bigint)");
+        jdbcTemplate.execute("create table transaction (id bigint not null primary key, account_id bigint, "
+                + "amount bigint, foreign key (account_id) references account (id))");
+        jdbcTemplate.execute("create table transaction_archive (id bigint not null primary key, account_id bigint, "
+                + "amount bigint)");
+        return database;
+    }
+}
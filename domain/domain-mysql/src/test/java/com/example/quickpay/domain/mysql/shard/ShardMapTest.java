@@ -0,0 +1,69 @@
+package com.example.quickpay.domain.mysql.shard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardMapTest {
+
+    @Test
+    @DisplayName("bucket 지정이 없으면 연속 구간으로 고르게 나누고, 연속 계좌 번호도 샤드에 고르게 퍼진다")
+    void evenSplit() {
+        //given
+        ShardMap shardMap = ShardMap.of(4, 1024, "");
+        //when
+        int[] accounts = new int[4];
+        for (long accountNumber = 1_000_000_000L; accountNumber < 1_000_040_000L; accountNumber++) {
+            accounts[shardMap.shardOf(String.valueOf(accountNumber))]++;
+        }
+        //then
+        assertEquals(0, shardMap.shardOfBucket(0));
+        assertEquals(0, shardMap.shardOfBucket(255));
+        assertEquals(1, shardMap.shardOfBucket(256));
+        assertEquals(3, shardMap.shardOfBucket(1023));
+        for (int count : accounts) {
+            assertTrue(count > 9_000 && count < 11_000, "accounts per shard : " + count);
+        }
+    }
+
+    @Test
+    @DisplayName("같은 계좌 번호는 항상 같은 bucket 이다")
+    void stableBucket() {
+        //given
+        ShardMap first = ShardMap.of(2, 1024, "");
+        ShardMap second = ShardMap.of(2, 1024, "0-511:1,512-1023:0");
+        //when
+        //then
+        assertEquals(first.bucketOf("1000000013"), second.bucketOf("1000000013"));
+        assertNotEquals(first.shardOf("1000000013"), second.shardOf("1000000013"));
+    }
+
+    @Test
+    @DisplayName("bucket 지정이 비거나 겹치거나 없는 샤드를 가리키면 실패")
+    void invalidAssignments() {
+        //given
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class, () -> ShardMap.of(2, 8, "0-3:0,5-7:1"));
+        assertThrows(IllegalArgumentException.class, () -> ShardMap.of(2, 8, "0-4:0,4-7:1"));
+        assertThrows(IllegalArgumentException.class, () -> ShardMap.of(2, 8, "0-3:0,4-7:2"));
+        assertThrows(IllegalArgumentException.class, () -> ShardMap.of(2, 8, "0-3"));
+    }
+
+    @Test
+    @DisplayName("frozen bucket 의 계좌만 이전 중으로 본다")
+    void frozenBuckets() {
+        //given
+        ShardMap shardMap = ShardMap.of(2, 1024, "");
+        int bucket = shardMap.bucketOf("1000000013");
+        //when
+        ShardMap frozen = shardMap.withFrozenBuckets(List.of(bucket));
+        //then
+        assertTrue(frozen.isFrozen("1000000013"));
+        assertFalse(shardMap.isFrozen("1000000013"));
+        assertEquals(shardMap.shardOf("1000000013"), frozen.shardOf("1000000013"));
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.quickpay.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 계좌/거래 HTTP 시나리오 부하 발생기 (open model)
+ * - 준비 : 사용자마다 계좌를 accounts-per-user 개까지 만든다 (이미 있는 계좌는 그대로 사용)
+ * - 요청 도착 간격은 지수 분포(Poisson 도착)이고, 응답을 기다리지 않고 도착 시각마다 virtual thread 로 보낸다
+ * - 사용/취소 계좌는 Zipf 분포로 골라서 일부 계좌에 lock 경합이 몰리게 한다
+ * - 취소는 성공한 사용 거래를 한 번씩, 조회는 최근 거래 id 를 사용한다 (아직 없으면 사용 요청을 보낸다)
+ */
+public class LoadGenerator {
+    private static final int RECENT_TRANSACTION_SIZE = 10_000;
+    private static final int CANCELABLE_TRANSACTION_SIZE = 100_000;
+    private static final long SEED = 20240101L;
+
+    private final LoadOptions options;
+    private final QuickPayClient client;
+    private final LoadReport report = new LoadReport();
+    private final BlockingQueue<Transaction> cancelableTransactions =
+            new ArrayBlockingQueue<>(CANCELABLE_TRANSACTION_SIZE);
+    private final AtomicReferenceArray<String> recentTransactionIds =
+            new AtomicReferenceArray<>(RECENT_TRANSACTION_SIZE);
+    private final AtomicLong recentTransactionCount = new AtomicLong();
+
+    private List<Account> accounts;
+    private ZipfSampler accountSampler;
+    private Operation[] operationTable;
+
+    public LoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.client = new QuickPayClient(options.baseUrl(), options.timeout());
+    }
+
+    public static void main(String[] args) {
+        LoadGenerator loadGenerator = new LoadGenerator(LoadOptions.parse(args));
+        loadGenerator.prepare();
+        loadGenerator.run();
+    }
+
+    void prepare() {
+        List<Account> prepared = new ArrayList<>();
+        for (long userId : options.users()) {
+            List<String> accountNumbers = new ArrayList<>(client.getAccountNumbers(userId));
+            while (accountNumbers.size() < options.accountsPerUser()) {
+                QuickPayClient.Result result = client.createAccount(userId, options.initialBalance());
+                if (!result.success()) {
+                    throw new IllegalStateException(
+                            "Failed to create account of user " + userId + " : " + result.errorCode());
+                }
+                accountNumbers.add(result.body().path("accountNumber").asText());
+            }
+            accountNumbers.stream()
+                    .limit(options.accountsPerUser())
+                    .forEach(accountNumber -> prepared.add(new Account(userId, accountNumber)));
+        }
+        // hot 계좌가 한 사용자에 몰리지 않도록 순위를 섞는다 (실행마다 같은 순서)
+        Collections.shuffle(prepared, new Random(SEED));
+        accounts = List.copyOf(prepared);
+        accountSampler = new ZipfSampler(accounts.size(), options.zipfExponent());
+        operationTable = operationTable(options.mix());
+        System.out.printf("accounts : %d, hottest : %s%n", accounts.size(), accounts.get(0).accountNumber());
+    }
+
+    void run() {
+        long intervalNanos = (long) (1_000_000_000L / options.rate());
+        long startedAt = System.nanoTime();
+        long warmupEndsAt = startedAt + options.warmup().toNanos();
+        long endsAt = warmupEndsAt + options.duration().toNanos();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        boolean warmedUp = options.warmup().isZero();
+
+        System.out.printf("rate : %.1f req/s, warmup : %ds, duration : %ds, mix : %s%n",
+                options.rate(), options.warmup().toSeconds(), options.duration().toSeconds(), options.mix());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long intendedAt = startedAt;
+            while (true) {
+                // 지수 분포 도착 간격
+                intendedAt += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * intervalNanos);
+                if (intendedAt >= endsAt) {
+                    break;
+                }
+                long now;
+                while ((now = System.nanoTime()) < intendedAt) {
+                    LockSupport.parkNanos(intendedAt - now);
+                }
+                if (!warmedUp && intendedAt >= warmupEndsAt) {
+                    report.reset();
+                    warmedUp = true;
+                }
+                boolean measured = intendedAt >= warmupEndsAt;
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        report.drop();
+                    }
+                    continue;
+                }
+                long scheduledAt = intendedAt;
+                executor.execute(() -> {
+                    try {
+                        execute(scheduledAt, measured);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        report.print(System.out, options.duration());
+    }
+
+    private void execute(long intendedAt, boolean measured) {
+        Operation operation = nextOperation();
+        QuickPayClient.Result result;
+        switch (operation) {
+            case CREATE -> {
+                long userId = options.users().get(ThreadLocalRandom.current().nextInt(options.users().size()));
+                result = client.createAccount(userId, options.initialBalance());
+            }
+            case CANCEL -> {
+                Transaction transaction = cancelableTransactions.poll();
+                if (transaction == null) {
+                    operation = Operation.USE;
+                    result = use();
+                } else {
+                    result = client.cancelBalance(
+                            transaction.transactionId(), transaction.accountNumber(), transaction.amount());
+                }
+            }
+            case QUERY -> {
+                String transactionId = recentTransactionId();
+                if (transactionId == null) {
+                    operation = Operation.USE;
+                    result = use();
+                } else {
+                    result = client.queryTransaction(transactionId);
+                }
+            }
+            default -> result = use();
+        }
+        if (measured) {
+            report.record(operation, System.nanoTime() - intendedAt, result);
+        }
+    }
+
+    private QuickPayClient.Result use() {
+        Account account = accounts.get(accountSampler.sample(ThreadLocalRandom.current()));
+        QuickPayClient.Result result = client.useBalance(
+                account.userId(), account.accountNumber(), options.amount(), options.conditional());
+        if (result.success()) {
+            JsonNode transactionId = result.body().path("transactionId");
+            if (transactionId.isTextual()) {
+                cancelableTransactions.offer(
+                        new Transaction(transactionId.asText(), account.accountNumber(), options.amount()));
+                recentTransactionIds.set(
+                        (int) (recentTransactionCount.getAndIncrement() % RECENT_TRANSACTION_SIZE),
+                        transactionId.asText());
+            }
+        }
+        return result;
+    }
+
+    private String recentTransactionId() {
+        long count = recentTransactionCount.get();
+        if (count == 0) {
+            return null;
+        }
+        int size = (int) Math.min(count, RECENT_TRANSACTION_SIZE);
+        return recentTransactionIds.get(ThreadLocalRandom.current().nextInt(size));
+    }
+
+    private Operation nextOperation() {
+        return operationTable[ThreadLocalRandom.current().nextInt(operationTable.length)];
+    }
+
+    // 비율만큼 요청 종류를 채운 표 (create:0,use:70,cancel:10,query:20 -> 100칸)
+    static Operation[] operationTable(Map<Operation, Integer> mix) {
+        List<Operation> table = new ArrayList<>();
+        mix.forEach((operation, weight) -> table.addAll(Collections.nCopies(weight, operation)));
+        return table.toArray(Operation[]::new);
+    }
+
+    private record Account(long userId, String accountNumber) {
+    }
+
+    private record Transaction(String transactionId, String accountNumber, long amount) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.quickpay.loadgen;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 설정 (--key=value)
+ * - base-url : 대상 application (기본 http://localhost:8080/api/v1)
+ * - rate : 초당 요청 수 (open model, 응답을 기다리지 않고 도착 시각에 보낸다)
+ * - duration-seconds / warmup-seconds : 측정 시간 / 측정 전 버리는 시간
+ * - mix : 요청 비율 (create:0,use:70,cancel:10,query:20)
+ * - users / accounts-per-user : 계좌를 만들 사용자, 사용자당 계좌 수 (최대 10)
+ * - zipf-exponent : 계좌 선택 쏠림 (0 이면 고르게)
+ * - amount / initial-balance : 사용 금액 / 새 계좌 잔액
+ * - conditional : 사용 요청을 /transaction/use/conditional 로 보낸다
+ * - max-in-flight : 동시에 응답을 기다리는 요청 수 상한 (넘으면 보내지 않고 dropped 로 센다)
+ * - timeout-millis : 요청 timeout
+ */
+public record LoadOptions(
+        String baseUrl,
+        double rate,
+        Duration duration,
+        Duration warmup,
+        Map<Operation, Integer> mix,
+        List<Long> users,
+        int accountsPerUser,
+        double zipfExponent,
+        long amount,
+        long initialBalance,
+        boolean conditional,
+        int maxInFlight,
+        Duration timeout
+) {
+    private static final int MAX_ACCOUNT_PER_USER = 10;
+
+    public static LoadOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value : " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        LoadOptions options = new LoadOptions(
+                values.getOrDefault("base-url", "http://localhost:8080/api/v1"),
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration-seconds", "60"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup-seconds", "10"))),
+                parseMix(values.getOrDefault("mix", "create:0,use:70,cancel:10,query:20")),
+                Arrays.stream(values.getOrDefault("users", "1,2,3").split(","))
+                        .map(String::trim)
+                        .map(Long::parseLong)
+                        .toList(),
+                Integer.parseInt(values.getOrDefault("accounts-per-user", "10")),
+                Double.parseDouble(values.getOrDefault("zipf-exponent", "1.1")),
+                Long.parseLong(values.getOrDefault("amount", "100")),
+                Long.parseLong(values.getOrDefault("initial-balance", "1000000000")),
+                Boolean.parseBoolean(values.getOrDefault("conditional", "false")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                Duration.ofMillis(Long.parseLong(values.getOrDefault("timeout-millis", "10000")))
+        );
+        options.validate();
+        return options;
+    }
+
+    // create:0,use:70,cancel:10,query:20 - 빠진 요청은 0
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, 0);
+        }
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry : " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative mix weight : " + entry);
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix has no operation : " + mix);
+        }
+        return weights;
+    }
+
+    private void validate() {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive : " + rate);
+        }
+        if (accountsPerUser < 1 || accountsPerUser > MAX_ACCOUNT_PER_USER) {
+            throw new IllegalArgumentException("accounts-per-user must be 1~" + MAX_ACCOUNT_PER_USER);
+        }
+        if (users.isEmpty()) {
+            throw new IllegalArgumentException("users is empty");
+        }
+        if (zipfExponent < 0) {
+            throw new IllegalArgumentException("zipf-exponent must not be negative : " + zipfExponent);
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("max-in-flight must be positive : " + maxInFlight);
+        }
+    }
+}
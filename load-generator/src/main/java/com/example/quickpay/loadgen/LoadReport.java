@@ -0,0 +1,104 @@
+package com.example.quickpay.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청 종류별 지연 시간 / 결과
+ * 지연 시간은 예정된 도착 시각부터 응답까지라서 서버가 밀려 늦게 보낸 시간도 포함한다. (coordinated omission 보정)
+ * warmup 이 끝나면 reset 해서 측정 구간만 남긴다.
+ */
+public class LoadReport {
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+
+    public LoadReport() {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    public void record(Operation operation, long latencyNanos, QuickPayClient.Result result) {
+        Stats operationStats = stats.get(operation);
+        operationStats.latency.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        if (result.success()) {
+            operationStats.succeeded.increment();
+        } else {
+            operationStats.errors.computeIfAbsent(result.errorCode(), code -> new LongAdder()).increment();
+        }
+    }
+
+    public void drop() {
+        dropped.increment();
+    }
+
+    public void reset() {
+        stats.values().forEach(Stats::reset);
+        dropped.reset();
+    }
+
+    public void print(PrintStream out, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        long total = 0;
+        long lockFailed = 0;
+        long lockTaking = 0;
+        out.printf("%-8s %9s %9s %9s %10s %10s %10s %10s %10s%n",
+                "op", "count", "ok", "failed", "lock-fail", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().latency.getIntervalHistogram();
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            long ok = entry.getValue().succeeded.sum();
+            long lock = entry.getValue().errorCount(QuickPayClient.LOCK_ERROR_CODE);
+            total += count;
+            lockFailed += lock;
+            if (entry.getKey() == Operation.USE || entry.getKey() == Operation.CANCEL) {
+                lockTaking += count;
+            }
+            out.printf("%-8s %9d %9d %9d %10d %10.2f %10.2f %10.2f %10.2f%n",
+                    entry.getKey().name().toLowerCase(), count, ok, count - ok, lock,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+            entry.getValue().errors.forEach((code, errorCount) ->
+                    out.printf("         %s : %d%n", code, errorCount.sum()));
+        }
+        out.printf("throughput : %.1f req/s, dropped(max-in-flight) : %d%n", total / seconds, dropped.sum());
+        out.printf("lock failure rate (use/cancel) : %.3f%%%n",
+                lockTaking == 0 ? 0.0 : lockFailed * 100.0 / lockTaking);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Stats {
+        private final Recorder latency = new Recorder(3);
+        private final LongAdder succeeded = new LongAdder();
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        void reset() {
+            latency.reset();
+            succeeded.reset();
+            errors.clear();
+        }
+
+        long errorCount(String errorCode) {
+            LongAdder count = errors.get(errorCode);
+            return count == null ? 0 : count.sum();
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.quickpay.loadgen;
+
+public enum Operation {
+    CREATE, USE, CANCEL, QUERY
+}
@@ -0,0 +1,116 @@
+package com.example.quickpay.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * quick-pay HTTP API 호출 (application/src/test/*.http 와 같은 요청)
+ * 오류는 HTTP status 와 상관없이 ErrorResponse(errorCode) 본문으로 판단한다.
+ */
+public class QuickPayClient {
+    public static final String LOCK_ERROR_CODE = "ACCOUNT_TRANSACTION_LOCK";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Duration timeout;
+
+    public QuickPayClient(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public Result createAccount(long userId, long initialBalance) {
+        return post("/account", Map.of("userId", userId, "initialBalance", initialBalance));
+    }
+
+    public Result useBalance(long userId, String accountNumber, long amount, boolean conditional) {
+        return post(conditional ? "/transaction/use/conditional" : "/transaction/use",
+                Map.of("userId", userId, "accountNumber", accountNumber, "amount", amount));
+    }
+
+    public Result cancelBalance(String transactionId, String accountNumber, long amount) {
+        return post("/transaction/cancel",
+                Map.of("transactionId", transactionId, "accountNumber", accountNumber, "amount", amount));
+    }
+
+    public Result queryTransaction(String transactionId) {
+        return send(request("/transaction/" + transactionId).GET().build());
+    }
+
+    public List<String> getAccountNumbers(long userId) {
+        Result result = send(request("/account?user_id=" + userId).GET().build());
+        if (!result.success()) {
+            throw new IllegalStateException("Failed to get accounts of user " + userId + " : " + result.errorCode());
+        }
+        List<String> accountNumbers = new ArrayList<>();
+        result.body().forEach(account -> accountNumbers.add(account.path("accountNumber").asText()));
+        return accountNumbers;
+    }
+
+    private Result post(String path, Map<String, Object> body) {
+        try {
+            return send(request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+    }
+
+    private Result send(HttpRequest request) {
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            JsonNode body = response.body().length == 0
+                    ? objectMapper.nullNode()
+                    : objectMapper.readTree(response.body());
+            if (body.hasNonNull("errorCode")) {
+                return new Result(body.get("errorCode").asText(), body);
+            }
+            if (response.statusCode() >= 400) {
+                return new Result("HTTP_" + response.statusCode(), body);
+            }
+            return new Result(null, body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result("INTERRUPTED", null);
+        } catch (IOException e) {
+            // 연결 실패, timeout
+            return new Result(e.getClass().getSimpleName(), null);
+        }
+    }
+
+    /**
+     * errorCode 가 null 이면 성공
+     */
+    public record Result(String errorCode, JsonNode body) {
+        public boolean success() {
+            return errorCode == null;
+        }
+
+        public boolean lockFailed() {
+            return LOCK_ERROR_CODE.equals(errorCode);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.quickpay.loadgen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipfSamplerTest {
+
+    @Test
+    @DisplayName("낮은 순위일수록 자주 뽑힌다")
+    void skewed() {
+        //given
+        ZipfSampler sampler = new ZipfSampler(30, 1.1);
+        Random random = new Random(1);
+        //when
+        int[] counts = new int[30];
+        for (int i = 0; i < 100_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+        //then
+        assertTrue(counts[0] > counts[1] && counts[1] > counts[9] && counts[9] > counts[29]);
+        // 1 / H(30, 1.1) ≈ 0.287
+        assertTrue(counts[0] > 27_000 && counts[0] < 30_500, "rank 0 : " + counts[0]);
+    }
+
+    @Test
+    @DisplayName("exponent 0 이면 고르게 뽑는다")
+    void uniform() {
+        //given
+        ZipfSampler sampler = new ZipfSampler(10, 0);
+        Random random = new Random(1);
+        //when
+        int[] counts = new int[10];
+        for (int i = 0; i < 100_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+        //then
+        for (int count : counts) {
+            assertTrue(count > 9_000 && count < 11_000, "count : " + count);
+        }
+    }
+
+    @Test
+    @DisplayName("요청 비율 - 빠진 요청은 0, 잘못된 비율은 실패")
+    void mix() {
+        //given
+        //when
+        Operation[] table = LoadGenerator.operationTable(LoadOptions.parseMix("use:3,query:1"));
+        //then
+        assertEquals(4, table.length);
+        assertEquals(3, Arrays.stream(table).filter(operation -> operation == Operation.USE).count());
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parseMix("use:0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parseMix("use"));
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parseMix("transfer:1"));
+    }
+}